@@ -40,6 +40,10 @@ public class Options extends OptionsBase {
     public static final int src_prec_J = 3;
     public static final int src_prec_jimple = 3;
     public static final int src_prec_java = 4;
+    public static final int body_retention_strong = 1;
+    public static final int body_retention_soft = 2;
+    public static final int body_retention_lru = 3;
+    public static final int body_retention_release_after_pack = 4;
     public static final int output_format_J = 1;
     public static final int output_format_jimple = 1;
     public static final int output_format_j = 2;
@@ -167,6 +171,23 @@ public class Options extends OptionsBase {
             )
                 debug_resolver = true;
   
+            else if( false
+            || option.equals( "num-threads" )
+            ) {
+                if( !hasMoreOptions() ) {
+                    G.v().out.println( "No value given for option -"+option );
+                    return false;
+                }
+                String value = nextOption();
+    
+                try {
+                    num_threads = Integer.parseInt( value );
+                } catch( NumberFormatException e ) {
+                    G.v().out.println( "Invalid value "+value+" given for option -"+option );
+                    return false;
+                }
+            }
+  
             else if( false
             || option.equals( "cp" )
             || option.equals( "soot-class-path" )
@@ -291,6 +312,106 @@ public class Options extends OptionsBase {
             )
                 no_bodies_for_excluded = true;
   
+            else if( false
+            || option.equals( "body-cache-dir" )
+            ) {
+                if( !hasMoreOptions() ) {
+                    G.v().out.println( "No value given for option -"+option );
+                    return false;
+                }
+                String value = nextOption();
+    
+                if( body_cache_dir.length() == 0 )
+                    body_cache_dir = value;
+                else {
+                    G.v().out.println( "Duplicate values "+body_cache_dir+" and "+value+" for option -"+option );
+                    return false;
+                }
+            }
+  
+            else if( false 
+            || option.equals( "lazy-code" )
+            )
+                lazy_code = true;
+  
+            else if( false
+            || option.equals( "body-retention" )
+            ) {
+                if( !hasMoreOptions() ) {
+                    G.v().out.println( "No value given for option -"+option );
+                    return false;
+                }
+                String value = nextOption();
+    
+                if( false );
+    
+                else if( false
+                || value.equals( "strong" )
+                ) {
+                    if( body_retention != 0
+                    && body_retention != body_retention_strong ) {
+                        G.v().out.println( "Multiple values given for option "+option );
+                        return false;
+                    }
+                    body_retention = body_retention_strong;
+                }
+    
+                else if( false
+                || value.equals( "soft" )
+                ) {
+                    if( body_retention != 0
+                    && body_retention != body_retention_soft ) {
+                        G.v().out.println( "Multiple values given for option "+option );
+                        return false;
+                    }
+                    body_retention = body_retention_soft;
+                }
+    
+                else if( false
+                || value.equals( "lru" )
+                ) {
+                    if( body_retention != 0
+                    && body_retention != body_retention_lru ) {
+                        G.v().out.println( "Multiple values given for option "+option );
+                        return false;
+                    }
+                    body_retention = body_retention_lru;
+                }
+    
+                else if( false
+                || value.equals( "release-after-pack" )
+                ) {
+                    if( body_retention != 0
+                    && body_retention != body_retention_release_after_pack ) {
+                        G.v().out.println( "Multiple values given for option "+option );
+                        return false;
+                    }
+                    body_retention = body_retention_release_after_pack;
+                }
+    
+                else {
+                    G.v().out.println( "Invalid value "+value+" given for option -"+option );
+                    return false;
+                }
+           }
+  
+            else if( false
+            || option.equals( "body-retention-units" )
+            ) {
+                if( !hasMoreOptions() ) {
+                    G.v().out.println( "No value given for option -"+option );
+                    return false;
+                }
+                String value = nextOption();
+    
+                try {
+                    body_retention_units = Integer.parseInt( value );
+                } catch( NumberFormatException e ) {
+                    G.v().out.println( "Invalid value "+value+" given for option -"+option );
+                    return false;
+                }
+            }
+  
             else if( false 
             || option.equals( "j2me" )
             )
@@ -961,6 +1082,9 @@ public class Options extends OptionsBase {
     private boolean debug_resolver = false;
     public void set_debug_resolver( boolean setting ) { debug_resolver = setting; }
   
+    public int num_threads() { return num_threads; }
+    public void set_num_threads( int setting ) { num_threads = setting; }
+    private int num_threads = 1;
     public String soot_classpath() { return soot_classpath; }
     public void set_soot_classpath( String setting ) { soot_classpath = setting; }
     private String soot_classpath = "";
@@ -998,6 +1122,22 @@ public class Options extends OptionsBase {
     private boolean no_bodies_for_excluded = false;
     public void set_no_bodies_for_excluded( boolean setting ) { no_bodies_for_excluded = setting; }
   
+    public String body_cache_dir() { return body_cache_dir; }
+    public void set_body_cache_dir( String setting ) { body_cache_dir = setting; }
+    private String body_cache_dir = "";
+    public boolean lazy_code() { return lazy_code; }
+    private boolean lazy_code = false;
+    public void set_lazy_code( boolean setting ) { lazy_code = setting; }
+  
+    public int body_retention() {
+        if( body_retention == 0 ) return body_retention_strong;
+        return body_retention; 
+    }
+    public void set_body_retention( int setting ) { body_retention = setting; }
+    private int body_retention = 0;
+    public int body_retention_units() { return body_retention_units; }
+    public void set_body_retention_units( int setting ) { body_retention_units = setting; }
+    private int body_retention_units = 1000000;
     public boolean j2me() { return j2me; }
     private boolean j2me = false;
     public void set_j2me( boolean setting ) { j2me = setting; }
@@ -1159,6 +1299,7 @@ public class Options extends OptionsBase {
 +padOpt(" -validate", "Run internal validation on bodies" )
 +padOpt(" -debug", "Print various Soot debugging info" )
 +padOpt(" -debug-resolver", "Print debugging info from SootResolver" )
++padOpt(" -num-threads NUM", "Run body packs and build call graphs on NUM threads (0 = one per core)" )
 +"\nInput Options:\n"
       
 +padOpt(" -cp PATH -soot-class-path PATH -soot-classpath PATH", "Use PATH as the classpath for finding classes." )
@@ -1173,6 +1314,14 @@ public class Options extends OptionsBase {
 +padOpt(" -full-resolver", "Force transitive resolving of referenced classes" )
 +padOpt(" -allow-phantom-refs", "Allow unresolved classes; may cause errors" )
 +padOpt(" -no-bodies-for-excluded", "Do not load bodies for excluded classes" )
++padOpt(" -body-cache-dir DIR", "Cache Jimple bodies produced by jb in DIR" )
++padOpt(" -lazy-code", "Parse method code only when bodies are retrieved" )
++padOpt(" -body-retention POLICY", "Keep bodies retrieved from class files according to POLICY" )
++padVal(" strong (default)", "Keep bodies until released explicitly" )
++padVal(" soft", "Keep bodies softly reachable" )
++padVal(" lru", "Keep the most recently used bodies up to a total unit count" )
++padVal(" release-after-pack", "Release bodies once the body packs have run on them" )
++padOpt(" -body-retention-units NUM", "Keep at most NUM units with -body-retention lru" )
 +padOpt(" -j2me", "Use J2ME mode; changes assignment of types" )
 +padOpt(" -main-class CLASS", "Sets the main class for whole-program analysis." )
 +padOpt(" -polyglot", "Use Java 1.4 Polyglot frontend instead of JastAdd" )
@@ -1275,6 +1424,7 @@ public class Options extends OptionsBase {
         +padOpt("wspp", "Whole Shimple Pre-processing Pack")
         +padOpt("cg", "Call graph constructor")
         +padVal("cg.cha", "Builds call graph using Class Hierarchy Analysis")
+        +padVal("cg.rta", "Builds call graph using Rapid Type Analysis")
         +padVal("cg.spark", "Spark points-to analysis framework")
         +padVal("cg.paddle", "Paddle points-to analysis framework")
         +padOpt("wstp", "Whole-shimple transformation pack")
@@ -1571,6 +1721,13 @@ public class Options extends OptionsBase {
                 +padOpt( "enabled (true)", "" )
                 +padOpt( "verbose (false)", "Print statistics about the resulting call graph" );
     
+        if( phaseName.equals( "cg.rta" ) )
+            return "Phase "+phaseName+":\n"+
+                "\nThis phase uses Rapid Type Analysis to generate a call graph. \nVirtual calls are only resolved to the methods of classes which \nare instantiated in methods found reachable so far, which \nusually yields far fewer reachable methods than Class Hierarchy \nAnalysis."
+                +"\n\nRecognized options (with default values):\n"
+                +padOpt( "enabled (false)", "" )
+                +padOpt( "verbose (false)", "Print statistics about the resulting call graph" );
+    
         if( phaseName.equals( "cg.spark" ) )
             return "Phase "+phaseName+":\n"+
                 "\nSpark is a flexible points-to analysis framework. Aside from \nbuilding a call graph, it also generates information about the \ntargets of pointers. For details about Spark, please see Ondrej \nLhotak's M.Sc. thesis."
@@ -2513,6 +2670,11 @@ public class Options extends OptionsBase {
                 +"enabled "
                 +"verbose ";
     
+        if( phaseName.equals( "cg.rta" ) )
+            return ""
+                +"enabled "
+                +"verbose ";
+    
         if( phaseName.equals( "cg.spark" ) )
             return ""
                 +"enabled "
@@ -3116,6 +3278,11 @@ public class Options extends OptionsBase {
               +"enabled:true "
               +"verbose:false ";
     
+        if( phaseName.equals( "cg.rta" ) )
+            return ""
+              +"enabled:false "
+              +"verbose:false ";
+    
         if( phaseName.equals( "cg.spark" ) )
             return ""
               +"enabled:false "
@@ -3597,6 +3764,7 @@ public class Options extends OptionsBase {
         if( phaseName.equals( "wspp" ) ) return;
         if( phaseName.equals( "cg" ) ) return;
         if( phaseName.equals( "cg.cha" ) ) return;
+        if( phaseName.equals( "cg.rta" ) ) return;
         if( phaseName.equals( "cg.spark" ) ) return;
         if( phaseName.equals( "cg.paddle" ) ) return;
         if( phaseName.equals( "wstp" ) ) return;
@@ -3739,6 +3907,8 @@ public class Options extends OptionsBase {
             G.v().out.println( "Warning: Options exist for non-existent phase cg" );
         if( !PackManager.v().hasPhase( "cg.cha" ) )
             G.v().out.println( "Warning: Options exist for non-existent phase cg.cha" );
+        if( !PackManager.v().hasPhase( "cg.rta" ) )
+            G.v().out.println( "Warning: Options exist for non-existent phase cg.rta" );
         if( !PackManager.v().hasPhase( "cg.spark" ) )
             G.v().out.println( "Warning: Options exist for non-existent phase cg.spark" );
         if( !PackManager.v().hasPhase( "cg.paddle" ) )
@@ -19,6 +19,7 @@
 
 package soot;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import soot.jimple.toolkits.typing.TypeAssigner;
 
@@ -47,6 +48,8 @@ class AbstractSootFieldRef implements SootFieldRef {
     private final String name;
     private final Type type;
     private final boolean isStatic;
+    private volatile String signature;
+    private volatile String signatureClassName;
 
     public SootClass declaringClass() { return declaringClass; }
     public String name() { return name; }
@@ -54,7 +57,16 @@ class AbstractSootFieldRef implements SootFieldRef {
     public boolean isStatic() { return isStatic; }
 
     public String getSignature() {
-        return SootField.getSignature(declaringClass, name, type);
+        String className = declaringClass.getName();
+        // read in the opposite order of the writes below
+        String sigClassName = signatureClassName;
+        String ret = signature;
+        if( ret == null || sigClassName != className ) {
+            ret = SootField.getSignature( declaringClass, name, type );
+            signature = ret;
+            signatureClassName = className;
+        }
+        return ret;
     }
 
     public class FieldResolutionFailedException extends ResolutionFailedException {
@@ -66,13 +78,24 @@ class AbstractSootFieldRef implements SootFieldRef {
         public String toString() {
             StringBuffer ret = new StringBuffer();
             ret.append(super.toString());
-            resolve(ret);
+            resolve(ret, null);
             return ret.toString();
         }
     }
 
     public SootField resolve() {
-        return resolve(null);
+        ConcurrentHashMap<RefResolutionCache.FieldKey, SootField> results =
+            Scene.v().getRefResolutionCache().fieldResults(name);
+        SootField ret = results.get(new RefResolutionCache.FieldKey(declaringClass, type));
+        if( ret != null ) return checkStatic(ret);
+        return resolve(null, results);
+    }
+    private SootField resolved(SootField ret, boolean cacheable,
+            Map<RefResolutionCache.FieldKey, SootField> results) {
+        if( cacheable ) {
+            results.put(new RefResolutionCache.FieldKey(declaringClass, type), ret);
+        }
+        return checkStatic(ret);
     }
     private SootField checkStatic(SootField ret) {
         if( ret.isStatic() != isStatic() && !ret.isPhantom()) {
@@ -82,21 +105,30 @@ class AbstractSootFieldRef implements SootFieldRef {
         }
         return ret;
     }
-    private SootField resolve(StringBuffer trace) {
+    private SootField resolve(StringBuffer trace, Map<RefResolutionCache.FieldKey, SootField> results) {
+        // only remember results which can't change without the cache being notified
+        boolean cacheable = results != null;
         SootClass cl = declaringClass;
         while(true) {
             if(trace != null) trace.append(
                     "Looking in "+cl+" which has fields "+cl.getFields()+"\n" );
+            cacheable &= cl.resolvedLevel() >= SootClass.SIGNATURES;
             if( cl.declaresField(name, type) ) {
-                return checkStatic(cl.getField(name, type));
+                return resolved(cl.getField(name, type), cacheable, results);
             }
 
             if(Scene.v().allowsPhantomRefs() && cl.isPhantom())
             {
-                SootField f = new SootField(name, type, isStatic()?Modifier.STATIC:0);
-                f.setPhantom(true);
-                cl.addField(f);
-                return f;
+                // another thread may be adding the same field
+                synchronized (Scene.v()) {
+                    if( cl.declaresField(name, type) ) {
+                        return cl.getField(name, type);
+                    }
+                    SootField f = new SootField(name, type, isStatic()?Modifier.STATIC:0);
+                    f.setPhantom(true);
+                    cl.addField(f);
+                    return f;
+                }
             } else {
                 LinkedList<SootClass> queue = new LinkedList<SootClass>();
                 queue.addAll( cl.getInterfaces() );
@@ -104,8 +136,9 @@ class AbstractSootFieldRef implements SootFieldRef {
                     SootClass iface = queue.removeFirst();
                     if(trace != null) trace.append(
                             "Looking in "+iface+" which has fields "+iface.getFields()+"\n" );
+                    cacheable &= iface.resolvedLevel() >= SootClass.SIGNATURES;
                     if( iface.declaresField(name, type) ) {
-                        return checkStatic(iface.getField( name, type ));
+                        return resolved(iface.getField( name, type ), cacheable, results);
                     }
                     queue.addAll( iface.getInterfaces() );
                 }
@@ -40,10 +40,16 @@ public class AnySubType extends RefLikeType
     }
 
     public static AnySubType v( RefType base ) {
-        if( base.getAnySubType() == null ) {
-            base.setAnySubType( new AnySubType( base ) );
+        AnySubType ret = base.getAnySubType();
+        if( ret != null ) return ret;
+        synchronized( Scene.v().typeLock ) {
+            ret = base.getAnySubType();
+            if( ret == null ) {
+                ret = new AnySubType( base );
+                base.setAnySubType( ret );
+            }
         }
-        return base.getAnySubType();
+        return ret;
     }
     
     public String toString()
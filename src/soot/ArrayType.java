@@ -79,9 +79,13 @@ public class ArrayType extends RefLikeType
             elementType = ArrayType.v( baseType, numDimensions-1 );
         }
         ret = elementType.getArrayType();
-        if( ret == null ) {
-            ret = new ArrayType(baseType, numDimensions);
-            elementType.setArrayType( ret );
+        if( ret != null ) return ret;
+        synchronized( Scene.v().typeLock ) {
+            ret = elementType.getArrayType();
+            if( ret == null ) {
+                ret = new ArrayType(baseType, numDimensions);
+                elementType.setArrayType( ret );
+            }
         }
         return ret;
     }
@@ -53,6 +53,7 @@ import soot.tagkit.Tag;
 import soot.toolkits.exceptions.PedanticThrowAnalysis;
 import soot.toolkits.graph.ExceptionalUnitGraph;
 import soot.toolkits.graph.UnitGraph;
+import soot.toolkits.scalar.BodyAnalysisManager;
 import soot.toolkits.scalar.FlowSet;
 import soot.toolkits.scalar.InitAnalysis;
 import soot.toolkits.scalar.LocalDefs;
@@ -91,6 +92,9 @@ public abstract class Body extends AbstractHost implements Serializable
     /** The chain of units for this Body. */
     protected PatchingChain<Unit> unitChain = new PatchingChain<Unit>(new HashChain<Unit>());
 
+    /** The analysis manager installed on this Body, if any. */
+    private transient BodyAnalysisManager analysisManager;
+
     /** Creates a deep copy of this Body. */
     abstract public Object clone();
 
@@ -263,13 +267,9 @@ public abstract class Body extends AbstractHost implements Serializable
     /** Verifies that each Local of getUseAndDefBoxes() is in this body's locals Chain. */
     public void validateLocals()
     {
-        Iterator<ValueBox> it = getUseBoxes().iterator();
-        while(it.hasNext()){
-            validateLocal( it.next() );
-        }
-        it = getDefBoxes().iterator();
-        while(it.hasNext()){
-            validateLocal( it.next() );
+        for (Unit u : unitChain) {
+            u.forEachUseBox(this::validateLocal);
+            u.forEachDefBox(this::validateLocal);
         }
     }
     private void validateLocal( ValueBox vb ) {
@@ -369,6 +369,21 @@ public abstract class Body extends AbstractHost implements Serializable
         return localVariables;
     }
 
+    /** Returns the {@link BodyAnalysisManager} installed on this Body or a
+     * new one if none has been installed. */
+    public BodyAnalysisManager getAnalysisManager() {
+        if (analysisManager != null) {
+            return analysisManager;
+        }
+        return new BodyAnalysisManager(this);
+    }
+
+    /** Installs a {@link BodyAnalysisManager} which caches its results
+     * across transformers, or removes it if <code>null</code>. */
+    public void setAnalysisManager(BodyAnalysisManager analysisManager) {
+        this.analysisManager = analysisManager;
+    }
+
     /** Return LHS of the first identity stmt assigning from \@this. **/
     public Local getThisLocal()
     {
@@ -541,7 +556,7 @@ public abstract class Body extends AbstractHost implements Serializable
         Iterator<Unit> it = unitChain.iterator();
         while(it.hasNext()) {
             Unit item = it.next();
-            useBoxList.addAll(item.getUseBoxes());
+            item.forEachUseBox(useBoxList::add);
         }
         return useBoxList;
     }
@@ -566,7 +581,7 @@ public abstract class Body extends AbstractHost implements Serializable
         Iterator<Unit> it = unitChain.iterator();
         while(it.hasNext()) {
             Unit item = it.next();
-            defBoxList.addAll(item.getDefBoxes());
+            item.forEachDefBox(defBoxList::add);
         }
         return defBoxList;
     }
@@ -589,8 +604,8 @@ public abstract class Body extends AbstractHost implements Serializable
         Iterator<Unit> it = unitChain.iterator();
         while(it.hasNext()) {
             Unit item = it.next();
-            useAndDefBoxList.addAll(item.getUseBoxes());
-            useAndDefBoxList.addAll(item.getDefBoxes());
+            item.forEachUseBox(useAndDefBoxList::add);
+            item.forEachDefBox(useAndDefBoxList::add);
         }
         return useAndDefBoxList;
     }
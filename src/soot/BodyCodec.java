@@ -0,0 +1,39 @@
+/*
+ * Copyright (C) 2014 RoboVM AB
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/gpl-2.0.html>.
+ */
+package soot;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Writes {@link Body}s to and reads them back from a binary stream. Classes,
+ * methods and fields referenced by a body are written symbolically and
+ * resolved against the {@link Scene} when the body is read.
+ */
+public interface BodyCodec {
+    /**
+     * Writes the specified {@link Body}.
+     */
+    void write(Body body, DataOutput out) throws IOException;
+
+    /**
+     * Reads a {@link Body} for the specified method which has previously
+     * been written using {@link #write(Body, DataOutput)}.
+     */
+    Body read(SootMethod method, DataInput in) throws IOException;
+}
@@ -0,0 +1,260 @@
+/*
+ * Copyright (C) 2014 RoboVM AB
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/gpl-2.0.html>.
+ */
+package soot;
+
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import soot.coffi.CoffiMethodSource;
+import soot.jimple.JimpleBody;
+import soot.options.Options;
+
+/**
+ * Decides how long the active {@link Body}s retrieved by
+ * {@link SootMethod#retrieveActiveBody()} are kept in memory, as specified
+ * by the <code>-body-retention</code> option:
+ * <ul>
+ * <li><code>strong</code>: bodies are kept until
+ * {@link SootMethod#releaseActiveBody()} is called. This is the default.</li>
+ * <li><code>soft</code>: bodies are only softly reachable from their method
+ * and are collected when the VM runs low on memory.</li>
+ * <li><code>lru</code>: the most recently used bodies are kept as long as
+ * their total number of units doesn't exceed the
+ * <code>-body-retention-units</code> option.</li>
+ * <li><code>release-after-pack</code>: bodies are kept until the
+ * <code>jtp</code>, <code>jop</code> and <code>jap</code> packs have been
+ * run on them by the {@link PackManager}.</li>
+ * </ul>
+ * A body which isn't kept is only weakly reachable from its method, so a
+ * body still in use is never replaced. Once it has been collected the
+ * method still reports an active body and {@link SootMethod#getActiveBody()}
+ * re-creates it from the method's source, or from the
+ * {@link soot.coffi.BodyCache} if enabled. If the body packs had been run
+ * on the collected body they are run on the re-created body as well.
+ * Changes made to a body by anything else are lost when it is collected.
+ * <p>
+ * A re-created body has new units. Code which keeps units, e.g. in the
+ * results of a flow analysis, must keep their body reachable as well.
+ * Flow analyses do so through their {@link soot.toolkits.graph.UnitGraph}.
+ * Call graph edges, points-to sets and other interprocedural results keep
+ * units without their bodies. Therefore all bodies are kept strongly in
+ * whole-program mode, and from the moment a call graph or points-to
+ * analysis is set on the {@link Scene} on. Bodies which have already been
+ * collected by then are re-created once and kept from then on.
+ * <p>
+ * Only bodies read from class files can be re-created. All other bodies,
+ * including those set using {@link SootMethod#setActiveBody(Body)}, are
+ * always kept.
+ */
+public class BodyRetention {
+    public BodyRetention(Singletons.Global g) {}
+    public static BodyRetention v() { return G.v().soot_BodyRetention(); }
+
+    /**
+     * Bodies kept by the <code>lru</code> policy in access order, mapped to
+     * the number of units they had when last accessed.
+     */
+    private final LinkedHashMap<Body, Integer> recentlyUsed = new LinkedHashMap<Body, Integer>(16, 0.75f, true);
+    private long recentlyUsedUnits;
+
+    /**
+     * The methods whose bodies may currently be released.
+     */
+    private final Set<SootMethod> releasable = new HashSet<SootMethod>();
+
+    /**
+     * Set once all bodies have to be kept.
+     */
+    private volatile boolean pinned;
+
+    /**
+     * Returns the policy in effect, which is <code>strong</code> once
+     * bodies have been pinned.
+     */
+    private int policy() {
+        int policy = Options.v().body_retention();
+        if (policy == Options.body_retention_strong || pinned) {
+            return Options.body_retention_strong;
+        }
+        if (Options.v().whole_program() || Scene.v().hasCallGraph()
+                || Scene.v().hasPointsToAnalysis()) {
+            pin();
+            return Options.body_retention_strong;
+        }
+        return policy;
+    }
+
+    /**
+     * Keeps all bodies retained so far and all bodies retrieved from now on.
+     * Called when interprocedural results which refer to the units of bodies
+     * are set on the {@link Scene}.
+     */
+    public synchronized void pin() {
+        if (pinned) {
+            return;
+        }
+        pinned = true;
+        if (Options.v().body_retention() == Options.body_retention_strong) {
+            return;
+        }
+        G.v().out.println("Warning: keeping all bodies as interprocedural "
+                + "results refer to their units; -body-retention is ignored from now on");
+        for (SootMethod m : releasable) {
+            Body body = m.retainedBody.get();
+            if (body != null) {
+                m.activeBody = body;
+            }
+        }
+        releasable.clear();
+        recentlyUsed.clear();
+        recentlyUsedUnits = 0;
+    }
+
+    /**
+     * Returns <code>true</code> if bodies retrieved from the specified
+     * source may be released and re-created later.
+     */
+    boolean canRelease(MethodSource ms) {
+        return ms instanceof CoffiMethodSource
+                && policy() != Options.body_retention_strong;
+    }
+
+    /**
+     * Installs a body retrieved from the method's source on the method
+     * according to the configured policy.
+     */
+    void retain(SootMethod m, Body body) {
+        int policy = policy();
+        switch (policy) {
+        case Options.body_retention_soft:
+            m.activeBody = null;
+            m.retainedBody = new SoftReference<Body>(body);
+            break;
+        case Options.body_retention_lru:
+            m.activeBody = null;
+            m.retainedBody = new WeakReference<Body>(body);
+            use(body);
+            break;
+        default:
+            m.activeBody = body;
+            m.retainedBody = new WeakReference<Body>(body);
+            break;
+        }
+        if (policy != Options.body_retention_strong) {
+            synchronized (this) {
+                if (!pinned) {
+                    releasable.add(m);
+                } else {
+                    // Pinned in the meantime.
+                    m.activeBody = body;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the body retained by the specified method, re-creating it if
+     * it has been collected.
+     */
+    Body get(SootMethod m) {
+        Body body = m.retainedBody.get();
+        if (body == null) {
+            if (Options.v().verbose()) {
+                G.v().out.println("[" + m.getSignature() + "] Re-creating released body...");
+            }
+            body = m.getSource().getBody(m, "jb");
+            retain(m, body);
+            if (m.bodyPacked) {
+                PackManager.v().applyBodyPacks((JimpleBody) body);
+                packed(m, body);
+            }
+        } else if (policy() == Options.body_retention_lru) {
+            use(body);
+        }
+        return body;
+    }
+
+    /**
+     * Called once the body packs have been run on the specified method's
+     * retained body.
+     */
+    void packed(SootMethod m, Body body) {
+        m.bodyPacked = true;
+        int policy = policy();
+        if (policy == Options.body_retention_release_after_pack) {
+            synchronized (this) {
+                if (!pinned) {
+                    m.activeBody = null;
+                }
+            }
+        } else if (policy == Options.body_retention_lru) {
+            // The packs may have changed the number of units.
+            use(body);
+        }
+    }
+
+    /**
+     * Called when the specified method no longer retains a body.
+     * <code>body</code> is the retained body if it hasn't been collected.
+     */
+    synchronized void released(SootMethod m, Body body) {
+        releasable.remove(m);
+        if (body == null) {
+            return;
+        }
+        Integer units = recentlyUsed.remove(body);
+        if (units != null) {
+            recentlyUsedUnits -= units;
+        }
+    }
+
+    /**
+     * Marks the specified body as most recently used and evicts the least
+     * recently used bodies if the unit limit has been exceeded. The body
+     * itself is never evicted.
+     */
+    private synchronized void use(Body body) {
+        if (pinned) {
+            return;
+        }
+        int units = body.getUnits().size();
+        Integer old = recentlyUsed.put(body, units);
+        recentlyUsedUnits += units - (old != null ? old : 0);
+        long limit = Options.v().body_retention_units();
+        for (Iterator<Map.Entry<Body, Integer>> it = recentlyUsed.entrySet().iterator();
+                recentlyUsedUnits > limit && it.hasNext();) {
+            Map.Entry<Body, Integer> e = it.next();
+            if (e.getKey() != body) {
+                recentlyUsedUnits -= e.getValue();
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Returns the total number of units of the bodies currently kept by the
+     * <code>lru</code> policy.
+     */
+    public synchronized long getRecentlyUsedUnits() {
+        return recentlyUsedUnits;
+    }
+}
@@ -22,6 +22,7 @@ import soot.javaToJimple.IInitialResolver;
 import soot.javaToJimple.IInitialResolver.Dependencies;
 import soot.options.*;
 import java.io.*;
+import java.nio.ByteBuffer;
 import java.util.*;
 
 /** A class source for resolving from .class files through coffi.
@@ -32,20 +33,47 @@ public class CoffiClassSource extends ClassSource
         super( className );
         this.classFile = classFile;
     }
+    public CoffiClassSource( String className, ByteBuffer classFileBuffer ) {
+        super( className );
+        this.classFileBuffer = classFileBuffer;
+    }
     public Dependencies resolve( SootClass sc ) {
         if(Options.v().verbose())
             G.v().out.println("resolving [from .class]: " + className );
         List references = new ArrayList();
-        soot.coffi.Util.v().resolveFromClassFile(sc, classFile, references);
+        if( classFileBuffer != null ) {
+            soot.coffi.Util.v().resolveFromClassFile(sc, classFileBuffer, references);
+            classFileBuffer = null;
+        } else {
+            soot.coffi.Util.v().resolveFromClassFile(sc, classFile, references);
 
-        try {
-            classFile.close();
-        } catch (IOException e) { throw new RuntimeException("!?"); }
+            try {
+                classFile.close();
+            } catch (IOException e) { throw new RuntimeException("!?"); }
+        }
         
         IInitialResolver.Dependencies deps = new IInitialResolver.Dependencies();
         deps.typesToSignature.addAll(references);
         return deps;
     }
+
+    /**
+     * Reads the class file without resolving a {@link SootClass} from it.
+     * Used to re-read the code of methods whose bodies have been released.
+     * Returns <code>null</code> if the class file couldn't be read.
+     */
+    public soot.coffi.ClassFile loadClassFile() {
+        soot.coffi.ClassFile cf = new soot.coffi.ClassFile( className );
+        boolean success;
+        if( classFileBuffer != null ) {
+            success = cf.loadClassFile( classFileBuffer );
+            classFileBuffer = null;
+        } else {
+            success = cf.loadClassFile( classFile );
+        }
+        return success ? cf : null;
+    }
     protected InputStream classFile;
+    protected ByteBuffer classFileBuffer;
 }
 
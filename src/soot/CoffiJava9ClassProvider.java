@@ -21,41 +21,173 @@
  */
 package soot;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
 import java.io.IOException;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystem;
 import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
- * Objectweb ASM class provider.
+ * Class provider for the classes in Java 9's virtual filesystem jrt:/.
+ * <p>
+ * On first use the <code>/packages</code> directory of the jrt filesystem is
+ * read into an index mapping each package to the modules containing it. A
+ * lookup then only probes the modules of the class' package. The index can
+ * optionally be persisted to a file which is reused as long as it was
+ * written for the same Java runtime.
  *
  * @author Andreas Dann
  */
 public class CoffiJava9ClassProvider implements ClassProvider {
 
+    private final File indexCache;
+    /** Written before, and published by, <code>packageToModules</code>. */
+    private FileSystem jrt;
+    private volatile Map<String, List<String>> packageToModules;
+
+    public CoffiJava9ClassProvider() {
+        this(null);
+    }
+
+    /**
+     * Creates a new provider which reads the package index from and writes
+     * it to the specified file. <code>null</code> means that the index
+     * isn't persisted.
+     */
+    public CoffiJava9ClassProvider(File indexCache) {
+        this.indexCache = indexCache;
+    }
+
     public ClassSource find(String cls) {
+        if (!initialize()) {
+            return null;
+        }
+        int lastDot = cls.lastIndexOf('.');
+        String pkg = lastDot == -1 ? "" : cls.substring(0, lastDot);
+        List<String> modules = packageToModules.get(pkg);
+        if (modules == null) {
+            return null;
+        }
         String clsFile = cls.replace('.', '/') + ".class";
-        SourceLocator.FoundFile file = null;
-        // here we go through all modules, since we are in classpath mode
-
-        Path p = Paths.get(URI.create("jrt:/modules"));
-        try (DirectoryStream<Path> stream = Files.newDirectoryStream(p)) {
-            for (Path entry : stream) {
-                // check each module folder for the class
-                file = SourceLocator.v().lookUpInVirtualFileSystem(entry.toUri().toString(), clsFile);
-                if (file != null) {
-                    break;
+        for (String module : modules) {
+            Path p = jrt.getPath("/modules", module, clsFile);
+            if (Files.isRegularFile(p)) {
+                return new CoffiClassSource(cls, new SourceLocator.FoundFile(p).byteBuffer());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Sets up the jrt filesystem and the package index the first time it is
+     * called. Returns <code>false</code> if there is no jrt filesystem.
+     * Class sources may be looked up from several threads, e.g. when bodies
+     * are reloaded, so this is done under the lock of this provider.
+     */
+    private boolean initialize() {
+        if (packageToModules == null) {
+            synchronized (this) {
+                if (packageToModules == null) {
+                    packageToModules = loadIndex();
                 }
             }
+        }
+        return jrt != null;
+    }
+
+    private Map<String, List<String>> loadIndex() {
+        try {
+            jrt = FileSystems.getFileSystem(URI.create("jrt:/"));
         } catch (FileSystemNotFoundException ex) {
-            System.out.println("Could not read my modules (perhaps not Java 9?).");
+            G.v().out.println("Could not read my modules (perhaps not Java 9?).");
+            return Collections.emptyMap();
+        }
+        Map<String, List<String>> index = null;
+        if (indexCache != null && indexCache.isFile()) {
+            index = readIndex(indexCache);
+        }
+        if (index == null) {
+            index = buildIndex();
+            if (indexCache != null) {
+                writeIndex(indexCache, index);
+            }
+        }
+        return index;
+    }
+
+    private Map<String, List<String>> buildIndex() {
+        Map<String, List<String>> index = new HashMap<String, List<String>>();
+        try (DirectoryStream<Path> packages = Files.newDirectoryStream(jrt.getPath("/packages"))) {
+            for (Path pkg : packages) {
+                List<String> modules = new ArrayList<String>(1);
+                try (DirectoryStream<Path> links = Files.newDirectoryStream(pkg)) {
+                    for (Path link : links) {
+                        modules.add(link.getFileName().toString());
+                    }
+                }
+                index.put(pkg.getFileName().toString(), modules);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Caught IOException " + e + " indexing jrt:/packages", e);
+        }
+        return index;
+    }
+
+    private static String runtimeVersion() {
+        return System.getProperty("java.home") + " " + System.getProperty("java.runtime.version");
+    }
+
+    /**
+     * Reads a persisted index. Returns <code>null</code> if it can't be read
+     * or was written for a different runtime.
+     */
+    private static Map<String, List<String>> readIndex(File f) {
+        try (BufferedReader r = Files.newBufferedReader(f.toPath(), StandardCharsets.UTF_8)) {
+            if (!runtimeVersion().equals(r.readLine())) {
+                return null;
+            }
+            Map<String, List<String>> index = new HashMap<String, List<String>>();
+            String line;
+            while ((line = r.readLine()) != null) {
+                String[] parts = line.split(" ");
+                List<String> modules = new ArrayList<String>(parts.length - 1);
+                for (int i = 1; i < parts.length; i++) {
+                    modules.add(parts[i]);
+                }
+                index.put(parts[0], modules);
+            }
+            return index;
         } catch (IOException e) {
-            e.printStackTrace();
+            return null;
         }
-        return file == null ? null : new CoffiClassSource(cls, file.inputStream());
+    }
 
+    private static void writeIndex(File f, Map<String, List<String>> index) {
+        try (BufferedWriter w = Files.newBufferedWriter(f.toPath(), StandardCharsets.UTF_8)) {
+            w.write(runtimeVersion());
+            w.newLine();
+            for (Map.Entry<String, List<String>> e : index.entrySet()) {
+                w.write(e.getKey());
+                for (String module : e.getValue()) {
+                    w.write(' ');
+                    w.write(module);
+                }
+                w.newLine();
+            }
+        } catch (IOException e) {
+            G.v().out.println("Warning: Failed to write jrt index to " + f + ": " + e);
+        }
     }
 }
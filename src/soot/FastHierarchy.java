@@ -22,9 +22,16 @@ package soot;
 import soot.jimple.*;
 import soot.util.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
-/** Represents the class hierarchy.  It is closely linked to a Scene,
- * and must be recreated if the Scene changes. 
+/** Represents the class hierarchy.  It is closely linked to a Scene.
+ * Classes added to the Scene are added to the hierarchy once they have
+ * been resolved to the hierarchy level. The hierarchy must be recreated
+ * if classes are removed or the supertypes of a class change.
+ *
+ * Subtype queries are answered in constant time. Each class knows its
+ * superclasses by depth in the inheritance tree, and each class and
+ * interface has a bit set of all interfaces it can be stored in.
  *
  * This version supercedes the old soot.Hierarchy class.
  *
@@ -32,80 +39,111 @@ import java.util.*;
  */
 public class FastHierarchy
 {
+    /** Adds value to the list of key, replacing rather than modifying the
+     * list, as the lists are read without holding the lock. */
     private static void put( Map<Object, List> m, Object key, Object value ) {
-        List<Object> l = m.get( key );
-        if( l == null ) m.put( key, l = new ArrayList<Object>() );
-        l.add( value );
+        List l = m.get( key );
+        List<Object> n = new ArrayList<Object>( l == null ? 1 : l.size() + 1 );
+        if( l != null ) n.addAll( l );
+        n.add( value );
+        m.put( key, Collections.unmodifiableList( n ) );
     }
     
     /** This map holds all key,value pairs such that 
      * value.getSuperclass() == key. This is one of the three maps that hold
      * the inverse of the relationships given by the getSuperclass and
-     * getInterfaces methods of SootClass. */
-    protected Map<Object, List> classToSubclasses = new HashMap<Object, List>();
+     * getInterfaces methods of SootClass. It may be read without holding
+     * this hierarchy's lock; its lists are never modified once published. */
+    protected Map<Object, List> classToSubclasses = new ConcurrentHashMap<Object, List>();
 
     /** This map holds all key,value pairs such that value is an interface 
      * and key is in value.getInterfaces(). This is one of the three maps 
      * that hold the inverse of the relationships given by the getSuperclass 
-     * and getInterfaces methods of SootClass. */
+     * and getInterfaces methods of SootClass. Only accessed while holding
+     * this hierarchy's lock. */
     protected MultiMap interfaceToSubinterfaces = new HashMultiMap();
 
     /** This map holds all key,value pairs such that value is a class 
      * (NOT an interface) and key is in value.getInterfaces(). This is one of 
      * the three maps that hold the inverse of the relationships given by the 
-     * getSuperclass and getInterfaces methods of SootClass. */
+     * getSuperclass and getInterfaces methods of SootClass. Only accessed
+     * while holding this hierarchy's lock. */
     protected MultiMap interfaceToImplementers = new HashMultiMap();
 
     /** This map is a transitive closure of interfaceToSubinterfaces,
-     * and each set contains its superinterface itself. */
-    protected MultiMap interfaceToAllSubinterfaces = new HashMultiMap();
+     * and each set contains its superinterface itself. Computed on demand
+     * and kept up to date as classes are added. The sets are never
+     * modified once published. */
+    protected Map<SootClass, Set<SootClass>> interfaceToAllSubinterfaces = new HashMap<SootClass, Set<SootClass>>();
 
     /** This map gives, for an interface, all concrete classes that
      * implement that interface and all its subinterfaces, but
-     * NOT their subclasses. */
-    protected MultiMap interfaceToAllImplementers = new HashMultiMap();
+     * NOT their subclasses. Computed on demand and kept up to date as
+     * classes are added. The sets are never modified once published. */
+    protected Map<SootClass, Set<SootClass>> interfaceToAllImplementers = new HashMap<SootClass, Set<SootClass>>();
+
+    /** Subtyping information of each class and interface, indexed by
+     * class number. Entries which are not complete are only valid for the
+     * {@link #generation} they were computed in. */
+    private volatile TypeInfo[] numberToTypeInfo = new TypeInfo[0];
+
+    /** Incremented whenever a class is added, which may complete the
+     * subtyping information of its subtypes. */
+    private volatile int generation;
+
+    /** The index in the {@link TypeInfo#interfaces} bit sets of each
+     * interface plus one, indexed by class number. */
+    private int[] numberToInterfaceIndex = new int[0];
+
+    /** The interfaces, indexed by their index in the bit sets. */
+    private final List<SootClass> indexToInterface = new ArrayList<SootClass>();
 
-    /** For each class (NOT interface), this map contains a Interval, which is
-     * a pair of numbers giving a preorder and postorder ordering of classes
-     * in the inheritance tree. */
-    protected Map<SootClass, Interval> classToInterval = new HashMap<SootClass, Interval>();
+    /** The numbers of the classes added to the inverse maps. */
+    private final BitSet registered = new BitSet();
 
-    /** These maps cache subtype queries, so they can be re-done quickly. */
-    //protected MultiMap cacheSubtypes = new HashMultiMap();
-    //protected MultiMap cacheNonSubtypes = new HashMultiMap();
+    /** The types whose {@link TypeInfo} is being computed. Used to detect
+     * cyclic hierarchies. */
+    private final Set<SootClass> computing = new HashSet<SootClass>();
 
     protected Scene sc;
 
-    protected class Interval {
-        int lower;
-        int upper;
-        boolean isSubrange( Interval potentialSubrange ) {
-            if( lower > potentialSubrange.lower ) return false;
-            if( upper < potentialSubrange.upper ) return false;
-            return true;
+    /** Precomputed subtyping information of a class or interface which
+     * answers subtype queries in constant time. Immutable. */
+    protected static final class TypeInfo {
+        /** For a class, all its superclasses indexed by their depth in the
+         * inheritance tree, ending with the class itself. For an interface,
+         * <code>null</code>. */
+        final SootClass[] superclasses;
+        /** For an interface, its index in the interface bit sets,
+         * otherwise -1. */
+        final int interfaceIndex;
+        /** The indices of all interfaces the type can be stored in. Shared
+         * between types and never modified. */
+        final BitSet interfaces;
+        /** Whether the type and all its supertypes were completely resolved
+         * to the hierarchy level when this was computed. */
+        final boolean complete;
+        /** The {@link FastHierarchy#generation} this was computed in. */
+        final int generation;
+
+        TypeInfo( SootClass[] superclasses, int interfaceIndex, BitSet interfaces, boolean complete, int generation ) {
+            this.superclasses = superclasses;
+            this.interfaceIndex = interfaceIndex;
+            this.interfaces = interfaces;
+            this.complete = complete;
+            this.generation = generation;
         }
-    }
-    protected int dfsVisit( int start, SootClass c ) {
-        Interval r = new Interval();
-        r.lower = start++;
-        Collection col = classToSubclasses.get(c);
-        if( col != null ) {
-            Iterator it = col.iterator();
-            while( it.hasNext() ) {
-                SootClass sc = (SootClass) it.next();
-                // For some awful reason, Soot thinks interface are subclasses
-                // of java.lang.Object
-                if( sc.isInterface() ) continue;
-                start = dfsVisit( start, sc );
-            }
+
+        boolean isSubclassOf( TypeInfo parent ) {
+            if( superclasses == null || parent.superclasses == null ) return false;
+            int depth = parent.superclasses.length - 1;
+            return depth < superclasses.length 
+                && superclasses[depth] == parent.superclasses[depth];
         }
-        r.upper = start++;
-        if( c.isInterface() ) {
-            throw new RuntimeException( "Attempt to dfs visit interface "+c );
+
+        boolean implementsInterface( TypeInfo parent ) {
+            return parent.interfaceIndex >= 0 && interfaces.get( parent.interfaceIndex );
         }
-        if(!classToInterval.containsKey(c))
-        	classToInterval.put( c, r );
-        return start;
     }
 
     /** Constructs a hierarchy from the current scene. */
@@ -113,32 +151,170 @@ public class FastHierarchy
     {
         this.sc = Scene.v();
 
-        /* First build the inverse maps. */
+        /* Build the inverse maps. Subtyping information is computed on
+         * demand. */
         for( Iterator clIt = sc.getClasses().iterator(); clIt.hasNext(); ) {
             final SootClass cl = (SootClass) clIt.next();
             if( cl.resolvingLevel() < SootClass.HIERARCHY ) continue;
-            if( !cl.isInterface() && cl.hasSuperclass() ) {
-                put( classToSubclasses, cl.getSuperclass(), cl );
+            register( cl );
+        }
+    }
+
+    /** Adds the relationships given by the getSuperclass and getInterfaces
+     * methods of cl to the inverse maps. */
+    private void register( SootClass cl ) {
+        if( registered.get( cl.getNumber() ) ) return;
+        registered.set( cl.getNumber() );
+        if( cl.isInterface() ) getInterfaceIndex( cl );
+        if( !cl.isInterface() && cl.hasSuperclass() ) {
+            put( classToSubclasses, cl.getSuperclass(), cl );
+        }
+        for( Iterator superclIt = cl.getInterfaces().iterator(); superclIt.hasNext(); ) {
+            final SootClass supercl = (SootClass) superclIt.next();
+            if( cl.isInterface() ) {
+                interfaceToSubinterfaces.put( supercl, cl );
+            } else {
+                interfaceToImplementers.put( supercl, cl );
+            }
+        }
+    }
+
+    /** Adds a class which has been added to the scene, or whose hierarchy
+     * has been resolved, to this hierarchy. Classes which haven't been
+     * resolved to the hierarchy level yet are ignored. */
+    synchronized void addClass( SootClass cl ) {
+        if( cl.resolvedLevel() < SootClass.HIERARCHY ) return;
+        if( registered.get( cl.getNumber() ) ) return;
+        register( cl );
+        // Subtypes of cl may now be completely resolved.
+        generation++;
+        if( cl.isInterface() ) {
+            TypeInfo info = getTypeInfo( cl );
+            Set<SootClass> subinterfaces = collectSubinterfaces( cl );
+            Set<SootClass> implementers = collectImplementers( subinterfaces );
+            for( Map.Entry<SootClass, Set<SootClass>> e : interfaceToAllSubinterfaces.entrySet() ) {
+                SootClass parent = e.getKey();
+                if( !info.implementsInterface( getTypeInfo( parent ) ) ) continue;
+                e.setValue( union( e.getValue(), subinterfaces ) );
+                Set<SootClass> all = interfaceToAllImplementers.get( parent );
+                if( all != null ) {
+                    interfaceToAllImplementers.put( parent, union( all, implementers ) );
+                }
             }
-            for( Iterator superclIt = cl.getInterfaces().iterator(); superclIt.hasNext(); ) {
-                final SootClass supercl = (SootClass) superclIt.next();
-                if( cl.isInterface() ) {
-                    interfaceToSubinterfaces.put( supercl, cl );
-                } else {
-                    interfaceToImplementers.put( supercl, cl );
+        } else {
+            for( Map.Entry<SootClass, Set<SootClass>> e : interfaceToAllImplementers.entrySet() ) {
+                Set<SootClass> subinterfaces = interfaceToAllSubinterfaces.get( e.getKey() );
+                for( SootClass i : cl.getInterfaces() ) {
+                    if( subinterfaces.contains( i ) ) {
+                        e.setValue( union( e.getValue(), Collections.singleton( cl ) ) );
+                        break;
+                    }
                 }
             }
         }
+    }
+
+    private static Set<SootClass> union( Set<SootClass> a, Set<SootClass> b ) {
+        if( a.containsAll( b ) ) return a;
+        Set<SootClass> ret = new HashSet<SootClass>( a );
+        ret.addAll( b );
+        return Collections.unmodifiableSet( ret );
+    }
 
-        /* Now do a dfs traversal to get the Interval numbers. */
-        dfsVisit( 0, Scene.v().getSootClass( "java.lang.Object" ) );
-        /* also have to traverse for all phantom classes because they also
-         * can be roots of the type hierarchy
-         */
-        for(SootClass phantomClass: Scene.v().getPhantomClasses()) {
-        	if(!phantomClass.isInterface())
-        		dfsVisit( 0, phantomClass );
+    /** Returns the subtyping information of the specified class or
+     * interface. */
+    protected TypeInfo getTypeInfo( SootClass c ) {
+        TypeInfo[] infos = numberToTypeInfo;
+        int n = c.getNumber();
+        TypeInfo info = n < infos.length ? infos[n] : null;
+        if( info != null && ( info.complete || info.generation == generation ) ) return info;
+        return computeTypeInfo( c );
+    }
+
+    private synchronized TypeInfo computeTypeInfo( SootClass c ) {
+        int n = c.getNumber();
+        TypeInfo[] infos = numberToTypeInfo;
+        if( n < infos.length && infos[n] != null
+                && ( infos[n].complete || infos[n].generation == generation ) ) {
+            return infos[n];
+        }
+        if( computing.contains( c ) ) {
+            // The hierarchy is cyclic.
+            return new TypeInfo( new SootClass[] { c }, -1, new BitSet(), false, generation );
+        }
+        TypeInfo info;
+        if( c.resolvingLevel() < SootClass.HIERARCHY ) {
+            // Nothing is known about the supertypes yet.
+            info = new TypeInfo( new SootClass[] { c }, -1, new BitSet(), false, generation );
+        } else {
+            computing.add( c );
+            try {
+                info = computeResolvedTypeInfo( c );
+            } finally {
+                computing.remove( c );
+            }
+        }
+        // The array may have been grown while computing the supertypes.
+        infos = numberToTypeInfo;
+        if( n >= infos.length ) {
+            infos = Arrays.copyOf( infos, Math.max( n + 1, 
+                    sc.getClassNumberer().size() + 1 ) );
         }
+        infos[n] = info;
+        numberToTypeInfo = infos;
+        return info;
+    }
+
+    private TypeInfo computeResolvedTypeInfo( SootClass c ) {
+        boolean complete = c.resolvedLevel() >= SootClass.HIERARCHY;
+        if( c.isInterface() ) {
+            int index = getInterfaceIndex( c );
+            BitSet interfaces = new BitSet();
+            interfaces.set( index );
+            for( SootClass i : c.getInterfaces() ) {
+                TypeInfo ii = getTypeInfo( i );
+                interfaces.or( ii.interfaces );
+                complete &= ii.complete;
+            }
+            return new TypeInfo( null, index, interfaces, complete, generation );
+        }
+        SootClass[] superclasses = new SootClass[] { c };
+        BitSet interfaces = new BitSet();
+        if( c.hasSuperclass() ) {
+            TypeInfo si = getTypeInfo( c.getSuperclass() );
+            if( si.superclasses != null ) {
+                superclasses = Arrays.copyOf( si.superclasses, si.superclasses.length + 1 );
+                superclasses[superclasses.length - 1] = c;
+            }
+            // Share the superclass' set unless c adds interfaces.
+            interfaces = si.interfaces;
+            complete &= si.complete;
+        }
+        boolean copied = false;
+        for( SootClass i : c.getInterfaces() ) {
+            TypeInfo ii = getTypeInfo( i );
+            complete &= ii.complete;
+            if( ii.interfaceIndex < 0 || interfaces.get( ii.interfaceIndex ) ) continue;
+            if( !copied ) {
+                interfaces = (BitSet) interfaces.clone();
+                copied = true;
+            }
+            interfaces.or( ii.interfaces );
+        }
+        return new TypeInfo( superclasses, -1, interfaces, complete, generation );
+    }
+
+    private int getInterfaceIndex( SootClass c ) {
+        int n = c.getNumber();
+        if( n >= numberToInterfaceIndex.length ) {
+            numberToInterfaceIndex = Arrays.copyOf( numberToInterfaceIndex, 
+                    Math.max( n + 1, sc.getClassNumberer().size() + 1 ) );
+        }
+        if( numberToInterfaceIndex[n] == 0 ) {
+            indexToInterface.add( c );
+            numberToInterfaceIndex[n] = indexToInterface.size();
+        }
+        return numberToInterfaceIndex[n] - 1;
     }
 
     /** Return true if class child is a subclass of class parent, neither of
@@ -146,40 +322,57 @@ public class FastHierarchy
     public boolean isSubclass( SootClass child, SootClass parent ) {
         child.checkLevel(SootClass.HIERARCHY);
         parent.checkLevel(SootClass.HIERARCHY);
-        Interval parentInterval = classToInterval.get( parent );
-        Interval childInterval = classToInterval.get( child );
-        return parentInterval.isSubrange( childInterval );
+        return getTypeInfo( child ).isSubclassOf( getTypeInfo( parent ) );
     }
 
     /** For an interface parent (MUST be an interface), returns set of all
      * implementers of it but NOT their subclasses. */
-    public Set getAllImplementersOfInterface( SootClass parent ) {
+    public synchronized Set<SootClass> getAllImplementersOfInterface( SootClass parent ) {
         parent.checkLevel(SootClass.HIERARCHY);
-        if( !interfaceToAllImplementers.containsKey( parent ) ) {
-            for( Iterator subinterfaceIt = getAllSubinterfaces( parent ).iterator(); subinterfaceIt.hasNext(); ) {
-                final SootClass subinterface = (SootClass) subinterfaceIt.next();
-                if( subinterface == parent ) continue;
-                interfaceToAllImplementers.putAll(parent,
-                    getAllImplementersOfInterface( subinterface ) );
-            }
-            interfaceToAllImplementers.putAll(parent, 
-                    interfaceToImplementers.get( parent ) );
+        Set<SootClass> ret = interfaceToAllImplementers.get( parent );
+        if( ret == null ) {
+            ret = collectImplementers( getAllSubinterfaces( parent ) );
+            interfaceToAllImplementers.put( parent, ret );
         }
-        return interfaceToAllImplementers.get( parent );
+        return ret;
     }
 
     /** For an interface parent (MUST be an interface), returns set of all
      * subinterfaces. */
-    protected Set getAllSubinterfaces( SootClass parent ) {
+    protected synchronized Set<SootClass> getAllSubinterfaces( SootClass parent ) {
         parent.checkLevel(SootClass.HIERARCHY);
-        if( !interfaceToAllSubinterfaces.containsKey( parent ) ) {
-            interfaceToAllSubinterfaces.put( parent, parent );
-            for( Iterator it = interfaceToSubinterfaces.get( parent ).iterator(); it.hasNext(); ) {
-                interfaceToAllSubinterfaces.putAll(parent, 
-                    getAllSubinterfaces( (SootClass) it.next() ) );
+        Set<SootClass> ret = interfaceToAllSubinterfaces.get( parent );
+        if( ret == null ) {
+            ret = collectSubinterfaces( parent );
+            interfaceToAllSubinterfaces.put( parent, ret );
+        }
+        return ret;
+    }
+
+    /** Returns the interface parent and all interfaces in this hierarchy
+     * whose bit sets contain it. */
+    private Set<SootClass> collectSubinterfaces( SootClass parent ) {
+        Set<SootClass> ret = new HashSet<SootClass>();
+        ret.add( parent );
+        TypeInfo parentInfo = getTypeInfo( parent );
+        for( int i = 0; i < indexToInterface.size(); i++ ) {
+            SootClass subinterface = indexToInterface.get( i );
+            if( registered.get( subinterface.getNumber() )
+                    && getTypeInfo( subinterface ).implementsInterface( parentInfo ) ) {
+                ret.add( subinterface );
             }
         }
-        return interfaceToAllSubinterfaces.get( parent );
+        return Collections.unmodifiableSet( ret );
+    }
+
+    /** Returns the classes which directly implement any of the specified
+     * interfaces. */
+    private Set<SootClass> collectImplementers( Set<SootClass> interfaces ) {
+        Set<SootClass> ret = new HashSet<SootClass>();
+        for( SootClass i : interfaces ) {
+            ret.addAll( interfaceToImplementers.get( i ) );
+        }
+        return Collections.unmodifiableSet( ret );
     }
 
     /** Given an object of declared type child, returns true if the object
@@ -279,27 +472,16 @@ public class FastHierarchy
     protected boolean canStoreClass( SootClass child, SootClass parent ) {
         parent.checkLevel(SootClass.HIERARCHY);
         child.checkLevel(SootClass.HIERARCHY);
-        Interval parentInterval = classToInterval.get( parent );
-        Interval childInterval = classToInterval.get( child );
-        if( parentInterval != null && childInterval != null ) {
-            return parentInterval.isSubrange( childInterval );
-        }
-        if( childInterval == null ) { // child is interface
-            if( parentInterval != null ) { // parent is not interface
-                return parent.equals( RefType.v("java.lang.Object").getSootClass() );
-            } else {
-                return getAllSubinterfaces( parent ).contains( child );
+        TypeInfo parentInfo = getTypeInfo( parent );
+        TypeInfo childInfo = getTypeInfo( child );
+        if( parentInfo.superclasses != null ) { // parent is not interface
+            if( childInfo.superclasses != null ) {
+                return childInfo.isSubclassOf( parentInfo );
             }
-        } else {
-            Set impl = getAllImplementersOfInterface( parent );
-            for( Iterator it = impl.iterator(); it.hasNext(); ) {
-                parentInterval = classToInterval.get( it.next() );
-                if( parentInterval != null && parentInterval.isSubrange( childInterval ) ) {
-                    return true;
-                }
-            }
-            return false;
+            // child is interface
+            return parent.equals( RefType.v("java.lang.Object").getSootClass() );
         }
+        return childInfo.implementsInterface( parentInfo );
     }
 
     public Collection<SootMethod> resolveConcreteDispatchWithoutFailing(Collection concreteTypes, SootMethod m, RefType declaredTypeOfBase ) {
@@ -310,28 +492,7 @@ public class FastHierarchy
         for( Iterator tIt = concreteTypes.iterator(); tIt.hasNext(); ) {
             final Type t = (Type) tIt.next();
             if( t instanceof AnySubType ) {
-                String methodSig = m.getSubSignature();
-                HashSet s = new HashSet();
-                s.add( declaringClass );
-                while( !s.isEmpty() ) {
-                    SootClass c = (SootClass) s.iterator().next();
-                    s.remove( c );
-                    if( !c.isInterface() && !c.isAbstract()
-                            && canStoreClass( c, declaringClass ) ) {
-                        SootMethod concreteM = resolveConcreteDispatch( c, m );
-                        if( concreteM != null )
-                            ret.add( concreteM );
-                    }
-                    if( classToSubclasses.containsKey( c ) ) {
-                        s.addAll( classToSubclasses.get( c ) );
-                    }
-                    if( interfaceToSubinterfaces.containsKey( c ) ) {
-                        s.addAll( interfaceToSubinterfaces.get( c ) );
-                    }
-                    if( interfaceToImplementers.containsKey( c ) ) {
-                        s.addAll( interfaceToImplementers.get( c ) );
-                    }
-                }
+                resolveAnySubTypeDispatch( declaringClass, m, ret );
                 return ret;
             } else if( t instanceof RefType ) {
                 RefType concreteType = (RefType) t;
@@ -368,28 +529,7 @@ public class FastHierarchy
         for( Iterator tIt = concreteTypes.iterator(); tIt.hasNext(); ) {
             final Type t = (Type) tIt.next();
             if( t instanceof AnySubType ) {
-                String methodSig = m.getSubSignature();
-                HashSet s = new HashSet();
-                s.add( declaringClass );
-                while( !s.isEmpty() ) {
-                    SootClass c = (SootClass) s.iterator().next();
-                    s.remove( c );
-                    if( !c.isInterface() && !c.isAbstract()
-                            && canStoreClass( c, declaringClass ) ) {
-                        SootMethod concreteM = resolveConcreteDispatch( c, m );
-                        if( concreteM != null )
-                            ret.add( concreteM );
-                    }
-                    if( classToSubclasses.containsKey( c ) ) {
-                        s.addAll( classToSubclasses.get( c ) );
-                    }
-                    if( interfaceToSubinterfaces.containsKey( c ) ) {
-                        s.addAll( interfaceToSubinterfaces.get( c ) );
-                    }
-                    if( interfaceToImplementers.containsKey( c ) ) {
-                        s.addAll( interfaceToImplementers.get( c ) );
-                    }
-                }
+                resolveAnySubTypeDispatch( declaringClass, m, ret );
                 return ret;
             } else if( t instanceof RefType ) {
                 RefType concreteType = (RefType) t;
@@ -408,6 +548,30 @@ public class FastHierarchy
         return ret;
     }
 
+    /** Adds the methods which could be called on an o.f() invocation to
+     * ret, for all concrete classes o can be an instance of, given o is of
+     * declared type declaringClass. */
+    private void resolveAnySubTypeDispatch( SootClass declaringClass, SootMethod m, Set<SootMethod> ret ) {
+        LinkedList<SootClass> worklist = new LinkedList<SootClass>();
+        if( declaringClass.isInterface() ) {
+            worklist.addAll( getAllImplementersOfInterface( declaringClass ) );
+        } else {
+            worklist.add( declaringClass );
+        }
+        Set<SootClass> workset = new HashSet<SootClass>();
+        while( !worklist.isEmpty() ) {
+            SootClass c = worklist.removeFirst();
+            if( !workset.add( c ) ) continue;
+            if( !c.isAbstract() ) {
+                SootMethod concreteM = resolveConcreteDispatch( c, m );
+                if( concreteM != null ) ret.add( concreteM );
+            }
+            for( Iterator subIt = getSubclassesOf( c ).iterator(); subIt.hasNext(); ) {
+                worklist.add( (SootClass) subIt.next() );
+            }
+        }
+    }
+
     // Questions about method invocation.
 
     /** Returns true if the method m is visible from code in the class from. */
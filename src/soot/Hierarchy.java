@@ -29,23 +29,39 @@ import soot.jimple.*;
 import soot.util.*;
 import java.util.*;
 
-/** Represents the class hierarchy.  It is closely linked to a Scene,
- * and must be recreated if the Scene changes. 
+/** Represents the class hierarchy.  It is closely linked to a Scene.
+ * The active hierarchy of the Scene (see {@link Scene#getActiveHierarchy()})
+ * is updated incrementally when classes are added to or removed from the
+ * Scene and when their hierarchy has been resolved. Other hierarchies
+ * must be recreated if the Scene changes. 
  *
  * The general convention is that if a method name contains 
  * "Including", then it returns the non-strict result; otherwise,
  * it does a strict query (e.g. strict superclass).  */
 public class Hierarchy
 {
-    // These two maps are not filled in the constructor.
+    // These three maps are not filled in the constructor.
     HashMap<SootClass, List<SootClass>> classToSubclasses;
     HashMap<SootClass, List<SootClass>> interfaceToSubinterfaces;
 
+    // This holds the direct implementers and their subclasses.
+    HashMap<SootClass, List> interfaceToDirImplementers;
+
+    // The lists in these maps are unmodifiable, ordered like the classes of
+    // the Scene, and replaced when classes are added or removed.
     HashMap<SootClass, List> classToDirSubclasses;
     HashMap<SootClass, List> interfaceToDirSubinterfaces;
 
-    // This holds the direct implementers.
-    HashMap<SootClass, List> interfaceToDirImplementers;
+    // This holds the classes which declare to implement an interface.
+    HashMap<SootClass, List> interfaceToDeclaredImplementers;
+
+    // The classes whose relationships have been added to the maps.
+    Set<SootClass> indexed;
+
+    // The position of each class in the classes of the Scene. Only the
+    // relative order matters.
+    HashMap<SootClass, Integer> classToPosition;
+    int nextPosition;
 
     int state;
     Scene sc;
@@ -56,120 +72,132 @@ public class Hierarchy
         this.sc = Scene.v();
         state = sc.getState();
 
-        // Well, this used to be describable by 'Duh'.
-        // Construct the subclasses hierarchy and the subinterfaces hierarchy.
+        Chain allClasses = sc.getClasses();
+
+        classToSubclasses = new HashMap<SootClass, List<SootClass>>(allClasses.size() * 2 + 1, 0.7f);
+        interfaceToSubinterfaces = new HashMap<SootClass, List<SootClass>>(allClasses.size() * 2 + 1, 0.7f);
+        interfaceToDirImplementers = new HashMap<SootClass, List>
+            (allClasses.size() * 2 + 1, 0.7f);
+
+        classToDirSubclasses = new HashMap<SootClass, List>
+            (allClasses.size() * 2 + 1, 0.7f);
+        interfaceToDirSubinterfaces = new HashMap<SootClass, List>
+            (allClasses.size() * 2 + 1, 0.7f);
+        interfaceToDeclaredImplementers = new HashMap<SootClass, List>
+            (allClasses.size() * 2 + 1, 0.7f);
+        indexed = new HashSet<SootClass>(allClasses.size() * 2 + 1, 0.7f);
+        classToPosition = new HashMap<SootClass, Integer>(allClasses.size() * 2 + 1, 0.7f);
+
+        Iterator classesIt = allClasses.iterator();
+        while (classesIt.hasNext())
+            classToPosition.put((SootClass)classesIt.next(), nextPosition++);
+
+        classesIt = allClasses.iterator();
+        while (classesIt.hasNext())
         {
-            Chain allClasses = sc.getClasses();
+            SootClass c = (SootClass)classesIt.next();
+            if( c.resolvingLevel() < SootClass.HIERARCHY ) continue;
+            index(c);
+        }
+    }
 
-            classToSubclasses = new HashMap<SootClass, List<SootClass>>(allClasses.size() * 2 + 1, 0.7f);
-            interfaceToSubinterfaces = new HashMap<SootClass, List<SootClass>>(allClasses.size() * 2 + 1, 0.7f);
+    /** Adds the relationships of c to its supertypes to the maps. */
+    private void index(SootClass c)
+    {
+        if (!indexed.add(c)) return;
 
-            classToDirSubclasses = new HashMap<SootClass, List>
-                (allClasses.size() * 2 + 1, 0.7f);
-            interfaceToDirSubinterfaces = new HashMap<SootClass, List>
-                (allClasses.size() * 2 + 1, 0.7f);
-            interfaceToDirImplementers = new HashMap<SootClass, List>
-                (allClasses.size() * 2 + 1, 0.7f);
+        if (c.isInterface())
+        {
+            getOrCreate(interfaceToDirSubinterfaces, c);
+            getOrCreate(interfaceToDeclaredImplementers, c);
+        }
+        else
+            getOrCreate(classToDirSubclasses, c);
 
-            Iterator classesIt = allClasses.iterator();
-            while (classesIt.hasNext())
-            {
-                SootClass c = (SootClass)classesIt.next();
-                if( c.resolvingLevel() < SootClass.HIERARCHY ) continue;
-
-                if (c.isInterface())
-                {
-                    interfaceToDirSubinterfaces.put(c, new ArrayList());
-                    interfaceToDirImplementers.put(c, new ArrayList());
-                }
-                else
-                    classToDirSubclasses.put(c, new ArrayList());
-            }
+        if (!c.hasSuperclass()) return;
 
-            classesIt = allClasses.iterator();
-            while (classesIt.hasNext())
-            {
-                SootClass c = (SootClass)classesIt.next();
-                if( c.resolvingLevel() < SootClass.HIERARCHY ) continue;
-
-                if (c.hasSuperclass())
-                {
-                    if (c.isInterface())
-                    {
-                        Iterator subIt = c.getInterfaces().iterator();
-
-                        while (subIt.hasNext())
-                        {
-                            SootClass i = (SootClass)subIt.next();
-                            if( c.resolvingLevel() < SootClass.HIERARCHY ) continue;
-                            List<SootClass> l = interfaceToDirSubinterfaces.get(i);
-                            if (l != null) l.add(c);
-                        }
-                    }
-                    else
-                    {
-                        List<SootClass> l = classToDirSubclasses.get(c.getSuperclass());
-                        l.add(c);
-
-                    
-                        Iterator subIt = c.getInterfaces().iterator();
-
-                        while (subIt.hasNext())
-                        {
-                            SootClass i = (SootClass)subIt.next();
-                            if( c.resolvingLevel() < SootClass.HIERARCHY ) continue;
-                            l = interfaceToDirImplementers.get(i);
-                            if (l != null) l.add(c);
-                        }
-                    }
-                }
-            }
+        if (c.isInterface())
+        {
+            Iterator subIt = c.getInterfaces().iterator();
+            while (subIt.hasNext())
+                add(interfaceToDirSubinterfaces, (SootClass)subIt.next(), c);
+        }
+        else
+        {
+            add(classToDirSubclasses, c.getSuperclass(), c);
 
-            // Fill the directImplementers lists with subclasses.
-            {
-                classesIt = allClasses.iterator();
-                while (classesIt.hasNext())
-                {
-                    SootClass c = (SootClass)classesIt.next();
-                    if( c.resolvingLevel() < SootClass.HIERARCHY ) continue;
-                    if (c.isInterface())
-                    {
-                        List<SootClass> imp = interfaceToDirImplementers.get(c);
-                        Set<SootClass> s = new ArraySet();
-                        
-                        Iterator<SootClass> impIt = imp.iterator();
-                        while (impIt.hasNext())
-                        {
-                            SootClass c0 = impIt.next();
-                            if( c.resolvingLevel() < SootClass.HIERARCHY ) continue;
-                            s.addAll(getSubclassesOfIncluding(c0));
-                        }
-
-                        imp.clear(); imp.addAll(s);
-                    }
-                }
-            }
+            Iterator subIt = c.getInterfaces().iterator();
+            while (subIt.hasNext())
+                add(interfaceToDeclaredImplementers, (SootClass)subIt.next(), c);
+        }
+    }
 
-            classesIt = allClasses.iterator();
-            while (classesIt.hasNext())
+    private static List getOrCreate(HashMap<SootClass, List> m, SootClass key)
+    {
+        List l = m.get(key);
+        if (l == null)
+            m.put(key, l = Collections.emptyList());
+        return l;
+    }
+
+    /** Inserts c into the list of key, keeping it in the order of the
+     * classes of the Scene. */
+    private void add(HashMap<SootClass, List> m, SootClass key, SootClass c)
+    {
+        List<SootClass> l = new ArrayList<SootClass>(getOrCreate(m, key));
+        int position = classToPosition.get(c);
+        int i = l.size();
+        while (i > 0 && classToPosition.get(l.get(i - 1)) > position)
+            i--;
+        l.add(i, c);
+        m.put(key, Collections.unmodifiableList(l));
+    }
+
+    private static void remove(HashMap<SootClass, List> m, SootClass c)
+    {
+        m.remove(c);
+        for (Map.Entry<SootClass, List> e : m.entrySet())
+        {
+            if (e.getValue().contains(c))
             {
-                SootClass c = (SootClass)classesIt.next();
-                if( c.resolvingLevel() < SootClass.HIERARCHY ) continue;
-
-                if (c.isInterface())
-                {
-                    interfaceToDirSubinterfaces.put(c, Collections.unmodifiableList
-                                          (interfaceToDirSubinterfaces.get(c)));
-                    interfaceToDirImplementers.put(c, Collections.unmodifiableList
-                                                (interfaceToDirImplementers.get(c)));
-                }
-                else
-                    classToDirSubclasses.put(c, Collections.unmodifiableList
-                                          (classToDirSubclasses.get(c)));
+                List<SootClass> l = new ArrayList<SootClass>(e.getValue());
+                l.remove(c);
+                e.setValue(Collections.unmodifiableList(l));
             }
         }
     }
 
+    /** Adds a class which has been added to the Scene, or whose hierarchy
+     * has been resolved, to this hierarchy. Classes which haven't been
+     * resolved to the hierarchy level yet are only indexed once they are. */
+    synchronized void addClass(SootClass c)
+    {
+        state = sc.getState();
+        // Classes are appended to the classes of the Scene.
+        if (!classToPosition.containsKey(c))
+            classToPosition.put(c, nextPosition++);
+        if (c.resolvedLevel() < SootClass.HIERARCHY || indexed.contains(c)) return;
+        index(c);
+        classToSubclasses.clear();
+        interfaceToSubinterfaces.clear();
+        interfaceToDirImplementers.clear();
+    }
+
+    /** Removes a class which has been removed from the Scene from this
+     * hierarchy. */
+    synchronized void removeClass(SootClass c)
+    {
+        state = sc.getState();
+        classToPosition.remove(c);
+        if (!indexed.remove(c)) return;
+        remove(classToDirSubclasses, c);
+        remove(interfaceToDirSubinterfaces, c);
+        remove(interfaceToDeclaredImplementers, c);
+        classToSubclasses.clear();
+        interfaceToSubinterfaces.clear();
+        interfaceToDirImplementers.clear();
+    }
+
     private void checkState()
     {
         if (state != sc.getState())
@@ -192,7 +220,7 @@ public class Hierarchy
     }
 
     /** Returns a list of subclasses of c, excluding itself. */
-    public List<SootClass> getSubclassesOf(SootClass c)
+    public synchronized List<SootClass> getSubclassesOf(SootClass c)
     {
         c.checkLevel(SootClass.HIERARCHY);
         if (c.isInterface())
@@ -266,7 +294,7 @@ public class Hierarchy
     }
 
     /** Returns a list of subinterfaces of c, excluding itself. */
-    public List<SootClass> getSubinterfacesOf(SootClass c)
+    public synchronized List<SootClass> getSubinterfacesOf(SootClass c)
     {
         c.checkLevel(SootClass.HIERARCHY);
         if (!c.isInterface())
@@ -305,7 +333,7 @@ public class Hierarchy
     }
 
     /** Returns a list of direct subclasses of c, excluding c. */
-    public List getDirectSubclassesOf(SootClass c)
+    public synchronized List getDirectSubclassesOf(SootClass c)
     {
         c.checkLevel(SootClass.HIERARCHY);
         if (c.isInterface())
@@ -313,12 +341,12 @@ public class Hierarchy
 
         checkState();
 
-        return Collections.unmodifiableList(classToDirSubclasses.get(c));
+        return classToDirSubclasses.get(c);
     }
 
     // This includes c in the list of subclasses.
     /** Returns a list of direct subclasses of c, including c. */
-    public List<SootClass> getDirectSubclassesOfIncluding(SootClass c)
+    public synchronized List<SootClass> getDirectSubclassesOfIncluding(SootClass c)
     {
         c.checkLevel(SootClass.HIERARCHY);
         if (c.isInterface())
@@ -340,7 +368,7 @@ public class Hierarchy
     }
 
     /** Returns a list of direct subinterfaces of c. */
-    public List getDirectSubinterfacesOf(SootClass c)
+    public synchronized List getDirectSubinterfacesOf(SootClass c)
     {
         c.checkLevel(SootClass.HIERARCHY);
         if (!c.isInterface())
@@ -352,7 +380,7 @@ public class Hierarchy
     }
 
     /** Returns a list of direct subinterfaces of c, including itself. */
-    public List<SootClass> getDirectSubinterfacesOfIncluding(SootClass c)
+    public synchronized List<SootClass> getDirectSubinterfacesOfIncluding(SootClass c)
     {
         c.checkLevel(SootClass.HIERARCHY);
         if (!c.isInterface())
@@ -368,7 +396,7 @@ public class Hierarchy
     }
 
     /** Returns a list of direct implementers of c, excluding itself. */
-    public List getDirectImplementersOf(SootClass i)
+    public synchronized List getDirectImplementersOf(SootClass i)
     {
         i.checkLevel(SootClass.HIERARCHY);
         if (!i.isInterface())
@@ -376,7 +404,23 @@ public class Hierarchy
 
         checkState();
 
-        return Collections.unmodifiableList(interfaceToDirImplementers.get(i));
+        // If already cached, return the value.
+        if (interfaceToDirImplementers.get(i) != null)
+            return interfaceToDirImplementers.get(i);
+
+        List<SootClass> declared = interfaceToDeclaredImplementers.get(i);
+        if (declared == null)
+            return null;
+
+        // Add the subclasses of the implementers.
+        Set<SootClass> s = new ArraySet();
+        for (SootClass c : declared)
+            s.addAll(getSubclassesOfIncluding(c));
+
+        List l = Collections.unmodifiableList(new ArrayList<SootClass>(s));
+        interfaceToDirImplementers.put(i, l);
+
+        return l;
     }
 
     /** Returns a list of implementers of c, excluding itself. */
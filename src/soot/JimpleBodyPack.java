@@ -30,6 +30,7 @@ import soot.options.*;
 import soot.jimple.*;
 import java.util.*;
 import soot.options.JBOptions;
+import soot.toolkits.scalar.BodyAnalysisManager;
 
 
 /** A wrapper object for a pack of optimizations.
@@ -89,7 +90,13 @@ public class JimpleBodyPack extends BodyPack
 
     protected void internalApply(Body b)
     {
-        applyPhaseOptions( (JimpleBody) b,
-                PhaseOptions.v().getPhaseOptions( getPhaseName() ) );
+        // Share graphs and def-use chains between the jb phases.
+        b.setAnalysisManager(new BodyAnalysisManager(b));
+        try {
+            applyPhaseOptions( (JimpleBody) b,
+                    PhaseOptions.v().getPhaseOptions( getPhaseName() ) );
+        } finally {
+            b.setAnalysisManager(null);
+        }
     }
 }
@@ -19,6 +19,7 @@
 
 package soot;
 import java.util.*;
+import java.util.concurrent.*;
 import java.io.*;
 import java.util.zip.*;
 import soot.util.*;
@@ -55,7 +56,14 @@ import soot.toolkits.graph.interaction.*;
 /** Manages the Packs containing the various phases and their options. */
 public class PackManager {
 	public static boolean DEBUG=false;
-    public PackManager( Singletons.Global g ) { PhaseOptions.v().setPackManager(this); init(); }
+    public PackManager( Singletons.Global g ) {
+        PhaseOptions.v().setPackManager(this);
+        try {
+            init();
+        } finally {
+            PhaseOptions.v().setPackManager(null);
+        }
+    }
 
     public boolean onlyStandardPacks() { return onlyStandardPacks; }
     private boolean onlyStandardPacks = false;
@@ -129,6 +137,13 @@ public class PackManager {
 	       
         }
 
+        // Call graph pack
+        addPack(p = new CallGraphPack("cg"));
+        {
+            p.add(new Transform("cg.cha", CHATransformer.v()));
+            p.add(new Transform("cg.rta", RTATransformer.v()));
+        }
+
         // CFG Viewer 
         /*addPack(p = new BodyPack("cfg"));
         {
@@ -230,27 +245,195 @@ public class PackManager {
     }
 
 
-    private void runBodyPacks( Iterator classes ) {
+    private void runBodyPacks( Iterator<SootClass> classes ) {
+        int numThreads = numBodyPackThreads();
+        if( numThreads > 1 && !Options.v().interactive_mode()
+                && bodyPacksAreParallelSafe() ) {
+            runBodyPacksInParallel( classes, numThreads );
+            return;
+        }
         while( classes.hasNext() ) {
-            SootClass cl = (SootClass) classes.next();
+            SootClass cl = classes.next();
             runBodyPacks( cl );
         }
     }
 
+    /**
+     * Returns the number of threads the body packs should be run on as
+     * specified by the <code>-num-threads</code> option. <code>0</code> or
+     * a negative value means one thread per available processor.
+     */
+    private int numBodyPackThreads() {
+        int n = Options.v().num_threads();
+        if( n <= 0 ) {
+            n = Runtime.getRuntime().availableProcessors();
+        }
+        return n;
+    }
+
+    /**
+     * The transformers which have been checked to modify nothing but the
+     * body they are applied to, and to only read the {@link Scene} and the
+     * class hierarchy. The side effect testers of <code>cse</code>,
+     * <code>bcm</code>, <code>lcm</code> and <code>aet</code> only qualify
+     * as long as there is no call graph.
+     */
+    private static final Set<Class<?>> parallelSafeTransformers = new HashSet<Class<?>>( Arrays.<Class<?>>asList(
+            CommonSubexpressionEliminator.class,
+            BusyCodeMotion.class,
+            LazyCodeMotion.class,
+            CopyPropagator.class,
+            ConstantPropagatorAndFolder.class,
+            ConditionalBranchFolder.class,
+            DeadAssignmentEliminator.class,
+            NullCheckEliminator.class,
+            UnreachableCodeEliminator.class,
+            UnconditionalBranchFolder.class,
+            UnusedLocalEliminator.class,
+            ReachingDefsTagger.class,
+            LiveVarsTagger.class,
+            CastCheckEliminatorDumper.class,
+            AvailExprTagger.class,
+            DominatorsTagger.class ) );
+
+    /**
+     * Returns <code>true</code> if every enabled phase of the enabled
+     * <code>jtp</code>, <code>jop</code> and <code>jap</code> packs is one of
+     * the {@link #parallelSafeTransformers}. Also returns <code>false</code>
+     * if there is a call graph or <code>-time</code> has been specified, as
+     * neither the whole-program side effect analyses nor the {@link Timers}
+     * may be used by several threads at once.
+     */
+    private boolean bodyPacksAreParallelSafe() {
+        if( Options.v().time() || Scene.v().hasCallGraph() ) return false;
+        for( String packName : new String[] { "jtp", "jop", "jap" } ) {
+            Pack pack = getPack( packName );
+            if( !PhaseOptions.getBoolean( PhaseOptions.v().getPhaseOptions( pack ), "enabled" ) ) continue;
+            for( Iterator tIt = pack.iterator(); tIt.hasNext(); ) {
+                final Transform t = (Transform) tIt.next();
+                if( !PhaseOptions.getBoolean( PhaseOptions.v().getPhaseOptions( t ), "enabled" ) ) continue;
+                if( !parallelSafeTransformers.contains( t.getTransformer().getClass() ) ) {
+                    if( Options.v().verbose() ) {
+                        G.v().out.println( "Running body packs on one thread as "
+                                + t.getPhaseName() + " has not been checked for thread safety" );
+                    }
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Runs the <code>jtp</code>, <code>jop</code> and <code>jap</code> packs
+     * on the bodies of the concrete methods of the specified classes using
+     * <code>numThreads</code> worker threads, one task per method. Only used
+     * if {@link #bodyPacksAreParallelSafe()}, i.e. if all the enabled
+     * transformers only modify the {@link Body} they have been passed.
+     * <p>
+     * Bodies are retrieved on the calling thread, in class and method order,
+     * before any task is started. Class resolution and jimplification thus
+     * never happen concurrently. The class hierarchy is built beforehand as
+     * well, and the {@link BodyRetention} policy is only notified on the
+     * calling thread once all tasks have finished.
+     * <p>
+     * Tasks are awaited in submission order. If any of them fails the first
+     * failure in that order is rethrown once all tasks have finished, which
+     * makes the outcome independent of the thread scheduling.
+     */
+    private void runBodyPacksInParallel( Iterator<SootClass> classes, int numThreads ) {
+        final List<JimpleBody> bodies = new ArrayList<JimpleBody>();
+        List<Callable<Object>> tasks = new ArrayList<Callable<Object>>();
+        while( classes.hasNext() ) {
+            SootClass cl = classes.next();
+            for( SootMethod m : new ArrayList<SootMethod>( cl.getMethods() ) ) {
+                if( !m.isConcrete() ) continue;
+                final JimpleBody body = (JimpleBody) m.retrieveActiveBody();
+                bodies.add( body );
+                tasks.add( new Callable<Object>() {
+                    public Object call() {
+                        applyBodyPacks( body );
+                        return null;
+                    }
+                } );
+            }
+        }
+        if( tasks.isEmpty() ) return;
+        Scene.v().getOrMakeFastHierarchy();
+
+        ExecutorService executor = Executors.newFixedThreadPool(
+                Math.min( numThreads, tasks.size() ), new ThreadFactory() {
+            private int count = 0;
+            public Thread newThread( Runnable r ) {
+                Thread t = new Thread( r, "soot-body-packs-" + (count++) );
+                t.setDaemon( true );
+                return t;
+            }
+        } );
+        try {
+            RuntimeException failure = null;
+            List<Future<Object>> futures = executor.invokeAll( tasks );
+            for( int i = 0; i < futures.size(); i++ ) {
+                try {
+                    futures.get( i ).get();
+                    JimpleBody body = bodies.get( i );
+                    body.getMethod().bodyPacksApplied( body );
+                } catch( ExecutionException e ) {
+                    if( failure == null ) {
+                        Throwable cause = e.getCause();
+                        if( cause instanceof RuntimeException ) {
+                            failure = (RuntimeException) cause;
+                        } else if( cause instanceof Error ) {
+                            throw (Error) cause;
+                        } else {
+                            failure = new RuntimeException( cause );
+                        }
+                    }
+                }
+            }
+            if( failure != null ) throw failure;
+        } catch( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+            throw new CompilationDeathException( "Interrupted while running body packs" );
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void runBodyPacks( JimpleBody body ) {
+        applyBodyPacks( body );
+        body.getMethod().bodyPacksApplied( body );
+    }
+
+    /**
+     * Runs the <code>jtp</code>, <code>jop</code> and <code>jap</code> packs
+     * on the specified body. Also used by the {@link BodyRetention} policy
+     * to re-create bodies which have been released after the packs had been
+     * run on them.
+     */
+    void applyBodyPacks( JimpleBody body ) {
+        PackManager.v().getPack("jtp").apply(body);
+        if( Options.v().validate() ) {
+            body.validate();
+        }
+        PackManager.v().getPack("jop").apply(body);
+        PackManager.v().getPack("jap").apply(body);
+    }
+
     private void handleInnerClasses(){
        InnerClassTagAggregator agg = InnerClassTagAggregator.v();
        agg.internalTransform("", null);
     }
 
 
-    private void releaseBodies( Iterator classes ) {
+    private void releaseBodies( Iterator<SootClass> classes ) {
         while( classes.hasNext() ) {
-            SootClass cl = (SootClass) classes.next();
+            SootClass cl = classes.next();
             releaseBodies( cl );
         }
     }
 
-    private Iterator reachableClasses() {
+    private Iterator<SootClass> reachableClasses() {
         return Scene.v().getApplicationClasses().iterator();
     }
 
@@ -278,12 +461,7 @@ public class PackManager {
 
             if (produceJimple) {
                 JimpleBody body =(JimpleBody) m.retrieveActiveBody();
-                PackManager.v().getPack("jtp").apply(body);
-                if( Options.v().validate() ) {
-                    body.validate();
-                }
-                PackManager.v().getPack("jop").apply(body);
-                PackManager.v().getPack("jap").apply(body);
+                runBodyPacks(body);
             }
             
             //PackManager.v().getPack("cfg").apply(m.retrieveActiveBody());
@@ -58,6 +58,11 @@ public class PatchingChain<E extends Unit> extends AbstractCollection<E> impleme
     {
         return innerChain;
     }
+
+    public long getModificationCount()
+    {
+        return innerChain.getModificationCount();
+    }
     
     /** Adds the given object to this Chain. */
     public boolean add(E o)
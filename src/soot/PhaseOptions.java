@@ -27,29 +27,38 @@ public class PhaseOptions {
      * Here is a case analysis.
      *   a. PackManager used first.  Then its constructor needs PhaseOptions,
             which also needs a PackManager; OK because we store the 
-            PackManager being initialized in a field.
+            PackManager being initialized for the constructing thread.
          b. PhaseOptions used first.  Then getPM() calls PackManager.v(),
-            which calls the constr, which sets the .pm field here, uses
-            PhaseOptions (which uses PackManager), and returns.  OK. */
-    private PackManager pm;
-    public void setPackManager(PackManager m) { this.pm = m; }
+            which calls the constr, which sets the PackManager here, uses
+            PhaseOptions (which uses PackManager), and returns.  OK.
+     * Only the constructing thread sees the PackManager being initialized,
+     * as threads racing to create the PackManager may each construct one
+     * and only one of them is ever published. */
+    private final ThreadLocal<PackManager> pm = new ThreadLocal<PackManager>();
+    /** Sets the PackManager being initialized by the current thread, or
+     * clears it if <code>m</code> is null. */
+    public void setPackManager(PackManager m) {
+        if (m == null) pm.remove();
+        else pm.set(m);
+    }
     PackManager getPM()
     {
-        if (pm == null)
-            PackManager.v();
-        return pm;
+        PackManager m = pm.get();
+        return m != null ? m : PackManager.v();
     }
 
     public PhaseOptions( Singletons.Global g ) { }
     public static PhaseOptions v() { return G.v().soot_PhaseOptions(); }
 
+    /** Guarded by <code>this</code>, as the options of a phase are looked
+     * up every time it is applied, possibly by several threads at once. */
     private final Map<HasPhaseOptions, Map> phaseToOptionMap = new HashMap<HasPhaseOptions, Map>();
 
     public Map getPhaseOptions(String phaseName) {
         return getPhaseOptions(getPM().getPhase(phaseName));
     }
 
-    public Map getPhaseOptions(HasPhaseOptions phase) {
+    public synchronized Map getPhaseOptions(HasPhaseOptions phase) {
         Map ret = phaseToOptionMap.get(phase);
         if( ret == null ) ret = new HashMap();
         else ret = new HashMap( ret );
@@ -178,7 +187,7 @@ public class PhaseOptions {
         }
         return setPhaseOption( phase, option );
     }
-    public boolean setPhaseOption( HasPhaseOptions phase, String option ) {
+    public synchronized boolean setPhaseOption( HasPhaseOptions phase, String option ) {
         Map<String, String> optionMap = mapForPhase( phase );
         if( !checkParentEnabled( phase.getPhaseName() ) ) return false;
         if( optionMap == null ) {
@@ -213,7 +222,7 @@ public class PhaseOptions {
         return false;
     }
 
-    public void setPhaseOptionIfUnset( String phaseName, String option ) {
+    public synchronized void setPhaseOptionIfUnset( String phaseName, String option ) {
         Map<String, String> optionMap = mapForPhase( phaseName );
         if( optionMap == null )
             throw new RuntimeException( "No such phase "+phaseName );
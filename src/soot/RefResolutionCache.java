@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2014 RoboVM AB
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/gpl-2.0.html>.
+ */
+package soot;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import soot.util.NumberedString;
+
+/**
+ * Remembers the members {@link SootMethodRef}s and {@link SootFieldRef}s
+ * have been resolved to, keyed by the class the reference was made in and
+ * the referenced method's sub-signature or field's name and type. Owned by
+ * the {@link Scene}.
+ * <p>
+ * Results are grouped by sub-signature and field name respectively. Adding
+ * or removing a method only drops the results for its sub-signature, adding,
+ * removing or renaming a field only the results for its name. Changes to
+ * the supertypes of a resolved class or removing a class from the scene
+ * drop all results.
+ * <p>
+ * Callers must only store results which were found by looking at classes
+ * resolved to at least {@link SootClass#SIGNATURES}. Other classes may still
+ * get methods, fields or supertypes without the cache being notified.
+ */
+final class RefResolutionCache {
+    private volatile ConcurrentHashMap<NumberedString, ConcurrentHashMap<SootClass, SootMethod>> methods =
+            new ConcurrentHashMap<NumberedString, ConcurrentHashMap<SootClass, SootMethod>>();
+    private volatile ConcurrentHashMap<String, ConcurrentHashMap<FieldKey, SootField>> fields =
+            new ConcurrentHashMap<String, ConcurrentHashMap<FieldKey, SootField>>();
+
+    /**
+     * Returns the results for the specified sub-signature, keyed by the
+     * class the reference was made in. Callers must obtain the map before
+     * looking at any class and store their result in the same map. A change
+     * in the meantime discards the map, so a result found by looking at
+     * classes as they were before the change is never seen by later lookups.
+     */
+    ConcurrentHashMap<SootClass, SootMethod> methodResults(NumberedString subsig) {
+        ConcurrentHashMap<NumberedString, ConcurrentHashMap<SootClass, SootMethod>> methods = this.methods;
+        ConcurrentHashMap<SootClass, SootMethod> m = methods.get(subsig);
+        if (m == null) {
+            m = new ConcurrentHashMap<SootClass, SootMethod>();
+            ConcurrentHashMap<SootClass, SootMethod> old = methods.putIfAbsent(subsig, m);
+            if (old != null) {
+                m = old;
+            }
+        }
+        return m;
+    }
+
+    /**
+     * Returns the results for the specified field name. Must be used like
+     * {@link #methodResults(NumberedString)}.
+     */
+    ConcurrentHashMap<FieldKey, SootField> fieldResults(String name) {
+        ConcurrentHashMap<String, ConcurrentHashMap<FieldKey, SootField>> fields = this.fields;
+        ConcurrentHashMap<FieldKey, SootField> m = fields.get(name);
+        if (m == null) {
+            m = new ConcurrentHashMap<FieldKey, SootField>();
+            ConcurrentHashMap<FieldKey, SootField> old = fields.putIfAbsent(name, m);
+            if (old != null) {
+                m = old;
+            }
+        }
+        return m;
+    }
+
+    /**
+     * Called when a method with the specified sub-signature has been added
+     * to or removed from a class.
+     */
+    void methodsChanged(NumberedString subsig) {
+        methods.remove(subsig);
+    }
+
+    /**
+     * Called when a field with the specified name has been added to or
+     * removed from a class or has changed its type.
+     */
+    void fieldsChanged(String name) {
+        fields.remove(name);
+    }
+
+    /**
+     * Drops all results.
+     */
+    void clear() {
+        methods = new ConcurrentHashMap<NumberedString, ConcurrentHashMap<SootClass, SootMethod>>();
+        fields = new ConcurrentHashMap<String, ConcurrentHashMap<FieldKey, SootField>>();
+    }
+
+    /**
+     * Identifies a field reference within the results for a field name.
+     */
+    static final class FieldKey {
+        private final SootClass cl;
+        private final Type type;
+
+        FieldKey(SootClass cl, Type type) {
+            this.cl = cl;
+            this.type = type;
+        }
+
+        @Override
+        public int hashCode() {
+            return cl.hashCode() * 31 + type.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof FieldKey)) {
+                return false;
+            }
+            FieldKey other = (FieldKey) obj;
+            return cl == other.cl && type.equals(other.type);
+        }
+    }
+}
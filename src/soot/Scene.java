@@ -39,6 +39,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import soot.jimple.toolkits.callgraph.CallGraph;
 import soot.jimple.toolkits.callgraph.ContextSensitiveCallGraph;
@@ -111,7 +112,7 @@ public class Scene  //extends AbstractHost
     Chain<SootClass> libraryClasses = new HashChain<SootClass>();
     Chain<SootClass> phantomClasses = new HashChain<SootClass>();
     
-    private final Map<String,Type> nameToClass = new HashMap<String,Type>();
+    private final ConcurrentHashMap<String,Type> nameToClass = new ConcurrentHashMap<String,Type>();
 
     ArrayNumberer kindNumberer = new ArrayNumberer();
     ArrayNumberer typeNumberer = new ArrayNumberer();
@@ -121,10 +122,12 @@ public class Scene  //extends AbstractHost
     ArrayNumberer fieldNumberer = new ArrayNumberer();
     ArrayNumberer classNumberer = new ArrayNumberer();
     StringNumberer subSigNumberer = new StringNumberer();
+    StringNumberer signatureNumberer = new StringNumberer();
     ArrayNumberer localNumberer = new ArrayNumberer();
 
     private Hierarchy activeHierarchy;
     private FastHierarchy activeFastHierarchy;
+    private final RefResolutionCache refResolutionCache = new RefResolutionCache();
     private CallGraph activeCallGraph;
     private ReachableMethods reachableMethods;
     private PointsToAnalysis activePointsToAnalysis;
@@ -272,15 +275,7 @@ public class Scene  //extends AbstractHost
 
     private int stateCount;
     public int getState() { return this.stateCount; }
-    private void modifyHierarchy() {
-        stateCount++;
-        activeHierarchy = null;
-        activeFastHierarchy = null;
-        activeSideEffectAnalysis = null;
-        activePointsToAnalysis = null;
-    }
-
-    public void addClass(SootClass c) 
+    public synchronized void addClass(SootClass c) 
     {
         if(c.isInScene())
             throw new RuntimeException("already managed: "+c.getName());
@@ -294,10 +289,51 @@ public class Scene  //extends AbstractHost
         nameToClass.put(c.getName(), c.getType());
         c.getType().setSootClass(c);
         c.setInScene(true);
-        modifyHierarchy();
+        stateCount++;
+        activeSideEffectAnalysis = null;
+        activePointsToAnalysis = null;
+        // The hierarchies are updated incrementally.
+        Hierarchy h = activeHierarchy;
+        if (h != null) {
+            h.addClass(c);
+        }
+        FastHierarchy fh = activeFastHierarchy;
+        if (fh != null) {
+            fh.addClass(c);
+        }
+    }
+
+    /**
+     * Called when the hierarchy of a class in the scene has been resolved.
+     */
+    void classHierarchyResolved(SootClass c) {
+        Hierarchy h = activeHierarchy;
+        if (h != null) {
+            h.addClass(c);
+        }
+        FastHierarchy fh = activeFastHierarchy;
+        if (fh != null) {
+            fh.addClass(c);
+        }
+    }
+
+    /**
+     * Called when the supertypes of a resolved class in the scene change.
+     */
+    void classHierarchyChanged(SootClass c) {
+        activeHierarchy = null;
+        activeFastHierarchy = null;
+    }
+
+    /**
+     * Returns the cache of the results of {@link SootMethodRef#resolve()}
+     * and {@link SootFieldRef#resolve()}.
+     */
+    RefResolutionCache getRefResolutionCache() {
+        return refResolutionCache;
     }
 
-    public void removeClass(SootClass c)
+    public synchronized void removeClass(SootClass c)
     {
         if(!c.isInScene())
             throw new RuntimeException();
@@ -314,7 +350,15 @@ public class Scene  //extends AbstractHost
         
         c.getType().setSootClass(null);
         c.setInScene(false);
-        modifyHierarchy();
+        stateCount++;
+        activeFastHierarchy = null;
+        refResolutionCache.clear();
+        activeSideEffectAnalysis = null;
+        activePointsToAnalysis = null;
+        Hierarchy h = activeHierarchy;
+        if (h != null) {
+            h.removeClass(c);
+        }
     }
 
     public boolean containsClass(String className)
@@ -406,18 +450,20 @@ public class Scene  //extends AbstractHost
             Main.v().resolveTimer.start();
         */
         
-        setPhantomRefs(true);
         //SootResolver resolver = new SootResolver();
-        if( !getPhantomRefs() 
-        && SourceLocator.v().getClassSource(className) == null ) {
-            setPhantomRefs(false);
-            return null;
-        }
         SootResolver resolver = SootResolver.v();
-        SootClass toReturn = resolver.resolveClass(className, desiredLevel);
-        setPhantomRefs(false);
+        synchronized (resolver) {
+            setPhantomRefs(true);
+            if( !getPhantomRefs() 
+            && SourceLocator.v().getClassSource(className) == null ) {
+                setPhantomRefs(false);
+                return null;
+            }
+            SootClass toReturn = resolver.resolveClass(className, desiredLevel);
+            setPhantomRefs(false);
 
-        return toReturn;
+            return toReturn;
+        }
         
         /*
         if(Options.v().time())
@@ -442,13 +488,15 @@ public class Scene  //extends AbstractHost
             Main.v().resolveTimer.start();
         */
         
-        setPhantomRefs(true);
         //SootResolver resolver = new SootResolver();
         SootResolver resolver = SootResolver.v();
-        SootClass toReturn = resolver.resolveClass(className, desiredLevel);
-        setPhantomRefs(false);
+        synchronized (resolver) {
+            setPhantomRefs(true);
+            SootClass toReturn = resolver.resolveClass(className, desiredLevel);
+            setPhantomRefs(false);
 
-        return toReturn;
+            return toReturn;
+        }
         
         /*
         if(Options.v().time())
@@ -486,6 +534,13 @@ public class Scene  //extends AbstractHost
         nameToClass.put(type.getClassName(), type);
     }
 
+    /**
+     * Held while a new {@link RefType} or {@link ArrayType} is created so
+     * that only the instance which is kept gets a number from the type
+     * numberer. Nothing else is locked while holding it.
+     */
+    final Object typeLock = new Object();
+
     /**
      * Returns the SootClass with the given className.  
      */
@@ -500,10 +555,15 @@ public class Scene  //extends AbstractHost
 			return toReturn;
 		} else if (allowsPhantomRefs() ||
 				   className.equals(SootClass.INVOKEDYNAMIC_DUMMY_CLASS_NAME)) {
-			SootClass c = new SootClass(className);
-			c.setPhantom(true);
-			addClass(c);
-			return c;
+			synchronized (this) {
+				type = (RefType) nameToClass.get(className);
+				if (type != null && type.hasSootClass())
+					return type.getSootClass();
+				SootClass c = new SootClass(className);
+				c.setPhantom(true);
+				addClass(c);
+				return c;
+			}
 		} else {
 			throw new RuntimeException(System.getProperty("line.separator")
 					+ "Aborting: can't find classfile " + className);
@@ -615,6 +675,9 @@ public class Scene  //extends AbstractHost
      
     public void setPointsToAnalysis(PointsToAnalysis pa)
     {
+        // Points-to sets refer to units.
+        if (pa != null)
+            BodyRetention.v().pin();
         activePointsToAnalysis = pa;
     }
 
@@ -739,6 +802,9 @@ public class Scene  //extends AbstractHost
     
     public void setCallGraph(CallGraph cg)
     {
+        // Call graph edges refer to units.
+        if (cg != null)
+            BodyRetention.v().pin();
         reachableMethods = null;
         activeCallGraph = cg;
     }
@@ -795,6 +861,14 @@ public class Scene  //extends AbstractHost
     public ArrayNumberer getFieldNumberer() { return fieldNumberer; }
     public ArrayNumberer getClassNumberer() { return classNumberer; }
     public StringNumberer getSubSigNumberer() { return subSigNumberer; }
+    /**
+     * Returns the numberer of method and field signatures. Only signatures
+     * which need to be compared by identity are added to it, e.g. those of
+     * the methods the call graph builder treats specially. Members and
+     * references look their signature up using
+     * {@link SootMethod#getNumberedSignature()} and the like.
+     */
+    public StringNumberer getSignatureNumberer() { return signatureNumberer; }
     public ArrayNumberer getLocalNumberer() { return localNumberer; }
 
     public void setContextNumberer( Numberer n ) {
@@ -21,568 +21,1119 @@
 
 package soot;
 
-/** A class to group together all the global variables in Soot. */
+/** A class to group together all the global variables in Soot. The
+ * accessors may be called from several threads; each instance is
+ * constructed at most once, under the lock of this object, and published
+ * through a volatile field. Some constructors make their instance known
+ * elsewhere, e.g. Type numbers itself, so they must never run twice. */
 public class Singletons {
     public final class Global {
         private Global() {}
     }
     private Global g = new Global();
 
-    private soot.PhaseOptions instance_soot_PhaseOptions;
+    private volatile soot.PhaseOptions instance_soot_PhaseOptions;
     public soot.PhaseOptions soot_PhaseOptions() {
-        if( instance_soot_PhaseOptions == null ) instance_soot_PhaseOptions = new soot.PhaseOptions( g );
-        return instance_soot_PhaseOptions;
+        soot.PhaseOptions ret = instance_soot_PhaseOptions;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_PhaseOptions;
+                if( ret == null ) instance_soot_PhaseOptions = ret = new soot.PhaseOptions( g );
+            }
+        }
+        return ret;
     }
 
-    private soot.jimple.toolkits.callgraph.VirtualCalls instance_soot_jimple_toolkits_callgraph_VirtualCalls;
+    private volatile soot.jimple.toolkits.callgraph.VirtualCalls instance_soot_jimple_toolkits_callgraph_VirtualCalls;
     public soot.jimple.toolkits.callgraph.VirtualCalls soot_jimple_toolkits_callgraph_VirtualCalls() {
-        if( instance_soot_jimple_toolkits_callgraph_VirtualCalls == null ) instance_soot_jimple_toolkits_callgraph_VirtualCalls = new soot.jimple.toolkits.callgraph.VirtualCalls( g );
-        return instance_soot_jimple_toolkits_callgraph_VirtualCalls;
+        soot.jimple.toolkits.callgraph.VirtualCalls ret = instance_soot_jimple_toolkits_callgraph_VirtualCalls;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_jimple_toolkits_callgraph_VirtualCalls;
+                if( ret == null ) instance_soot_jimple_toolkits_callgraph_VirtualCalls = ret = new soot.jimple.toolkits.callgraph.VirtualCalls( g );
+            }
+        }
+        return ret;
     }
 
-
-    private soot.util.SharedBitSetCache instance_soot_util_SharedBitSetCache;
+    private volatile soot.util.SharedBitSetCache instance_soot_util_SharedBitSetCache;
     public soot.util.SharedBitSetCache soot_util_SharedBitSetCache() {
-        if( instance_soot_util_SharedBitSetCache == null ) instance_soot_util_SharedBitSetCache = new soot.util.SharedBitSetCache( g );
-        return instance_soot_util_SharedBitSetCache;
+        soot.util.SharedBitSetCache ret = instance_soot_util_SharedBitSetCache;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_util_SharedBitSetCache;
+                if( ret == null ) instance_soot_util_SharedBitSetCache = ret = new soot.util.SharedBitSetCache( g );
+            }
+        }
+        return ret;
     }
 
-    private soot.options.Options instance_soot_options_Options;
+    private volatile soot.options.Options instance_soot_options_Options;
     public soot.options.Options soot_options_Options() {
-        if( instance_soot_options_Options == null ) instance_soot_options_Options = new soot.options.Options( g );
-        return instance_soot_options_Options;
+        soot.options.Options ret = instance_soot_options_Options;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_options_Options;
+                if( ret == null ) instance_soot_options_Options = ret = new soot.options.Options( g );
+            }
+        }
+        return ret;
     }
 
-    private soot.jimple.toolkits.callgraph.CHATransformer instance_soot_jimple_toolkits_callgraph_CHATransformer;
+    private volatile soot.jimple.toolkits.callgraph.CHATransformer instance_soot_jimple_toolkits_callgraph_CHATransformer;
     public soot.jimple.toolkits.callgraph.CHATransformer soot_jimple_toolkits_callgraph_CHATransformer() {
-        if( instance_soot_jimple_toolkits_callgraph_CHATransformer == null ) instance_soot_jimple_toolkits_callgraph_CHATransformer = new soot.jimple.toolkits.callgraph.CHATransformer( g );
-        return instance_soot_jimple_toolkits_callgraph_CHATransformer;
-    }
-
-    private soot.toolkits.graph.SlowPseudoTopologicalOrderer instance_soot_toolkits_graph_SlowPseudoTopologicalOrderer;
+        soot.jimple.toolkits.callgraph.CHATransformer ret = instance_soot_jimple_toolkits_callgraph_CHATransformer;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_jimple_toolkits_callgraph_CHATransformer;
+                if( ret == null ) instance_soot_jimple_toolkits_callgraph_CHATransformer = ret = new soot.jimple.toolkits.callgraph.CHATransformer( g );
+            }
+        }
+        return ret;
+    }
+
+    private volatile soot.jimple.toolkits.callgraph.RTATransformer instance_soot_jimple_toolkits_callgraph_RTATransformer;
+    public soot.jimple.toolkits.callgraph.RTATransformer soot_jimple_toolkits_callgraph_RTATransformer() {
+        soot.jimple.toolkits.callgraph.RTATransformer ret = instance_soot_jimple_toolkits_callgraph_RTATransformer;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_jimple_toolkits_callgraph_RTATransformer;
+                if( ret == null ) instance_soot_jimple_toolkits_callgraph_RTATransformer = ret = new soot.jimple.toolkits.callgraph.RTATransformer( g );
+            }
+        }
+        return ret;
+    }
+
+    private volatile soot.toolkits.graph.SlowPseudoTopologicalOrderer instance_soot_toolkits_graph_SlowPseudoTopologicalOrderer;
     public soot.toolkits.graph.SlowPseudoTopologicalOrderer soot_toolkits_graph_SlowPseudoTopologicalOrderer() {
-        if( instance_soot_toolkits_graph_SlowPseudoTopologicalOrderer == null ) instance_soot_toolkits_graph_SlowPseudoTopologicalOrderer = new soot.toolkits.graph.SlowPseudoTopologicalOrderer( g );
-        return instance_soot_toolkits_graph_SlowPseudoTopologicalOrderer;
+        soot.toolkits.graph.SlowPseudoTopologicalOrderer ret = instance_soot_toolkits_graph_SlowPseudoTopologicalOrderer;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_toolkits_graph_SlowPseudoTopologicalOrderer;
+                if( ret == null ) instance_soot_toolkits_graph_SlowPseudoTopologicalOrderer = ret = new soot.toolkits.graph.SlowPseudoTopologicalOrderer( g );
+            }
+        }
+        return ret;
     }
 
-
-    private soot.jimple.toolkits.typing.integer.ClassHierarchy instance_soot_jimple_toolkits_typing_integer_ClassHierarchy;
+    private volatile soot.jimple.toolkits.typing.integer.ClassHierarchy instance_soot_jimple_toolkits_typing_integer_ClassHierarchy;
     public soot.jimple.toolkits.typing.integer.ClassHierarchy soot_jimple_toolkits_typing_integer_ClassHierarchy() {
-        if( instance_soot_jimple_toolkits_typing_integer_ClassHierarchy == null ) instance_soot_jimple_toolkits_typing_integer_ClassHierarchy = new soot.jimple.toolkits.typing.integer.ClassHierarchy( g );
-        return instance_soot_jimple_toolkits_typing_integer_ClassHierarchy;
+        soot.jimple.toolkits.typing.integer.ClassHierarchy ret = instance_soot_jimple_toolkits_typing_integer_ClassHierarchy;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_jimple_toolkits_typing_integer_ClassHierarchy;
+                if( ret == null ) instance_soot_jimple_toolkits_typing_integer_ClassHierarchy = ret = new soot.jimple.toolkits.typing.integer.ClassHierarchy( g );
+            }
+        }
+        return ret;
     }
 
-
-    private soot.tagkit.TagManager instance_soot_tagkit_TagManager;
+    private volatile soot.tagkit.TagManager instance_soot_tagkit_TagManager;
     public soot.tagkit.TagManager soot_tagkit_TagManager() {
-        if( instance_soot_tagkit_TagManager == null ) instance_soot_tagkit_TagManager = new soot.tagkit.TagManager( g );
-        return instance_soot_tagkit_TagManager;
+        soot.tagkit.TagManager ret = instance_soot_tagkit_TagManager;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_tagkit_TagManager;
+                if( ret == null ) instance_soot_tagkit_TagManager = ret = new soot.tagkit.TagManager( g );
+            }
+        }
+        return ret;
     }
 
-    private soot.jimple.toolkits.pointer.representations.Environment instance_soot_jimple_toolkits_pointer_representations_Environment;
+    private volatile soot.jimple.toolkits.pointer.representations.Environment instance_soot_jimple_toolkits_pointer_representations_Environment;
     public soot.jimple.toolkits.pointer.representations.Environment soot_jimple_toolkits_pointer_representations_Environment() {
-        if( instance_soot_jimple_toolkits_pointer_representations_Environment == null ) instance_soot_jimple_toolkits_pointer_representations_Environment = new soot.jimple.toolkits.pointer.representations.Environment( g );
-        return instance_soot_jimple_toolkits_pointer_representations_Environment;
+        soot.jimple.toolkits.pointer.representations.Environment ret = instance_soot_jimple_toolkits_pointer_representations_Environment;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_jimple_toolkits_pointer_representations_Environment;
+                if( ret == null ) instance_soot_jimple_toolkits_pointer_representations_Environment = ret = new soot.jimple.toolkits.pointer.representations.Environment( g );
+            }
+        }
+        return ret;
     }
 
-    private soot.jimple.toolkits.pointer.representations.TypeConstants instance_soot_jimple_toolkits_pointer_representations_TypeConstants;
+    private volatile soot.jimple.toolkits.pointer.representations.TypeConstants instance_soot_jimple_toolkits_pointer_representations_TypeConstants;
     public soot.jimple.toolkits.pointer.representations.TypeConstants soot_jimple_toolkits_pointer_representations_TypeConstants() {
-        if( instance_soot_jimple_toolkits_pointer_representations_TypeConstants == null ) instance_soot_jimple_toolkits_pointer_representations_TypeConstants = new soot.jimple.toolkits.pointer.representations.TypeConstants( g );
-        return instance_soot_jimple_toolkits_pointer_representations_TypeConstants;
+        soot.jimple.toolkits.pointer.representations.TypeConstants ret = instance_soot_jimple_toolkits_pointer_representations_TypeConstants;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_jimple_toolkits_pointer_representations_TypeConstants;
+                if( ret == null ) instance_soot_jimple_toolkits_pointer_representations_TypeConstants = ret = new soot.jimple.toolkits.pointer.representations.TypeConstants( g );
+            }
+        }
+        return ret;
     }
 
-    private soot.coffi.Util instance_soot_coffi_Util;
+    private volatile soot.coffi.Util instance_soot_coffi_Util;
     public soot.coffi.Util soot_coffi_Util() {
-        if( instance_soot_coffi_Util == null ) instance_soot_coffi_Util = new soot.coffi.Util( g );
-        return instance_soot_coffi_Util;
-    }
-
-    private soot.SourceLocator instance_soot_SourceLocator;
+        soot.coffi.Util ret = instance_soot_coffi_Util;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_coffi_Util;
+                if( ret == null ) instance_soot_coffi_Util = ret = new soot.coffi.Util( g );
+            }
+        }
+        return ret;
+    }
+
+    private volatile soot.coffi.BodyCache instance_soot_coffi_BodyCache;
+    public soot.coffi.BodyCache soot_coffi_BodyCache() {
+        soot.coffi.BodyCache ret = instance_soot_coffi_BodyCache;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_coffi_BodyCache;
+                if( ret == null ) instance_soot_coffi_BodyCache = ret = new soot.coffi.BodyCache( g );
+            }
+        }
+        return ret;
+    }
+
+    private volatile soot.SourceLocator instance_soot_SourceLocator;
     public soot.SourceLocator soot_SourceLocator() {
-        if( instance_soot_SourceLocator == null ) instance_soot_SourceLocator = new soot.SourceLocator( g );
-        return instance_soot_SourceLocator;
+        soot.SourceLocator ret = instance_soot_SourceLocator;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_SourceLocator;
+                if( ret == null ) instance_soot_SourceLocator = ret = new soot.SourceLocator( g );
+            }
+        }
+        return ret;
     }
 
-    private soot.coffi.CONSTANT_Utf8_collector instance_soot_coffi_CONSTANT_Utf8_collector;
+    private volatile soot.coffi.CONSTANT_Utf8_collector instance_soot_coffi_CONSTANT_Utf8_collector;
     public soot.coffi.CONSTANT_Utf8_collector soot_coffi_CONSTANT_Utf8_collector() {
-        if( instance_soot_coffi_CONSTANT_Utf8_collector == null ) instance_soot_coffi_CONSTANT_Utf8_collector = new soot.coffi.CONSTANT_Utf8_collector( g );
-        return instance_soot_coffi_CONSTANT_Utf8_collector;
+        soot.coffi.CONSTANT_Utf8_collector ret = instance_soot_coffi_CONSTANT_Utf8_collector;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_coffi_CONSTANT_Utf8_collector;
+                if( ret == null ) instance_soot_coffi_CONSTANT_Utf8_collector = ret = new soot.coffi.CONSTANT_Utf8_collector( g );
+            }
+        }
+        return ret;
     }
 
-
-    private soot.jimple.toolkits.base.Aggregator instance_soot_jimple_toolkits_base_Aggregator;
+    private volatile soot.jimple.toolkits.base.Aggregator instance_soot_jimple_toolkits_base_Aggregator;
     public soot.jimple.toolkits.base.Aggregator soot_jimple_toolkits_base_Aggregator() {
-        if( instance_soot_jimple_toolkits_base_Aggregator == null ) instance_soot_jimple_toolkits_base_Aggregator = new soot.jimple.toolkits.base.Aggregator( g );
-        return instance_soot_jimple_toolkits_base_Aggregator;
+        soot.jimple.toolkits.base.Aggregator ret = instance_soot_jimple_toolkits_base_Aggregator;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_jimple_toolkits_base_Aggregator;
+                if( ret == null ) instance_soot_jimple_toolkits_base_Aggregator = ret = new soot.jimple.toolkits.base.Aggregator( g );
+            }
+        }
+        return ret;
     }
 
-    private soot.jimple.toolkits.annotation.arraycheck.ArrayBoundsChecker instance_soot_jimple_toolkits_annotation_arraycheck_ArrayBoundsChecker;
+    private volatile soot.jimple.toolkits.annotation.arraycheck.ArrayBoundsChecker instance_soot_jimple_toolkits_annotation_arraycheck_ArrayBoundsChecker;
     public soot.jimple.toolkits.annotation.arraycheck.ArrayBoundsChecker soot_jimple_toolkits_annotation_arraycheck_ArrayBoundsChecker() {
-        if( instance_soot_jimple_toolkits_annotation_arraycheck_ArrayBoundsChecker == null ) instance_soot_jimple_toolkits_annotation_arraycheck_ArrayBoundsChecker = new soot.jimple.toolkits.annotation.arraycheck.ArrayBoundsChecker( g );
-        return instance_soot_jimple_toolkits_annotation_arraycheck_ArrayBoundsChecker;
+        soot.jimple.toolkits.annotation.arraycheck.ArrayBoundsChecker ret = instance_soot_jimple_toolkits_annotation_arraycheck_ArrayBoundsChecker;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_jimple_toolkits_annotation_arraycheck_ArrayBoundsChecker;
+                if( ret == null ) instance_soot_jimple_toolkits_annotation_arraycheck_ArrayBoundsChecker = ret = new soot.jimple.toolkits.annotation.arraycheck.ArrayBoundsChecker( g );
+            }
+        }
+        return ret;
     }
 
-
-    private soot.BooleanType instance_soot_BooleanType;
+    private volatile soot.BooleanType instance_soot_BooleanType;
     public soot.BooleanType soot_BooleanType() {
-        if( instance_soot_BooleanType == null ) instance_soot_BooleanType = new soot.BooleanType( g );
-        return instance_soot_BooleanType;
+        soot.BooleanType ret = instance_soot_BooleanType;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_BooleanType;
+                if( ret == null ) instance_soot_BooleanType = ret = new soot.BooleanType( g );
+            }
+        }
+        return ret;
     }
 
-    private soot.jimple.toolkits.scalar.pre.BusyCodeMotion instance_soot_jimple_toolkits_scalar_pre_BusyCodeMotion;
+    private volatile soot.jimple.toolkits.scalar.pre.BusyCodeMotion instance_soot_jimple_toolkits_scalar_pre_BusyCodeMotion;
     public soot.jimple.toolkits.scalar.pre.BusyCodeMotion soot_jimple_toolkits_scalar_pre_BusyCodeMotion() {
-        if( instance_soot_jimple_toolkits_scalar_pre_BusyCodeMotion == null ) instance_soot_jimple_toolkits_scalar_pre_BusyCodeMotion = new soot.jimple.toolkits.scalar.pre.BusyCodeMotion( g );
-        return instance_soot_jimple_toolkits_scalar_pre_BusyCodeMotion;
+        soot.jimple.toolkits.scalar.pre.BusyCodeMotion ret = instance_soot_jimple_toolkits_scalar_pre_BusyCodeMotion;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_jimple_toolkits_scalar_pre_BusyCodeMotion;
+                if( ret == null ) instance_soot_jimple_toolkits_scalar_pre_BusyCodeMotion = ret = new soot.jimple.toolkits.scalar.pre.BusyCodeMotion( g );
+            }
+        }
+        return ret;
     }
 
-    private soot.ByteType instance_soot_ByteType;
+    private volatile soot.ByteType instance_soot_ByteType;
     public soot.ByteType soot_ByteType() {
-        if( instance_soot_ByteType == null ) instance_soot_ByteType = new soot.ByteType( g );
-        return instance_soot_ByteType;
+        soot.ByteType ret = instance_soot_ByteType;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_ByteType;
+                if( ret == null ) instance_soot_ByteType = ret = new soot.ByteType( g );
+            }
+        }
+        return ret;
     }
 
-    private soot.jimple.toolkits.pointer.CastCheckEliminatorDumper instance_soot_jimple_toolkits_pointer_CastCheckEliminatorDumper;
+    private volatile soot.jimple.toolkits.pointer.CastCheckEliminatorDumper instance_soot_jimple_toolkits_pointer_CastCheckEliminatorDumper;
     public soot.jimple.toolkits.pointer.CastCheckEliminatorDumper soot_jimple_toolkits_pointer_CastCheckEliminatorDumper() {
-        if( instance_soot_jimple_toolkits_pointer_CastCheckEliminatorDumper == null ) instance_soot_jimple_toolkits_pointer_CastCheckEliminatorDumper = new soot.jimple.toolkits.pointer.CastCheckEliminatorDumper( g );
-        return instance_soot_jimple_toolkits_pointer_CastCheckEliminatorDumper;
+        soot.jimple.toolkits.pointer.CastCheckEliminatorDumper ret = instance_soot_jimple_toolkits_pointer_CastCheckEliminatorDumper;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_jimple_toolkits_pointer_CastCheckEliminatorDumper;
+                if( ret == null ) instance_soot_jimple_toolkits_pointer_CastCheckEliminatorDumper = ret = new soot.jimple.toolkits.pointer.CastCheckEliminatorDumper( g );
+            }
+        }
+        return ret;
     }
 
-    private soot.CharType instance_soot_CharType;
+    private volatile soot.CharType instance_soot_CharType;
     public soot.CharType soot_CharType() {
-        if( instance_soot_CharType == null ) instance_soot_CharType = new soot.CharType( g );
-        return instance_soot_CharType;
+        soot.CharType ret = instance_soot_CharType;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_CharType;
+                if( ret == null ) instance_soot_CharType = ret = new soot.CharType( g );
+            }
+        }
+        return ret;
     }
 
-    private soot.jimple.toolkits.annotation.arraycheck.ClassFieldAnalysis instance_soot_jimple_toolkits_annotation_arraycheck_ClassFieldAnalysis;
+    private volatile soot.jimple.toolkits.annotation.arraycheck.ClassFieldAnalysis instance_soot_jimple_toolkits_annotation_arraycheck_ClassFieldAnalysis;
     public soot.jimple.toolkits.annotation.arraycheck.ClassFieldAnalysis soot_jimple_toolkits_annotation_arraycheck_ClassFieldAnalysis() {
-        if( instance_soot_jimple_toolkits_annotation_arraycheck_ClassFieldAnalysis == null ) instance_soot_jimple_toolkits_annotation_arraycheck_ClassFieldAnalysis = new soot.jimple.toolkits.annotation.arraycheck.ClassFieldAnalysis( g );
-        return instance_soot_jimple_toolkits_annotation_arraycheck_ClassFieldAnalysis;
+        soot.jimple.toolkits.annotation.arraycheck.ClassFieldAnalysis ret = instance_soot_jimple_toolkits_annotation_arraycheck_ClassFieldAnalysis;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_jimple_toolkits_annotation_arraycheck_ClassFieldAnalysis;
+                if( ret == null ) instance_soot_jimple_toolkits_annotation_arraycheck_ClassFieldAnalysis = ret = new soot.jimple.toolkits.annotation.arraycheck.ClassFieldAnalysis( g );
+            }
+        }
+        return ret;
     }
 
-    private soot.jimple.toolkits.scalar.CommonSubexpressionEliminator instance_soot_jimple_toolkits_scalar_CommonSubexpressionEliminator;
+    private volatile soot.jimple.toolkits.scalar.CommonSubexpressionEliminator instance_soot_jimple_toolkits_scalar_CommonSubexpressionEliminator;
     public soot.jimple.toolkits.scalar.CommonSubexpressionEliminator soot_jimple_toolkits_scalar_CommonSubexpressionEliminator() {
-        if( instance_soot_jimple_toolkits_scalar_CommonSubexpressionEliminator == null ) instance_soot_jimple_toolkits_scalar_CommonSubexpressionEliminator = new soot.jimple.toolkits.scalar.CommonSubexpressionEliminator( g );
-        return instance_soot_jimple_toolkits_scalar_CommonSubexpressionEliminator;
+        soot.jimple.toolkits.scalar.CommonSubexpressionEliminator ret = instance_soot_jimple_toolkits_scalar_CommonSubexpressionEliminator;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_jimple_toolkits_scalar_CommonSubexpressionEliminator;
+                if( ret == null ) instance_soot_jimple_toolkits_scalar_CommonSubexpressionEliminator = ret = new soot.jimple.toolkits.scalar.CommonSubexpressionEliminator( g );
+            }
+        }
+        return ret;
     }
 
-    private soot.jimple.toolkits.scalar.ConditionalBranchFolder instance_soot_jimple_toolkits_scalar_ConditionalBranchFolder;
+    private volatile soot.jimple.toolkits.scalar.ConditionalBranchFolder instance_soot_jimple_toolkits_scalar_ConditionalBranchFolder;
     public soot.jimple.toolkits.scalar.ConditionalBranchFolder soot_jimple_toolkits_scalar_ConditionalBranchFolder() {
-        if( instance_soot_jimple_toolkits_scalar_ConditionalBranchFolder == null ) instance_soot_jimple_toolkits_scalar_ConditionalBranchFolder = new soot.jimple.toolkits.scalar.ConditionalBranchFolder( g );
-        return instance_soot_jimple_toolkits_scalar_ConditionalBranchFolder;
+        soot.jimple.toolkits.scalar.ConditionalBranchFolder ret = instance_soot_jimple_toolkits_scalar_ConditionalBranchFolder;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_jimple_toolkits_scalar_ConditionalBranchFolder;
+                if( ret == null ) instance_soot_jimple_toolkits_scalar_ConditionalBranchFolder = ret = new soot.jimple.toolkits.scalar.ConditionalBranchFolder( g );
+            }
+        }
+        return ret;
     }
 
-    private soot.jimple.toolkits.scalar.ConstantPropagatorAndFolder instance_soot_jimple_toolkits_scalar_ConstantPropagatorAndFolder;
+    private volatile soot.jimple.toolkits.scalar.ConstantPropagatorAndFolder instance_soot_jimple_toolkits_scalar_ConstantPropagatorAndFolder;
     public soot.jimple.toolkits.scalar.ConstantPropagatorAndFolder soot_jimple_toolkits_scalar_ConstantPropagatorAndFolder() {
-        if( instance_soot_jimple_toolkits_scalar_ConstantPropagatorAndFolder == null ) instance_soot_jimple_toolkits_scalar_ConstantPropagatorAndFolder = new soot.jimple.toolkits.scalar.ConstantPropagatorAndFolder( g );
-        return instance_soot_jimple_toolkits_scalar_ConstantPropagatorAndFolder;
+        soot.jimple.toolkits.scalar.ConstantPropagatorAndFolder ret = instance_soot_jimple_toolkits_scalar_ConstantPropagatorAndFolder;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_jimple_toolkits_scalar_ConstantPropagatorAndFolder;
+                if( ret == null ) instance_soot_jimple_toolkits_scalar_ConstantPropagatorAndFolder = ret = new soot.jimple.toolkits.scalar.ConstantPropagatorAndFolder( g );
+            }
+        }
+        return ret;
     }
 
-
-    private soot.jimple.toolkits.scalar.CopyPropagator instance_soot_jimple_toolkits_scalar_CopyPropagator;
+    private volatile soot.jimple.toolkits.scalar.CopyPropagator instance_soot_jimple_toolkits_scalar_CopyPropagator;
     public soot.jimple.toolkits.scalar.CopyPropagator soot_jimple_toolkits_scalar_CopyPropagator() {
-        if( instance_soot_jimple_toolkits_scalar_CopyPropagator == null ) instance_soot_jimple_toolkits_scalar_CopyPropagator = new soot.jimple.toolkits.scalar.CopyPropagator( g );
-        return instance_soot_jimple_toolkits_scalar_CopyPropagator;
+        soot.jimple.toolkits.scalar.CopyPropagator ret = instance_soot_jimple_toolkits_scalar_CopyPropagator;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_jimple_toolkits_scalar_CopyPropagator;
+                if( ret == null ) instance_soot_jimple_toolkits_scalar_CopyPropagator = ret = new soot.jimple.toolkits.scalar.CopyPropagator( g );
+            }
+        }
+        return ret;
     }
 
-    private soot.jimple.toolkits.graph.CriticalEdgeRemover instance_soot_jimple_toolkits_graph_CriticalEdgeRemover;
+    private volatile soot.jimple.toolkits.graph.CriticalEdgeRemover instance_soot_jimple_toolkits_graph_CriticalEdgeRemover;
     public soot.jimple.toolkits.graph.CriticalEdgeRemover soot_jimple_toolkits_graph_CriticalEdgeRemover() {
-        if( instance_soot_jimple_toolkits_graph_CriticalEdgeRemover == null ) instance_soot_jimple_toolkits_graph_CriticalEdgeRemover = new soot.jimple.toolkits.graph.CriticalEdgeRemover( g );
-        return instance_soot_jimple_toolkits_graph_CriticalEdgeRemover;
+        soot.jimple.toolkits.graph.CriticalEdgeRemover ret = instance_soot_jimple_toolkits_graph_CriticalEdgeRemover;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_jimple_toolkits_graph_CriticalEdgeRemover;
+                if( ret == null ) instance_soot_jimple_toolkits_graph_CriticalEdgeRemover = ret = new soot.jimple.toolkits.graph.CriticalEdgeRemover( g );
+            }
+        }
+        return ret;
     }
 
-
-    private soot.Printer instance_soot_Printer;
+    private volatile soot.Printer instance_soot_Printer;
     public soot.Printer soot_Printer() {
-        if( instance_soot_Printer == null ) instance_soot_Printer = new soot.Printer( g );
-        return instance_soot_Printer;
+        soot.Printer ret = instance_soot_Printer;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_Printer;
+                if( ret == null ) instance_soot_Printer = ret = new soot.Printer( g );
+            }
+        }
+        return ret;
     }
 
-    private soot.jimple.toolkits.scalar.DeadAssignmentEliminator instance_soot_jimple_toolkits_scalar_DeadAssignmentEliminator;
+    private volatile soot.jimple.toolkits.scalar.DeadAssignmentEliminator instance_soot_jimple_toolkits_scalar_DeadAssignmentEliminator;
     public soot.jimple.toolkits.scalar.DeadAssignmentEliminator soot_jimple_toolkits_scalar_DeadAssignmentEliminator() {
-        if( instance_soot_jimple_toolkits_scalar_DeadAssignmentEliminator == null ) instance_soot_jimple_toolkits_scalar_DeadAssignmentEliminator = new soot.jimple.toolkits.scalar.DeadAssignmentEliminator( g );
-        return instance_soot_jimple_toolkits_scalar_DeadAssignmentEliminator;
+        soot.jimple.toolkits.scalar.DeadAssignmentEliminator ret = instance_soot_jimple_toolkits_scalar_DeadAssignmentEliminator;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_jimple_toolkits_scalar_DeadAssignmentEliminator;
+                if( ret == null ) instance_soot_jimple_toolkits_scalar_DeadAssignmentEliminator = ret = new soot.jimple.toolkits.scalar.DeadAssignmentEliminator( g );
+            }
+        }
+        return ret;
     }
 
-
-    private soot.coffi.Double2ndHalfType instance_soot_coffi_Double2ndHalfType;
+    private volatile soot.coffi.Double2ndHalfType instance_soot_coffi_Double2ndHalfType;
     public soot.coffi.Double2ndHalfType soot_coffi_Double2ndHalfType() {
-        if( instance_soot_coffi_Double2ndHalfType == null ) instance_soot_coffi_Double2ndHalfType = new soot.coffi.Double2ndHalfType( g );
-        return instance_soot_coffi_Double2ndHalfType;
+        soot.coffi.Double2ndHalfType ret = instance_soot_coffi_Double2ndHalfType;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_coffi_Double2ndHalfType;
+                if( ret == null ) instance_soot_coffi_Double2ndHalfType = ret = new soot.coffi.Double2ndHalfType( g );
+            }
+        }
+        return ret;
     }
 
-    private soot.DoubleType instance_soot_DoubleType;
+    private volatile soot.DoubleType instance_soot_DoubleType;
     public soot.DoubleType soot_DoubleType() {
-        if( instance_soot_DoubleType == null ) instance_soot_DoubleType = new soot.DoubleType( g );
-        return instance_soot_DoubleType;
+        soot.DoubleType ret = instance_soot_DoubleType;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_DoubleType;
+                if( ret == null ) instance_soot_DoubleType = ret = new soot.DoubleType( g );
+            }
+        }
+        return ret;
     }
 
-
-    private soot.jimple.toolkits.pointer.DumbPointerAnalysis instance_soot_jimple_toolkits_pointer_DumbPointerAnalysis;
+    private volatile soot.jimple.toolkits.pointer.DumbPointerAnalysis instance_soot_jimple_toolkits_pointer_DumbPointerAnalysis;
     public soot.jimple.toolkits.pointer.DumbPointerAnalysis soot_jimple_toolkits_pointer_DumbPointerAnalysis() {
-        if( instance_soot_jimple_toolkits_pointer_DumbPointerAnalysis == null ) instance_soot_jimple_toolkits_pointer_DumbPointerAnalysis = new soot.jimple.toolkits.pointer.DumbPointerAnalysis( g );
-        return instance_soot_jimple_toolkits_pointer_DumbPointerAnalysis;
+        soot.jimple.toolkits.pointer.DumbPointerAnalysis ret = instance_soot_jimple_toolkits_pointer_DumbPointerAnalysis;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_jimple_toolkits_pointer_DumbPointerAnalysis;
+                if( ret == null ) instance_soot_jimple_toolkits_pointer_DumbPointerAnalysis = ret = new soot.jimple.toolkits.pointer.DumbPointerAnalysis( g );
+            }
+        }
+        return ret;
     }
 
-
-    private soot.ErroneousType instance_soot_ErroneousType;
+    private volatile soot.ErroneousType instance_soot_ErroneousType;
     public soot.ErroneousType soot_ErroneousType() {
-        if( instance_soot_ErroneousType == null ) instance_soot_ErroneousType = new soot.ErroneousType( g );
-        return instance_soot_ErroneousType;
+        soot.ErroneousType ret = instance_soot_ErroneousType;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_ErroneousType;
+                if( ret == null ) instance_soot_ErroneousType = ret = new soot.ErroneousType( g );
+            }
+        }
+        return ret;
     }
 
-
-    private soot.jimple.toolkits.pointer.FieldRWTagger instance_soot_jimple_toolkits_pointer_FieldRWTagger;
+    private volatile soot.jimple.toolkits.pointer.FieldRWTagger instance_soot_jimple_toolkits_pointer_FieldRWTagger;
     public soot.jimple.toolkits.pointer.FieldRWTagger soot_jimple_toolkits_pointer_FieldRWTagger() {
-        if( instance_soot_jimple_toolkits_pointer_FieldRWTagger == null ) instance_soot_jimple_toolkits_pointer_FieldRWTagger = new soot.jimple.toolkits.pointer.FieldRWTagger( g );
-        return instance_soot_jimple_toolkits_pointer_FieldRWTagger;
+        soot.jimple.toolkits.pointer.FieldRWTagger ret = instance_soot_jimple_toolkits_pointer_FieldRWTagger;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_jimple_toolkits_pointer_FieldRWTagger;
+                if( ret == null ) instance_soot_jimple_toolkits_pointer_FieldRWTagger = ret = new soot.jimple.toolkits.pointer.FieldRWTagger( g );
+            }
+        }
+        return ret;
     }
 
-    private soot.FloatType instance_soot_FloatType;
+    private volatile soot.FloatType instance_soot_FloatType;
     public soot.FloatType soot_FloatType() {
-        if( instance_soot_FloatType == null ) instance_soot_FloatType = new soot.FloatType( g );
-        return instance_soot_FloatType;
+        soot.FloatType ret = instance_soot_FloatType;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_FloatType;
+                if( ret == null ) instance_soot_FloatType = ret = new soot.FloatType( g );
+            }
+        }
+        return ret;
     }
 
-    private soot.jimple.toolkits.pointer.FullObjectSet instance_soot_jimple_toolkits_pointer_FullObjectSet;
+    private volatile soot.jimple.toolkits.pointer.FullObjectSet instance_soot_jimple_toolkits_pointer_FullObjectSet;
     public soot.jimple.toolkits.pointer.FullObjectSet soot_jimple_toolkits_pointer_FullObjectSet() {
-        if( instance_soot_jimple_toolkits_pointer_FullObjectSet == null ) instance_soot_jimple_toolkits_pointer_FullObjectSet = new soot.jimple.toolkits.pointer.FullObjectSet( g );
-        return instance_soot_jimple_toolkits_pointer_FullObjectSet;
+        soot.jimple.toolkits.pointer.FullObjectSet ret = instance_soot_jimple_toolkits_pointer_FullObjectSet;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_jimple_toolkits_pointer_FullObjectSet;
+                if( ret == null ) instance_soot_jimple_toolkits_pointer_FullObjectSet = ret = new soot.jimple.toolkits.pointer.FullObjectSet( g );
+            }
+        }
+        return ret;
     }
 
-
-
-    private soot.IntType instance_soot_IntType;
+    private volatile soot.IntType instance_soot_IntType;
     public soot.IntType soot_IntType() {
-        if( instance_soot_IntType == null ) instance_soot_IntType = new soot.IntType( g );
-        return instance_soot_IntType;
+        soot.IntType ret = instance_soot_IntType;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_IntType;
+                if( ret == null ) instance_soot_IntType = ret = new soot.IntType( g );
+            }
+        }
+        return ret;
     }
 
-    private soot.jimple.Jimple instance_soot_jimple_Jimple;
+    private volatile soot.jimple.Jimple instance_soot_jimple_Jimple;
     public soot.jimple.Jimple soot_jimple_Jimple() {
-        if( instance_soot_jimple_Jimple == null ) instance_soot_jimple_Jimple = new soot.jimple.Jimple( g );
-        return instance_soot_jimple_Jimple;
+        soot.jimple.Jimple ret = instance_soot_jimple_Jimple;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_jimple_Jimple;
+                if( ret == null ) instance_soot_jimple_Jimple = ret = new soot.jimple.Jimple( g );
+            }
+        }
+        return ret;
     }
 
-
-    private soot.jimple.toolkits.scalar.pre.LazyCodeMotion instance_soot_jimple_toolkits_scalar_pre_LazyCodeMotion;
+    private volatile soot.jimple.toolkits.scalar.pre.LazyCodeMotion instance_soot_jimple_toolkits_scalar_pre_LazyCodeMotion;
     public soot.jimple.toolkits.scalar.pre.LazyCodeMotion soot_jimple_toolkits_scalar_pre_LazyCodeMotion() {
-        if( instance_soot_jimple_toolkits_scalar_pre_LazyCodeMotion == null ) instance_soot_jimple_toolkits_scalar_pre_LazyCodeMotion = new soot.jimple.toolkits.scalar.pre.LazyCodeMotion( g );
-        return instance_soot_jimple_toolkits_scalar_pre_LazyCodeMotion;
+        soot.jimple.toolkits.scalar.pre.LazyCodeMotion ret = instance_soot_jimple_toolkits_scalar_pre_LazyCodeMotion;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_jimple_toolkits_scalar_pre_LazyCodeMotion;
+                if( ret == null ) instance_soot_jimple_toolkits_scalar_pre_LazyCodeMotion = ret = new soot.jimple.toolkits.scalar.pre.LazyCodeMotion( g );
+            }
+        }
+        return ret;
     }
 
-
-    private soot.tagkit.InnerClassTagAggregator instance_soot_tagkit_InnerClassTagAggregator;
+    private volatile soot.tagkit.InnerClassTagAggregator instance_soot_tagkit_InnerClassTagAggregator;
     public soot.tagkit.InnerClassTagAggregator soot_tagkit_InnerClassTagAggregator() {
-        if( instance_soot_tagkit_InnerClassTagAggregator == null ) instance_soot_tagkit_InnerClassTagAggregator = new soot.tagkit.InnerClassTagAggregator( g );
-        return instance_soot_tagkit_InnerClassTagAggregator;
+        soot.tagkit.InnerClassTagAggregator ret = instance_soot_tagkit_InnerClassTagAggregator;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_tagkit_InnerClassTagAggregator;
+                if( ret == null ) instance_soot_tagkit_InnerClassTagAggregator = ret = new soot.tagkit.InnerClassTagAggregator( g );
+            }
+        }
+        return ret;
     }
 
-    private soot.jimple.toolkits.annotation.LineNumberAdder instance_soot_jimple_toolkits_annotation_LineNumberAdder;
+    private volatile soot.jimple.toolkits.annotation.LineNumberAdder instance_soot_jimple_toolkits_annotation_LineNumberAdder;
     public soot.jimple.toolkits.annotation.LineNumberAdder soot_jimple_toolkits_annotation_LineNumberAdder() {
-        if( instance_soot_jimple_toolkits_annotation_LineNumberAdder == null ) instance_soot_jimple_toolkits_annotation_LineNumberAdder = new soot.jimple.toolkits.annotation.LineNumberAdder( g );
-        return instance_soot_jimple_toolkits_annotation_LineNumberAdder;
+        soot.jimple.toolkits.annotation.LineNumberAdder ret = instance_soot_jimple_toolkits_annotation_LineNumberAdder;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_jimple_toolkits_annotation_LineNumberAdder;
+                if( ret == null ) instance_soot_jimple_toolkits_annotation_LineNumberAdder = ret = new soot.jimple.toolkits.annotation.LineNumberAdder( g );
+            }
+        }
+        return ret;
     }
 
-
-    private soot.jimple.toolkits.scalar.LocalNameStandardizer instance_soot_jimple_toolkits_scalar_LocalNameStandardizer;
+    private volatile soot.jimple.toolkits.scalar.LocalNameStandardizer instance_soot_jimple_toolkits_scalar_LocalNameStandardizer;
     public soot.jimple.toolkits.scalar.LocalNameStandardizer soot_jimple_toolkits_scalar_LocalNameStandardizer() {
-        if( instance_soot_jimple_toolkits_scalar_LocalNameStandardizer == null ) instance_soot_jimple_toolkits_scalar_LocalNameStandardizer = new soot.jimple.toolkits.scalar.LocalNameStandardizer( g );
-        return instance_soot_jimple_toolkits_scalar_LocalNameStandardizer;
+        soot.jimple.toolkits.scalar.LocalNameStandardizer ret = instance_soot_jimple_toolkits_scalar_LocalNameStandardizer;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_jimple_toolkits_scalar_LocalNameStandardizer;
+                if( ret == null ) instance_soot_jimple_toolkits_scalar_LocalNameStandardizer = ret = new soot.jimple.toolkits.scalar.LocalNameStandardizer( g );
+            }
+        }
+        return ret;
     }
 
-    private soot.toolkits.scalar.LocalPacker instance_soot_toolkits_scalar_LocalPacker;
+    private volatile soot.toolkits.scalar.LocalPacker instance_soot_toolkits_scalar_LocalPacker;
     public soot.toolkits.scalar.LocalPacker soot_toolkits_scalar_LocalPacker() {
-        if( instance_soot_toolkits_scalar_LocalPacker == null ) instance_soot_toolkits_scalar_LocalPacker = new soot.toolkits.scalar.LocalPacker( g );
-        return instance_soot_toolkits_scalar_LocalPacker;
+        soot.toolkits.scalar.LocalPacker ret = instance_soot_toolkits_scalar_LocalPacker;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_toolkits_scalar_LocalPacker;
+                if( ret == null ) instance_soot_toolkits_scalar_LocalPacker = ret = new soot.toolkits.scalar.LocalPacker( g );
+            }
+        }
+        return ret;
     }
 
-    private soot.toolkits.scalar.RoboVmLocalPacker instance_soot_toolkits_scalar_RoboVmLocalPacker;
+    private volatile soot.toolkits.scalar.RoboVmLocalPacker instance_soot_toolkits_scalar_RoboVmLocalPacker;
     public soot.toolkits.scalar.RoboVmLocalPacker soot_toolkits_scalar_RoboVmLocalPacker() {
-        if( instance_soot_toolkits_scalar_RoboVmLocalPacker == null ) instance_soot_toolkits_scalar_RoboVmLocalPacker = new soot.toolkits.scalar.RoboVmLocalPacker( g );
-        return instance_soot_toolkits_scalar_RoboVmLocalPacker;
+        soot.toolkits.scalar.RoboVmLocalPacker ret = instance_soot_toolkits_scalar_RoboVmLocalPacker;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_toolkits_scalar_RoboVmLocalPacker;
+                if( ret == null ) instance_soot_toolkits_scalar_RoboVmLocalPacker = ret = new soot.toolkits.scalar.RoboVmLocalPacker( g );
+            }
+        }
+        return ret;
     }
 
-    private soot.toolkits.scalar.LocalSplitter instance_soot_toolkits_scalar_LocalSplitter;
+    private volatile soot.toolkits.scalar.LocalSplitter instance_soot_toolkits_scalar_LocalSplitter;
     public soot.toolkits.scalar.LocalSplitter soot_toolkits_scalar_LocalSplitter() {
-        if( instance_soot_toolkits_scalar_LocalSplitter == null ) instance_soot_toolkits_scalar_LocalSplitter = new soot.toolkits.scalar.LocalSplitter( g );
-        return instance_soot_toolkits_scalar_LocalSplitter;
+        soot.toolkits.scalar.LocalSplitter ret = instance_soot_toolkits_scalar_LocalSplitter;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_toolkits_scalar_LocalSplitter;
+                if( ret == null ) instance_soot_toolkits_scalar_LocalSplitter = ret = new soot.toolkits.scalar.LocalSplitter( g );
+            }
+        }
+        return ret;
     }
 
-    private soot.coffi.Long2ndHalfType instance_soot_coffi_Long2ndHalfType;
+    private volatile soot.coffi.Long2ndHalfType instance_soot_coffi_Long2ndHalfType;
     public soot.coffi.Long2ndHalfType soot_coffi_Long2ndHalfType() {
-        if( instance_soot_coffi_Long2ndHalfType == null ) instance_soot_coffi_Long2ndHalfType = new soot.coffi.Long2ndHalfType( g );
-        return instance_soot_coffi_Long2ndHalfType;
+        soot.coffi.Long2ndHalfType ret = instance_soot_coffi_Long2ndHalfType;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_coffi_Long2ndHalfType;
+                if( ret == null ) instance_soot_coffi_Long2ndHalfType = ret = new soot.coffi.Long2ndHalfType( g );
+            }
+        }
+        return ret;
     }
 
-    private soot.LongType instance_soot_LongType;
+    private volatile soot.LongType instance_soot_LongType;
     public soot.LongType soot_LongType() {
-        if( instance_soot_LongType == null ) instance_soot_LongType = new soot.LongType( g );
-        return instance_soot_LongType;
+        soot.LongType ret = instance_soot_LongType;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_LongType;
+                if( ret == null ) instance_soot_LongType = ret = new soot.LongType( g );
+            }
+        }
+        return ret;
     }
 
-
-    private soot.jimple.toolkits.scalar.NopEliminator instance_soot_jimple_toolkits_scalar_NopEliminator;
+    private volatile soot.jimple.toolkits.scalar.NopEliminator instance_soot_jimple_toolkits_scalar_NopEliminator;
     public soot.jimple.toolkits.scalar.NopEliminator soot_jimple_toolkits_scalar_NopEliminator() {
-        if( instance_soot_jimple_toolkits_scalar_NopEliminator == null ) instance_soot_jimple_toolkits_scalar_NopEliminator = new soot.jimple.toolkits.scalar.NopEliminator( g );
-        return instance_soot_jimple_toolkits_scalar_NopEliminator;
+        soot.jimple.toolkits.scalar.NopEliminator ret = instance_soot_jimple_toolkits_scalar_NopEliminator;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_jimple_toolkits_scalar_NopEliminator;
+                if( ret == null ) instance_soot_jimple_toolkits_scalar_NopEliminator = ret = new soot.jimple.toolkits.scalar.NopEliminator( g );
+            }
+        }
+        return ret;
     }
 
-    private soot.jimple.NullConstant instance_soot_jimple_NullConstant;
+    private volatile soot.jimple.NullConstant instance_soot_jimple_NullConstant;
     public soot.jimple.NullConstant soot_jimple_NullConstant() {
-        if( instance_soot_jimple_NullConstant == null ) instance_soot_jimple_NullConstant = new soot.jimple.NullConstant( g );
-        return instance_soot_jimple_NullConstant;
+        soot.jimple.NullConstant ret = instance_soot_jimple_NullConstant;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_jimple_NullConstant;
+                if( ret == null ) instance_soot_jimple_NullConstant = ret = new soot.jimple.NullConstant( g );
+            }
+        }
+        return ret;
     }
 
-    private soot.jimple.toolkits.annotation.nullcheck.NullPointerChecker instance_soot_jimple_toolkits_annotation_nullcheck_NullPointerChecker;
+    private volatile soot.jimple.toolkits.annotation.nullcheck.NullPointerChecker instance_soot_jimple_toolkits_annotation_nullcheck_NullPointerChecker;
     public soot.jimple.toolkits.annotation.nullcheck.NullPointerChecker soot_jimple_toolkits_annotation_nullcheck_NullPointerChecker() {
-        if( instance_soot_jimple_toolkits_annotation_nullcheck_NullPointerChecker == null ) instance_soot_jimple_toolkits_annotation_nullcheck_NullPointerChecker = new soot.jimple.toolkits.annotation.nullcheck.NullPointerChecker( g );
-        return instance_soot_jimple_toolkits_annotation_nullcheck_NullPointerChecker;
+        soot.jimple.toolkits.annotation.nullcheck.NullPointerChecker ret = instance_soot_jimple_toolkits_annotation_nullcheck_NullPointerChecker;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_jimple_toolkits_annotation_nullcheck_NullPointerChecker;
+                if( ret == null ) instance_soot_jimple_toolkits_annotation_nullcheck_NullPointerChecker = ret = new soot.jimple.toolkits.annotation.nullcheck.NullPointerChecker( g );
+            }
+        }
+        return ret;
     }
 
-    private soot.NullType instance_soot_NullType;
+    private volatile soot.NullType instance_soot_NullType;
     public soot.NullType soot_NullType() {
-        if( instance_soot_NullType == null ) instance_soot_NullType = new soot.NullType( g );
-        return instance_soot_NullType;
-    }
-
-
-    private soot.PackManager instance_soot_PackManager;
+        soot.NullType ret = instance_soot_NullType;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_NullType;
+                if( ret == null ) instance_soot_NullType = ret = new soot.NullType( g );
+            }
+        }
+        return ret;
+    }
+
+    private volatile soot.BodyRetention instance_soot_BodyRetention;
+    public soot.BodyRetention soot_BodyRetention() {
+        soot.BodyRetention ret = instance_soot_BodyRetention;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_BodyRetention;
+                if( ret == null ) instance_soot_BodyRetention = ret = new soot.BodyRetention( g );
+            }
+        }
+        return ret;
+    }
+
+    private volatile soot.PackManager instance_soot_PackManager;
     public soot.PackManager soot_PackManager() {
-        if( instance_soot_PackManager == null ) instance_soot_PackManager = new soot.PackManager( g );
-        return instance_soot_PackManager;
+        soot.PackManager ret = instance_soot_PackManager;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_PackManager;
+                if( ret == null ) instance_soot_PackManager = ret = new soot.PackManager( g );
+            }
+        }
+        return ret;
     }
 
-
-    private soot.jimple.toolkits.annotation.profiling.ProfilingGenerator instance_soot_jimple_toolkits_annotation_profiling_ProfilingGenerator;
+    private volatile soot.jimple.toolkits.annotation.profiling.ProfilingGenerator instance_soot_jimple_toolkits_annotation_profiling_ProfilingGenerator;
     public soot.jimple.toolkits.annotation.profiling.ProfilingGenerator soot_jimple_toolkits_annotation_profiling_ProfilingGenerator() {
-        if( instance_soot_jimple_toolkits_annotation_profiling_ProfilingGenerator == null ) instance_soot_jimple_toolkits_annotation_profiling_ProfilingGenerator = new soot.jimple.toolkits.annotation.profiling.ProfilingGenerator( g );
-        return instance_soot_jimple_toolkits_annotation_profiling_ProfilingGenerator;
+        soot.jimple.toolkits.annotation.profiling.ProfilingGenerator ret = instance_soot_jimple_toolkits_annotation_profiling_ProfilingGenerator;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_jimple_toolkits_annotation_profiling_ProfilingGenerator;
+                if( ret == null ) instance_soot_jimple_toolkits_annotation_profiling_ProfilingGenerator = ret = new soot.jimple.toolkits.annotation.profiling.ProfilingGenerator( g );
+            }
+        }
+        return ret;
     }
 
-    private soot.jimple.toolkits.annotation.arraycheck.RectangularArrayFinder instance_soot_jimple_toolkits_annotation_arraycheck_RectangularArrayFinder;
+    private volatile soot.jimple.toolkits.annotation.arraycheck.RectangularArrayFinder instance_soot_jimple_toolkits_annotation_arraycheck_RectangularArrayFinder;
     public soot.jimple.toolkits.annotation.arraycheck.RectangularArrayFinder soot_jimple_toolkits_annotation_arraycheck_RectangularArrayFinder() {
-        if( instance_soot_jimple_toolkits_annotation_arraycheck_RectangularArrayFinder == null ) instance_soot_jimple_toolkits_annotation_arraycheck_RectangularArrayFinder = new soot.jimple.toolkits.annotation.arraycheck.RectangularArrayFinder( g );
-        return instance_soot_jimple_toolkits_annotation_arraycheck_RectangularArrayFinder;
+        soot.jimple.toolkits.annotation.arraycheck.RectangularArrayFinder ret = instance_soot_jimple_toolkits_annotation_arraycheck_RectangularArrayFinder;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_jimple_toolkits_annotation_arraycheck_RectangularArrayFinder;
+                if( ret == null ) instance_soot_jimple_toolkits_annotation_arraycheck_RectangularArrayFinder = ret = new soot.jimple.toolkits.annotation.arraycheck.RectangularArrayFinder( g );
+            }
+        }
+        return ret;
     }
 
-    private soot.RefType instance_soot_RefType;
+    private volatile soot.RefType instance_soot_RefType;
     public soot.RefType soot_RefType() {
-        if( instance_soot_RefType == null ) instance_soot_RefType = new soot.RefType( g );
-        return instance_soot_RefType;
+        soot.RefType ret = instance_soot_RefType;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_RefType;
+                if( ret == null ) instance_soot_RefType = ret = new soot.RefType( g );
+            }
+        }
+        return ret;
     }
 
-    private soot.Scene instance_soot_Scene;
+    private volatile soot.Scene instance_soot_Scene;
     public soot.Scene soot_Scene() {
-        if( instance_soot_Scene == null ) instance_soot_Scene = new soot.Scene( g );
-        return instance_soot_Scene;
+        soot.Scene ret = instance_soot_Scene;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_Scene;
+                if( ret == null ) instance_soot_Scene = ret = new soot.Scene( g );
+            }
+        }
+        return ret;
     }
 
-
-    private soot.ShortType instance_soot_ShortType;
+    private volatile soot.ShortType instance_soot_ShortType;
     public soot.ShortType soot_ShortType() {
-        if( instance_soot_ShortType == null ) instance_soot_ShortType = new soot.ShortType( g );
-        return instance_soot_ShortType;
+        soot.ShortType ret = instance_soot_ShortType;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_ShortType;
+                if( ret == null ) instance_soot_ShortType = ret = new soot.ShortType( g );
+            }
+        }
+        return ret;
     }
 
-    private soot.jimple.toolkits.pointer.SideEffectTagger instance_soot_jimple_toolkits_pointer_SideEffectTagger;
+    private volatile soot.jimple.toolkits.pointer.SideEffectTagger instance_soot_jimple_toolkits_pointer_SideEffectTagger;
     public soot.jimple.toolkits.pointer.SideEffectTagger soot_jimple_toolkits_pointer_SideEffectTagger() {
-        if( instance_soot_jimple_toolkits_pointer_SideEffectTagger == null ) instance_soot_jimple_toolkits_pointer_SideEffectTagger = new soot.jimple.toolkits.pointer.SideEffectTagger( g );
-        return instance_soot_jimple_toolkits_pointer_SideEffectTagger;
+        soot.jimple.toolkits.pointer.SideEffectTagger ret = instance_soot_jimple_toolkits_pointer_SideEffectTagger;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_jimple_toolkits_pointer_SideEffectTagger;
+                if( ret == null ) instance_soot_jimple_toolkits_pointer_SideEffectTagger = ret = new soot.jimple.toolkits.pointer.SideEffectTagger( g );
+            }
+        }
+        return ret;
     }
 
-
-    private soot.StmtAddressType instance_soot_StmtAddressType;
+    private volatile soot.StmtAddressType instance_soot_StmtAddressType;
     public soot.StmtAddressType soot_StmtAddressType() {
-        if( instance_soot_StmtAddressType == null ) instance_soot_StmtAddressType = new soot.StmtAddressType( g );
-        return instance_soot_StmtAddressType;
+        soot.StmtAddressType ret = instance_soot_StmtAddressType;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_StmtAddressType;
+                if( ret == null ) instance_soot_StmtAddressType = ret = new soot.StmtAddressType( g );
+            }
+        }
+        return ret;
     }
 
-
-    private soot.Timers instance_soot_Timers;
+    private volatile soot.Timers instance_soot_Timers;
     public soot.Timers soot_Timers() {
-        if( instance_soot_Timers == null ) instance_soot_Timers = new soot.Timers( g );
-        return instance_soot_Timers;
+        soot.Timers ret = instance_soot_Timers;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_Timers;
+                if( ret == null ) instance_soot_Timers = ret = new soot.Timers( g );
+            }
+        }
+        return ret;
     }
 
-
-    private soot.jimple.toolkits.typing.TypeAssigner instance_soot_jimple_toolkits_typing_TypeAssigner;
+    private volatile soot.jimple.toolkits.typing.TypeAssigner instance_soot_jimple_toolkits_typing_TypeAssigner;
     public soot.jimple.toolkits.typing.TypeAssigner soot_jimple_toolkits_typing_TypeAssigner() {
-        if( instance_soot_jimple_toolkits_typing_TypeAssigner == null ) instance_soot_jimple_toolkits_typing_TypeAssigner = new soot.jimple.toolkits.typing.TypeAssigner( g );
-        return instance_soot_jimple_toolkits_typing_TypeAssigner;
-    }
-
-    private soot.jimple.toolkits.scalar.UnconditionalBranchFolder instance_soot_jimple_toolkits_scalar_UnconditionalBranchFolder;
+        soot.jimple.toolkits.typing.TypeAssigner ret = instance_soot_jimple_toolkits_typing_TypeAssigner;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_jimple_toolkits_typing_TypeAssigner;
+                if( ret == null ) instance_soot_jimple_toolkits_typing_TypeAssigner = ret = new soot.jimple.toolkits.typing.TypeAssigner( g );
+            }
+        }
+        return ret;
+    }
+
+    private volatile soot.jimple.toolkits.typing.fast.BytecodeHierarchy.Memo instance_soot_jimple_toolkits_typing_fast_BytecodeHierarchy_Memo;
+    public soot.jimple.toolkits.typing.fast.BytecodeHierarchy.Memo soot_jimple_toolkits_typing_fast_BytecodeHierarchy_Memo() {
+        soot.jimple.toolkits.typing.fast.BytecodeHierarchy.Memo ret = instance_soot_jimple_toolkits_typing_fast_BytecodeHierarchy_Memo;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_jimple_toolkits_typing_fast_BytecodeHierarchy_Memo;
+                if( ret == null ) instance_soot_jimple_toolkits_typing_fast_BytecodeHierarchy_Memo = ret = new soot.jimple.toolkits.typing.fast.BytecodeHierarchy.Memo( g );
+            }
+        }
+        return ret;
+    }
+
+    private volatile soot.jimple.toolkits.scalar.UnconditionalBranchFolder instance_soot_jimple_toolkits_scalar_UnconditionalBranchFolder;
     public soot.jimple.toolkits.scalar.UnconditionalBranchFolder soot_jimple_toolkits_scalar_UnconditionalBranchFolder() {
-        if( instance_soot_jimple_toolkits_scalar_UnconditionalBranchFolder == null ) instance_soot_jimple_toolkits_scalar_UnconditionalBranchFolder = new soot.jimple.toolkits.scalar.UnconditionalBranchFolder( g );
-        return instance_soot_jimple_toolkits_scalar_UnconditionalBranchFolder;
+        soot.jimple.toolkits.scalar.UnconditionalBranchFolder ret = instance_soot_jimple_toolkits_scalar_UnconditionalBranchFolder;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_jimple_toolkits_scalar_UnconditionalBranchFolder;
+                if( ret == null ) instance_soot_jimple_toolkits_scalar_UnconditionalBranchFolder = ret = new soot.jimple.toolkits.scalar.UnconditionalBranchFolder( g );
+            }
+        }
+        return ret;
     }
 
-    private soot.UnknownType instance_soot_UnknownType;
+    private volatile soot.UnknownType instance_soot_UnknownType;
     public soot.UnknownType soot_UnknownType() {
-        if( instance_soot_UnknownType == null ) instance_soot_UnknownType = new soot.UnknownType( g );
-        return instance_soot_UnknownType;
+        soot.UnknownType ret = instance_soot_UnknownType;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_UnknownType;
+                if( ret == null ) instance_soot_UnknownType = ret = new soot.UnknownType( g );
+            }
+        }
+        return ret;
     }
 
-    private soot.jimple.toolkits.scalar.UnreachableCodeEliminator instance_soot_jimple_toolkits_scalar_UnreachableCodeEliminator;
+    private volatile soot.jimple.toolkits.scalar.UnreachableCodeEliminator instance_soot_jimple_toolkits_scalar_UnreachableCodeEliminator;
     public soot.jimple.toolkits.scalar.UnreachableCodeEliminator soot_jimple_toolkits_scalar_UnreachableCodeEliminator() {
-        if( instance_soot_jimple_toolkits_scalar_UnreachableCodeEliminator == null ) instance_soot_jimple_toolkits_scalar_UnreachableCodeEliminator = new soot.jimple.toolkits.scalar.UnreachableCodeEliminator( g );
-        return instance_soot_jimple_toolkits_scalar_UnreachableCodeEliminator;
+        soot.jimple.toolkits.scalar.UnreachableCodeEliminator ret = instance_soot_jimple_toolkits_scalar_UnreachableCodeEliminator;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_jimple_toolkits_scalar_UnreachableCodeEliminator;
+                if( ret == null ) instance_soot_jimple_toolkits_scalar_UnreachableCodeEliminator = ret = new soot.jimple.toolkits.scalar.UnreachableCodeEliminator( g );
+            }
+        }
+        return ret;
     }
 
-    private soot.toolkits.scalar.UnusedLocalEliminator instance_soot_toolkits_scalar_UnusedLocalEliminator;
+    private volatile soot.toolkits.scalar.UnusedLocalEliminator instance_soot_toolkits_scalar_UnusedLocalEliminator;
     public soot.toolkits.scalar.UnusedLocalEliminator soot_toolkits_scalar_UnusedLocalEliminator() {
-        if( instance_soot_toolkits_scalar_UnusedLocalEliminator == null ) instance_soot_toolkits_scalar_UnusedLocalEliminator = new soot.toolkits.scalar.UnusedLocalEliminator( g );
-        return instance_soot_toolkits_scalar_UnusedLocalEliminator;
+        soot.toolkits.scalar.UnusedLocalEliminator ret = instance_soot_toolkits_scalar_UnusedLocalEliminator;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_toolkits_scalar_UnusedLocalEliminator;
+                if( ret == null ) instance_soot_toolkits_scalar_UnusedLocalEliminator = ret = new soot.toolkits.scalar.UnusedLocalEliminator( g );
+            }
+        }
+        return ret;
     }
 
-    private soot.coffi.UnusuableType instance_soot_coffi_UnusuableType;
+    private volatile soot.coffi.UnusuableType instance_soot_coffi_UnusuableType;
     public soot.coffi.UnusuableType soot_coffi_UnusuableType() {
-        if( instance_soot_coffi_UnusuableType == null ) instance_soot_coffi_UnusuableType = new soot.coffi.UnusuableType( g );
-        return instance_soot_coffi_UnusuableType;
+        soot.coffi.UnusuableType ret = instance_soot_coffi_UnusuableType;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_coffi_UnusuableType;
+                if( ret == null ) instance_soot_coffi_UnusuableType = ret = new soot.coffi.UnusuableType( g );
+            }
+        }
+        return ret;
     }
 
-
-    private soot.VoidType instance_soot_VoidType;
+    private volatile soot.VoidType instance_soot_VoidType;
     public soot.VoidType soot_VoidType() {
-        if( instance_soot_VoidType == null ) instance_soot_VoidType = new soot.VoidType( g );
-        return instance_soot_VoidType;
+        soot.VoidType ret = instance_soot_VoidType;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_VoidType;
+                if( ret == null ) instance_soot_VoidType = ret = new soot.VoidType( g );
+            }
+        }
+        return ret;
     }
 
-
-    private soot.EntryPoints instance_soot_EntryPoints;
+    private volatile soot.EntryPoints instance_soot_EntryPoints;
     public soot.EntryPoints soot_EntryPoints() {
-        if( instance_soot_EntryPoints == null ) instance_soot_EntryPoints = new soot.EntryPoints( g );
-        return instance_soot_EntryPoints;
+        soot.EntryPoints ret = instance_soot_EntryPoints;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_EntryPoints;
+                if( ret == null ) instance_soot_EntryPoints = ret = new soot.EntryPoints( g );
+            }
+        }
+        return ret;
     }
 
-    private soot.jimple.toolkits.annotation.callgraph.CallGraphTagger instance_soot_jimple_toolkits_annotation_callgraph_CallGraphTagger;
+    private volatile soot.jimple.toolkits.annotation.callgraph.CallGraphTagger instance_soot_jimple_toolkits_annotation_callgraph_CallGraphTagger;
     public soot.jimple.toolkits.annotation.callgraph.CallGraphTagger soot_jimple_toolkits_annotation_callgraph_CallGraphTagger() {
-        if( instance_soot_jimple_toolkits_annotation_callgraph_CallGraphTagger == null ) instance_soot_jimple_toolkits_annotation_callgraph_CallGraphTagger = new soot.jimple.toolkits.annotation.callgraph.CallGraphTagger( g );
-        return instance_soot_jimple_toolkits_annotation_callgraph_CallGraphTagger;
+        soot.jimple.toolkits.annotation.callgraph.CallGraphTagger ret = instance_soot_jimple_toolkits_annotation_callgraph_CallGraphTagger;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_jimple_toolkits_annotation_callgraph_CallGraphTagger;
+                if( ret == null ) instance_soot_jimple_toolkits_annotation_callgraph_CallGraphTagger = ret = new soot.jimple.toolkits.annotation.callgraph.CallGraphTagger( g );
+            }
+        }
+        return ret;
     }
 
-    private soot.jimple.toolkits.annotation.nullcheck.NullPointerColorer instance_soot_jimple_toolkits_annotation_nullcheck_NullPointerColorer;
+    private volatile soot.jimple.toolkits.annotation.nullcheck.NullPointerColorer instance_soot_jimple_toolkits_annotation_nullcheck_NullPointerColorer;
     public soot.jimple.toolkits.annotation.nullcheck.NullPointerColorer soot_jimple_toolkits_annotation_nullcheck_NullPointerColorer() {
-        if( instance_soot_jimple_toolkits_annotation_nullcheck_NullPointerColorer == null ) instance_soot_jimple_toolkits_annotation_nullcheck_NullPointerColorer = new soot.jimple.toolkits.annotation.nullcheck.NullPointerColorer( g );
-        return instance_soot_jimple_toolkits_annotation_nullcheck_NullPointerColorer;
+        soot.jimple.toolkits.annotation.nullcheck.NullPointerColorer ret = instance_soot_jimple_toolkits_annotation_nullcheck_NullPointerColorer;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_jimple_toolkits_annotation_nullcheck_NullPointerColorer;
+                if( ret == null ) instance_soot_jimple_toolkits_annotation_nullcheck_NullPointerColorer = ret = new soot.jimple.toolkits.annotation.nullcheck.NullPointerColorer( g );
+            }
+        }
+        return ret;
     }
 
-    private soot.jimple.toolkits.annotation.parity.ParityTagger instance_soot_jimple_toolkits_annotation_parity_ParityTagger;
+    private volatile soot.jimple.toolkits.annotation.parity.ParityTagger instance_soot_jimple_toolkits_annotation_parity_ParityTagger;
     public soot.jimple.toolkits.annotation.parity.ParityTagger soot_jimple_toolkits_annotation_parity_ParityTagger() {
-        if( instance_soot_jimple_toolkits_annotation_parity_ParityTagger == null ) instance_soot_jimple_toolkits_annotation_parity_ParityTagger = new soot.jimple.toolkits.annotation.parity.ParityTagger( g );
-        return instance_soot_jimple_toolkits_annotation_parity_ParityTagger;
+        soot.jimple.toolkits.annotation.parity.ParityTagger ret = instance_soot_jimple_toolkits_annotation_parity_ParityTagger;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_jimple_toolkits_annotation_parity_ParityTagger;
+                if( ret == null ) instance_soot_jimple_toolkits_annotation_parity_ParityTagger = ret = new soot.jimple.toolkits.annotation.parity.ParityTagger( g );
+            }
+        }
+        return ret;
     }
 
-    private soot.jimple.toolkits.annotation.methods.UnreachableMethodsTagger instance_soot_jimple_toolkits_annotation_methods_UnreachableMethodsTagger;
+    private volatile soot.jimple.toolkits.annotation.methods.UnreachableMethodsTagger instance_soot_jimple_toolkits_annotation_methods_UnreachableMethodsTagger;
     public soot.jimple.toolkits.annotation.methods.UnreachableMethodsTagger soot_jimple_toolkits_annotation_methods_UnreachableMethodsTagger() {
-        if( instance_soot_jimple_toolkits_annotation_methods_UnreachableMethodsTagger == null ) instance_soot_jimple_toolkits_annotation_methods_UnreachableMethodsTagger = new soot.jimple.toolkits.annotation.methods.UnreachableMethodsTagger( g );
-        return instance_soot_jimple_toolkits_annotation_methods_UnreachableMethodsTagger;
+        soot.jimple.toolkits.annotation.methods.UnreachableMethodsTagger ret = instance_soot_jimple_toolkits_annotation_methods_UnreachableMethodsTagger;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_jimple_toolkits_annotation_methods_UnreachableMethodsTagger;
+                if( ret == null ) instance_soot_jimple_toolkits_annotation_methods_UnreachableMethodsTagger = ret = new soot.jimple.toolkits.annotation.methods.UnreachableMethodsTagger( g );
+            }
+        }
+        return ret;
     }
 
-    private soot.jimple.toolkits.annotation.fields.UnreachableFieldsTagger instance_soot_jimple_toolkits_annotation_fields_UnreachableFieldsTagger;
+    private volatile soot.jimple.toolkits.annotation.fields.UnreachableFieldsTagger instance_soot_jimple_toolkits_annotation_fields_UnreachableFieldsTagger;
     public soot.jimple.toolkits.annotation.fields.UnreachableFieldsTagger soot_jimple_toolkits_annotation_fields_UnreachableFieldsTagger() {
-        if( instance_soot_jimple_toolkits_annotation_fields_UnreachableFieldsTagger == null ) instance_soot_jimple_toolkits_annotation_fields_UnreachableFieldsTagger = new soot.jimple.toolkits.annotation.fields.UnreachableFieldsTagger( g );
-        return instance_soot_jimple_toolkits_annotation_fields_UnreachableFieldsTagger;
+        soot.jimple.toolkits.annotation.fields.UnreachableFieldsTagger ret = instance_soot_jimple_toolkits_annotation_fields_UnreachableFieldsTagger;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_jimple_toolkits_annotation_fields_UnreachableFieldsTagger;
+                if( ret == null ) instance_soot_jimple_toolkits_annotation_fields_UnreachableFieldsTagger = ret = new soot.jimple.toolkits.annotation.fields.UnreachableFieldsTagger( g );
+            }
+        }
+        return ret;
     }
 
-    private soot.jimple.toolkits.annotation.qualifiers.TightestQualifiersTagger instance_soot_jimple_toolkits_annotation_qualifiers_TightestQualifiersTagger;
+    private volatile soot.jimple.toolkits.annotation.qualifiers.TightestQualifiersTagger instance_soot_jimple_toolkits_annotation_qualifiers_TightestQualifiersTagger;
     public soot.jimple.toolkits.annotation.qualifiers.TightestQualifiersTagger soot_jimple_toolkits_annotation_qualifiers_TightestQualifiersTagger() {
-        if( instance_soot_jimple_toolkits_annotation_qualifiers_TightestQualifiersTagger == null ) instance_soot_jimple_toolkits_annotation_qualifiers_TightestQualifiersTagger = new soot.jimple.toolkits.annotation.qualifiers.TightestQualifiersTagger( g );
-        return instance_soot_jimple_toolkits_annotation_qualifiers_TightestQualifiersTagger;
+        soot.jimple.toolkits.annotation.qualifiers.TightestQualifiersTagger ret = instance_soot_jimple_toolkits_annotation_qualifiers_TightestQualifiersTagger;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_jimple_toolkits_annotation_qualifiers_TightestQualifiersTagger;
+                if( ret == null ) instance_soot_jimple_toolkits_annotation_qualifiers_TightestQualifiersTagger = ret = new soot.jimple.toolkits.annotation.qualifiers.TightestQualifiersTagger( g );
+            }
+        }
+        return ret;
     }
 
-    private soot.jimple.toolkits.pointer.ParameterAliasTagger instance_soot_jimple_toolkits_pointer_ParameterAliasTagger;
+    private volatile soot.jimple.toolkits.pointer.ParameterAliasTagger instance_soot_jimple_toolkits_pointer_ParameterAliasTagger;
     public soot.jimple.toolkits.pointer.ParameterAliasTagger soot_jimple_toolkits_pointer_ParameterAliasTagger() {
-        if( instance_soot_jimple_toolkits_pointer_ParameterAliasTagger == null ) instance_soot_jimple_toolkits_pointer_ParameterAliasTagger = new soot.jimple.toolkits.pointer.ParameterAliasTagger( g );
-        return instance_soot_jimple_toolkits_pointer_ParameterAliasTagger;
+        soot.jimple.toolkits.pointer.ParameterAliasTagger ret = instance_soot_jimple_toolkits_pointer_ParameterAliasTagger;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_jimple_toolkits_pointer_ParameterAliasTagger;
+                if( ret == null ) instance_soot_jimple_toolkits_pointer_ParameterAliasTagger = ret = new soot.jimple.toolkits.pointer.ParameterAliasTagger( g );
+            }
+        }
+        return ret;
     }
 
-    private soot.jimple.toolkits.annotation.defs.ReachingDefsTagger instance_soot_jimple_toolkits_annotation_defs_ReachingDefsTagger;
+    private volatile soot.jimple.toolkits.annotation.defs.ReachingDefsTagger instance_soot_jimple_toolkits_annotation_defs_ReachingDefsTagger;
     public soot.jimple.toolkits.annotation.defs.ReachingDefsTagger soot_jimple_toolkits_annotation_defs_ReachingDefsTagger() {
-        if( instance_soot_jimple_toolkits_annotation_defs_ReachingDefsTagger == null ) instance_soot_jimple_toolkits_annotation_defs_ReachingDefsTagger = new soot.jimple.toolkits.annotation.defs.ReachingDefsTagger( g );
-        return instance_soot_jimple_toolkits_annotation_defs_ReachingDefsTagger;
+        soot.jimple.toolkits.annotation.defs.ReachingDefsTagger ret = instance_soot_jimple_toolkits_annotation_defs_ReachingDefsTagger;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_jimple_toolkits_annotation_defs_ReachingDefsTagger;
+                if( ret == null ) instance_soot_jimple_toolkits_annotation_defs_ReachingDefsTagger = ret = new soot.jimple.toolkits.annotation.defs.ReachingDefsTagger( g );
+            }
+        }
+        return ret;
     }
 
-    private soot.jimple.toolkits.annotation.liveness.LiveVarsTagger instance_soot_jimple_toolkits_annotation_liveness_LiveVarsTagger;
+    private volatile soot.jimple.toolkits.annotation.liveness.LiveVarsTagger instance_soot_jimple_toolkits_annotation_liveness_LiveVarsTagger;
     public soot.jimple.toolkits.annotation.liveness.LiveVarsTagger soot_jimple_toolkits_annotation_liveness_LiveVarsTagger() {
-        if( instance_soot_jimple_toolkits_annotation_liveness_LiveVarsTagger == null ) instance_soot_jimple_toolkits_annotation_liveness_LiveVarsTagger = new soot.jimple.toolkits.annotation.liveness.LiveVarsTagger( g );
-        return instance_soot_jimple_toolkits_annotation_liveness_LiveVarsTagger;
+        soot.jimple.toolkits.annotation.liveness.LiveVarsTagger ret = instance_soot_jimple_toolkits_annotation_liveness_LiveVarsTagger;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_jimple_toolkits_annotation_liveness_LiveVarsTagger;
+                if( ret == null ) instance_soot_jimple_toolkits_annotation_liveness_LiveVarsTagger = ret = new soot.jimple.toolkits.annotation.liveness.LiveVarsTagger( g );
+            }
+        }
+        return ret;
     }
 
-    private soot.toolkits.graph.interaction.InteractionHandler instance_soot_toolkits_graph_interaction_InteractionHandler;
+    private volatile soot.toolkits.graph.interaction.InteractionHandler instance_soot_toolkits_graph_interaction_InteractionHandler;
     public soot.toolkits.graph.interaction.InteractionHandler soot_toolkits_graph_interaction_InteractionHandler() {
-        if( instance_soot_toolkits_graph_interaction_InteractionHandler == null ) instance_soot_toolkits_graph_interaction_InteractionHandler = new soot.toolkits.graph.interaction.InteractionHandler( g );
-        return instance_soot_toolkits_graph_interaction_InteractionHandler;
+        soot.toolkits.graph.interaction.InteractionHandler ret = instance_soot_toolkits_graph_interaction_InteractionHandler;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_toolkits_graph_interaction_InteractionHandler;
+                if( ret == null ) instance_soot_toolkits_graph_interaction_InteractionHandler = ret = new soot.toolkits.graph.interaction.InteractionHandler( g );
+            }
+        }
+        return ret;
     }
 
-    private soot.jimple.toolkits.annotation.logic.LoopInvariantFinder instance_soot_jimple_toolkits_annotation_logic_LoopInvariantFinder;
+    private volatile soot.jimple.toolkits.annotation.logic.LoopInvariantFinder instance_soot_jimple_toolkits_annotation_logic_LoopInvariantFinder;
     public soot.jimple.toolkits.annotation.logic.LoopInvariantFinder soot_jimple_toolkits_annotation_logic_LoopInvariantFinder() {
-        if( instance_soot_jimple_toolkits_annotation_logic_LoopInvariantFinder == null ) instance_soot_jimple_toolkits_annotation_logic_LoopInvariantFinder = new soot.jimple.toolkits.annotation.logic.LoopInvariantFinder( g );
-        return instance_soot_jimple_toolkits_annotation_logic_LoopInvariantFinder;
+        soot.jimple.toolkits.annotation.logic.LoopInvariantFinder ret = instance_soot_jimple_toolkits_annotation_logic_LoopInvariantFinder;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_jimple_toolkits_annotation_logic_LoopInvariantFinder;
+                if( ret == null ) instance_soot_jimple_toolkits_annotation_logic_LoopInvariantFinder = ret = new soot.jimple.toolkits.annotation.logic.LoopInvariantFinder( g );
+            }
+        }
+        return ret;
     }
 
-    private soot.jimple.toolkits.annotation.AvailExprTagger instance_soot_jimple_toolkits_annotation_AvailExprTagger;
+    private volatile soot.jimple.toolkits.annotation.AvailExprTagger instance_soot_jimple_toolkits_annotation_AvailExprTagger;
     public soot.jimple.toolkits.annotation.AvailExprTagger soot_jimple_toolkits_annotation_AvailExprTagger() {
-        if( instance_soot_jimple_toolkits_annotation_AvailExprTagger == null ) instance_soot_jimple_toolkits_annotation_AvailExprTagger = new soot.jimple.toolkits.annotation.AvailExprTagger( g );
-        return instance_soot_jimple_toolkits_annotation_AvailExprTagger;
+        soot.jimple.toolkits.annotation.AvailExprTagger ret = instance_soot_jimple_toolkits_annotation_AvailExprTagger;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_jimple_toolkits_annotation_AvailExprTagger;
+                if( ret == null ) instance_soot_jimple_toolkits_annotation_AvailExprTagger = ret = new soot.jimple.toolkits.annotation.AvailExprTagger( g );
+            }
+        }
+        return ret;
     }
 
-
-    private soot.toolkits.exceptions.ThrowableSet.Manager instance_soot_toolkits_exceptions_ThrowableSet_Manager;
+    private volatile soot.toolkits.exceptions.ThrowableSet.Manager instance_soot_toolkits_exceptions_ThrowableSet_Manager;
     public soot.toolkits.exceptions.ThrowableSet.Manager soot_toolkits_exceptions_ThrowableSet_Manager() {
-        if( instance_soot_toolkits_exceptions_ThrowableSet_Manager == null ) instance_soot_toolkits_exceptions_ThrowableSet_Manager = new soot.toolkits.exceptions.ThrowableSet.Manager( g );
-        return instance_soot_toolkits_exceptions_ThrowableSet_Manager;
+        soot.toolkits.exceptions.ThrowableSet.Manager ret = instance_soot_toolkits_exceptions_ThrowableSet_Manager;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_toolkits_exceptions_ThrowableSet_Manager;
+                if( ret == null ) instance_soot_toolkits_exceptions_ThrowableSet_Manager = ret = new soot.toolkits.exceptions.ThrowableSet.Manager( g );
+            }
+        }
+        return ret;
     }
 
-    private soot.toolkits.exceptions.UnitThrowAnalysis instance_soot_toolkits_exceptions_UnitThrowAnalysis;
+    private volatile soot.toolkits.exceptions.UnitThrowAnalysis instance_soot_toolkits_exceptions_UnitThrowAnalysis;
     public soot.toolkits.exceptions.UnitThrowAnalysis soot_toolkits_exceptions_UnitThrowAnalysis() {
-        if( instance_soot_toolkits_exceptions_UnitThrowAnalysis == null ) instance_soot_toolkits_exceptions_UnitThrowAnalysis = new soot.toolkits.exceptions.UnitThrowAnalysis( g );
-        return instance_soot_toolkits_exceptions_UnitThrowAnalysis;
+        soot.toolkits.exceptions.UnitThrowAnalysis ret = instance_soot_toolkits_exceptions_UnitThrowAnalysis;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_toolkits_exceptions_UnitThrowAnalysis;
+                if( ret == null ) instance_soot_toolkits_exceptions_UnitThrowAnalysis = ret = new soot.toolkits.exceptions.UnitThrowAnalysis( g );
+            }
+        }
+        return ret;
     }
 
-    private soot.toolkits.exceptions.PedanticThrowAnalysis instance_soot_toolkits_exceptions_PedanticThrowAnalysis;
+    private volatile soot.toolkits.exceptions.PedanticThrowAnalysis instance_soot_toolkits_exceptions_PedanticThrowAnalysis;
     public soot.toolkits.exceptions.PedanticThrowAnalysis soot_toolkits_exceptions_PedanticThrowAnalysis() {
-        if( instance_soot_toolkits_exceptions_PedanticThrowAnalysis == null ) instance_soot_toolkits_exceptions_PedanticThrowAnalysis = new soot.toolkits.exceptions.PedanticThrowAnalysis( g );
-        return instance_soot_toolkits_exceptions_PedanticThrowAnalysis;
+        soot.toolkits.exceptions.PedanticThrowAnalysis ret = instance_soot_toolkits_exceptions_PedanticThrowAnalysis;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_toolkits_exceptions_PedanticThrowAnalysis;
+                if( ret == null ) instance_soot_toolkits_exceptions_PedanticThrowAnalysis = ret = new soot.toolkits.exceptions.PedanticThrowAnalysis( g );
+            }
+        }
+        return ret;
     }
 
-    private soot.toolkits.exceptions.TrapTightener instance_soot_toolkits_exceptions_TrapTightener;
+    private volatile soot.toolkits.exceptions.TrapTightener instance_soot_toolkits_exceptions_TrapTightener;
     public soot.toolkits.exceptions.TrapTightener soot_toolkits_exceptions_TrapTightener() {
-        if( instance_soot_toolkits_exceptions_TrapTightener == null ) instance_soot_toolkits_exceptions_TrapTightener = new soot.toolkits.exceptions.TrapTightener( g );
-        return instance_soot_toolkits_exceptions_TrapTightener;
+        soot.toolkits.exceptions.TrapTightener ret = instance_soot_toolkits_exceptions_TrapTightener;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_toolkits_exceptions_TrapTightener;
+                if( ret == null ) instance_soot_toolkits_exceptions_TrapTightener = ret = new soot.toolkits.exceptions.TrapTightener( g );
+            }
+        }
+        return ret;
     }
 
-    private soot.jimple.toolkits.annotation.callgraph.CallGraphGrapher instance_soot_jimple_toolkits_annotation_callgraph_CallGraphGrapher;
+    private volatile soot.jimple.toolkits.annotation.callgraph.CallGraphGrapher instance_soot_jimple_toolkits_annotation_callgraph_CallGraphGrapher;
     public soot.jimple.toolkits.annotation.callgraph.CallGraphGrapher soot_jimple_toolkits_annotation_callgraph_CallGraphGrapher() {
-        if( instance_soot_jimple_toolkits_annotation_callgraph_CallGraphGrapher == null ) instance_soot_jimple_toolkits_annotation_callgraph_CallGraphGrapher = new soot.jimple.toolkits.annotation.callgraph.CallGraphGrapher( g );
-        return instance_soot_jimple_toolkits_annotation_callgraph_CallGraphGrapher;
+        soot.jimple.toolkits.annotation.callgraph.CallGraphGrapher ret = instance_soot_jimple_toolkits_annotation_callgraph_CallGraphGrapher;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_jimple_toolkits_annotation_callgraph_CallGraphGrapher;
+                if( ret == null ) instance_soot_jimple_toolkits_annotation_callgraph_CallGraphGrapher = ret = new soot.jimple.toolkits.annotation.callgraph.CallGraphGrapher( g );
+            }
+        }
+        return ret;
     }
 
-    private soot.SootResolver instance_soot_SootResolver;
+    private volatile soot.SootResolver instance_soot_SootResolver;
     public soot.SootResolver soot_SootResolver() {
-        if( instance_soot_SootResolver == null ) instance_soot_SootResolver = new soot.SootResolver( g );
-        return instance_soot_SootResolver;
+        soot.SootResolver ret = instance_soot_SootResolver;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_SootResolver;
+                if( ret == null ) instance_soot_SootResolver = ret = new soot.SootResolver( g );
+            }
+        }
+        return ret;
     }
 
-
-    private soot.jimple.toolkits.annotation.DominatorsTagger instance_soot_jimple_toolkits_annotation_DominatorsTagger;
+    private volatile soot.jimple.toolkits.annotation.DominatorsTagger instance_soot_jimple_toolkits_annotation_DominatorsTagger;
     public soot.jimple.toolkits.annotation.DominatorsTagger soot_jimple_toolkits_annotation_DominatorsTagger() {
-        if( instance_soot_jimple_toolkits_annotation_DominatorsTagger == null ) instance_soot_jimple_toolkits_annotation_DominatorsTagger = new soot.jimple.toolkits.annotation.DominatorsTagger( g );
-        return instance_soot_jimple_toolkits_annotation_DominatorsTagger;
+        soot.jimple.toolkits.annotation.DominatorsTagger ret = instance_soot_jimple_toolkits_annotation_DominatorsTagger;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_jimple_toolkits_annotation_DominatorsTagger;
+                if( ret == null ) instance_soot_jimple_toolkits_annotation_DominatorsTagger = ret = new soot.jimple.toolkits.annotation.DominatorsTagger( g );
+            }
+        }
+        return ret;
     }
 
-    private soot.jimple.toolkits.annotation.purity.PurityAnalysis instance_soot_jimple_toolkits_annotation_purity_PurityAnalysis;
+    private volatile soot.jimple.toolkits.annotation.purity.PurityAnalysis instance_soot_jimple_toolkits_annotation_purity_PurityAnalysis;
     public soot.jimple.toolkits.annotation.purity.PurityAnalysis soot_jimple_toolkits_annotation_purity_PurityAnalysis() {
-        if( instance_soot_jimple_toolkits_annotation_purity_PurityAnalysis == null ) instance_soot_jimple_toolkits_annotation_purity_PurityAnalysis = new soot.jimple.toolkits.annotation.purity.PurityAnalysis( g );
-        return instance_soot_jimple_toolkits_annotation_purity_PurityAnalysis;
+        soot.jimple.toolkits.annotation.purity.PurityAnalysis ret = instance_soot_jimple_toolkits_annotation_purity_PurityAnalysis;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_jimple_toolkits_annotation_purity_PurityAnalysis;
+                if( ret == null ) instance_soot_jimple_toolkits_annotation_purity_PurityAnalysis = ret = new soot.jimple.toolkits.annotation.purity.PurityAnalysis( g );
+            }
+        }
+        return ret;
     }
 
-
-    private soot.jimple.toolkits.annotation.j5anno.AnnotationGenerator instance_soot_jimple_toolkits_annotation_j5anno_AnnotationGenerator;
+    private volatile soot.jimple.toolkits.annotation.j5anno.AnnotationGenerator instance_soot_jimple_toolkits_annotation_j5anno_AnnotationGenerator;
     public soot.jimple.toolkits.annotation.j5anno.AnnotationGenerator soot_jimple_toolkits_annotation_j5anno_AnnotationGenerator() {
-        if( instance_soot_jimple_toolkits_annotation_j5anno_AnnotationGenerator == null ) instance_soot_jimple_toolkits_annotation_j5anno_AnnotationGenerator = new soot.jimple.toolkits.annotation.j5anno.AnnotationGenerator( g );
-        return instance_soot_jimple_toolkits_annotation_j5anno_AnnotationGenerator;
+        soot.jimple.toolkits.annotation.j5anno.AnnotationGenerator ret = instance_soot_jimple_toolkits_annotation_j5anno_AnnotationGenerator;
+        if( ret == null ) {
+            synchronized( this ) {
+                ret = instance_soot_jimple_toolkits_annotation_j5anno_AnnotationGenerator;
+                if( ret == null ) instance_soot_jimple_toolkits_annotation_j5anno_AnnotationGenerator = ret = new soot.jimple.toolkits.annotation.j5anno.AnnotationGenerator( g );
+            }
+        }
+        return ret;
     }
 
-
 }
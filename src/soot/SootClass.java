@@ -59,6 +59,10 @@ public class SootClass extends AbstractHost implements Numberable
     protected String name, shortName, fixedShortName, packageName, fixedPackageName;
     protected int modifiers;
     protected Chain<SootField> fields = new HashChain<SootField>();
+    // nameToFields indexes the fields by name. It maps a name to the fields
+    // with that name in the order of the fields chain, using a singleton list
+    // if there is only one. It needs to be kept consistent with fields.
+    private final Map<String, List<SootField>> nameToFields = new HashMap<String, List<SootField>>();
     protected SmallNumberedMap subSigToMethods = new SmallNumberedMap( Scene.v().getSubSigNumberer() );
     // methodList is just for keeping the methods in a consistent order. It
     // needs to be kept consistent with subSigToMethods.
@@ -87,6 +91,7 @@ public class SootClass extends AbstractHost implements Numberable
         refType.setSootClass(this);
         if(Options.v().debug_resolver()) G.v().out.println("created "+name+" with modifiers "+modifiers);
         setResolvingLevel(BODIES);
+        setResolvedLevel(BODIES);
         
         Scene.v().getClassNumberer().add(this);
     }
@@ -105,6 +110,7 @@ public class SootClass extends AbstractHost implements Numberable
     public final static int SIGNATURES = 2;
     public final static int BODIES = 3;
     private int resolvingLevel = DANGLING;
+    private volatile int resolvedLevel = DANGLING;
 
     private String levelToString( int level ) {
         switch(level) {
@@ -131,6 +137,18 @@ public class SootClass extends AbstractHost implements Numberable
     public int resolvingLevel() { return resolvingLevel; }
     public void setResolvingLevel( int newLevel ) {
         resolvingLevel = newLevel;
+        if( newLevel < resolvedLevel ) resolvedLevel = newLevel;
+    }
+
+    /**
+     * Returns the level this class has been completely resolved to. Unlike
+     * {@link #resolvingLevel()}, which is raised by {@link SootResolver} as
+     * soon as it starts resolving the class, this is only raised once the
+     * resolver has finished and may safely be read from any thread.
+     */
+    public int resolvedLevel() { return resolvedLevel; }
+    void setResolvedLevel( int newLevel ) {
+        resolvedLevel = newLevel;
     }
 
     public boolean isInScene()
@@ -155,7 +173,9 @@ public class SootClass extends AbstractHost implements Numberable
     }
 
     /**
-     * Returns a backed Chain of fields.
+     * Returns a backed Chain of fields. Fields must only be added and
+     * removed using {@link #addField(SootField)} and
+     * {@link #removeField(SootField)}.
      */
 
     public Chain<SootField> getFields()
@@ -185,8 +205,10 @@ public class SootClass extends AbstractHost implements Numberable
             throw new RuntimeException("Field already exists : "+f.getName());
  
         fields.add(f);
+        indexField(f);
         f.isDeclared = true;
         f.declaringClass = this;
+        fieldsChanged(f.getName());
         
     }
 
@@ -201,7 +223,101 @@ public class SootClass extends AbstractHost implements Numberable
             throw new RuntimeException("did not declare: "+f.getName());
 
         fields.remove(f);
+        unindexField(f, f.getName());
         f.isDeclared = false;
+        fieldsChanged(f.getName());
+    }
+
+    /**
+        Called by the given field of this class when its name has changed.
+    */
+    void fieldRenamed(SootField f, String oldName)
+    {
+        unindexField(f, oldName);
+        if(nameToFields.containsKey(f.getName())) {
+            // Rebuild the entry to keep the order of the fields chain.
+            nameToFields.remove(f.getName());
+            for(SootField field : fields) {
+                if(field.getName().equals(f.getName()))
+                    indexField(field);
+            }
+        } else {
+            indexField(f);
+        }
+        fieldsChanged(oldName);
+        fieldsChanged(f.getName());
+    }
+
+    /* Adds the given field to the end of the entry for its name. */
+    private void indexField(SootField f)
+    {
+        List<SootField> l = nameToFields.get(f.getName());
+        if(l == null) {
+            nameToFields.put(f.getName(), Collections.singletonList(f));
+        } else if(l.size() == 1) {
+            List<SootField> both = new ArrayList<SootField>(2);
+            both.add(l.get(0));
+            both.add(f);
+            nameToFields.put(f.getName(), both);
+        } else {
+            l.add(f);
+        }
+    }
+
+    private void unindexField(SootField f, String name)
+    {
+        List<SootField> l = nameToFields.get(name);
+        if(l == null) {
+            return;
+        } else if(l.size() == 1) {
+            if(l.get(0) == f)
+                nameToFields.remove(name);
+        } else if(l.remove(f) && l.size() == 1) {
+            nameToFields.put(name, Collections.singletonList(l.get(0)));
+        }
+    }
+
+    /* Returns the field of this class with the given name and type or
+       null if there is none. */
+    private SootField findField(String name, Type type)
+    {
+        List<SootField> l = nameToFields.get(name);
+        if(l != null) {
+            for(SootField field : l) {
+                if(field.getType().equals(type))
+                    return field;
+            }
+        }
+        return null;
+    }
+
+    /* Returns the field of this class with the given subsignature or null
+       if there is none. The subsignature is "type name" with the name
+       quoted if reserved, but both the type and the name may contain
+       spaces, so every split is tried. */
+    private SootField findField(String subsignature)
+    {
+        for(int i = subsignature.indexOf(' '); i != -1; i = subsignature.indexOf(' ', i + 1)) {
+            String name = subsignature.substring(i + 1);
+            SootField f = findFieldBySubSignature(name, subsignature);
+            if(f == null && name.length() > 2 && name.charAt(0) == '\'' && name.endsWith("\'"))
+                f = findFieldBySubSignature(name.substring(1, name.length() - 1), subsignature);
+            if(f != null)
+                return f;
+        }
+        return null;
+    }
+
+    private SootField findFieldBySubSignature(String name, String subsignature)
+    {
+        List<SootField> l = nameToFields.get(name);
+        if(l != null) {
+            for(SootField field : l) {
+                if(field.getSubSignature().equals(subsignature))
+                    return field;
+            }
+        }
+        return null;
     }
 
     /**
@@ -210,12 +326,10 @@ public class SootClass extends AbstractHost implements Numberable
 
     public SootField getField( String name, Type type ) {
         checkLevel(SIGNATURES);
-        for( Iterator<SootField> fieldIt = this.getFields().iterator(); fieldIt.hasNext(); ) {
-            final SootField field = fieldIt.next();
-            if(field.name.equals(name) && field.type.equals(type))
-                return field;
-        }
-        throw new RuntimeException("No field " + name + " in class " + getName());
+        SootField field = findField(name, type);
+        if(field == null)
+            throw new RuntimeException("No field " + name + " in class " + getName());
+        return field;
     }
     
     /**
@@ -226,28 +340,11 @@ public class SootClass extends AbstractHost implements Numberable
     public SootField getFieldByName(String name)
     {
         checkLevel(SIGNATURES);
-        boolean found = false;
-        SootField foundField = null;
-
-        Iterator<SootField> fieldIt = getFields().iterator();
-
-        while(fieldIt.hasNext())
-        {
-            SootField field = fieldIt.next();
-
-            if(field.name.equals(name))
-            {
-                if(found)
-                    throw new RuntimeException("ambiguous field: "+name);
-                else {
-                    found = true;
-                    foundField = field;
-                }
-            }
-        }
-
-        if(found)
-            return foundField;
+        List<SootField> l = nameToFields.get(name);
+        if(l != null && l.size() == 1)
+            return l.get(0);
+        else if(l != null)
+            throw new RuntimeException("ambiguous field: "+name);
         else
             throw new RuntimeException("No field " + name + " in class " + getName());
     }
@@ -260,12 +357,10 @@ public class SootClass extends AbstractHost implements Numberable
     public SootField getField(String subsignature)
     {
         checkLevel(SIGNATURES);
-        for( Iterator<SootField> fieldIt = this.getFields().iterator(); fieldIt.hasNext(); ) {
-            final SootField field = fieldIt.next();
-            if( field.getSubSignature().equals( subsignature ) ) return field;
-        }
-
-        throw new RuntimeException("No field " + subsignature + " in class " + getName());
+        SootField field = findField(subsignature);
+        if(field == null)
+            throw new RuntimeException("No field " + subsignature + " in class " + getName());
+        return field;
     }
 
     
@@ -276,11 +371,7 @@ public class SootClass extends AbstractHost implements Numberable
     public boolean declaresField(String subsignature)
     {
         checkLevel(SIGNATURES);
-        for( Iterator<SootField> fieldIt = this.getFields().iterator(); fieldIt.hasNext(); ) {
-            final SootField field = fieldIt.next();
-            if( field.getSubSignature().equals( subsignature ) ) return true;
-        }
-        return false;
+        return findField(subsignature) != null;
     }
 
     
@@ -338,17 +429,7 @@ public class SootClass extends AbstractHost implements Numberable
     public boolean declaresFieldByName(String name)
     {
         checkLevel(SIGNATURES);
-        Iterator<SootField> fieldIt = getFields().iterator();
-
-        while(fieldIt.hasNext())
-        {
-            SootField field = fieldIt.next();
-
-            if(field.name.equals(name))
-                return true;
-        }
-
-        return false;
+        return nameToFields.containsKey(name);
     }
 
     
@@ -359,18 +440,7 @@ public class SootClass extends AbstractHost implements Numberable
     public boolean declaresField(String name, Type type)
     {
         checkLevel(SIGNATURES);
-        Iterator<SootField> fieldIt = getFields().iterator();
-
-        while(fieldIt.hasNext())
-        {
-            SootField field = fieldIt.next();
-
-            if(field.name.equals(name) &&
-                field.type.equals(type))
-                return true;
-        }
-
-        return false;
+        return findField(name, type) != null;
     }
 
     /**
@@ -587,6 +657,7 @@ public class SootClass extends AbstractHost implements Numberable
         methodList.add(m);
         m.isDeclared = true;
         m.declaringClass = this;
+        methodsChanged(m.getNumberedSubSignature());
         
     }
 
@@ -607,6 +678,7 @@ public class SootClass extends AbstractHost implements Numberable
         subSigToMethods.put(m.getNumberedSubSignature(),null);
         methodList.remove(m);
         m.isDeclared = false;
+        methodsChanged(m.getNumberedSubSignature());
     }
 
     /**
@@ -680,6 +752,7 @@ public class SootClass extends AbstractHost implements Numberable
         if(implementsInterface(interfaceClass.getName()))
             throw new RuntimeException("duplicate interface: "+interfaceClass.getName());
         interfaces.add(interfaceClass);
+        hierarchyChanged();
     }
 
     /**
@@ -693,6 +766,7 @@ public class SootClass extends AbstractHost implements Numberable
             throw new RuntimeException("no such interface: "+interfaceClass.getName());
 
         interfaces.remove(interfaceClass);
+        hierarchyChanged();
     }
 
     /**
@@ -730,6 +804,40 @@ public class SootClass extends AbstractHost implements Numberable
     {
         checkLevel(HIERARCHY);
         superClass = c;
+        hierarchyChanged();
+    }
+
+    /**
+        Notifies the scene that the supertypes of this class have changed
+        after it has been resolved.
+    */
+    private void hierarchyChanged()
+    {
+        if(resolvedLevel < HIERARCHY)
+            return;
+        Scene.v().getRefResolutionCache().clear();
+        if(isInScene)
+            Scene.v().classHierarchyChanged(this);
+    }
+
+    /**
+        Notifies the scene that a method with the given subsignature has
+        been added to or removed from this class after it has been resolved.
+    */
+    private void methodsChanged(NumberedString subsignature)
+    {
+        if(resolvedLevel >= SIGNATURES)
+            Scene.v().getRefResolutionCache().methodsChanged(subsignature);
+    }
+
+    /**
+        Notifies the scene that a field with the given name has been added to,
+        removed from or changed in this class after it has been resolved.
+    */
+    void fieldsChanged(String name)
+    {
+        if(resolvedLevel >= SIGNATURES)
+            Scene.v().getRefResolutionCache().fieldsChanged(name);
     }
 
     public boolean hasOuterClass(){
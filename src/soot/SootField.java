@@ -43,6 +43,10 @@ public class SootField extends AbstractHost implements ClassMember, Numberable
     SootClass declaringClass;
     boolean isPhantom = false;
 
+    /** Cached signature and the name of the declaring class it was built for. */
+    private volatile String signature;
+    private volatile String signatureClassName;
+
     /** Constructs a Soot field with the given name, type and modifiers. */
     public SootField(String name, Type type, int modifiers)
     {
@@ -71,8 +75,31 @@ public class SootField extends AbstractHost implements ClassMember, Numberable
         return name;
     }
 
+    /**
+     * Returns the signature of this field. The result is cached until the
+     * field's name or type change or its declaring class changes or is
+     * renamed.
+     */
     public String getSignature() {
-        return getSignature(declaringClass, getName(), getType());
+        String className = declaringClass.getName();
+        // read in the opposite order of the writes below
+        String sigClassName = signatureClassName;
+        String ret = signature;
+        if (ret == null || sigClassName != className) {
+            ret = getSignature(declaringClass, getName(), getType());
+            signature = ret;
+            signatureClassName = className;
+        }
+        return ret;
+    }
+
+    /**
+     * Returns the signature of this field as numbered by the
+     * {@link Scene#getSignatureNumberer()}, or <code>null</code> if it hasn't
+     * been added to it.
+     */
+    public NumberedString getNumberedSignature() {
+        return Scene.v().getSignatureNumberer().lookup(getSignature());
     }
     public static String getSignature(SootClass cl, String name, Type type)
     {
@@ -132,7 +159,11 @@ public class SootField extends AbstractHost implements ClassMember, Numberable
 
     public void setName(String name)
     {
+        String oldName = this.name;
         this.name = name;
+        signature = null;
+        if(isDeclared)
+            declaringClass.fieldRenamed(this, oldName);
     }
 
     public Type getType()
@@ -143,6 +174,9 @@ public class SootField extends AbstractHost implements ClassMember, Numberable
     public void setType(Type t)
     {
         this.type = t;
+        signature = null;
+        if(isDeclared)
+            declaringClass.fieldsChanged(name);
     }
 
     /**
@@ -19,6 +19,8 @@
 
 package soot;
 
+import soot.util.NumberedString;
+
 /** Representation of a reference to a field as it appears in a class file.
  * Note that the field directly referred to may not actually exist; the
  * actual target of the reference is determined according to the resolution
@@ -33,5 +35,11 @@ public interface SootFieldRef {
 
     public String getSignature();
 
+    /** Returns the signature as numbered by the {@link Scene#getSignatureNumberer()},
+     * or <code>null</code> if it hasn't been added to it. */
+    public default NumberedString getNumberedSignature() {
+        return Scene.v().getSignatureNumberer().lookup(getSignature());
+    }
+
     public SootField resolve();
 }
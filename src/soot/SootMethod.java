@@ -25,6 +25,7 @@
  */
 
 package soot;
+import java.lang.ref.Reference;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
@@ -76,6 +77,14 @@ public class SootMethod
     /** Active body associated with this method. */
     Body activeBody;
 
+    /** Active body retrieved from the method source if it is managed by
+     * the {@link BodyRetention} policy. <code>activeBody</code> is only set
+     * while the policy keeps the body. */
+    Reference<Body> retainedBody;
+
+    /** True if the body packs have been run on the retained body. */
+    boolean bodyPacked;
+
     /** Tells this method how to find out where its body lives. */
     protected MethodSource ms;
 
@@ -215,6 +224,7 @@ public class SootMethod
         SootClass oldDeclaringClass = declaringClass;
         if( wasDeclared ) oldDeclaringClass.removeMethod(this);
         this.name = name;
+        signature = null;
         subsignature =
             Scene.v().getSubSigNumberer().findOrAdd(getSubSignature());
         if( wasDeclared) oldDeclaringClass.addMethod(this);
@@ -246,6 +256,7 @@ public class SootMethod
         SootClass oldDeclaringClass = declaringClass;
         if( wasDeclared ) oldDeclaringClass.removeMethod(this);
         returnType = t;
+        signature = null;
         subsignature =
             Scene.v().getSubSigNumberer().findOrAdd(getSubSignature());
         if( wasDeclared) oldDeclaringClass.addMethod(this);
@@ -278,6 +289,7 @@ public class SootMethod
         List al = new ArrayList();
         al.addAll(l);
         this.parameterTypes = Collections.unmodifiableList(al);
+        signature = null;
         subsignature =
             Scene.v().getSubSigNumberer().findOrAdd(getSubSignature());
         if( wasDeclared) oldDeclaringClass.addMethod(this);
@@ -296,7 +308,10 @@ public class SootMethod
             throw new RuntimeException(
                 "no active body present for method " + getSignature());
 
-        return activeBody;
+        Body body = activeBody;
+        if (body == null)
+            body = BodyRetention.v().get(this);
+        return body;
     }
 
     /**
@@ -318,8 +333,14 @@ public class SootMethod
         if (!hasActiveBody()) {
             //	    G.v().out.println("Retrieving "+this.getSignature());
 
-            setActiveBody(this.getBodyFromMethodSource("jb"));
-            ms = null;
+            Body body = this.getBodyFromMethodSource("jb");
+            if (BodyRetention.v().canRelease(ms)) {
+                // keep the source so that the body can be re-created
+                BodyRetention.v().retain(this, body);
+            } else {
+                setActiveBody(body);
+                ms = null;
+            }
         }
         return getActiveBody();
     }
@@ -340,19 +361,36 @@ public class SootMethod
         if (body!= null && body.getMethod() != this)
             body.setMethod(this);
 
+        releaseRetainedBody();
         activeBody = body;
     }
 
     /** Returns true if this method has an active body. */
     public boolean hasActiveBody() {
-        return activeBody != null;
+        return activeBody != null || retainedBody != null;
     }
 
     /** Releases the active body associated with this method. */
     public void releaseActiveBody() {
+        releaseRetainedBody();
         activeBody = null;
     }
 
+    private void releaseRetainedBody() {
+        if (retainedBody != null) {
+            BodyRetention.v().released(this, retainedBody.get());
+            retainedBody = null;
+        }
+        bodyPacked = false;
+    }
+
+    /** Called by the {@link PackManager} once the body packs have been run
+     * on the specified active body of this method. */
+    void bodyPacksApplied(Body body) {
+        if (retainedBody != null && retainedBody.get() == body)
+            BodyRetention.v().packed(this, body);
+    }
+
     /** Adds the given exception to the list of exceptions thrown by this method
      * unless the exception is already in the list. */
     public void addExceptionIfAbsent(SootClass e) {
@@ -506,9 +544,29 @@ public class SootMethod
 
     /**
         Returns the Soot signature of this method.  Used to refer to methods unambiguously.
+        The result is cached until the method's name or types change or its
+        declaring class changes or is renamed.
      */
     public String getSignature() {
-        return getSignature(getDeclaringClass(), getName(), getParameterTypes(), getReturnType());
+        String className = getDeclaringClass().getName();
+        // read in the opposite order of the writes below
+        String sigClassName = signatureClassName;
+        String ret = signature;
+        if (ret == null || sigClassName != className) {
+            ret = getSignature(getDeclaringClass(), getName(), getParameterTypes(), getReturnType());
+            signature = ret;
+            signatureClassName = className;
+        }
+        return ret;
+    }
+
+    /**
+        Returns the signature of this method as numbered by the
+        {@link Scene#getSignatureNumberer()}, or <code>null</code> if it
+        hasn't been added to it.
+     */
+    public NumberedString getNumberedSignature() {
+        return Scene.v().getSignatureNumberer().lookup(getSignature());
     }
     public static String getSignature(SootClass cl, String name, List params, Type returnType) {
         StringBuffer buffer = new StringBuffer();
@@ -575,6 +633,10 @@ public class SootMethod
     }
 
     private NumberedString subsignature;
+
+    /** Cached signature and the name of the declaring class it was built for. */
+    private volatile String signature;
+    private volatile String signatureClassName;
     public NumberedString getNumberedSubSignature() {
         return subsignature;
     }
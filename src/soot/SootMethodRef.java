@@ -38,6 +38,12 @@ public interface SootMethodRef {
 
     public String getSignature();
 
+    /** Returns the signature as numbered by the {@link Scene#getSignatureNumberer()},
+     * or <code>null</code> if it hasn't been added to it. */
+    public default NumberedString getNumberedSignature() {
+        return Scene.v().getSignatureNumberer().lookup(getSignature());
+    }
+
     public Type parameterType(int i);
 
     public SootMethod resolve();
@@ -19,6 +19,7 @@
 
 package soot;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import soot.javaToJimple.LocalGenerator;
 import soot.jimple.AssignStmt;
@@ -68,6 +69,8 @@ class SootMethodRefImpl implements SootMethodRef {
     private final boolean isStatic;
 
     private NumberedString subsig;
+    private volatile String signature;
+    private volatile String signatureClassName;
 
     public SootClass declaringClass() { return declaringClass; }
     public String name() { return name; }
@@ -84,7 +87,16 @@ class SootMethodRefImpl implements SootMethodRef {
     }
 
     public String getSignature() {
-        return SootMethod.getSignature(declaringClass, name, parameterTypes, returnType);
+        String className = declaringClass.getName();
+        // read in the opposite order of the writes below
+        String sigClassName = signatureClassName;
+        String ret = signature;
+        if( ret == null || sigClassName != className ) {
+            ret = SootMethod.getSignature( declaringClass, name, parameterTypes, returnType );
+            signature = ret;
+            signatureClassName = className;
+        }
+        return ret;
     }
 
     public Type parameterType(int i) {
@@ -100,13 +112,24 @@ class SootMethodRefImpl implements SootMethodRef {
         public String toString() {
             StringBuffer ret = new StringBuffer();
             ret.append(super.toString());
-            resolve(ret);
+            resolve(ret, null);
             return ret.toString();
         }
     }
 
     public SootMethod resolve() {
-        return resolve(null);
+        ConcurrentHashMap<SootClass, SootMethod> results =
+            Scene.v().getRefResolutionCache().methodResults(getSubSignature());
+        SootMethod ret = results.get(declaringClass);
+        if( ret != null ) return checkStatic(ret);
+        return resolve(null, results);
+    }
+
+    private SootMethod resolved(SootMethod ret, boolean cacheable, Map<SootClass, SootMethod> results) {
+        if( cacheable ) {
+            results.put(declaringClass, ret);
+        }
+        return checkStatic(ret);
     }
     
     private SootMethod checkStatic(SootMethod ret) {
@@ -116,22 +139,30 @@ class SootMethodRefImpl implements SootMethodRef {
         return ret;
     }
     
-    private SootMethod resolve(StringBuffer trace) {
+    private SootMethod resolve(StringBuffer trace, Map<SootClass, SootMethod> results) {
     	if(declaringClass.getName().equals("java.dyn.InvokeDynamic")) {
     		throw new IllegalStateException("Cannot resolve invokedynamic method references at compile time!");
     	}
+        // only remember results which can't change without the cache being notified
+        boolean cacheable = results != null;
         SootClass cl = declaringClass;
         while(true) {
             if(trace != null) trace.append(
                     "Looking in "+cl+" which has methods "+cl.getMethods()+"\n" );
+            cacheable &= cl.resolvedLevel() >= SootClass.SIGNATURES;
             if( cl.declaresMethod( getSubSignature() ) )
-                return checkStatic(cl.getMethod( getSubSignature() ));
+                return resolved(cl.getMethod( getSubSignature() ), cacheable, results);
             if(Scene.v().allowsPhantomRefs() && cl.isPhantom())
             {
-                SootMethod m = new SootMethod(name, parameterTypes, returnType, isStatic()?Modifier.STATIC:0);
-                m.setPhantom(true);
-                cl.addMethod(m);
-                return checkStatic(m);
+                // another thread may be adding the same method
+                synchronized (Scene.v()) {
+                    if( cl.declaresMethod( getSubSignature() ) )
+                        return checkStatic(cl.getMethod( getSubSignature() ));
+                    SootMethod m = new SootMethod(name, parameterTypes, returnType, isStatic()?Modifier.STATIC:0);
+                    m.setPhantom(true);
+                    cl.addMethod(m);
+                    return checkStatic(m);
+                }
             }
             if( cl.hasSuperclass() ) cl = cl.getSuperclass();
             else break;
@@ -144,8 +175,9 @@ class SootMethodRefImpl implements SootMethodRef {
                 SootClass iface = queue.removeFirst();
                 if(trace != null) trace.append(
                         "Looking in "+iface+" which has methods "+iface.getMethods()+"\n" );
+                cacheable &= iface.resolvedLevel() >= SootClass.SIGNATURES;
                 if( iface.declaresMethod( getSubSignature() ) )
-                    return checkStatic(iface.getMethod( getSubSignature() ));
+                    return resolved(iface.getMethod( getSubSignature() ), cacheable, results);
                 queue.addAll( iface.getInterfaces() );
             }
             if( cl.hasSuperclass() ) cl = cl.getSuperclass();
@@ -156,6 +188,9 @@ class SootMethodRefImpl implements SootMethodRef {
         //we simply create the methods on the fly; the method body will throw an appropriate
         //error just in case the code *is* actually reached at runtime
         if(Options.v().allow_phantom_refs()) {
+          synchronized (Scene.v()) {
+            if( declaringClass.declaresMethod( getSubSignature() ) )
+                return declaringClass.getMethod( getSubSignature() );
         	SootMethod m = new SootMethod(name, parameterTypes, returnType);
         	JimpleBody body = Jimple.v().newBody(m);
 			m.setActiveBody(body);
@@ -179,6 +214,7 @@ class SootMethodRefImpl implements SootMethodRef {
 
 			declaringClass.addMethod(m);
 			return m; 
+          }
         } else if( trace == null ) {
         	throw new ClassResolutionFailedException();
         }
@@ -35,7 +35,17 @@ import java.util.*;
 
 
 
-/** Loads symbols for SootClasses from either class files or jimple files. */
+/**
+ * Loads symbols for SootClasses from either class files or jimple files.
+ * <p>
+ * The resolver may be used from several threads at once. All resolution work
+ * is serialized on the resolver's monitor since the worklist spans classes
+ * and the dependencies between them (superclasses, outer classes,
+ * interfaces) may be cyclic. {@link #resolveClass(String, int)} however
+ * returns without taking the lock if the requested class has already been
+ * completely resolved to the desired level, see
+ * {@link SootClass#resolvedLevel()}.
+ */
 public class SootResolver 
 {
     /** Maps each resolved class to a list of all references in it. */
@@ -47,6 +57,10 @@ public class SootResolver
     /** SootClasses waiting to be resolved. */
     private final LinkedList/*SootClass*/[] worklist = new LinkedList[4];
 
+    /** SootClasses whose resolving level has been raised but which haven't
+     * been published as resolved yet. */
+    private final List<SootClass> unpublished = new ArrayList<SootClass>();
+
 
     public SootResolver (Singletons.Global g) {
         worklist[SootClass.HIERARCHY] = new LinkedList();
@@ -69,7 +83,7 @@ public class SootResolver
      * to a class. If/when the class is resolved, it will be resolved into this
      * SootClass.
      * */
-    public SootClass makeClassRef(String className)
+    public synchronized SootClass makeClassRef(String className)
     {
         if(Scene.v().containsClass(className))
             return Scene.v().getSootClass(className);
@@ -89,10 +103,16 @@ public class SootResolver
      * been resolved, just returns the class that was already resolved.
      * */
     public SootClass resolveClass(String className, int desiredLevel) {
-        SootClass resolvedClass = makeClassRef(className);
-        addToResolveWorklist(resolvedClass, desiredLevel);
-        processResolveWorklist();
-        return resolvedClass;
+        if(Scene.v().containsClass(className)) {
+            SootClass sc = Scene.v().getSootClass(className);
+            if( sc.resolvedLevel() >= desiredLevel ) return sc;
+        }
+        synchronized (this) {
+            SootClass resolvedClass = makeClassRef(className);
+            addToResolveWorklist(resolvedClass, desiredLevel);
+            processResolveWorklist();
+            return resolvedClass;
+        }
     }
 
     /** Resolve all classes on toResolveWorklist. */
@@ -127,6 +147,27 @@ public class SootResolver
                 }
             }
         }
+        publishResolved();
+    }
+
+    /**
+     * Marks all classes resolved since the last call as completely resolved
+     * to their current resolving levels. Must only be called once the
+     * worklist has been drained.
+     */
+    private void publishResolved() {
+        List<SootClass> hierarchyResolved = new ArrayList<SootClass>();
+        for( SootClass sc : unpublished ) {
+            if( sc.resolvedLevel() < SootClass.HIERARCHY && sc.isInScene() ) {
+                hierarchyResolved.add(sc);
+            }
+            sc.setResolvedLevel(sc.resolvingLevel());
+        }
+        unpublished.clear();
+        // Only notify the hierarchies once all supertypes are published.
+        for( SootClass sc : hierarchyResolved ) {
+            Scene.v().classHierarchyResolved(sc);
+        }
     }
 
     private void addToResolveWorklist(Type type, int level) {
@@ -147,11 +188,12 @@ public class SootResolver
      * requires at least Hierarchy for all supertypes and enclosing types.
      * */
     // RoboVM note: Made this method public
-    public void bringToHierarchy(SootClass sc) {
+    public synchronized void bringToHierarchy(SootClass sc) {
         if(sc.resolvingLevel() >= SootClass.HIERARCHY ) return;
         if(Options.v().debug_resolver())
             G.v().out.println("bringing to HIERARCHY: "+sc);
         sc.setResolvingLevel(SootClass.HIERARCHY);
+        unpublished.add(sc);
 
         String className = sc.getName();
         ClassSource is = SourceLocator.v().getClassSource(className);
@@ -190,7 +232,7 @@ public class SootResolver
         reResolveHierarchy(sc);
     }
 
-    public void reResolveHierarchy(SootClass sc) {
+    public synchronized void reResolveHierarchy(SootClass sc) {
         // Bring superclasses to hierarchy
         if(sc.hasSuperclass()) 
             addToResolveWorklist(sc.getSuperclass(), SootClass.HIERARCHY);
@@ -206,12 +248,13 @@ public class SootResolver
     * requires at least Hierarchy for all referred to types in these signatures.
     * */
     // RoboVM note: Made this method public
-    public void bringToSignatures(SootClass sc) {
+    public synchronized void bringToSignatures(SootClass sc) {
         if(sc.resolvingLevel() >= SootClass.SIGNATURES ) return;
         bringToHierarchy(sc);
         if(Options.v().debug_resolver()) 
             G.v().out.println("bringing to SIGNATURES: "+sc);
         sc.setResolvingLevel(SootClass.SIGNATURES);
+        unpublished.add(sc);
 
         for( Iterator fIt = sc.getFields().iterator(); fIt.hasNext(); ) {
 
@@ -253,6 +296,7 @@ public class SootResolver
         if(Options.v().debug_resolver()) 
             G.v().out.println("bringing to BODIES: "+sc);
         sc.setResolvingLevel(SootClass.BODIES);
+        unpublished.add(sc);
 
         {
         	Collection references = classToTypesHierarchy.get(sc);
@@ -287,7 +331,7 @@ public class SootResolver
         }
     }
 
-    public void reResolve(SootClass cl) {
+    public synchronized void reResolve(SootClass cl) {
         int resolvingLevel = cl.resolvingLevel();
         if( resolvingLevel < SootClass.HIERARCHY ) return;
         reResolveHierarchy(cl);
@@ -19,13 +19,18 @@
 
 package soot;
 import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.HashMap;
@@ -33,12 +38,14 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.StringTokenizer;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
 import soot.options.Options;
+import soot.util.ZipFilePool;
 
 /** Provides utility methods to retrieve an input stream for a class name, given
  * a classfile, or jimple or baf output files. */
@@ -64,9 +71,7 @@ public class SourceLocator
 			}
 		}
     	
-        if( classPath == null ) {
-            classPath = explodeClassPath(Scene.v().getSootClassPath());
-        }
+        initializeClassPath();
         if( classProviders == null ) {
             setupClassProviders();
         }
@@ -105,19 +110,63 @@ public class SourceLocator
         classProviders = new LinkedList<ClassProvider>();
         classProviders.add(new CoffiClassProvider());
         if (this.java9Mode) {
-            classProviders.add(new CoffiJava9ClassProvider());
+            classProviders.add(new CoffiJava9ClassProvider(jrtIndexCache));
         }
     }
 
+    private File jrtIndexCache;
+    /** Sets the file the package to module index of the Java 9+ runtime is
+     * persisted to. Must be called before the first class is looked up. */
+    public void setJrtIndexCache( File jrtIndexCache ) {
+        this.jrtIndexCache = jrtIndexCache;
+    }
+
     private List<ClassProvider> classProviders;
     public void setClassProviders( List<ClassProvider> classProviders ) {
         this.classProviders = classProviders;
     }
 
-    private List<String> classPath;
+    private volatile List<String> classPath;
     public List<String> classPath() { return classPath; }
+
+    /**
+     * Explodes the soot-class-path the first time it is called after the
+     * class path was invalidated. Class sources may be looked up from
+     * several threads, e.g. when bodies are reloaded, so this is done under
+     * the lock of this locator.
+     */
+    private List<String> initializeClassPath() {
+        List<String> cp = classPath;
+        if( cp == null ) {
+            synchronized( this ) {
+                cp = classPath;
+                if( cp == null ) {
+                    cp = explodeClassPath(Scene.v().getSootClassPath());
+                    classPath = cp;
+                }
+            }
+        }
+        return cp;
+    }
     public void invalidateClassPath() {
         classPath = null;
+        classPathIndex = null;
+        zipFilePool.closeAll();
+    }
+
+    /** The default maximum number of jar files kept open at any time. */
+    public static final int DEFAULT_MAX_OPEN_ZIP_FILES = 64;
+
+    private ZipFilePool zipFilePool = new ZipFilePool(DEFAULT_MAX_OPEN_ZIP_FILES);
+
+    /** Returns the pool of open jar files used to look up files in the class path. */
+    public ZipFilePool getZipFilePool() { return zipFilePool; }
+
+    /** Replaces the pool of open jar files, e.g. to change its size. The
+     * jar files opened by the current pool are closed. */
+    public void setZipFilePool(ZipFilePool pool) {
+        zipFilePool.closeAll();
+        zipFilePool = pool;
     }
 
     private List<String> sourcePath;
@@ -153,11 +202,7 @@ public class SourceLocator
             inputExtensions.add(".java");
 
 	    try {
-		ZipFile archive = new ZipFile(aPath);
-		for (Enumeration entries = archive.entries(); 
-		     entries.hasMoreElements(); ) {
-		    ZipEntry entry = (ZipEntry) entries.nextElement();
-		    String entryName = entry.getName();
+		for (String entryName : zipFilePool.getEntryNames(aPath)) {
 		    int extensionIndex = entryName.lastIndexOf('.');
 		    if (extensionIndex >= 0) {
 			String entryExtension = entryName.substring(extensionIndex);
@@ -393,18 +438,70 @@ public class SourceLocator
         FoundFile( Path path ) {
             this.path = path;
         }
+        FoundFile( ZipFilePool pool, String jar, ZipEntry entry ) {
+            this.pool = pool;
+            this.jar = jar;
+            this.entry = entry;
+        }
         public Path path;
         public ZipFile zipFile;
         public ZipEntry entry;
+        private ZipFilePool pool;
+        private String jar;
         public InputStream inputStream() {
             try {
                 if( path != null ) return Files.newInputStream(path);
+                if( pool != null ) return new ByteArrayInputStream(pool.readEntry(jar, entry));
                 return doJDKBugWorkaround(zipFile.getInputStream(entry),
                         entry.getSize());
             } catch( IOException e ) {
                 throw new RuntimeException( "Caught IOException "+e );
             }
         }
+        /**
+         * Files on the default file system at least this large are
+         * memory-mapped by {@link #byteBuffer()}. Smaller ones, which most
+         * class files are, are cheaper to read than to map and don't use up
+         * a mapping each while they are being parsed.
+         */
+        private static final int MAP_THRESHOLD = 64 * 1024;
+
+        /**
+         * Returns the contents of this file as a buffer. Files on the
+         * default file system are memory-mapped if they are at least
+         * {@link #MAP_THRESHOLD} bytes large and read into a heap buffer
+         * otherwise. Jar entries are read once into a byte array which is
+         * wrapped without further copying.
+         */
+        public ByteBuffer byteBuffer() {
+            try {
+                if( path != null ) {
+                    if( path.getFileSystem() != FileSystems.getDefault() ) {
+                        return ByteBuffer.wrap(Files.readAllBytes(path));
+                    }
+                    FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+                    try {
+                        long size = channel.size();
+                        if( size >= MAP_THRESHOLD ) {
+                            return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                        }
+                        ByteBuffer buf = ByteBuffer.allocate((int) size);
+                        while( buf.hasRemaining() && channel.read(buf) >= 0 ) {
+                        }
+                        buf.flip();
+                        return buf;
+                    } finally {
+                        channel.close();
+                    }
+                }
+                if( pool != null ) return ByteBuffer.wrap(pool.readEntry(jar, entry));
+                byte[] data = new byte[(int) entry.getSize()];
+                new DataInputStream(zipFile.getInputStream(entry)).readFully(data);
+                return ByteBuffer.wrap(data);
+            } catch( IOException e ) {
+                throw new RuntimeException( "Caught IOException "+e );
+            }
+        }
     }
 
     private static InputStream doJDKBugWorkaround(InputStream is, long size) throws IOException {
@@ -425,17 +522,74 @@ public class SourceLocator
     }
 
 
+    /**
+     * Index over the exploded classPath built on the first lookup. Maps the
+     * name of every file in a jar on the class path to the position of the
+     * first jar containing it.
+     */
+    private volatile ClassPathIndex classPathIndex;
+
+    private static class ClassPathIndex {
+        final List<String> entries;
+        final boolean[] isJar;
+        final Map<String, Integer> fileToJar = new HashMap<String, Integer>();
+        ClassPathIndex(List<String> entries) {
+            this.entries = entries;
+            this.isJar = new boolean[entries.size()];
+        }
+    }
+
+    /**
+     * Returns the index over the current classPath, building it under the
+     * lock of this locator if the class path changed since it was built.
+     * The index is only modified before it is published.
+     */
+    private ClassPathIndex getClassPathIndex() {
+        List<String> entries = initializeClassPath();
+        ClassPathIndex index = classPathIndex;
+        if( index != null && index.entries == entries ) return index;
+        synchronized( this ) {
+            index = classPathIndex;
+            if( index != null && index.entries == entries ) return index;
+            index = buildClassPathIndex(entries);
+            classPathIndex = index;
+            return index;
+        }
+    }
+
+    private ClassPathIndex buildClassPathIndex(List<String> entries) {
+        ClassPathIndex index = new ClassPathIndex(entries);
+        for( int i = 0; i < entries.size(); i++ ) {
+            String dir = entries.get(i);
+            if( !isJar(dir) ) continue;
+            index.isJar[i] = true;
+            try {
+                for( String name : zipFilePool.getEntryNames(dir) ) {
+                    if( !index.fileToJar.containsKey(name) ) {
+                        index.fileToJar.put(name, i);
+                    }
+                }
+            } catch( IOException e ) {
+                throw new RuntimeException( "Caught IOException "+e+" indexing jar file "+dir );
+            }
+        }
+        return index;
+    }
+
     /** Searches for a file with the given name in the exploded classPath. */
     public FoundFile lookupInClassPath( String fileName ) {
-        for (String dir : classPath) {
-            FoundFile ret;
-            if(isJar(dir)) {
-                ret = lookupInJar(dir, fileName);
-            } else {
-                ret = lookupInDir(dir, fileName);
-            }
+        ClassPathIndex index = getClassPathIndex();
+        Integer jar = index.fileToJar.get(fileName);
+        int end = jar != null ? jar : index.entries.size();
+        // Directories before the first jar containing the file take precedence
+        for( int i = 0; i < end; i++ ) {
+            if( index.isJar[i] ) continue;
+            FoundFile ret = lookupInDir(index.entries.get(i), fileName);
             if( ret != null ) return ret;
         }
+        if( jar != null ) {
+            return lookupInJar(index.entries.get(jar), fileName);
+        }
         return null;
     }
     private FoundFile lookupInDir(String dir, String fileName) {
@@ -447,10 +601,9 @@ public class SourceLocator
     }
     private FoundFile lookupInJar(String jar, String fileName) {
         try {
-            ZipFile jarFile = new ZipFile(jar);
-            ZipEntry entry = jarFile.getEntry(fileName);
+            ZipEntry entry = zipFilePool.getEntry(jar, fileName);
             if( entry == null ) return null;
-            return new FoundFile(jarFile, entry);
+            return new FoundFile(zipFilePool, jar, entry);
         } catch( IOException e ) {
             throw new RuntimeException( "Caught IOException "+e+" looking in jar file "+jar+" for file "+fileName );
         }
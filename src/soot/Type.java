@@ -77,6 +77,6 @@ public abstract class Type implements Switchable, Serializable, Numberable
     public final int getNumber() { return number; }
     public final void setNumber( int number ) { this.number = number; }
 
-    protected ArrayType arrayType;
+    protected volatile ArrayType arrayType;
     private int number = 0;
 }
@@ -31,6 +31,7 @@ import soot.tagkit.*;
 import soot.util.*;
 import java.util.*;
 import java.io.*;
+import java.util.function.Consumer;
 
 /** A code fragment (eg Stmt or Inst), used within Body
  * classes.  Intermediate representations must use an implementation
@@ -45,6 +46,22 @@ public interface Unit extends Switchable, Host, Serializable, Context
     /** Returns a list of Boxes containing Values defined in this Unit. */
     public List<ValueBox> getDefBoxes();
 
+    /** Passes the boxes returned by {@link #getUseBoxes()} to the specified
+     * action, in the same order, without creating the list. */
+    public default void forEachUseBox(Consumer<? super ValueBox> action)
+    {
+        for (ValueBox box : getUseBoxes())
+            action.accept(box);
+    }
+
+    /** Passes the boxes returned by {@link #getDefBoxes()} to the specified
+     * action, in the same order, without creating the list. */
+    public default void forEachDefBox(Consumer<? super ValueBox> action)
+    {
+        for (ValueBox box : getDefBoxes())
+            action.accept(box);
+    }
+
     /** Returns a list of Boxes containing Units defined in this Unit; typically
      * branch targets. */
     public List<UnitBox> getUnitBoxes();
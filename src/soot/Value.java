@@ -29,6 +29,7 @@ package soot;
 import soot.util.*;
 import java.util.*;
 import java.io.*;
+import java.util.function.Consumer;
 
 /** Data used as, for instance, arguments to instructions; typical implementations are
  * constants or expressions. 
@@ -41,6 +42,14 @@ public interface Value extends Switchable, EquivTo, Serializable
      * which are used by (ie contained within) this Value. */
     public List getUseBoxes();
 
+    /** Passes the boxes returned by {@link #getUseBoxes()} to the specified
+     * action, in the same order, without creating the list. */
+    public default void forEachUseBox(Consumer<? super ValueBox> action)
+    {
+        for (Object box : getUseBoxes())
+            action.accept((ValueBox) box);
+    }
+
     /** Returns the Soot type of this Value. */
     public Type getType();
 
@@ -0,0 +1,254 @@
+/*
+ * Copyright (C) 2014 RoboVM AB
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/gpl-2.0.html>.
+ */
+package soot.coffi;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+
+import soot.Body;
+import soot.BodyCodec;
+import soot.G;
+import soot.Pack;
+import soot.PackManager;
+import soot.PhaseOptions;
+import soot.Singletons;
+import soot.SootMethod;
+import soot.Transform;
+import soot.jimple.JimpleBodyCodec;
+import soot.options.Options;
+
+/**
+ * Persistent on-disk cache of the {@link Body}s produced by the
+ * <code>jb</code> pack for methods read from class files.
+ * <p>
+ * Bodies are keyed by the SHA-1 of the class file they come from, the
+ * method's sub-signature and a fingerprint of the Soot options and
+ * <code>jb</code> phase options which influence the produced body. A body
+ * is thus only reused if it would be produced identically. Each body is
+ * stored in a file of its own written by the configured {@link BodyCodec}.
+ * <p>
+ * The key doesn't cover any other class. The bodies produced by
+ * <code>jb</code> also depend on the classes a method refers to, e.g. the
+ * superclasses and interfaces used to type its locals and whether a
+ * referenced class or member exists at all. If such a class changes but
+ * the method's own class file doesn't, a stale body is returned. The
+ * directory should thus be cleared whenever the classpath changes in any
+ * other way than by recompiling the classes whose bodies are cached.
+ * <p>
+ * The cache is enabled when a directory has been set (see
+ * {@link #setDirectory(File)} or the <code>-body-cache-dir</code> option).
+ * Bodies are encoded using {@link JimpleBodyCodec} unless another codec
+ * has been set.
+ */
+public class BodyCache {
+    private static final int VERSION = 1;
+
+    public BodyCache(Singletons.Global g) {}
+    public static BodyCache v() { return G.v().soot_coffi_BodyCache(); }
+
+    private File directory;
+    private BodyCodec codec = new JimpleBodyCodec();
+    private String optionsFingerprint;
+    private long hits;
+    private long misses;
+    private long writes;
+    private boolean warnedWriteFailure;
+
+    /**
+     * Returns the directory bodies are stored in. Defaults to the value of
+     * the <code>-body-cache-dir</code> option.
+     */
+    public File getDirectory() {
+        if (directory == null && Options.v().body_cache_dir().length() > 0) {
+            directory = new File(Options.v().body_cache_dir());
+        }
+        return directory;
+    }
+
+    public void setDirectory(File directory) {
+        this.directory = directory;
+    }
+
+    public BodyCodec getCodec() {
+        return codec;
+    }
+
+    public void setCodec(BodyCodec codec) {
+        this.codec = codec;
+    }
+
+    public boolean isEnabled() {
+        return codec != null && getDirectory() != null;
+    }
+
+    /**
+     * Returns the SHA-1 of the class file in the specified buffer. The
+     * buffer's position isn't changed.
+     */
+    static byte[] hash(ByteBuffer classFile) {
+        MessageDigest md = sha1();
+        md.update(classFile.duplicate());
+        return md.digest();
+    }
+
+    private static MessageDigest sha1() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new Error(e);
+        }
+    }
+
+    /**
+     * Returns a string describing all options which influence the bodies
+     * produced by the <code>jb</code> pack. Computed once per {@link G}
+     * instance.
+     */
+    private synchronized String getOptionsFingerprint() {
+        if (optionsFingerprint == null) {
+            StringBuilder sb = new StringBuilder();
+            sb.append(VERSION);
+            sb.append(" keep-line-number:").append(Options.v().keep_line_number());
+            sb.append(" keep-offset:").append(Options.v().keep_offset());
+            sb.append(" throw-analysis:").append(Options.v().throw_analysis());
+            sb.append(" omit-excepting-unit-edges:").append(Options.v().omit_excepting_unit_edges());
+            sb.append(" allow-phantom-refs:").append(Options.v().allow_phantom_refs());
+            Pack jb = PackManager.v().getPack("jb");
+            appendPhaseOptions(sb, jb.getPhaseName(), PhaseOptions.v().getPhaseOptions(jb));
+            for (Iterator<?> it = jb.iterator(); it.hasNext();) {
+                Transform t = (Transform) it.next();
+                appendPhaseOptions(sb, t.getPhaseName(), PhaseOptions.v().getPhaseOptions(t));
+            }
+            optionsFingerprint = sb.toString();
+        }
+        return optionsFingerprint;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void appendPhaseOptions(StringBuilder sb, String phaseName, Map<?, ?> options) {
+        sb.append(' ').append(phaseName).append('[');
+        for (Map.Entry<?, ?> e : new TreeMap<Object, Object>((Map<Object, Object>) options).entrySet()) {
+            sb.append(e.getKey()).append(':').append(e.getValue()).append(' ');
+        }
+        sb.append(']');
+    }
+
+    private File getFile(SootMethod m, byte[] classFileHash) {
+        MessageDigest md = sha1();
+        md.update(classFileHash);
+        md.update(getOptionsFingerprint().getBytes(StandardCharsets.UTF_8));
+        md.update(m.getSubSignature().getBytes(StandardCharsets.UTF_8));
+        byte[] digest = md.digest();
+        StringBuilder sb = new StringBuilder(digest.length * 2);
+        for (byte b : digest) {
+            sb.append(Character.forDigit((b >> 4) & 0xf, 16));
+            sb.append(Character.forDigit(b & 0xf, 16));
+        }
+        String name = sb.toString();
+        return new File(new File(getDirectory(), name.substring(0, 2)), name.substring(2));
+    }
+
+    /**
+     * Returns the cached {@link Body} of the specified method or
+     * <code>null</code> if there is none. Unreadable entries are deleted.
+     */
+    public Body get(SootMethod m, byte[] classFileHash) {
+        File f = getFile(m, classFileHash);
+        if (!f.isFile()) {
+            synchronized (this) {
+                misses++;
+            }
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(f)))) {
+            Body body = codec.read(m, in);
+            synchronized (this) {
+                hits++;
+            }
+            return body;
+        } catch (IOException | RuntimeException e) {
+            if (Options.v().verbose()) {
+                G.v().out.println("Discarding unreadable cached body of " + m + ": " + e);
+            }
+            f.delete();
+            synchronized (this) {
+                misses++;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Stores the {@link Body} of the specified method. Failures are reported
+     * once and otherwise ignored.
+     */
+    public void put(SootMethod m, byte[] classFileHash, Body body) {
+        File f = getFile(m, classFileHash);
+        File tmp = null;
+        try {
+            f.getParentFile().mkdirs();
+            tmp = File.createTempFile(f.getName(), ".tmp", f.getParentFile());
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+                codec.write(body, out);
+            }
+            // Entries are only ever replaced by identical ones so it doesn't
+            // matter which writer wins.
+            if (!tmp.renameTo(f)) {
+                tmp.delete();
+            }
+            synchronized (this) {
+                writes++;
+            }
+        } catch (IOException | RuntimeException e) {
+            if (tmp != null) {
+                tmp.delete();
+            }
+            synchronized (this) {
+                if (warnedWriteFailure) {
+                    return;
+                }
+                warnedWriteFailure = true;
+            }
+            G.v().out.println("Warning: Failed to cache body of " + m + ": " + e);
+        }
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getWrites() {
+        return writes;
+    }
+}
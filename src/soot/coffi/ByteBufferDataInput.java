@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2014 RoboVM AB
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/gpl-2.0.html>.
+ */
+package soot.coffi;
+
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * {@link DataInput} reading directly from a {@link ByteBuffer}, e.g. a
+ * memory-mapped class file, without copying it into a stream first.
+ */
+class ByteBufferDataInput implements DataInput {
+    private final ByteBuffer buf;
+
+    ByteBufferDataInput(ByteBuffer buf) {
+        this.buf = buf.slice().order(ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * Returns the buffer being read from. Its position is the offset of the
+     * next byte to be read relative to the start of the class file.
+     */
+    ByteBuffer buffer() {
+        return buf;
+    }
+
+    /**
+     * Returns the next <code>length</code> bytes as a buffer of their own
+     * sharing this buffer's content, and skips them.
+     */
+    ByteBuffer slice(int length) throws IOException {
+        if (length > buf.remaining()) {
+            throw new EOFException();
+        }
+        ByteBuffer result = buf.slice();
+        result.limit(length);
+        buf.position(buf.position() + length);
+        return result;
+    }
+
+    public void readFully(byte[] b) throws IOException {
+        readFully(b, 0, b.length);
+    }
+
+    public void readFully(byte[] b, int off, int len) throws IOException {
+        try {
+            buf.get(b, off, len);
+        } catch (BufferUnderflowException e) {
+            throw new EOFException();
+        }
+    }
+
+    public int skipBytes(int n) {
+        n = Math.max(0, Math.min(n, buf.remaining()));
+        buf.position(buf.position() + n);
+        return n;
+    }
+
+    public boolean readBoolean() throws IOException {
+        return readByte() != 0;
+    }
+
+    public byte readByte() throws IOException {
+        try {
+            return buf.get();
+        } catch (BufferUnderflowException e) {
+            throw new EOFException();
+        }
+    }
+
+    public int readUnsignedByte() throws IOException {
+        return readByte() & 0xff;
+    }
+
+    public short readShort() throws IOException {
+        try {
+            return buf.getShort();
+        } catch (BufferUnderflowException e) {
+            throw new EOFException();
+        }
+    }
+
+    public int readUnsignedShort() throws IOException {
+        return readShort() & 0xffff;
+    }
+
+    public char readChar() throws IOException {
+        return (char) readShort();
+    }
+
+    public int readInt() throws IOException {
+        try {
+            return buf.getInt();
+        } catch (BufferUnderflowException e) {
+            throw new EOFException();
+        }
+    }
+
+    public long readLong() throws IOException {
+        try {
+            return buf.getLong();
+        } catch (BufferUnderflowException e) {
+            throw new EOFException();
+        }
+    }
+
+    public float readFloat() throws IOException {
+        return Float.intBitsToFloat(readInt());
+    }
+
+    public double readDouble() throws IOException {
+        return Double.longBitsToDouble(readLong());
+    }
+
+    /**
+     * Reads bytes up to the next <code>'\n'</code>, <code>'\r'</code> or
+     * <code>"\r\n"</code>, as specified by {@link DataInput#readLine()}.
+     * Each byte is converted to the <code>char</code> with the same low
+     * eight bits. Returns <code>null</code> if the end of the buffer has
+     * been reached before any byte could be read.
+     */
+    public String readLine() {
+        if (!buf.hasRemaining()) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder();
+        while (buf.hasRemaining()) {
+            int c = buf.get() & 0xff;
+            if (c == '\n') {
+                break;
+            }
+            if (c == '\r') {
+                if (buf.hasRemaining() && buf.get(buf.position()) == '\n') {
+                    buf.get();
+                }
+                break;
+            }
+            sb.append((char) c);
+        }
+        return sb.toString();
+    }
+
+    public String readUTF() throws IOException {
+        return DataInputStream.readUTF(this);
+    }
+}
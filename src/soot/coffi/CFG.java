@@ -968,10 +968,11 @@ public class CFG {
             LocalVariableTable_attribute la = ca.findLocalVariableTable();
             LocalVariableTypeTable_attribute lt = ca.findLocalVariableTypeTable();
 
-            Util.v().activeVariableTable = la;
-            Util.v().activeVariableTypeTable = lt;
-            Util.v().activeOriginalIndex = -1;
-            Util.v().activeConstantPool = constant_pool;
+            Util.BodyState state = Util.v().bodyState();
+            state.activeVariableTable = la;
+            state.activeVariableTypeTable = lt;
+            state.activeOriginalIndex = -1;
+            state.activeConstantPool = constant_pool;
             
             Type thisType = RefType.v(jmethod.getDeclaringClass().getName());
             boolean isStatic = Modifier.isStatic(jmethod.getModifiers());
@@ -3030,9 +3031,10 @@ public class CFG {
 
       int x = ((ins.code))&0xff;
 
-      Util.v().activeOriginalIndex = ins.originalIndex;
-      Util.v().isLocalStore = false;
-      Util.v().isWideLocalStore = false;
+      Util.BodyState state = Util.v().bodyState();
+      state.activeOriginalIndex = ins.originalIndex;
+      state.isLocalStore = false;
+      state.isWideLocalStore = false;
       
       switch(x)
       {
@@ -3214,8 +3216,8 @@ public class CFG {
 
          case ByteCode.ISTORE:
          {
-            Util.v().isLocalStore = true;
-            Util.v().isWideLocalStore = true;
+            state.isLocalStore = true;
+            state.isWideLocalStore = true;
             
             Local local =
                 Util.v().getLocalForIndex(listBody,
@@ -3227,8 +3229,8 @@ public class CFG {
 
          case ByteCode.FSTORE:
          {
-            Util.v().isLocalStore = true;
-            Util.v().isWideLocalStore = true;
+            state.isLocalStore = true;
+            state.isWideLocalStore = true;
             
             Local local =
                 Util.v().getLocalForIndex(listBody,
@@ -3240,8 +3242,8 @@ public class CFG {
 
          case ByteCode.ASTORE:
          {
-            Util.v().isLocalStore = true;
-            Util.v().isWideLocalStore = true;
+            state.isLocalStore = true;
+            state.isWideLocalStore = true;
             
             Local local =
                 Util.v().getLocalForIndex(listBody,
@@ -3253,8 +3255,8 @@ public class CFG {
 
          case ByteCode.LSTORE:
          {
-            Util.v().isLocalStore = true;
-            Util.v().isWideLocalStore = true;
+            state.isLocalStore = true;
+            state.isWideLocalStore = true;
             
             Local local =
                 Util.v().getLocalForIndex(listBody,
@@ -3266,8 +3268,8 @@ public class CFG {
 
          case ByteCode.DSTORE:
          {
-            Util.v().isLocalStore = true;
-            Util.v().isWideLocalStore = true;
+            state.isLocalStore = true;
+            state.isWideLocalStore = true;
             
             Local local =
                 Util.v().getLocalForIndex(listBody,
@@ -3282,7 +3284,7 @@ public class CFG {
          case ByteCode.ISTORE_2:
          case ByteCode.ISTORE_3:
          {
-            Util.v().isLocalStore = true;
+            state.isLocalStore = true;
             Local local =
                 Util.v().getLocalForIndex(listBody, (x - ByteCode.ISTORE_0));
 
@@ -3295,7 +3297,7 @@ public class CFG {
          case ByteCode.FSTORE_2:
          case ByteCode.FSTORE_3:
          {
-            Util.v().isLocalStore = true;
+            state.isLocalStore = true;
             Local local = Util.v().getLocalForIndex(listBody, (x - ByteCode.FSTORE_0));
 
             stmt = Jimple.v().newAssignStmt(local, Util.v().getLocalForStackOp(listBody, typeStack, typeStack.topIndex()));
@@ -3307,7 +3309,7 @@ public class CFG {
          case ByteCode.ASTORE_2:
          case ByteCode.ASTORE_3:
          {
-            Util.v().isLocalStore = true;
+            state.isLocalStore = true;
             Local local = Util.v().getLocalForIndex(listBody, (x - ByteCode.ASTORE_0));
 
             stmt = Jimple.v().newAssignStmt(local, Util.v().getLocalForStackOp(listBody, typeStack, typeStack.topIndex()));
@@ -3319,7 +3321,7 @@ public class CFG {
          case ByteCode.LSTORE_2:
          case ByteCode.LSTORE_3:
          {
-            Util.v().isLocalStore = true;
+            state.isLocalStore = true;
             Local local =
                 Util.v().getLocalForIndex(listBody, (x - ByteCode.LSTORE_0));
 
@@ -3332,7 +3334,7 @@ public class CFG {
          case ByteCode.DSTORE_2:
          case ByteCode.DSTORE_3:
          {
-            Util.v().isLocalStore = true;
+            state.isLocalStore = true;
             Local local =
                 Util.v().getLocalForIndex(listBody, (x - ByteCode.DSTORE_0));
 
@@ -44,17 +44,17 @@ public class CONSTANT_Utf8_info extends cp_info {
    private String s;
    /** Byte array of actual utf8 string. */
    private final byte bytes[];
-   /** Constructor from a DataInputSream */
-   public CONSTANT_Utf8_info(DataInputStream d) throws IOException {
+   /** Constructor from a DataInput. Only copies the bytes of the entry,
+    * which are decoded on first use.
+    */
+   public CONSTANT_Utf8_info(DataInput d) throws IOException {
           int len;
           len = d.readUnsignedShort();
           bytes = new byte[len+2];
           bytes[0] = (byte)(len>>8);
           bytes[1] = (byte)(len & 0xff);
           if (len>0) {
-          int j;
-                 for (j=0; j<len;j++)
-                    bytes[j+2] = (byte)d.readUnsignedByte();
+                 d.readFully(bytes, 2, len);
           }
    }
    /** For writing out the byte stream for this utf8 properly (incl size). */
@@ -77,18 +77,19 @@ public class CONSTANT_Utf8_info extends cp_info {
     * @return String version of this utf8 object.
     */
    public String convert() {
-      if (s==null) {
+      String str = s;
+      if (str==null) {
          try {
             ByteArrayInputStream bs = new ByteArrayInputStream(bytes);
             DataInputStream d = new DataInputStream(bs);
-            String buf = d.readUTF();
-            sHashCode = buf.hashCode();
-            return buf;
+            str = d.readUTF();
+            sHashCode = str.hashCode();
+            s = str;
          } catch(IOException e) {
             return "!!IOException!!";
          }
       }
-      return s;
+      return str;
    }
    /** Fixes the actual String used to represent the internal representation.
     * We must have rep == convert(); we verify hashCodes() to spot-check this.
@@ -140,16 +141,17 @@ public class CONSTANT_Utf8_info extends cp_info {
    public int compareTo(cp_info cp) {
       if (tag!=cp.tag) return tag-cp.tag;
       CONSTANT_Utf8_info cu = (CONSTANT_Utf8_info)cp;
-      G.v().coffi_CONSTANT_Utf8_info_e1.reset(bytes);
-      G.v().coffi_CONSTANT_Utf8_info_e2.reset(cu.bytes);
-      for (;G.v().coffi_CONSTANT_Utf8_info_e1.hasMoreElements() && G.v().coffi_CONSTANT_Utf8_info_e2.hasMoreElements();) {
-         G.v().coffi_CONSTANT_Utf8_info_e1.nextElement();
-         G.v().coffi_CONSTANT_Utf8_info_e2.nextElement();
-         if (G.v().coffi_CONSTANT_Utf8_info_e1.c<G.v().coffi_CONSTANT_Utf8_info_e2.c) return -1;
-         if (G.v().coffi_CONSTANT_Utf8_info_e2.c<G.v().coffi_CONSTANT_Utf8_info_e1.c) return 1;
+      // per call, as constant pools may be compared on several threads
+      Utf8_Enumeration e1 = new Utf8_Enumeration(bytes);
+      Utf8_Enumeration e2 = new Utf8_Enumeration(cu.bytes);
+      for (;e1.hasMoreElements() && e2.hasMoreElements();) {
+         e1.nextElement();
+         e2.nextElement();
+         if (e1.c<e2.c) return -1;
+         if (e2.c<e1.c) return 1;
       }
-      if (G.v().coffi_CONSTANT_Utf8_info_e1.hasMoreElements()) return -1;
-      if (G.v().coffi_CONSTANT_Utf8_info_e2.hasMoreElements()) return 1;
+      if (e1.hasMoreElements()) return -1;
+      if (e2.hasMoreElements()) return 1;
       return 0;
    }
    /** Utility method; converts the given String into a utf8 encoded array
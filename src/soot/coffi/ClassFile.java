@@ -31,8 +31,10 @@
 
 package soot.coffi;
 import soot.*;
+import soot.options.Options;
 
 import java.io.*;
+import java.nio.ByteBuffer;
 
 /**
  * A ClassFile object represents the contents of a <tt>.class</tt> file.
@@ -162,6 +164,10 @@ public class ClassFile {
     /** bootstrap-methods attribute (if any) */
     public BootstrapMethods_attribute bootstrap_methods_attribute;
 
+    /** SHA-1 of the class file if the {@link BodyCache} is enabled or
+     * bodies may be released by the {@link soot.BodyRetention} policy. */
+    byte[] classFileHash;
+
    /** Creates a new ClassFile object given the name of the file.
     * @param nfn file name which this ClassFile will represent.
     */
@@ -174,65 +180,54 @@ public class ClassFile {
 
     public boolean loadClassFile(InputStream is) 
     {
-      InputStream f = null;
-      InputStream classFileStream;
-      DataInputStream d;
-      boolean b;
-
-      classFileStream = is;
-     
       byte[]  data;
       
-      
-      Timers.v().readTimer.start();
+      if(Options.v().time())
+         Timers.v().readTimer.start();
       
       try 
       {
-        data = new byte[classFileStream.available()];
-        classFileStream.read(data);
-        f = new ByteArrayInputStream(data);
-         
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(is.available(), 1024));
+        byte[] buf = new byte[4096];
+        int n;
+        while ((n = is.read(buf)) != -1) {
+          out.write(buf, 0, n);
+        }
+        data = out.toByteArray();
       } catch(IOException e)
       {
+        G.v().out.println("IOException with " + fn + ": " + e.getMessage());
+        return false;
+      } finally {
+        try {
+          is.close();
+        } catch(IOException e) {
+        }
       }
       
-      Timers.v().readTimer.end();
-      
-      d = new DataInputStream(f);
-      b = readClass(d);
-      
-      try {
-        classFileStream.close();
-        d.close(); 
-        f.close();
-      } catch(IOException e) {
-         G.v().out.println("IOException with " + fn + ": " + e.getMessage());
-         return false;
-      }
+      if(Options.v().time())
+         Timers.v().readTimer.end();
       
-      if (!b) return false;
+      return loadClassFile(ByteBuffer.wrap(data));
+   }
+
+    /** Reads the class file directly from the given buffer, e.g. a
+     * memory-mapped file, without copying it or creating an input stream.
+     * Reading starts at the buffer's current position.
+     * @return <i>true</i> on success.
+     */
+    public boolean loadClassFile(ByteBuffer buf) 
+    {
+      if (BodyCache.v().isEnabled()
+          || Options.v().body_retention() != Options.body_retention_strong)
+        classFileHash = BodyCache.hash(buf);
+      if (!readClass(new ByteBufferDataInput(buf))) return false;
       //parse();        // parse all methods & builds CFGs
       //G.v().out.println("-- Read " + cf + " --");
       return true;
    }
 
 
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
    /** Main entry point for writing a class file.
     * The file name is given in the constructor; this opens the
     * file and writes the internal representation.
@@ -360,10 +355,10 @@ public class ClassFile {
 
    /** Builds the internal representation of this Class by reading in the
     * given class file.
-    * @param d Stream forming the <tt>.class</tt> file.
+    * @param d Input forming the <tt>.class</tt> file.
     * @return <i>true</i> if read was successful, <i>false</i> on some error.
     */
-   public boolean readClass(DataInputStream d) {
+   public boolean readClass(DataInput d) {
       try {
          // first read in magic number
          magic = d.readInt() & 0xFFFFFFFFL;
@@ -397,20 +392,25 @@ public class ClassFile {
          }
          //G.v().out.println("Implements " + interfaces_count + " interface(s)");
 
-         Timers.v().fieldTimer.start();
+         if(Options.v().time())
+            Timers.v().fieldTimer.start();
          
          fields_count = d.readUnsignedShort();
          //G.v().out.println("Has " + fields_count + " field(s)");
          readFields(d);
-         Timers.v().fieldTimer.end();
+         if(Options.v().time())
+            Timers.v().fieldTimer.end();
         
-         Timers.v().methodTimer.start();
+         if(Options.v().time())
+            Timers.v().methodTimer.start();
          methods_count = d.readUnsignedShort();
          //G.v().out.println("Has " + methods_count + " method(s)");
          readMethods(d);
-         Timers.v().methodTimer.end();
+         if(Options.v().time())
+            Timers.v().methodTimer.end();
         
-         Timers.v().attributeTimer.start();
+         if(Options.v().time())
+            Timers.v().attributeTimer.start();
          
          attributes_count = d.readUnsignedShort();
          //G.v().out.println("Has " + attributes_count + " attribute(s)");
@@ -418,7 +418,8 @@ public class ClassFile {
             attributes =  new attribute_info[attributes_count];
             readAttributes(d,attributes_count,attributes);
          }
-         Timers.v().attributeTimer.end();
+         if(Options.v().time())
+            Timers.v().attributeTimer.end();
          
       } catch(IOException e) {
          throw new RuntimeException("IOException with " + fn + ": " + e.getMessage(), e);
@@ -432,11 +433,11 @@ public class ClassFile {
    }
 
    /** Reads in the constant pool from the given stream.
-    * @param d Stream forming the <tt>.class</tt> file.
+    * @param d Input forming the <tt>.class</tt> file.
     * @return <i>true</i> if read was successful, <i>false</i> on some error.
     * @exception java.io.IOException on error.
     */
-   protected boolean readConstantPool(DataInputStream d) throws IOException {
+   protected boolean readConstantPool(DataInput d) throws IOException {
       byte tag;
       cp_info cp;
       int i;
@@ -531,10 +532,19 @@ public class ClassFile {
             if (debug) G.v().out.println("Constant pool[" + i + "]: Name and Type");
             break;
          case cp_info.CONSTANT_Utf8:
-            CONSTANT_Utf8_info cputf8 = new CONSTANT_Utf8_info(d);
-            // If an equivalent CONSTANT_Utf8 already exists, we return
-            // the pre-existing one and allow cputf8 to be GC'd.
-            cp = (cp_info) CONSTANT_Utf8_collector.v().add(cputf8);
+            CONSTANT_Utf8_info cputf8;
+            if (d instanceof ByteBufferDataInput) {
+               // Only copy the bytes of the entry, so it doesn't keep the
+               // class file alive. It's decoded on first use which for
+               // most entries of library classes is never.
+               cputf8 = new CONSTANT_Utf8_info(d);
+               cp = cputf8;
+            } else {
+               cputf8 = new CONSTANT_Utf8_info(d);
+               // If an equivalent CONSTANT_Utf8 already exists, we return
+               // the pre-existing one and allow cputf8 to be GC'd.
+               cp = (cp_info) CONSTANT_Utf8_collector.v().add(cputf8);
+            }
             if (debug)
                G.v().out.println("Constant pool[" + i + "]: Utf8 = \"" +
                                   cputf8.convert() + "\"");
@@ -565,14 +575,57 @@ public class ClassFile {
       return true;
    }
 
+   /** Reads the contents of a Code attribute following its name and length.
+    * @param d Input forming the <tt>.class</tt> file.
+    * @param ca the attribute to be filled in.
+    * @exception java.io.IOException on error.
+    */
+   private void readCodeAttribute(DataInput d, Code_attribute ca) throws IOException {
+      ca.max_stack = d.readUnsignedShort();
+      ca.max_locals = d.readUnsignedShort();
+      ca.code_length = d.readInt() & 0xFFFFFFFFL;
+      ca.code = new byte[(int) ca.code_length];
+      d.readFully(ca.code);
+      ca.exception_table_length = d.readUnsignedShort();
+      ca.exception_table = new exception_table_entry[ca.exception_table_length];
+      int k;
+      exception_table_entry e;
+      for (k=0; k<ca.exception_table_length; k++) {
+         e = new exception_table_entry();
+         e.start_pc = d.readUnsignedShort();
+         e.end_pc = d.readUnsignedShort();
+         e.handler_pc = d.readUnsignedShort();
+         e.catch_type = d.readUnsignedShort();
+         ca.exception_table[k] = e;
+      }
+      ca.attributes_count = d.readUnsignedShort();
+      ca.attributes = new attribute_info[ca.attributes_count];
+      readAttributes(d,ca.attributes_count,ca.attributes);
+   }
+
+   /** Decodes a Code attribute whose decoding has been deferred by the
+    * <tt>-lazy-code</tt> option and releases its undecoded contents.
+    * Does nothing if the attribute has already been decoded.
+    * @param ca the attribute to be decoded.
+    */
+   void parseCodeAttribute(Code_attribute ca) {
+      if (ca.unparsed == null) return;
+      try {
+         readCodeAttribute(new ByteBufferDataInput(ca.unparsed), ca);
+      } catch(IOException e) {
+         throw new RuntimeException("Malformed Code attribute in " + fn, e);
+      }
+      ca.unparsed = null;
+   }
+
    /** Reads in the given number of attributes from the given stream.
-    * @param d Stream forming the <tt>.class</tt> file.
+    * @param d Input forming the <tt>.class</tt> file.
     * @param attributes_count number of attributes to read in.
     * @param ai pre-allocated array of attributes to be filled in.
     * @return <i>true</i> if read was successful, <i>false</i> on some error.
     * @exception java.io.IOException on error.
     */
-   protected boolean readAttributes(DataInputStream d,int attributes_count,
+   protected boolean readAttributes(DataInput d,int attributes_count,
                                     attribute_info[] ai) throws IOException {
       attribute_info a=null;
       int i;
@@ -598,26 +651,12 @@ public class ClassFile {
          } else if(s.compareTo(attribute_info.Code)==0) 
          {
             Code_attribute ca = new Code_attribute();
-            ca.max_stack = d.readUnsignedShort();
-            ca.max_locals = d.readUnsignedShort();
-            ca.code_length = d.readInt() & 0xFFFFFFFFL;
-            ca.code = new byte[(int) ca.code_length];
-            d.read(ca.code);
-            ca.exception_table_length = d.readUnsignedShort();
-            ca.exception_table = new exception_table_entry[ca.exception_table_length];
-            int k;
-            exception_table_entry e;
-            for (k=0; k<ca.exception_table_length; k++) {
-               e = new exception_table_entry();
-               e.start_pc = d.readUnsignedShort();
-               e.end_pc = d.readUnsignedShort();
-               e.handler_pc = d.readUnsignedShort();
-               e.catch_type = d.readUnsignedShort();
-               ca.exception_table[k] = e;
+            if (Options.v().lazy_code() && d instanceof ByteBufferDataInput) {
+               // Decoded once the method's instructions are needed.
+               ca.unparsed = ((ByteBufferDataInput) d).slice((int) len);
+            } else {
+               readCodeAttribute(d, ca);
             }
-            ca.attributes_count = d.readUnsignedShort();
-            ca.attributes = new attribute_info[ca.attributes_count];
-            readAttributes(d,ca.attributes_count,ca.attributes);
             a = (attribute_info)ca;
             
             
@@ -830,7 +869,7 @@ public class ClassFile {
             Generic_attribute ga = new Generic_attribute();
             if (len>0) {
                ga.info = new byte[(int) len];
-               d.read(ga.info);
+               d.readFully(ga.info);
             }
             a = (attribute_info)ga;
          }
@@ -841,7 +880,7 @@ public class ClassFile {
       return true;
    }
 
-    private element_value [] readElementValues(int count, DataInputStream d, boolean needName, int name_index)
+    private element_value [] readElementValues(int count, DataInput d, boolean needName, int name_index)
         throws IOException {
         element_value [] list = new element_value[count];
         for (int x = 0; x < count; x++){
@@ -899,11 +938,11 @@ public class ClassFile {
     }
 
    /** Reads in the fields from the given stream.
-    * @param d Stream forming the <tt>.class</tt> file.
+    * @param d Input forming the <tt>.class</tt> file.
     * @return <i>true</i> if read was successful, <i>false</i> on some error.
     * @exception java.io.IOException on error.
     */
-   protected boolean readFields(DataInputStream d) throws IOException {
+   protected boolean readFields(DataInput d) throws IOException {
       field_info fi;
       int i;
 
@@ -929,11 +968,11 @@ public class ClassFile {
    }
 
    /** Reads in the methods from the given stream.
-    * @param d Stream forming the <tt>.class</tt> file.
+    * @param d Input forming the <tt>.class</tt> file.
     * @return <i>true</i> if read was successful, <i>false</i> on some error.
     * @exception java.io.IOException on error.
     */
-   protected boolean readMethods(DataInputStream d) throws IOException {
+   protected boolean readMethods(DataInput d) throws IOException {
       method_info mi;
       int i;
 
@@ -1085,6 +1124,7 @@ public class ClassFile {
             dd.writeShort(ca.constantvalue_index);
          } else if(a instanceof Code_attribute) {
             Code_attribute ca = (Code_attribute)a;
+            parseCodeAttribute(ca);
             dd.writeShort(ca.max_stack);
             dd.writeShort(ca.max_locals);
             dd.writeInt((int) ca.code_length);
@@ -1255,6 +1295,7 @@ public class ClassFile {
 
       ca = m.locate_code_attribute();
       if (ca==null) return null;
+      parseCodeAttribute(ca);
 
       j = 0;
       while(j<ca.code_length) {
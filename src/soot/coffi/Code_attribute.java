@@ -62,6 +62,11 @@ class Code_attribute extends attribute_info {
     * @see attribute_info
     */
    attribute_info attributes[];
+   /** The undecoded contents of this attribute if decoding has been
+    * deferred, otherwise <i>null</i>.
+    * @see ClassFile#parseCodeAttribute
+    */
+   java.nio.ByteBuffer unparsed;
 
    /** Locates the LocalVariableTable attribute, if one is present.
     * @return the local variable table attribute, or <i>null</i> if not found.
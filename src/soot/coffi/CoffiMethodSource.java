@@ -36,10 +36,55 @@ public class CoffiMethodSource implements MethodSource
     public ClassFile coffiClass;
     public method_info coffiMethod;
 
+    /* Used to find the method again if its body is retrieved once more
+       after the Coffi structures have been freed. */
+    private final byte[] classFileHash;
+    private String methodName;
+    private String methodDescriptor;
+
     CoffiMethodSource(soot.coffi.ClassFile coffiClass, soot.coffi.method_info coffiMethod)
     {
         this.coffiClass = coffiClass;
         this.coffiMethod = coffiMethod;
+        this.classFileHash = coffiClass.classFileHash;
+    }
+
+    /** Frees the Coffi structures but remembers how to find the method
+        again. */
+    private void release()
+    {
+        methodName = coffiMethod.toName(coffiClass.constant_pool);
+        methodDescriptor = cp_info.getTypeDescr(coffiClass.constant_pool,
+            coffiMethod.descriptor_index);
+        coffiMethod = null;
+        coffiClass = null;
+    }
+
+    /** Re-reads the class file of the method after the Coffi structures
+        have been freed, e.g. because the body has been released by the
+        {@link BodyRetention} policy. */
+    private void reload(SootMethod m)
+    {
+        String className = m.getDeclaringClass().getName();
+        ClassSource source = SourceLocator.v().getClassSource(className);
+        ClassFile cf = null;
+        if (source instanceof CoffiClassSource)
+            cf = ((CoffiClassSource) source).loadClassFile();
+        if (cf == null)
+            throw new RuntimeException("Could not reload classfile: " + className);
+        if (classFileHash != null && !Arrays.equals(classFileHash, cf.classFileHash))
+            throw new RuntimeException("Classfile has changed since it was loaded: " + className);
+
+        for (method_info mi : cf.methods) {
+            if (mi.toName(cf.constant_pool).equals(methodName)
+                && cp_info.getTypeDescr(cf.constant_pool, mi.descriptor_index).equals(methodDescriptor)) {
+                mi.jmethod = m;
+                coffiClass = cf;
+                coffiMethod = mi;
+                return;
+            }
+        }
+        throw new RuntimeException("Could not find " + m.getSignature() + " in reloaded classfile");
     }
 
     public Body getBody(SootMethod m, String phaseName)
@@ -63,6 +108,18 @@ public class CoffiMethodSource implements MethodSource
 
         if(m.isAbstract() || m.isNative() || m.isPhantom())
             return jb;
+
+        if (classFileHash != null && BodyCache.v().isEnabled()) {
+            Body cached = BodyCache.v().get(m, classFileHash);
+            if (cached != null) {
+                if (coffiClass != null)
+                    release();
+                return cached;
+            }
+        }
+
+        if (coffiClass == null)
+            reload(m);
             
         if(Options.v().time())
             Timers.v().conversionTimer.start();
@@ -109,10 +166,13 @@ public class CoffiMethodSource implements MethodSource
          coffiMethod.jmethod = null;
          coffiMethod.instructionList = null;
 
-         coffiMethod = null;
-         coffiClass = null;
+         release();
          
          PackManager.v().getPack("jb").apply(jb);
+
+         if (classFileHash != null && BodyCache.v().isEnabled()) {
+             BodyCache.v().put(m, classFileHash, jb);
+         }
          return jb;
     }
 }
@@ -33,6 +33,7 @@ package soot.coffi;
 import soot.jimple.*;
 import java.util.*;
 import java.io.*;
+import java.nio.ByteBuffer;
 import soot.tagkit.*;
 import soot.*;
 
@@ -47,27 +48,59 @@ public class Util
     Set markedClasses;
     LinkedList classesToResolve;
 
-    int activeOriginalIndex = -1;
-    cp_info[] activeConstantPool = null;
-    LocalVariableTable_attribute activeVariableTable;
-    LocalVariableTypeTable_attribute activeVariableTypeTable;
     boolean useFaithfulNaming = false;
-    boolean isLocalStore = false;  // global variable used 
-    boolean isWideLocalStore = false;
+
+    /** State of the body a thread is currently jimplifying. Kept per thread
+     * so that bodies can be created concurrently. */
+    static final class BodyState
+    {
+        int activeOriginalIndex = -1;
+        cp_info[] activeConstantPool = null;
+        LocalVariableTable_attribute activeVariableTable;
+        LocalVariableTypeTable_attribute activeVariableTypeTable;
+        boolean isLocalStore = false;  // global variable used 
+        boolean isWideLocalStore = false;
+        int nextEasyNameIndex;
+    }
+
+    private final ThreadLocal<BodyState> bodyState = new ThreadLocal<BodyState>() {
+        protected BodyState initialValue() {
+            return new BodyState();
+        }
+    };
+
+    /** Returns the state of the body the current thread is jimplifying. */
+    BodyState bodyState()
+    {
+        return bodyState.get();
+    }
+
     public void setFaithfulNaming(boolean v)
     {
         useFaithfulNaming = v;
     }    
 
     public void resolveFromClassFile(SootClass aClass, InputStream is, List references)
+    {
+        ClassFile coffiClass = new ClassFile(aClass.getName());
+        resolveFromClassFile(aClass, coffiClass, coffiClass.loadClassFile(is), references);
+    }
+
+    /** Same as {@link #resolveFromClassFile(SootClass, InputStream, List)} 
+     * but reads the class file directly from a buffer. */
+    public void resolveFromClassFile(SootClass aClass, ByteBuffer buf, List references)
+    {
+        ClassFile coffiClass = new ClassFile(aClass.getName());
+        resolveFromClassFile(aClass, coffiClass, coffiClass.loadClassFile(buf), references);
+    }
+
+    private void resolveFromClassFile(SootClass aClass, ClassFile coffiClass, boolean success, List references)
     {
         SootClass bclass = aClass;                
         String className = bclass.getName();
-        ClassFile coffiClass = new ClassFile(className);
         
         // Load up class file, and retrieve bclass from class manager.
         {
-            boolean success = coffiClass.loadClassFile(is);
 
             if(!success)
                 {
@@ -444,8 +477,6 @@ public class Util
         return types[types.length - 1];
     }
 
-    private final ArrayList<Type> conversionTypes = new ArrayList<Type>();
-    
     /*
     private Map cache = new HashMap();
     public Type[] jimpleTypesOfFieldOrMethodDescriptor(String descriptor)
@@ -555,14 +586,14 @@ public class Util
 */
 
 
-    private final Map<String, Type[]> cache = new HashMap<String, Type[]>();
+    private final Map<String, Type[]> cache = new java.util.concurrent.ConcurrentHashMap<String, Type[]>();
     public Type[] jimpleTypesOfFieldOrMethodDescriptor(String descriptor)
     {
         Type[] ret = cache.get(descriptor);
         if( ret != null ) return ret;
         char[] d = descriptor.toCharArray();
         int p = 0;
-        conversionTypes.clear();
+        ArrayList<Type> conversionTypes = new ArrayList<Type>();
 
 outer:
         while(p<d.length)
@@ -705,11 +736,9 @@ swtch:
                 return baseType;
     }
 
-    int nextEasyNameIndex;
-
     void resetEasyNames()
     {
-        nextEasyNameIndex = 0;
+        bodyState().nextEasyNameIndex = 0;
     }
 
     String getNextEasyName()
@@ -718,7 +747,7 @@ swtch:
             {"a", "b", "c", "d", "e", "f", "g", "h", "i", "j", "k", "l", "m",
              "n", "o", "p", "q", "r", "s", "t", "u", "v", "w", "x", "y", "z"};
 
-        int justifiedIndex = nextEasyNameIndex++;
+        int justifiedIndex = bodyState().nextEasyNameIndex++;
 
         if(justifiedIndex >= easyNames.length)
             return "local" + (justifiedIndex - easyNames.length);
@@ -844,20 +873,21 @@ swtch:
         String name = null;
         String debug_type = null;
         boolean assignedName = false;
-        if(useFaithfulNaming && activeVariableTable != null && activeOriginalIndex != -1)
+        BodyState state = bodyState();
+        if(useFaithfulNaming && state.activeVariableTable != null && state.activeOriginalIndex != -1)
         {
-            int variableByteCodeIdx = activeOriginalIndex;
+            int variableByteCodeIdx = state.activeOriginalIndex;
             // Feng asks: why this is necessary? it does wrong thing
             //            for searching local variable names.
             // It is going to be verified with plam.
-            if (isLocalStore)
+            if (state.isLocalStore)
                 variableByteCodeIdx++;
-            if (isWideLocalStore)
+            if (state.isWideLocalStore)
                 variableByteCodeIdx++;
 
-            name = activeVariableTable.getLocalVariableName(activeConstantPool, index, variableByteCodeIdx);
-            if (activeVariableTypeTable != null) {
-                debug_type = activeVariableTypeTable.getLocalVariableType(activeConstantPool, index, variableByteCodeIdx);
+            name = state.activeVariableTable.getLocalVariableName(state.activeConstantPool, index, variableByteCodeIdx);
+            if (state.activeVariableTypeTable != null) {
+                debug_type = state.activeVariableTypeTable.getLocalVariableType(state.activeConstantPool, index, variableByteCodeIdx);
                 if (debug_type != null) {
                 }
             }
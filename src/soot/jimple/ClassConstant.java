@@ -36,6 +36,10 @@ public class ClassConstant extends Constant
 {
     public final String value;
 
+    /** Canonical instances of the constants currently in use. */
+    private static final WeakInterner<String, ClassConstant> interned 
+        = new WeakInterner<String, ClassConstant>(ClassConstant::new);
+
     private ClassConstant(String s)
     {
         this.value = s;
@@ -44,13 +48,13 @@ public class ClassConstant extends Constant
     public static ClassConstant v(String value)
     {
     	if(value.contains(".")) throw new RuntimeException("ClassConstants must use class names separated by '/', not '.'!");
-        return new ClassConstant(value);
+        return interned.intern(value);
     }
 
     // In this case, equals should be structural equality.
     public boolean equals(Object c)
     {
-        return (c instanceof ClassConstant && ((ClassConstant) c).value.equals(this.value));
+        return c == this || (c instanceof ClassConstant && ((ClassConstant) c).value.equals(this.value));
     }
 
     /** Returns a hash code for this ClassConstant object. */
@@ -32,6 +32,7 @@ package soot.jimple;
 import soot.tagkit.*;
 import soot.*;
 import java.util.*;
+import java.util.function.Consumer;
 
 public abstract class Constant implements Value, Immediate
 {
@@ -40,6 +41,10 @@ public abstract class Constant implements Value, Immediate
         return AbstractUnit.emptyList;
     }
 
+    public void forEachUseBox(Consumer<? super ValueBox> action)
+    {
+    }
+
     /** Adds a Baf instruction pushing this constant to the stack onto <code>out</code>. */
 
     /** Clones the current constant.  Not implemented here. */
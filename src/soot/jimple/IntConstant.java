@@ -36,6 +36,17 @@ public class IntConstant extends ArithmeticConstant
 {
     public final int value;
 
+    private static final int CACHE_LOW = -128;
+    private static final int CACHE_HIGH = 1023;
+
+    /** Shared instances of the most frequently used values. */
+    private static final IntConstant[] cache = new IntConstant[CACHE_HIGH - CACHE_LOW + 1];
+    static
+    {
+        for (int i = 0; i < cache.length; i++)
+            cache[i] = new IntConstant(i + CACHE_LOW);
+    }
+
     protected IntConstant(int value)
     {
         this.value = value;
@@ -43,12 +54,14 @@ public class IntConstant extends ArithmeticConstant
 
     public static IntConstant v(int value)
     {
+        if (value >= CACHE_LOW && value <= CACHE_HIGH)
+            return cache[value - CACHE_LOW];
         return new IntConstant(value);
     }
 
     public boolean equals(Object c)
     {
-        return c instanceof IntConstant && ((IntConstant) c).value == value;
+        return c == this || c instanceof IntConstant && ((IntConstant) c).value == value;
     }
 
     public int hashCode()
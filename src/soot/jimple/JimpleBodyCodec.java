@@ -0,0 +1,1035 @@
+/*
+ * Copyright (C) 2014 RoboVM AB
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/gpl-2.0.html>.
+ */
+package soot.jimple;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import soot.ArrayType;
+import soot.Body;
+import soot.BodyCodec;
+import soot.BooleanType;
+import soot.ByteType;
+import soot.CharType;
+import soot.DoubleType;
+import soot.ErroneousType;
+import soot.FloatType;
+import soot.IntType;
+import soot.Local;
+import soot.LocalVariable;
+import soot.LongType;
+import soot.NullType;
+import soot.RefType;
+import soot.Scene;
+import soot.ShortType;
+import soot.SootFieldRef;
+import soot.SootMethod;
+import soot.SootMethodHandle;
+import soot.SootMethodRef;
+import soot.SootMethodType;
+import soot.StmtAddressType;
+import soot.Trap;
+import soot.Type;
+import soot.Unit;
+import soot.UnitBox;
+import soot.UnknownType;
+import soot.Value;
+import soot.ValueBox;
+import soot.VoidType;
+import soot.tagkit.BytecodeOffsetTag;
+import soot.tagkit.Host;
+import soot.tagkit.LineNumberTag;
+import soot.tagkit.StringTag;
+import soot.tagkit.Tag;
+
+/**
+ * Compact binary {@link BodyCodec} for {@link JimpleBody}s.
+ * <p>
+ * The locals, units, traps, local variables and tags of a body are written
+ * as a tree of tagged nodes. Strings, types, method refs and field refs are
+ * interned: the first occurrence of each is written in full, later ones
+ * only as an index into the table of already seen entries. Integers are
+ * written as variable-length quantities. Branch targets and trap bounds
+ * are written as unit indices and patched in once all units have been
+ * read.
+ * <p>
+ * Only the constructs produced by the <code>jb</code> pack are supported.
+ * Writing a body containing anything else, e.g. a tag other than
+ * {@link LineNumberTag}, {@link BytecodeOffsetTag} or {@link StringTag},
+ * fails with an {@link IOException} rather than silently dropping it.
+ */
+public class JimpleBodyCodec implements BodyCodec {
+    private static final int MAGIC = 0x4a424331; // "JBC1"
+
+    private static final int TYPE_VOID = 0;
+    private static final int TYPE_BOOLEAN = 1;
+    private static final int TYPE_BYTE = 2;
+    private static final int TYPE_CHAR = 3;
+    private static final int TYPE_SHORT = 4;
+    private static final int TYPE_INT = 5;
+    private static final int TYPE_LONG = 6;
+    private static final int TYPE_FLOAT = 7;
+    private static final int TYPE_DOUBLE = 8;
+    private static final int TYPE_NULL = 9;
+    private static final int TYPE_REF = 10;
+    private static final int TYPE_ARRAY = 11;
+    private static final int TYPE_UNKNOWN = 12;
+    private static final int TYPE_ERRONEOUS = 13;
+    private static final int TYPE_STMT_ADDRESS = 14;
+
+    private static final int STMT_ASSIGN = 0;
+    private static final int STMT_IDENTITY = 1;
+    private static final int STMT_INVOKE = 2;
+    private static final int STMT_IF = 3;
+    private static final int STMT_GOTO = 4;
+    private static final int STMT_LOOKUP_SWITCH = 5;
+    private static final int STMT_TABLE_SWITCH = 6;
+    private static final int STMT_RETURN = 7;
+    private static final int STMT_RETURN_VOID = 8;
+    private static final int STMT_THROW = 9;
+    private static final int STMT_ENTER_MONITOR = 10;
+    private static final int STMT_EXIT_MONITOR = 11;
+    private static final int STMT_NOP = 12;
+    private static final int STMT_BREAKPOINT = 13;
+    private static final int STMT_RET = 14;
+
+    private static final int VALUE_LOCAL = 0;
+    private static final int VALUE_INT = 1;
+    private static final int VALUE_LONG = 2;
+    private static final int VALUE_FLOAT = 3;
+    private static final int VALUE_DOUBLE = 4;
+    private static final int VALUE_STRING = 5;
+    private static final int VALUE_NULL = 6;
+    private static final int VALUE_CLASS = 7;
+    private static final int VALUE_METHOD_HANDLE = 8;
+    private static final int VALUE_METHOD_TYPE = 9;
+    private static final int VALUE_ARRAY_REF = 10;
+    private static final int VALUE_INSTANCE_FIELD_REF = 11;
+    private static final int VALUE_STATIC_FIELD_REF = 12;
+    private static final int VALUE_PARAMETER_REF = 13;
+    private static final int VALUE_THIS_REF = 14;
+    private static final int VALUE_CAUGHT_EXCEPTION_REF = 15;
+    private static final int VALUE_ADD = 16;
+    private static final int VALUE_AND = 17;
+    private static final int VALUE_CMP = 18;
+    private static final int VALUE_CMPG = 19;
+    private static final int VALUE_CMPL = 20;
+    private static final int VALUE_DIV = 21;
+    private static final int VALUE_EQ = 22;
+    private static final int VALUE_GE = 23;
+    private static final int VALUE_GT = 24;
+    private static final int VALUE_LE = 25;
+    private static final int VALUE_LT = 26;
+    private static final int VALUE_MUL = 27;
+    private static final int VALUE_NE = 28;
+    private static final int VALUE_OR = 29;
+    private static final int VALUE_REM = 30;
+    private static final int VALUE_SHL = 31;
+    private static final int VALUE_SHR = 32;
+    private static final int VALUE_SUB = 33;
+    private static final int VALUE_USHR = 34;
+    private static final int VALUE_XOR = 35;
+    private static final int VALUE_CAST = 36;
+    private static final int VALUE_INSTANCE_OF = 37;
+    private static final int VALUE_NEW = 38;
+    private static final int VALUE_NEW_ARRAY = 39;
+    private static final int VALUE_NEW_MULTI_ARRAY = 40;
+    private static final int VALUE_LENGTH = 41;
+    private static final int VALUE_NEG = 42;
+    private static final int VALUE_INTERFACE_INVOKE = 43;
+    private static final int VALUE_SPECIAL_INVOKE = 44;
+    private static final int VALUE_STATIC_INVOKE = 45;
+    private static final int VALUE_VIRTUAL_INVOKE = 46;
+    private static final int VALUE_DYNAMIC_INVOKE = 47;
+
+    private static final int TAG_LINE_NUMBER = 0;
+    private static final int TAG_BYTECODE_OFFSET = 1;
+    private static final int TAG_STRING = 2;
+
+    public void write(Body body, DataOutput out) throws IOException {
+        new Writer(out).writeBody(body);
+    }
+
+    public Body read(SootMethod m, DataInput in) throws IOException {
+        return new Reader(in).readBody(m);
+    }
+
+    static void writeVarInt(DataOutput out, int v) throws IOException {
+        while ((v & ~0x7f) != 0) {
+            out.writeByte((v & 0x7f) | 0x80);
+            v >>>= 7;
+        }
+        out.writeByte(v);
+    }
+
+    static int readVarInt(DataInput in) throws IOException {
+        int v = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.readUnsignedByte();
+            v |= (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) {
+                return v;
+            }
+        }
+        throw new IOException("Malformed variable-length int");
+    }
+
+    private static class Writer {
+        private final DataOutput out;
+        private final Map<String, Integer> strings = new HashMap<String, Integer>();
+        private final Map<Type, Integer> types = new HashMap<Type, Integer>();
+        private final Map<List<Object>, Integer> methodRefs = new HashMap<List<Object>, Integer>();
+        private final Map<List<Object>, Integer> fieldRefs = new HashMap<List<Object>, Integer>();
+        private final Map<Local, Integer> locals = new HashMap<Local, Integer>();
+        private final Map<Unit, Integer> units = new HashMap<Unit, Integer>();
+
+        Writer(DataOutput out) {
+            this.out = out;
+        }
+
+        void writeBody(Body body) throws IOException {
+            out.writeInt(MAGIC);
+
+            writeVarInt(out, body.getLocalCount());
+            for (Local l : body.getLocals()) {
+                locals.put(l, locals.size());
+                writeString(l.getName());
+                writeType(l.getType());
+                writeVarInt(out, l.getIndex() + 1);
+            }
+
+            for (Unit u : body.getUnits()) {
+                units.put(u, units.size());
+            }
+            writeVarInt(out, units.size());
+            for (Unit u : body.getUnits()) {
+                writeStmt((Stmt) u);
+                for (Object vb : u.getUseAndDefBoxes()) {
+                    if (!((ValueBox) vb).getTags().isEmpty()) {
+                        throw new IOException("Tags on values are not supported: " + u);
+                    }
+                }
+                writeTags(u.getTags());
+            }
+
+            writeVarInt(out, body.getTraps().size());
+            for (Trap t : body.getTraps()) {
+                writeString(t.getException().getName());
+                writeUnit(t.getBeginUnit());
+                writeUnit(t.getEndUnit());
+                writeUnit(t.getHandlerUnit());
+            }
+
+            writeVarInt(out, body.getLocalVariables().size());
+            for (LocalVariable lv : body.getLocalVariables()) {
+                writeString(lv.getName());
+                writeVarInt(out, lv.getIndex());
+                writeUnit(lv.getStartUnit());
+                if (lv.getEndUnit() == null) {
+                    writeVarInt(out, 0);
+                } else {
+                    writeVarInt(out, units.get(lv.getEndUnit()) + 1);
+                }
+                writeString(lv.getDescriptor());
+            }
+
+            writeTags(body.getTags());
+        }
+
+        private void writeUnit(Unit u) throws IOException {
+            Integer index = units.get(u);
+            if (index == null) {
+                throw new IOException("Unit not in body: " + u);
+            }
+            writeVarInt(out, index);
+        }
+
+        private void writeString(String s) throws IOException {
+            Integer index = strings.get(s);
+            if (index != null) {
+                writeVarInt(out, index);
+                return;
+            }
+            writeVarInt(out, strings.size());
+            strings.put(s, strings.size());
+            out.writeUTF(s);
+        }
+
+        private void writeType(Type t) throws IOException {
+            Integer index = types.get(t);
+            if (index != null) {
+                writeVarInt(out, index);
+                return;
+            }
+            writeVarInt(out, types.size());
+            types.put(t, types.size());
+            if (t instanceof RefType) {
+                out.writeByte(TYPE_REF);
+                writeString(((RefType) t).getClassName());
+            } else if (t instanceof ArrayType) {
+                ArrayType at = (ArrayType) t;
+                out.writeByte(TYPE_ARRAY);
+                writePrimOrRefType(at.baseType);
+                writeVarInt(out, at.numDimensions);
+            } else {
+                out.writeByte(primTypeCode(t));
+            }
+        }
+
+        private void writePrimOrRefType(Type t) throws IOException {
+            if (t instanceof RefType) {
+                out.writeByte(TYPE_REF);
+                writeString(((RefType) t).getClassName());
+            } else {
+                out.writeByte(primTypeCode(t));
+            }
+        }
+
+        private int primTypeCode(Type t) throws IOException {
+            if (t instanceof VoidType) return TYPE_VOID;
+            if (t instanceof BooleanType) return TYPE_BOOLEAN;
+            if (t instanceof ByteType) return TYPE_BYTE;
+            if (t instanceof CharType) return TYPE_CHAR;
+            if (t instanceof ShortType) return TYPE_SHORT;
+            if (t instanceof IntType) return TYPE_INT;
+            if (t instanceof LongType) return TYPE_LONG;
+            if (t instanceof FloatType) return TYPE_FLOAT;
+            if (t instanceof DoubleType) return TYPE_DOUBLE;
+            if (t instanceof NullType) return TYPE_NULL;
+            if (t instanceof UnknownType) return TYPE_UNKNOWN;
+            if (t instanceof ErroneousType) return TYPE_ERRONEOUS;
+            if (t instanceof StmtAddressType) return TYPE_STMT_ADDRESS;
+            throw new IOException("Unsupported type: " + t + " (" + t.getClass().getName() + ")");
+        }
+
+        private void writeTypes(List<?> ts) throws IOException {
+            writeVarInt(out, ts.size());
+            for (Object t : ts) {
+                writeType((Type) t);
+            }
+        }
+
+        private void writeMethodRef(SootMethodRef ref) throws IOException {
+            List<Object> key = Arrays.<Object>asList(ref.declaringClass().getName(), ref.name(),
+                    ref.parameterTypes(), ref.returnType(), ref.isStatic());
+            Integer index = methodRefs.get(key);
+            if (index != null) {
+                writeVarInt(out, index);
+                return;
+            }
+            writeVarInt(out, methodRefs.size());
+            methodRefs.put(key, methodRefs.size());
+            writeString(ref.declaringClass().getName());
+            writeString(ref.name());
+            writeTypes(ref.parameterTypes());
+            writeType(ref.returnType());
+            out.writeBoolean(ref.isStatic());
+        }
+
+        private void writeFieldRef(SootFieldRef ref) throws IOException {
+            List<Object> key = Arrays.<Object>asList(ref.declaringClass().getName(), ref.name(),
+                    ref.type(), ref.isStatic());
+            Integer index = fieldRefs.get(key);
+            if (index != null) {
+                writeVarInt(out, index);
+                return;
+            }
+            writeVarInt(out, fieldRefs.size());
+            fieldRefs.put(key, fieldRefs.size());
+            writeString(ref.declaringClass().getName());
+            writeString(ref.name());
+            writeType(ref.type());
+            out.writeBoolean(ref.isStatic());
+        }
+
+        private void writeTags(List<Tag> tags) throws IOException {
+            writeVarInt(out, tags.size());
+            for (Tag t : tags) {
+                if (t instanceof LineNumberTag) {
+                    out.writeByte(TAG_LINE_NUMBER);
+                    writeVarInt(out, ((LineNumberTag) t).getLineNumber());
+                } else if (t instanceof BytecodeOffsetTag) {
+                    out.writeByte(TAG_BYTECODE_OFFSET);
+                    writeVarInt(out, ((BytecodeOffsetTag) t).getBytecodeOffset());
+                } else if (t instanceof StringTag) {
+                    StringTag st = (StringTag) t;
+                    out.writeByte(TAG_STRING);
+                    writeString(st.getInfo());
+                    writeString(st.getAnalysisType());
+                } else {
+                    throw new IOException("Unsupported tag: " + t.getClass().getName());
+                }
+            }
+        }
+
+        private void writeStmt(Stmt s) throws IOException {
+            if (s instanceof AssignStmt) {
+                out.writeByte(STMT_ASSIGN);
+                writeValue(((AssignStmt) s).getLeftOp());
+                writeValue(((AssignStmt) s).getRightOp());
+            } else if (s instanceof IdentityStmt) {
+                out.writeByte(STMT_IDENTITY);
+                writeValue(((IdentityStmt) s).getLeftOp());
+                writeValue(((IdentityStmt) s).getRightOp());
+            } else if (s instanceof InvokeStmt) {
+                out.writeByte(STMT_INVOKE);
+                writeValue(((InvokeStmt) s).getInvokeExpr());
+            } else if (s instanceof IfStmt) {
+                out.writeByte(STMT_IF);
+                writeValue(((IfStmt) s).getCondition());
+                writeUnit(((IfStmt) s).getTarget());
+            } else if (s instanceof GotoStmt) {
+                out.writeByte(STMT_GOTO);
+                writeUnit(((GotoStmt) s).getTarget());
+            } else if (s instanceof LookupSwitchStmt) {
+                LookupSwitchStmt ls = (LookupSwitchStmt) s;
+                out.writeByte(STMT_LOOKUP_SWITCH);
+                writeValue(ls.getKey());
+                writeVarInt(out, ls.getTargetCount());
+                for (int i = 0; i < ls.getTargetCount(); i++) {
+                    out.writeInt(ls.getLookupValue(i));
+                    writeUnit(ls.getTarget(i));
+                }
+                writeUnit(ls.getDefaultTarget());
+            } else if (s instanceof TableSwitchStmt) {
+                TableSwitchStmt ts = (TableSwitchStmt) s;
+                out.writeByte(STMT_TABLE_SWITCH);
+                writeValue(ts.getKey());
+                out.writeInt(ts.getLowIndex());
+                out.writeInt(ts.getHighIndex());
+                writeVarInt(out, ts.getTargets().size());
+                for (int i = 0; i < ts.getTargets().size(); i++) {
+                    writeUnit(ts.getTarget(i));
+                }
+                writeUnit(ts.getDefaultTarget());
+            } else if (s instanceof ReturnStmt) {
+                out.writeByte(STMT_RETURN);
+                writeValue(((ReturnStmt) s).getOp());
+            } else if (s instanceof ReturnVoidStmt) {
+                out.writeByte(STMT_RETURN_VOID);
+            } else if (s instanceof ThrowStmt) {
+                out.writeByte(STMT_THROW);
+                writeValue(((ThrowStmt) s).getOp());
+            } else if (s instanceof EnterMonitorStmt) {
+                out.writeByte(STMT_ENTER_MONITOR);
+                writeValue(((EnterMonitorStmt) s).getOp());
+            } else if (s instanceof ExitMonitorStmt) {
+                out.writeByte(STMT_EXIT_MONITOR);
+                writeValue(((ExitMonitorStmt) s).getOp());
+            } else if (s instanceof NopStmt) {
+                out.writeByte(STMT_NOP);
+            } else if (s instanceof BreakpointStmt) {
+                out.writeByte(STMT_BREAKPOINT);
+            } else if (s instanceof RetStmt) {
+                out.writeByte(STMT_RET);
+                writeValue(((RetStmt) s).getStmtAddress());
+            } else {
+                throw new IOException("Unsupported statement: " + s + " (" + s.getClass().getName() + ")");
+            }
+        }
+
+        private void writeValues(List<?> vs) throws IOException {
+            writeVarInt(out, vs.size());
+            for (Object v : vs) {
+                writeValue((Value) v);
+            }
+        }
+
+        private void writeValue(Value v) throws IOException {
+            if (v instanceof Local) {
+                Integer index = locals.get(v);
+                if (index == null) {
+                    throw new IOException("Local not in body: " + v);
+                }
+                out.writeByte(VALUE_LOCAL);
+                writeVarInt(out, index);
+            } else if (v instanceof Constant) {
+                writeConstant(v);
+            } else if (v instanceof BinopExpr) {
+                out.writeByte(binopCode((BinopExpr) v));
+                writeValue(((BinopExpr) v).getOp1());
+                writeValue(((BinopExpr) v).getOp2());
+            } else if (v instanceof InvokeExpr) {
+                writeInvokeExpr((InvokeExpr) v);
+            } else if (v instanceof ArrayRef) {
+                out.writeByte(VALUE_ARRAY_REF);
+                writeValue(((ArrayRef) v).getBase());
+                writeValue(((ArrayRef) v).getIndex());
+            } else if (v instanceof InstanceFieldRef) {
+                out.writeByte(VALUE_INSTANCE_FIELD_REF);
+                writeValue(((InstanceFieldRef) v).getBase());
+                writeFieldRef(((InstanceFieldRef) v).getFieldRef());
+            } else if (v instanceof StaticFieldRef) {
+                out.writeByte(VALUE_STATIC_FIELD_REF);
+                writeFieldRef(((StaticFieldRef) v).getFieldRef());
+            } else if (v instanceof ParameterRef) {
+                out.writeByte(VALUE_PARAMETER_REF);
+                writeType(v.getType());
+                writeVarInt(out, ((ParameterRef) v).getIndex());
+            } else if (v instanceof ThisRef) {
+                out.writeByte(VALUE_THIS_REF);
+                writeType(v.getType());
+            } else if (v instanceof CaughtExceptionRef) {
+                out.writeByte(VALUE_CAUGHT_EXCEPTION_REF);
+            } else if (v instanceof CastExpr) {
+                out.writeByte(VALUE_CAST);
+                writeValue(((CastExpr) v).getOp());
+                writeType(((CastExpr) v).getCastType());
+            } else if (v instanceof InstanceOfExpr) {
+                out.writeByte(VALUE_INSTANCE_OF);
+                writeValue(((InstanceOfExpr) v).getOp());
+                writeType(((InstanceOfExpr) v).getCheckType());
+            } else if (v instanceof NewExpr) {
+                out.writeByte(VALUE_NEW);
+                writeType(((NewExpr) v).getBaseType());
+            } else if (v instanceof NewArrayExpr) {
+                out.writeByte(VALUE_NEW_ARRAY);
+                writeType(((NewArrayExpr) v).getBaseType());
+                writeValue(((NewArrayExpr) v).getSize());
+            } else if (v instanceof NewMultiArrayExpr) {
+                out.writeByte(VALUE_NEW_MULTI_ARRAY);
+                writeType(((NewMultiArrayExpr) v).getBaseType());
+                writeValues(((NewMultiArrayExpr) v).getSizes());
+            } else if (v instanceof LengthExpr) {
+                out.writeByte(VALUE_LENGTH);
+                writeValue(((LengthExpr) v).getOp());
+            } else if (v instanceof NegExpr) {
+                out.writeByte(VALUE_NEG);
+                writeValue(((NegExpr) v).getOp());
+            } else {
+                throw new IOException("Unsupported value: " + v + " (" + v.getClass().getName() + ")");
+            }
+        }
+
+        private void writeConstant(Value v) throws IOException {
+            if (v instanceof IntConstant) {
+                out.writeByte(VALUE_INT);
+                out.writeInt(((IntConstant) v).value);
+            } else if (v instanceof LongConstant) {
+                out.writeByte(VALUE_LONG);
+                out.writeLong(((LongConstant) v).value);
+            } else if (v instanceof FloatConstant) {
+                out.writeByte(VALUE_FLOAT);
+                out.writeInt(Float.floatToRawIntBits(((FloatConstant) v).value));
+            } else if (v instanceof DoubleConstant) {
+                out.writeByte(VALUE_DOUBLE);
+                out.writeLong(Double.doubleToRawLongBits(((DoubleConstant) v).value));
+            } else if (v instanceof StringConstant) {
+                out.writeByte(VALUE_STRING);
+                writeString(((StringConstant) v).value);
+            } else if (v instanceof NullConstant) {
+                out.writeByte(VALUE_NULL);
+            } else if (v instanceof ClassConstant) {
+                out.writeByte(VALUE_CLASS);
+                writeString(((ClassConstant) v).value);
+            } else if (v instanceof SootMethodHandle) {
+                out.writeByte(VALUE_METHOD_HANDLE);
+                writeVarInt(out, ((SootMethodHandle) v).getReferenceKind());
+                writeMethodRef(((SootMethodHandle) v).getMethodRef());
+            } else if (v instanceof SootMethodType) {
+                out.writeByte(VALUE_METHOD_TYPE);
+                writeTypes(((SootMethodType) v).getParameterTypes());
+                writeType(((SootMethodType) v).getReturnType());
+            } else {
+                throw new IOException("Unsupported constant: " + v + " (" + v.getClass().getName() + ")");
+            }
+        }
+
+        private int binopCode(BinopExpr e) throws IOException {
+            if (e instanceof AddExpr) return VALUE_ADD;
+            if (e instanceof AndExpr) return VALUE_AND;
+            if (e instanceof CmpExpr) return VALUE_CMP;
+            if (e instanceof CmpgExpr) return VALUE_CMPG;
+            if (e instanceof CmplExpr) return VALUE_CMPL;
+            if (e instanceof DivExpr) return VALUE_DIV;
+            if (e instanceof EqExpr) return VALUE_EQ;
+            if (e instanceof GeExpr) return VALUE_GE;
+            if (e instanceof GtExpr) return VALUE_GT;
+            if (e instanceof LeExpr) return VALUE_LE;
+            if (e instanceof LtExpr) return VALUE_LT;
+            if (e instanceof MulExpr) return VALUE_MUL;
+            if (e instanceof NeExpr) return VALUE_NE;
+            if (e instanceof OrExpr) return VALUE_OR;
+            if (e instanceof RemExpr) return VALUE_REM;
+            if (e instanceof ShlExpr) return VALUE_SHL;
+            if (e instanceof ShrExpr) return VALUE_SHR;
+            if (e instanceof SubExpr) return VALUE_SUB;
+            if (e instanceof UshrExpr) return VALUE_USHR;
+            if (e instanceof XorExpr) return VALUE_XOR;
+            throw new IOException("Unsupported expression: " + e + " (" + e.getClass().getName() + ")");
+        }
+
+        private void writeInvokeExpr(InvokeExpr e) throws IOException {
+            if (e instanceof DynamicInvokeExpr) {
+                DynamicInvokeExpr die = (DynamicInvokeExpr) e;
+                out.writeByte(VALUE_DYNAMIC_INVOKE);
+                writeMethodRef(die.getBootstrapMethodRef());
+                writeValues(die.getBootstrapArgs());
+            } else if (e instanceof StaticInvokeExpr) {
+                out.writeByte(VALUE_STATIC_INVOKE);
+            } else {
+                if (e instanceof InterfaceInvokeExpr) {
+                    out.writeByte(VALUE_INTERFACE_INVOKE);
+                } else if (e instanceof SpecialInvokeExpr) {
+                    out.writeByte(VALUE_SPECIAL_INVOKE);
+                } else if (e instanceof VirtualInvokeExpr) {
+                    out.writeByte(VALUE_VIRTUAL_INVOKE);
+                } else {
+                    throw new IOException("Unsupported expression: " + e + " (" + e.getClass().getName() + ")");
+                }
+                writeValue(((InstanceInvokeExpr) e).getBase());
+            }
+            writeMethodRef(e.getMethodRef());
+            writeValues(e.getArgs());
+        }
+    }
+
+    private static class Reader {
+        private final DataInput in;
+        private final Jimple j = Jimple.v();
+        private final List<String> strings = new ArrayList<String>();
+        private final List<Type> types = new ArrayList<Type>();
+        private final List<SootMethodRef> methodRefs = new ArrayList<SootMethodRef>();
+        private final List<SootFieldRef> fieldRefs = new ArrayList<SootFieldRef>();
+        private Local[] locals;
+        private Unit[] units;
+        private final List<UnitBox> fixupBoxes = new ArrayList<UnitBox>();
+        private final List<Integer> fixupTargets = new ArrayList<Integer>();
+
+        Reader(DataInput in) {
+            this.in = in;
+        }
+
+        Body readBody(SootMethod m) throws IOException {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a serialized JimpleBody");
+            }
+            JimpleBody body = j.newBody(m);
+
+            locals = new Local[readVarInt(in)];
+            for (int i = 0; i < locals.length; i++) {
+                Local l = j.newLocal(readString(), readType());
+                l.setIndex(readVarInt(in) - 1);
+                locals[i] = l;
+                body.getLocals().add(l);
+            }
+
+            units = new Unit[readVarInt(in)];
+            for (int i = 0; i < units.length; i++) {
+                Unit u = readStmt();
+                readTags(u);
+                units[i] = u;
+                body.getUnits().add(u);
+            }
+            for (int i = 0; i < fixupBoxes.size(); i++) {
+                fixupBoxes.get(i).setUnit(units[fixupTargets.get(i)]);
+            }
+
+            int trapCount = readVarInt(in);
+            for (int i = 0; i < trapCount; i++) {
+                String exception = readString();
+                body.getTraps().add(j.newTrap(Scene.v().getSootClass(exception),
+                        readUnit(), readUnit(), readUnit()));
+            }
+
+            int localVariableCount = readVarInt(in);
+            for (int i = 0; i < localVariableCount; i++) {
+                String name = readString();
+                int index = readVarInt(in);
+                Unit start = readUnit();
+                int end = readVarInt(in);
+                String descriptor = readString();
+                body.getLocalVariables().add(new LocalVariable(name, index, start,
+                        end == 0 ? null : unit(end - 1), descriptor));
+            }
+
+            readTags(body);
+            return body;
+        }
+
+        private Unit unit(int index) throws IOException {
+            if (index < 0 || index >= units.length) {
+                throw new IOException("Invalid unit index " + index);
+            }
+            return units[index];
+        }
+
+        private Unit readUnit() throws IOException {
+            return unit(readVarInt(in));
+        }
+
+        /**
+         * Reads a branch target which may not have been read yet. The box is
+         * patched once all units are known.
+         */
+        private void readTarget(UnitBox box) throws IOException {
+            addFixup(box, readVarInt(in));
+        }
+
+        private void addFixup(UnitBox box, int index) throws IOException {
+            if (index < 0 || index >= units.length) {
+                throw new IOException("Invalid unit index " + index);
+            }
+            fixupBoxes.add(box);
+            fixupTargets.add(index);
+        }
+
+        private int readIndex(List<?> table) throws IOException {
+            int index = readVarInt(in);
+            if (index < 0 || index > table.size()) {
+                throw new IOException("Invalid table index " + index);
+            }
+            return index;
+        }
+
+        private String readString() throws IOException {
+            int index = readIndex(strings);
+            if (index < strings.size()) {
+                return strings.get(index);
+            }
+            String s = in.readUTF();
+            strings.add(s);
+            return s;
+        }
+
+        private Type readType() throws IOException {
+            int index = readIndex(types);
+            if (index < types.size()) {
+                return types.get(index);
+            }
+            int code = in.readUnsignedByte();
+            Type t;
+            if (code == TYPE_ARRAY) {
+                Type baseType = readPrimOrRefType(in.readUnsignedByte());
+                t = ArrayType.v(baseType, readVarInt(in));
+            } else {
+                t = readPrimOrRefType(code);
+            }
+            types.add(t);
+            return t;
+        }
+
+        private Type readPrimOrRefType(int code) throws IOException {
+            switch (code) {
+            case TYPE_VOID: return VoidType.v();
+            case TYPE_BOOLEAN: return BooleanType.v();
+            case TYPE_BYTE: return ByteType.v();
+            case TYPE_CHAR: return CharType.v();
+            case TYPE_SHORT: return ShortType.v();
+            case TYPE_INT: return IntType.v();
+            case TYPE_LONG: return LongType.v();
+            case TYPE_FLOAT: return FloatType.v();
+            case TYPE_DOUBLE: return DoubleType.v();
+            case TYPE_NULL: return NullType.v();
+            case TYPE_REF: return RefType.v(readString());
+            case TYPE_UNKNOWN: return UnknownType.v();
+            case TYPE_ERRONEOUS: return ErroneousType.v();
+            case TYPE_STMT_ADDRESS: return StmtAddressType.v();
+            default: throw new IOException("Invalid type code " + code);
+            }
+        }
+
+        private List<Type> readTypes() throws IOException {
+            int n = readVarInt(in);
+            List<Type> result = new ArrayList<Type>(n);
+            for (int i = 0; i < n; i++) {
+                result.add(readType());
+            }
+            return result;
+        }
+
+        private SootMethodRef readMethodRef() throws IOException {
+            int index = readIndex(methodRefs);
+            if (index < methodRefs.size()) {
+                return methodRefs.get(index);
+            }
+            String declaringClass = readString();
+            String name = readString();
+            List<Type> parameterTypes = readTypes();
+            Type returnType = readType();
+            boolean isStatic = in.readBoolean();
+            SootMethodRef ref = Scene.v().makeMethodRef(Scene.v().getSootClass(declaringClass),
+                    name, parameterTypes, returnType, isStatic);
+            methodRefs.add(ref);
+            return ref;
+        }
+
+        private SootFieldRef readFieldRef() throws IOException {
+            int index = readIndex(fieldRefs);
+            if (index < fieldRefs.size()) {
+                return fieldRefs.get(index);
+            }
+            String declaringClass = readString();
+            String name = readString();
+            Type type = readType();
+            boolean isStatic = in.readBoolean();
+            SootFieldRef ref = Scene.v().makeFieldRef(Scene.v().getSootClass(declaringClass),
+                    name, type, isStatic);
+            fieldRefs.add(ref);
+            return ref;
+        }
+
+        private void readTags(Host host) throws IOException {
+            int n = readVarInt(in);
+            for (int i = 0; i < n; i++) {
+                int code = in.readUnsignedByte();
+                switch (code) {
+                case TAG_LINE_NUMBER:
+                    host.addTag(new LineNumberTag(readVarInt(in)));
+                    break;
+                case TAG_BYTECODE_OFFSET:
+                    host.addTag(new BytecodeOffsetTag(readVarInt(in)));
+                    break;
+                case TAG_STRING:
+                    String info = readString();
+                    host.addTag(new StringTag(info, readString()));
+                    break;
+                default:
+                    throw new IOException("Invalid tag code " + code);
+                }
+            }
+        }
+
+        private Stmt readStmt() throws IOException {
+            int code = in.readUnsignedByte();
+            switch (code) {
+            case STMT_ASSIGN: {
+                Value left = readValue();
+                return j.newAssignStmt(left, readValue());
+            }
+            case STMT_IDENTITY: {
+                Value left = readValue();
+                return j.newIdentityStmt(left, readValue());
+            }
+            case STMT_INVOKE:
+                return j.newInvokeStmt(readValue());
+            case STMT_IF: {
+                IfStmt s = j.newIfStmt(readValue(), (Unit) null);
+                readTarget(s.getTargetBox());
+                return s;
+            }
+            case STMT_GOTO: {
+                GotoStmt s = j.newGotoStmt((Unit) null);
+                readTarget(s.getTargetBox());
+                return s;
+            }
+            case STMT_LOOKUP_SWITCH: {
+                Value key = readValue();
+                int n = readVarInt(in);
+                List<IntConstant> lookupValues = new ArrayList<IntConstant>(n);
+                int[] targets = new int[n];
+                for (int i = 0; i < n; i++) {
+                    lookupValues.add(IntConstant.v(in.readInt()));
+                    targets[i] = readVarInt(in);
+                }
+                LookupSwitchStmt s = j.newLookupSwitchStmt(key, lookupValues,
+                        Arrays.asList(new Unit[n]), (Unit) null);
+                for (int i = 0; i < n; i++) {
+                    addFixup(s.getTargetBox(i), targets[i]);
+                }
+                readTarget(s.getDefaultTargetBox());
+                return s;
+            }
+            case STMT_TABLE_SWITCH: {
+                Value key = readValue();
+                int low = in.readInt();
+                int high = in.readInt();
+                int n = readVarInt(in);
+                TableSwitchStmt s = j.newTableSwitchStmt(key, low, high,
+                        Arrays.asList(new Unit[n]), (Unit) null);
+                for (int i = 0; i < n; i++) {
+                    readTarget(s.getTargetBox(i));
+                }
+                readTarget(s.getDefaultTargetBox());
+                return s;
+            }
+            case STMT_RETURN:
+                return j.newReturnStmt(readValue());
+            case STMT_RETURN_VOID:
+                return j.newReturnVoidStmt();
+            case STMT_THROW:
+                return j.newThrowStmt(readValue());
+            case STMT_ENTER_MONITOR:
+                return j.newEnterMonitorStmt(readValue());
+            case STMT_EXIT_MONITOR:
+                return j.newExitMonitorStmt(readValue());
+            case STMT_NOP:
+                return j.newNopStmt();
+            case STMT_BREAKPOINT:
+                return j.newBreakpointStmt();
+            case STMT_RET:
+                return j.newRetStmt(readValue());
+            default:
+                throw new IOException("Invalid statement code " + code);
+            }
+        }
+
+        private List<Value> readValues() throws IOException {
+            int n = readVarInt(in);
+            List<Value> result = new ArrayList<Value>(n);
+            for (int i = 0; i < n; i++) {
+                result.add(readValue());
+            }
+            return result;
+        }
+
+        private Local readLocal() throws IOException {
+            Value v = readValue();
+            if (!(v instanceof Local)) {
+                throw new IOException("Expected local but got " + v);
+            }
+            return (Local) v;
+        }
+
+        private Value readValue() throws IOException {
+            int code = in.readUnsignedByte();
+            switch (code) {
+            case VALUE_LOCAL: {
+                int index = readVarInt(in);
+                if (index < 0 || index >= locals.length) {
+                    throw new IOException("Invalid local index " + index);
+                }
+                return locals[index];
+            }
+            case VALUE_INT:
+                return IntConstant.v(in.readInt());
+            case VALUE_LONG:
+                return LongConstant.v(in.readLong());
+            case VALUE_FLOAT:
+                return FloatConstant.v(Float.intBitsToFloat(in.readInt()));
+            case VALUE_DOUBLE:
+                return DoubleConstant.v(Double.longBitsToDouble(in.readLong()));
+            case VALUE_STRING:
+                return StringConstant.v(readString());
+            case VALUE_NULL:
+                return NullConstant.v();
+            case VALUE_CLASS:
+                return ClassConstant.v(readString());
+            case VALUE_METHOD_HANDLE: {
+                int kind = readVarInt(in);
+                return j.newMethodHandle(kind, readMethodRef());
+            }
+            case VALUE_METHOD_TYPE: {
+                List<Type> parameterTypes = readTypes();
+                return j.newMethodType(readType(), parameterTypes);
+            }
+            case VALUE_ARRAY_REF: {
+                Value base = readValue();
+                return j.newArrayRef(base, readValue());
+            }
+            case VALUE_INSTANCE_FIELD_REF: {
+                Value base = readValue();
+                return j.newInstanceFieldRef(base, readFieldRef());
+            }
+            case VALUE_STATIC_FIELD_REF:
+                return j.newStaticFieldRef(readFieldRef());
+            case VALUE_PARAMETER_REF: {
+                Type t = readType();
+                return j.newParameterRef(t, readVarInt(in));
+            }
+            case VALUE_THIS_REF:
+                return j.newThisRef((RefType) readType());
+            case VALUE_CAUGHT_EXCEPTION_REF:
+                return j.newCaughtExceptionRef();
+            case VALUE_CAST: {
+                Value op = readValue();
+                return j.newCastExpr(op, readType());
+            }
+            case VALUE_INSTANCE_OF: {
+                Value op = readValue();
+                return j.newInstanceOfExpr(op, readType());
+            }
+            case VALUE_NEW:
+                return j.newNewExpr((RefType) readType());
+            case VALUE_NEW_ARRAY: {
+                Type t = readType();
+                return j.newNewArrayExpr(t, readValue());
+            }
+            case VALUE_NEW_MULTI_ARRAY: {
+                ArrayType t = (ArrayType) readType();
+                return j.newNewMultiArrayExpr(t, readValues());
+            }
+            case VALUE_LENGTH:
+                return j.newLengthExpr(readValue());
+            case VALUE_NEG:
+                return j.newNegExpr(readValue());
+            case VALUE_INTERFACE_INVOKE: {
+                Local base = readLocal();
+                SootMethodRef ref = readMethodRef();
+                return j.newInterfaceInvokeExpr(base, ref, readValues());
+            }
+            case VALUE_SPECIAL_INVOKE: {
+                Local base = readLocal();
+                SootMethodRef ref = readMethodRef();
+                return j.newSpecialInvokeExpr(base, ref, readValues());
+            }
+            case VALUE_VIRTUAL_INVOKE: {
+                Local base = readLocal();
+                SootMethodRef ref = readMethodRef();
+                return j.newVirtualInvokeExpr(base, ref, readValues());
+            }
+            case VALUE_STATIC_INVOKE: {
+                SootMethodRef ref = readMethodRef();
+                return j.newStaticInvokeExpr(ref, readValues());
+            }
+            case VALUE_DYNAMIC_INVOKE: {
+                SootMethodRef bootstrapRef = readMethodRef();
+                List<Value> bootstrapArgs = readValues();
+                SootMethodRef ref = readMethodRef();
+                return j.newDynamicInvokeExpr(bootstrapRef, bootstrapArgs, ref, readValues());
+            }
+            default:
+                if (code >= VALUE_ADD && code <= VALUE_XOR) {
+                    Value op1 = readValue();
+                    return newBinopExpr(code, op1, readValue());
+                }
+                throw new IOException("Invalid value code " + code);
+            }
+        }
+
+        private Value newBinopExpr(int code, Value op1, Value op2) {
+            switch (code) {
+            case VALUE_ADD: return j.newAddExpr(op1, op2);
+            case VALUE_AND: return j.newAndExpr(op1, op2);
+            case VALUE_CMP: return j.newCmpExpr(op1, op2);
+            case VALUE_CMPG: return j.newCmpgExpr(op1, op2);
+            case VALUE_CMPL: return j.newCmplExpr(op1, op2);
+            case VALUE_DIV: return j.newDivExpr(op1, op2);
+            case VALUE_EQ: return j.newEqExpr(op1, op2);
+            case VALUE_GE: return j.newGeExpr(op1, op2);
+            case VALUE_GT: return j.newGtExpr(op1, op2);
+            case VALUE_LE: return j.newLeExpr(op1, op2);
+            case VALUE_LT: return j.newLtExpr(op1, op2);
+            case VALUE_MUL: return j.newMulExpr(op1, op2);
+            case VALUE_NE: return j.newNeExpr(op1, op2);
+            case VALUE_OR: return j.newOrExpr(op1, op2);
+            case VALUE_REM: return j.newRemExpr(op1, op2);
+            case VALUE_SHL: return j.newShlExpr(op1, op2);
+            case VALUE_SHR: return j.newShrExpr(op1, op2);
+            case VALUE_SUB: return j.newSubExpr(op1, op2);
+            case VALUE_USHR: return j.newUshrExpr(op1, op2);
+            default: return j.newXorExpr(op1, op2);
+            }
+        }
+    }
+}
@@ -36,6 +36,17 @@ public class LongConstant extends ArithmeticConstant
 {
     public final long value;
 
+    private static final int CACHE_LOW = -128;
+    private static final int CACHE_HIGH = 127;
+
+    /** Shared instances of the most frequently used values. */
+    private static final LongConstant[] cache = new LongConstant[CACHE_HIGH - CACHE_LOW + 1];
+    static
+    {
+        for (int i = 0; i < cache.length; i++)
+            cache[i] = new LongConstant(i + CACHE_LOW);
+    }
+
     private LongConstant(long value)
     {
         this.value = value;
@@ -43,12 +54,14 @@ public class LongConstant extends ArithmeticConstant
 
     public static LongConstant v(long value)
     {
+        if (value >= CACHE_LOW && value <= CACHE_HIGH)
+            return cache[(int) value - CACHE_LOW];
         return new LongConstant(value);
     }
 
     public boolean equals(Object c)
     {
-        return c instanceof LongConstant && ((LongConstant) c).value == this.value;
+        return c == this || c instanceof LongConstant && ((LongConstant) c).value == this.value;
     }
 
     /** Returns a hash code for this DoubleConstant object. */
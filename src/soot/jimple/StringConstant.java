@@ -36,6 +36,10 @@ public class StringConstant extends Constant
 {
     public final String value;
 
+    /** Canonical instances of the constants currently in use. */
+    private static final WeakInterner<String, StringConstant> interned 
+        = new WeakInterner<String, StringConstant>(StringConstant::new);
+
     private StringConstant(String s)
     {
         this.value = s;
@@ -43,13 +47,13 @@ public class StringConstant extends Constant
 
     public static StringConstant v(String value)
     {
-        return new StringConstant(value);
+        return interned.intern(value);
     }
 
     // In this case, equals should be structural equality.
     public boolean equals(Object c)
     {
-        return (c instanceof StringConstant && ((StringConstant) c).value.equals(this.value));
+        return c == this || (c instanceof StringConstant && ((StringConstant) c).value.equals(this.value));
     }
 
     /** Returns a hash code for this StringConstant object. */
@@ -30,6 +30,7 @@ import soot.*;
 import soot.jimple.*;
 import java.util.*;
 import soot.grimp.PrecedenceTest;
+import java.util.function.Consumer;
 
 public abstract class AbstractBinopExpr implements Expr
 {
@@ -66,18 +67,36 @@ public abstract class AbstractBinopExpr implements Expr
         op2Box.setValue(op2);
     }
 
-    public List getUseBoxes()
+    /** The boxes returned by {@link #getUseBoxes()}, cached once all
+     * operands are known to be immediates. */
+    private transient List<ValueBox> useBoxes;
+
+    public List<ValueBox> getUseBoxes()
     {
-        List list = new ArrayList();
+        if (useBoxes != null)
+            return useBoxes;
+
+        List<ValueBox> list = new ArrayList<ValueBox>();
 
-        list.addAll(op1Box.getValue().getUseBoxes());
+        op1Box.getValue().forEachUseBox(list::add);
         list.add(op1Box);
-        list.addAll(op2Box.getValue().getUseBoxes());
+        op2Box.getValue().forEachUseBox(list::add);
         list.add(op2Box);
 
+        if (ImmediateBox.holdsImmediate(op1Box) && ImmediateBox.holdsImmediate(op2Box))
+            useBoxes = list = Collections.unmodifiableList(list);
+
         return list;
     }
 
+    public void forEachUseBox(Consumer<? super ValueBox> action)
+    {
+        op1Box.getValue().forEachUseBox(action);
+        action.accept(op1Box);
+        op2Box.getValue().forEachUseBox(action);
+        action.accept(op2Box);
+    }
+
     public boolean equivTo(Object o)
     {
         if (o instanceof AbstractBinopExpr)
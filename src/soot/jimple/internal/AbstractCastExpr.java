@@ -32,6 +32,7 @@ import soot.jimple.*;
 import soot.util.*;
 import java.util.*;
 import soot.grimp.PrecedenceTest;
+import java.util.function.Consumer;
 
 abstract public class AbstractCastExpr implements CastExpr
 {
@@ -96,16 +97,32 @@ abstract public class AbstractCastExpr implements CastExpr
         return opBox;
     }
 
-    public List getUseBoxes()
+    /** The boxes returned by {@link #getUseBoxes()}, cached once all
+     * operands are known to be immediates. */
+    private transient List<ValueBox> useBoxes;
+
+    public List<ValueBox> getUseBoxes()
     {
-        List list = new ArrayList();
+        if (useBoxes != null)
+            return useBoxes;
+
+        List<ValueBox> list = new ArrayList<ValueBox>();
 
-        list.addAll(opBox.getValue().getUseBoxes());
+        opBox.getValue().forEachUseBox(list::add);
         list.add(opBox);
 
+        if (ImmediateBox.holdsImmediate(opBox))
+            useBoxes = list = Collections.unmodifiableList(list);
+
         return list;
     }
 
+    public void forEachUseBox(Consumer<? super ValueBox> action)
+    {
+        opBox.getValue().forEachUseBox(action);
+        action.accept(opBox);
+    }
+
     public Type getCastType()
     {
         return type;
@@ -33,6 +33,7 @@ package soot.jimple.internal;
 import soot.*;
 import soot.jimple.*;
 import java.util.*;
+import java.util.function.Consumer;
 
 public abstract class AbstractDefinitionStmt extends AbstractStmt 
     implements DefinitionStmt
@@ -67,6 +68,12 @@ public abstract class AbstractDefinitionStmt extends AbstractStmt
         return defBoxes;
     }
 
+    public void forEachDefBox(Consumer<? super ValueBox> action)
+    {
+        for (Object box : defBoxes)
+            action.accept((ValueBox) box);
+    }
+
     public List getUseBoxes()
     {
         List list = new ArrayList();
@@ -77,6 +84,13 @@ public abstract class AbstractDefinitionStmt extends AbstractStmt
         return list;
     }
 
+    public void forEachUseBox(Consumer<? super ValueBox> action)
+    {
+        leftBox.getValue().forEachUseBox(action);
+        rightBox.getValue().forEachUseBox(action);
+        action.accept(rightBox);
+    }
+
     public boolean fallsThrough() { return true;}        
     public boolean branches() { return false;}
 }
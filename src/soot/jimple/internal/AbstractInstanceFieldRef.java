@@ -33,6 +33,7 @@ import soot.jimple.*;
 import soot.util.*;
 import java.util.*;
 import soot.grimp.PrecedenceTest;
+import java.util.function.Consumer;
 
 public abstract class AbstractInstanceFieldRef implements InstanceFieldRef
 {
@@ -89,14 +90,30 @@ public abstract class AbstractInstanceFieldRef implements InstanceFieldRef
         return fieldRef.resolve();
     }
 
-    public List getUseBoxes()
+    /** The boxes returned by {@link #getUseBoxes()}, cached once all
+     * operands are known to be immediates. */
+    private transient List<ValueBox> useBoxes;
+
+    public List<ValueBox> getUseBoxes()
     {
-        List useBoxes = new ArrayList();
+        if (useBoxes != null)
+            return useBoxes;
+
+        List<ValueBox> list = new ArrayList<ValueBox>();
+
+        baseBox.getValue().forEachUseBox(list::add);
+        list.add(baseBox);
 
-        useBoxes.addAll(baseBox.getValue().getUseBoxes());
-        useBoxes.add(baseBox);
+        if (ImmediateBox.holdsImmediate(baseBox))
+            useBoxes = list = Collections.unmodifiableList(list);
 
-        return useBoxes;
+        return list;
+    }
+
+    public void forEachUseBox(Consumer<? super ValueBox> action)
+    {
+        baseBox.getValue().forEachUseBox(action);
+        action.accept(baseBox);
     }
 
     public Type getType()
@@ -29,6 +29,7 @@ package soot.jimple.internal;
 import soot.*;
 import soot.jimple.*;
 import java.util.*;
+import java.util.function.Consumer;
 
 public abstract class AbstractInstanceInvokeExpr extends AbstractInvokeExpr 
                       implements InstanceInvokeExpr
@@ -50,19 +51,40 @@ public abstract class AbstractInstanceInvokeExpr extends AbstractInvokeExpr
         baseBox.setValue(base);
     }
 
-    public List getUseBoxes()
+    /** The boxes returned by {@link #getUseBoxes()}, cached once all
+     * operands are known to be immediates. */
+    private transient List<ValueBox> useBoxes;
+
+    public List<ValueBox> getUseBoxes()
     {
-        List list = new ArrayList();
+        if (useBoxes != null)
+            return useBoxes;
 
-        list.addAll(baseBox.getValue().getUseBoxes());
-        list.add(baseBox);
+        List<ValueBox> list = new ArrayList<ValueBox>();
 
+        baseBox.getValue().forEachUseBox(list::add);
+        list.add(baseBox);
         for (ValueBox element : argBoxes) {
-            list.addAll(element.getValue().getUseBoxes());
+            element.getValue().forEachUseBox(list::add);
             list.add(element);
-            
         }
-        
+
+        boolean immediates = ImmediateBox.holdsImmediate(baseBox);
+        for (ValueBox element : argBoxes)
+            immediates &= ImmediateBox.holdsImmediate(element);
+        if (immediates)
+            useBoxes = list = Collections.unmodifiableList(list);
+
         return list;
     }
+
+    public void forEachUseBox(Consumer<? super ValueBox> action)
+    {
+        baseBox.getValue().forEachUseBox(action);
+        action.accept(baseBox);
+        for (ValueBox element : argBoxes) {
+            element.getValue().forEachUseBox(action);
+            action.accept(element);
+        }
+    }
 }
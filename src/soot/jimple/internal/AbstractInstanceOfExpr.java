@@ -30,6 +30,7 @@ import soot.*;
 import soot.jimple.*;
 import soot.util.*;
 import java.util.*;
+import java.util.function.Consumer;
 
 public abstract class AbstractInstanceOfExpr implements InstanceOfExpr
 {
@@ -88,16 +89,32 @@ public abstract class AbstractInstanceOfExpr implements InstanceOfExpr
         return opBox;
     }
 
-    public List getUseBoxes()
+    /** The boxes returned by {@link #getUseBoxes()}, cached once all
+     * operands are known to be immediates. */
+    private transient List<ValueBox> useBoxes;
+
+    public List<ValueBox> getUseBoxes()
     {
-        List list = new ArrayList();
+        if (useBoxes != null)
+            return useBoxes;
+
+        List<ValueBox> list = new ArrayList<ValueBox>();
 
-        list.addAll(opBox.getValue().getUseBoxes());
+        opBox.getValue().forEachUseBox(list::add);
         list.add(opBox);
 
+        if (ImmediateBox.holdsImmediate(opBox))
+            useBoxes = list = Collections.unmodifiableList(list);
+
         return list;
     }
 
+    public void forEachUseBox(Consumer<? super ValueBox> action)
+    {
+        opBox.getValue().forEachUseBox(action);
+        action.accept(opBox);
+    }
+
     public Type getType()
     {
         return BooleanType.v();
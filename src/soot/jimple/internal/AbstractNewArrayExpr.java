@@ -31,6 +31,7 @@ import soot.*;
 import soot.jimple.*;
 import soot.util.*;
 import java.util.*;
+import java.util.function.Consumer;
 
 public abstract class AbstractNewArrayExpr implements NewArrayExpr
 {
@@ -122,6 +123,12 @@ public abstract class AbstractNewArrayExpr implements NewArrayExpr
         return useBoxes;
     }
 
+    public void forEachUseBox(Consumer<? super ValueBox> action)
+    {
+        sizeBox.getValue().forEachUseBox(action);
+        action.accept(sizeBox);
+    }
+
 
     public Type getType()
     {
@@ -30,6 +30,7 @@ import soot.*;
 import soot.jimple.*;
 import soot.util.*;
 import java.util.*;
+import java.util.function.Consumer;
 
 public abstract class AbstractNewExpr implements NewExpr
 {
@@ -86,6 +87,10 @@ public abstract class AbstractNewExpr implements NewExpr
         return AbstractUnit.emptyList;
     }
 
+    public void forEachUseBox(Consumer<? super ValueBox> action)
+    {
+    }
+
     public void apply(Switch sw)
     {
         ((ExprSwitch) sw).caseNewExpr(this);
@@ -35,6 +35,7 @@ import soot.*;
 import soot.jimple.*;
 import soot.util.*;
 import java.util.*;
+import java.util.function.Consumer;
 
 public abstract class AbstractNewMultiArrayExpr implements NewMultiArrayExpr
 {
@@ -158,6 +159,14 @@ public abstract class AbstractNewMultiArrayExpr implements NewMultiArrayExpr
         return list;
     }
 
+    public void forEachUseBox(Consumer<? super ValueBox> action)
+    {
+        for (ValueBox element : sizeBoxes) {
+            element.getValue().forEachUseBox(action);
+            action.accept(element);
+        }
+    }
+
     public Type getType()
     {
         return baseType;
@@ -32,6 +32,7 @@ import soot.tagkit.*;
 import soot.jimple.*;
 import soot.util.*;
 import java.util.*;
+import java.util.function.Consumer;
 
 
 public abstract class AbstractStaticInvokeExpr extends AbstractInvokeExpr implements StaticInvokeExpr
@@ -111,18 +112,39 @@ public abstract class AbstractStaticInvokeExpr extends AbstractInvokeExpr implem
         up.literal(")");
     }
 
-    public List getUseBoxes()
+    /** The boxes returned by {@link #getUseBoxes()}, cached once all
+     * operands are known to be immediates. */
+    private transient List<ValueBox> useBoxes;
+
+    public List<ValueBox> getUseBoxes()
     {
-        List list = new ArrayList();
+        if (useBoxes != null)
+            return useBoxes;
+
+        List<ValueBox> list = new ArrayList<ValueBox>();
 
         for (ValueBox element : argBoxes) {
-            list.addAll(element.getValue().getUseBoxes());
+            element.getValue().forEachUseBox(list::add);
             list.add(element);
         }
 
+        boolean immediates = true;
+        for (ValueBox element : argBoxes)
+            immediates &= ImmediateBox.holdsImmediate(element);
+        if (immediates)
+            useBoxes = list = Collections.unmodifiableList(list);
+
         return list;
     }
 
+    public void forEachUseBox(Consumer<? super ValueBox> action)
+    {
+        for (ValueBox element : argBoxes) {
+            element.getValue().forEachUseBox(action);
+            action.accept(element);
+        }
+    }
+
     public void apply(Switch sw)
     {
         ((ExprSwitch) sw).caseStaticInvokeExpr(this);
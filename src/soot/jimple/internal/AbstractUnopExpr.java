@@ -33,6 +33,7 @@ package soot.jimple.internal;
 import soot.*;
 import soot.jimple.*;
 import java.util.*;
+import java.util.function.Consumer;
 
 abstract public class AbstractUnopExpr implements UnopExpr
 {
@@ -57,14 +58,30 @@ abstract public class AbstractUnopExpr implements UnopExpr
         return opBox;
     }
 
-    public List getUseBoxes()
+    /** The boxes returned by {@link #getUseBoxes()}, cached once all
+     * operands are known to be immediates. */
+    private transient List<ValueBox> useBoxes;
+
+    public List<ValueBox> getUseBoxes()
     {
-        List list = new ArrayList();
+        if (useBoxes != null)
+            return useBoxes;
+
+        List<ValueBox> list = new ArrayList<ValueBox>();
 
-        list.addAll(opBox.getValue().getUseBoxes());
+        opBox.getValue().forEachUseBox(list::add);
         list.add(opBox);
-    
+
+        if (ImmediateBox.holdsImmediate(opBox))
+            useBoxes = list = Collections.unmodifiableList(list);
+
         return list;
     }
 
+    public void forEachUseBox(Consumer<? super ValueBox> action)
+    {
+        opBox.getValue().forEachUseBox(action);
+        action.accept(opBox);
+    }
+
 }
@@ -45,6 +45,13 @@ public class ImmediateBox extends AbstractValueBox
         return value instanceof Local ||
             value instanceof Constant;
     }
+
+    /** Returns true if the specified box can only contain {@link Immediate}s,
+     * i.e. values which don't have use boxes of their own. */
+    static boolean holdsImmediate(ValueBox box)
+    {
+        return box instanceof ImmediateBox || box instanceof JimpleLocalBox;
+    }
 }
 
 
@@ -35,6 +35,7 @@ import soot.tagkit.*;
 import soot.jimple.*;
 import soot.util.*;
 import java.util.*;
+import java.util.function.Consumer;
 
 public class JArrayRef implements ArrayRef
 {
@@ -116,17 +117,34 @@ public class JArrayRef implements ArrayRef
         return indexBox;
     }
 
-    public List getUseBoxes()
+    /** The boxes returned by {@link #getUseBoxes()}, cached once all
+     * operands are known to be immediates. */
+    private transient List<ValueBox> useBoxes;
+
+    public List<ValueBox> getUseBoxes()
     {
-        List useBoxes = new ArrayList();
+        if (useBoxes != null)
+            return useBoxes;
+
+        List<ValueBox> list = new ArrayList<ValueBox>();
 
-        useBoxes.addAll(baseBox.getValue().getUseBoxes());
-        useBoxes.add(baseBox);
+        baseBox.getValue().forEachUseBox(list::add);
+        list.add(baseBox);
+        indexBox.getValue().forEachUseBox(list::add);
+        list.add(indexBox);
 
-        useBoxes.addAll(indexBox.getValue().getUseBoxes());
-        useBoxes.add(indexBox);
+        if (ImmediateBox.holdsImmediate(baseBox) && ImmediateBox.holdsImmediate(indexBox))
+            useBoxes = list = Collections.unmodifiableList(list);
 
-        return useBoxes;
+        return list;
+    }
+
+    public void forEachUseBox(Consumer<? super ValueBox> action)
+    {
+        baseBox.getValue().forEachUseBox(action);
+        action.accept(baseBox);
+        indexBox.getValue().forEachUseBox(action);
+        action.accept(indexBox);
     }
 
     public Type getType()
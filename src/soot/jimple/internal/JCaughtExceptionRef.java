@@ -30,6 +30,7 @@ import soot.*;
 import soot.jimple.*;
 import soot.util.*;
 import java.util.*;
+import java.util.function.Consumer;
 
 public class JCaughtExceptionRef implements CaughtExceptionRef
 {
@@ -68,6 +69,10 @@ public class JCaughtExceptionRef implements CaughtExceptionRef
         return AbstractUnit.emptyList;
     }
 
+    public void forEachUseBox(Consumer<? super ValueBox> action)
+    {
+    }
+
     public Type getType()
     {
         return RefType.v("java.lang.Throwable");
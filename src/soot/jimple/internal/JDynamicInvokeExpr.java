@@ -49,6 +49,7 @@ import soot.jimple.InvokeExpr;
 import soot.jimple.Jimple;
 import soot.tagkit.Tag;
 import soot.util.Switch;
+import java.util.function.Consumer;
 @SuppressWarnings({"serial","unchecked","rawtypes"})
 public class JDynamicInvokeExpr extends AbstractInvokeExpr  implements DynamicInvokeExpr
 {
@@ -234,6 +235,14 @@ public class JDynamicInvokeExpr extends AbstractInvokeExpr  implements DynamicIn
 
         return list;
     }
+
+    public void forEachUseBox(Consumer<? super ValueBox> action)
+    {
+        for (ValueBox element : argBoxes) {
+            element.getValue().forEachUseBox(action);
+            action.accept(element);
+        }
+    }
     
     
     public SootMethodRef getBootstrapMethodRef() {
@@ -36,6 +36,7 @@ import soot.*;
 import soot.jimple.*;
 import soot.util.*;
 import java.util.*;
+import java.util.function.Consumer;
 
 public class JEnterMonitorStmt extends AbstractStmt 
     implements EnterMonitorStmt
@@ -93,6 +94,12 @@ public class JEnterMonitorStmt extends AbstractStmt
         return list;
     }
 
+    public void forEachUseBox(Consumer<? super ValueBox> action)
+    {
+        opBox.getValue().forEachUseBox(action);
+        action.accept(opBox);
+    }
+
     public void apply(Switch sw)
     {
         ((StmtSwitch) sw).caseEnterMonitorStmt(this);
@@ -36,6 +36,7 @@ import soot.util.*;
 import java.util.*;
 import soot.*;
 import soot.jimple.*;
+import java.util.function.Consumer;
 
 public class JExitMonitorStmt extends AbstractStmt 
     implements ExitMonitorStmt
@@ -93,6 +94,12 @@ public class JExitMonitorStmt extends AbstractStmt
         return list;
     }
 
+    public void forEachUseBox(Consumer<? super ValueBox> action)
+    {
+        opBox.getValue().forEachUseBox(action);
+        action.accept(opBox);
+    }
+
     public void apply(Switch sw)
     {
         ((StmtSwitch) sw).caseExitMonitorStmt(this);
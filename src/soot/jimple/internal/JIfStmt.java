@@ -35,6 +35,7 @@ import soot.tagkit.*;
 import soot.jimple.*;
 import soot.util.*;
 import java.util.*;
+import java.util.function.Consumer;
 
 public class JIfStmt extends AbstractStmt implements IfStmt
 {
@@ -128,6 +129,12 @@ public class JIfStmt extends AbstractStmt implements IfStmt
         return useBoxes;
     }
 
+    public void forEachUseBox(Consumer<? super ValueBox> action)
+    {
+        conditionBox.getValue().forEachUseBox(action);
+        action.accept(conditionBox);
+    }
+
     public List getUnitBoxes()
     {
         return targetBoxes;
@@ -35,6 +35,7 @@ import soot.*;
 import soot.jimple.*;
 import soot.util.*;
 import java.util.*;
+import java.util.function.Consumer;
 
 public class JInvokeStmt extends AbstractStmt implements InvokeStmt
 {
@@ -95,6 +96,12 @@ public class JInvokeStmt extends AbstractStmt implements InvokeStmt
         return list;
     }
 
+    public void forEachUseBox(Consumer<? super ValueBox> action)
+    {
+        invokeExprBox.getValue().forEachUseBox(action);
+        action.accept(invokeExprBox);
+    }
+
     public void apply(Switch sw)
     {
         ((StmtSwitch) sw).caseInvokeStmt(this);
@@ -35,6 +35,7 @@ import soot.*;
 import soot.jimple.*;
 import soot.util.*;
 import java.util.*;
+import java.util.function.Consumer;
 
 public class JLookupSwitchStmt extends AbstractStmt 
     implements LookupSwitchStmt
@@ -275,6 +276,12 @@ public class JLookupSwitchStmt extends AbstractStmt
         return list;
     }
 
+    public void forEachUseBox(Consumer<? super ValueBox> action)
+    {
+        keyBox.getValue().forEachUseBox(action);
+        action.accept(keyBox);
+    }
+
     public List getUnitBoxes()
     {
         return stmtBoxes;
@@ -34,6 +34,7 @@ import soot.*;
 import soot.jimple.*;
 import soot.util.*;
 import java.util.*;
+import java.util.function.Consumer;
 
 public class JRetStmt extends AbstractStmt implements RetStmt
 {
@@ -92,6 +93,12 @@ public class JRetStmt extends AbstractStmt implements RetStmt
         return useBoxes;
     }
 
+    public void forEachUseBox(Consumer<? super ValueBox> action)
+    {
+        stmtAddressBox.getValue().forEachUseBox(action);
+        action.accept(stmtAddressBox);
+    }
+
     public void apply(Switch sw)
     {
         ((StmtSwitch) sw).caseRetStmt(this);
@@ -36,6 +36,7 @@ import soot.tagkit.*;
 import soot.jimple.*;
 import soot.util.*;
 import java.util.*;
+import java.util.function.Consumer;
 
 public class JReturnStmt extends AbstractStmt implements ReturnStmt
 {
@@ -92,6 +93,12 @@ public class JReturnStmt extends AbstractStmt implements ReturnStmt
         return useBoxes;
     }
 
+    public void forEachUseBox(Consumer<? super ValueBox> action)
+    {
+        returnValueBox.getValue().forEachUseBox(action);
+        action.accept(returnValueBox);
+    }
+
     public void apply(Switch sw)
     {
         ((StmtSwitch) sw).caseReturnStmt(this);
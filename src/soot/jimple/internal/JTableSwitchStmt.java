@@ -35,6 +35,7 @@ import soot.*;
 import soot.jimple.*;
 import soot.util.*;
 import java.util.*;
+import java.util.function.Consumer;
 
 public class JTableSwitchStmt extends AbstractStmt 
     implements TableSwitchStmt
@@ -268,6 +269,12 @@ public class JTableSwitchStmt extends AbstractStmt
         return list;
     }
 
+    public void forEachUseBox(Consumer<? super ValueBox> action)
+    {
+        keyBox.getValue().forEachUseBox(action);
+        action.accept(keyBox);
+    }
+
     public List getUnitBoxes()
     {
         return stmtBoxes;
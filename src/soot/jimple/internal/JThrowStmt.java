@@ -35,6 +35,7 @@ import soot.*;
 import soot.jimple.*;
 import soot.util.*;
 import java.util.*;
+import java.util.function.Consumer;
 
 public class JThrowStmt extends AbstractStmt implements ThrowStmt
 {
@@ -91,6 +92,12 @@ public class JThrowStmt extends AbstractStmt implements ThrowStmt
         return useBoxes;
     }
 
+    public void forEachUseBox(Consumer<? super ValueBox> action)
+    {
+        opBox.getValue().forEachUseBox(action);
+        action.accept(opBox);
+    }
+
     public void apply(Switch sw)
     {
         ((StmtSwitch) sw).caseThrowStmt(this);
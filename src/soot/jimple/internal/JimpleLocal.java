@@ -31,6 +31,7 @@ import soot.jimple.*;
 import soot.jimple.toolkits.typing.fast.BottomType;
 import soot.util.*;
 import java.util.*;
+import java.util.function.Consumer;
 
 public class JimpleLocal implements Local
 {
@@ -141,6 +142,10 @@ public class JimpleLocal implements Local
         return AbstractUnit.emptyList;
     }
 
+    public void forEachUseBox(Consumer<? super ValueBox> action)
+    {
+    }
+
     public void apply(Switch sw)
     {
         ((JimpleValueSwitch) sw).caseLocal(this);
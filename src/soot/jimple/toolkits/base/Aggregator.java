@@ -70,18 +70,8 @@ public class Aggregator extends BodyTransformer
                 Unit u = (Unit) unitIt.next();
                 Zone zone = zonation.getZoneOf(u);
                 
-                Iterator boxIt = u.getUseBoxes().iterator();
-                while(boxIt.hasNext())
-                {
-                    ValueBox box = (ValueBox) boxIt.next();                    
-                    boxToZone.put(box, zone);
-                }   
-                boxIt = u.getDefBoxes().iterator();
-                while(boxIt.hasNext())
-                {
-                    ValueBox box = (ValueBox) boxIt.next();                    
-                    boxToZone.put(box, zone);
-                }   
+                u.forEachUseBox(box -> boxToZone.put(box, zone));
+                u.forEachDefBox(box -> boxToZone.put(box, zone));
             }
         }        
         
@@ -111,9 +101,12 @@ public class Aggregator extends BodyTransformer
       boolean hadAggregation = false;
       Chain units = body.getUnits();
       
-      graph = new ExceptionalUnitGraph(body);
-      localDefs = new SmartLocalDefs(graph, new SimpleLiveLocals(graph));
-      localUses = new SimpleLocalUses(graph, localDefs);
+      // Aggregating removes the aggregated statement from the unit chain,
+      // so cached results are invalidated automatically.
+      BodyAnalysisManager analyses = body.getAnalysisManager();
+      graph = analyses.getUnitGraph();
+      localDefs = analyses.getLocalDefs();
+      localUses = analyses.getLocalUses();
           
       stmtIt = (new PseudoTopologicalOrderer()).newList(graph,false).iterator();
       
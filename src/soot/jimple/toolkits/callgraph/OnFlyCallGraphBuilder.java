@@ -34,9 +34,17 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import soot.ArrayType;
 import soot.Body;
+import soot.CompilationDeathException;
 import soot.Context;
 import soot.EntryPoints;
 import soot.FastHierarchy;
@@ -59,6 +67,7 @@ import soot.Unit;
 import soot.Value;
 import soot.javaToJimple.LocalGenerator;
 import soot.jimple.AssignStmt;
+import soot.jimple.DynamicInvokeExpr;
 import soot.jimple.FieldRef;
 import soot.jimple.InstanceInvokeExpr;
 import soot.jimple.InvokeExpr;
@@ -75,6 +84,7 @@ import soot.jimple.StringConstant;
 import soot.jimple.VirtualInvokeExpr;
 import soot.jimple.toolkits.reflection.ReflectionTraceInfo;
 import soot.options.CGOptions;
+import soot.options.Options;
 import soot.tagkit.Host;
 import soot.tagkit.SourceLnPosTag;
 import soot.util.LargeNumberedMap;
@@ -95,7 +105,7 @@ public final class OnFlyCallGraphBuilder
 	    protected HashSet<SootMethod> warnedAlready = new HashSet<SootMethod>();
 
 		public void classForName(SootMethod source, Stmt s) {
-	        List<Local> stringConstants = (List<Local>) methodToStringConstants.get(source);
+	        List<Local> stringConstants = methodToStringConstants.get(source);
 	        if( stringConstants == null )
 	            methodToStringConstants.put(source, stringConstants = new ArrayList<Local>());
 			InvokeExpr ie = s.getInvokeExpr();
@@ -373,12 +383,12 @@ public final class OnFlyCallGraphBuilder
     private final HashSet<SootMethod> analyzedMethods = new HashSet<SootMethod>();
 
     private final LargeNumberedMap receiverToSites = new LargeNumberedMap( Scene.v().getLocalNumberer() ); // Local -> List(VirtualCallSite)
-    private final LargeNumberedMap methodToReceivers = new LargeNumberedMap( Scene.v().getMethodNumberer() ); // SootMethod -> List(Local)
-    public LargeNumberedMap methodToReceivers() { return methodToReceivers; }
+    private final Map<SootMethod,List<Local>> methodToReceivers = new HashMap<SootMethod,List<Local>>();
+    public Map<SootMethod,List<Local>> methodToReceivers() { return methodToReceivers; }
 
     private final SmallNumberedMap stringConstToSites = new SmallNumberedMap( Scene.v().getLocalNumberer() ); // Local -> List(VirtualCallSite)
-    private final LargeNumberedMap methodToStringConstants = new LargeNumberedMap( Scene.v().getMethodNumberer() ); // SootMethod -> List(Local)
-    public LargeNumberedMap methodToStringConstants() { return methodToStringConstants; }
+    private final Map<SootMethod,List<Local>> methodToStringConstants = new HashMap<SootMethod,List<Local>>();
+    public Map<SootMethod,List<Local>> methodToStringConstants() { return methodToStringConstants; }
 
     private CGOptions options;
 
@@ -393,12 +403,22 @@ public final class OnFlyCallGraphBuilder
     private final ChunkedQueue targetsQueue = new ChunkedQueue();
     private final QueueReader targets = targetsQueue.reader();
 
+    /** number of threads new methods are scanned on */
+    private final int numThreads;
+    private ThreadPoolExecutor executor;
+
 
     public OnFlyCallGraphBuilder( ContextManager cm, ReachableMethods rm ) {
         this.cm = cm;
         this.rm = rm;
         worklist = rm.listener();
         options = new CGOptions( PhaseOptions.v().getPhaseOptions("cg") );
+        int n = Options.v().num_threads();
+        if( n <= 0 ) {
+            n = Runtime.getRuntime().availableProcessors();
+        }
+        // the timers can only be used by one thread
+        numThreads = Options.v().time() ? 1 : n;
         if( !options.verbose() ) {
             G.v().out.println( "[Call Graph] For information on where the call graph may be incomplete, use the verbose option to the cg phase." );
         }
@@ -414,6 +434,10 @@ public final class OnFlyCallGraphBuilder
         this.appOnly = appOnly;
     }
     public void processReachables() {
+        if( numThreads > 1 ) {
+            processReachablesInParallel();
+            return;
+        }
         while(true) {
             if( !worklist.hasNext() ) {
                 rm.update();
@@ -422,10 +446,89 @@ public final class OnFlyCallGraphBuilder
             MethodOrMethodContext momc = (MethodOrMethodContext) worklist.next();
             SootMethod m = momc.method();
             if( appOnly && !m.getDeclaringClass().isApplicationClass() ) continue;
-            if( analyzedMethods.add( m ) ) processNewMethod( m );
+            if( analyzedMethods.add( m ) ) apply( scan( m ) );
             processNewMethodContext( momc );
         }
     }
+
+    /**
+     * Like the sequential loop in {@link #processReachables()}, but all
+     * methods which are in the worklist at the same time are jimplified and
+     * scanned concurrently on <code>numThreads</code> worker threads. The
+     * scans are applied on the calling thread in worklist order, so the call
+     * graph is identical to the one built using a single thread.
+     * <p>
+     * A failing scan is rethrown once the scans before it have been applied.
+     */
+    private void processReachablesInParallel() {
+        while(true) {
+            if( !worklist.hasNext() ) {
+                rm.update();
+                if( !worklist.hasNext() ) break;
+            }
+            List<MethodOrMethodContext> batch = new ArrayList<MethodOrMethodContext>();
+            List<Future<MethodScan>> scans = new ArrayList<Future<MethodScan>>();
+            while( worklist.hasNext() ) {
+                MethodOrMethodContext momc = (MethodOrMethodContext) worklist.next();
+                final SootMethod m = momc.method();
+                if( appOnly && !m.getDeclaringClass().isApplicationClass() ) continue;
+                Future<MethodScan> scan = null;
+                if( analyzedMethods.add( m ) ) {
+                    scan = executor().submit( new Callable<MethodScan>() {
+                        public MethodScan call() {
+                            return scan( m );
+                        }
+                    } );
+                }
+                batch.add( momc );
+                scans.add( scan );
+            }
+            int i = 0;
+            try {
+                for( ; i < batch.size(); i++ ) {
+                    Future<MethodScan> scan = scans.get( i );
+                    if( scan != null ) apply( scan.get() );
+                    processNewMethodContext( batch.get( i ) );
+                }
+            } catch( ExecutionException e ) {
+                Throwable cause = e.getCause();
+                if( cause instanceof RuntimeException ) throw (RuntimeException) cause;
+                if( cause instanceof Error ) throw (Error) cause;
+                throw new RuntimeException( cause );
+            } catch( InterruptedException e ) {
+                Thread.currentThread().interrupt();
+                throw new CompilationDeathException( "Interrupted while building the call graph" );
+            } finally {
+                for( ; i < batch.size(); i++ ) {
+                    if( scans.get( i ) != null ) scans.get( i ).cancel( true );
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the pool new methods are scanned on. Its threads are daemons
+     * which terminate when idle, so the pool doesn't have to be shut down.
+     */
+    private ThreadPoolExecutor executor() {
+        if( executor == null ) {
+            // Jimplification uses the hierarchy, don't let the workers race
+            // to create it.
+            Scene.v().getOrMakeFastHierarchy();
+            executor = new ThreadPoolExecutor( numThreads, numThreads,
+                    1, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+                    new ThreadFactory() {
+                private int count = 0;
+                public Thread newThread( Runnable r ) {
+                    Thread t = new Thread( r, "soot-call-graph-" + (count++) );
+                    t.setDaemon( true );
+                    return t;
+                }
+            } );
+            executor.allowCoreThreadTimeOut( true );
+        }
+        return executor;
+    }
     public boolean wantTypes( Local receiver ) {
         return receiverToSites.get(receiver) != null;
     }
@@ -511,27 +614,95 @@ public final class OnFlyCallGraphBuilder
 
     /* End of public methods. */
 
-    private void addVirtualCallSite( Stmt s, SootMethod m, Local receiver,
-            InstanceInvokeExpr iie, NumberedString subSig, Kind kind ) {
+    private void addVirtualCallSite( Local receiver, VirtualCallSite site ) {
         List<VirtualCallSite> sites = (List<VirtualCallSite>) receiverToSites.get(receiver);
         if (sites == null) {
             receiverToSites.put(receiver, sites = new ArrayList<VirtualCallSite>());
-            List<Local> receivers = (List<Local>) methodToReceivers.get(m);
+            List<Local> receivers = methodToReceivers.get(site.container());
             if( receivers == null )
-                methodToReceivers.put(m, receivers = new ArrayList<Local>());
+                methodToReceivers.put(site.container(), receivers = new ArrayList<Local>());
             receivers.add(receiver);
         }
-        sites.add(new VirtualCallSite(s, m, iie, subSig, kind));
+        sites.add(site);
     }
-    private void processNewMethod( SootMethod m ) {
+
+    /**
+     * The changes a newly reachable method makes to the call graph builder,
+     * recorded by {@link #scan(SootMethod)} without touching the builder's
+     * state so that methods can be scanned concurrently. Holds
+     * {@link Edge}s, {@link ReceiverSite}s and {@link ReflectiveCall}s in the
+     * order they were found.
+     */
+    private static class MethodScan {
+        final List<Object> changes = new ArrayList<Object>();
+
+        void addEdge( SootMethod src, Stmt stmt, SootMethod tgt, Kind kind ) {
+            changes.add( new Edge( src, stmt, tgt, kind ) );
+        }
+        void addEdge( SootMethod src, Stmt stmt, SootClass cls, NumberedString methodSubSig, Kind kind ) {
+            if( cls.declaresMethod( methodSubSig ) ) {
+                addEdge( src, stmt, cls.getMethod( methodSubSig ), kind );
+            }
+        }
+        void addEdge( SootMethod src, Stmt stmt, SootMethod tgt ) {
+            InvokeExpr ie = stmt.getInvokeExpr();
+            addEdge( src, stmt, tgt, Edge.ieToKind(ie) );
+        }
+        void addVirtualCallSite( Stmt s, SootMethod m, Local receiver,
+                InstanceInvokeExpr iie, NumberedString subSig, Kind kind ) {
+            changes.add( new ReceiverSite( receiver, new VirtualCallSite( s, m, iie, subSig, kind ) ) );
+        }
+    }
+    private static class ReceiverSite {
+        final Local receiver;
+        final VirtualCallSite site;
+        ReceiverSite( Local receiver, VirtualCallSite site ) {
+            this.receiver = receiver;
+            this.site = site;
+        }
+    }
+    /** A call handled by the {@link ReflectionModel}, which isn't thread-safe. */
+    private static class ReflectiveCall {
+        final SootMethod container;
+        final Stmt stmt;
+        ReflectiveCall( SootMethod container, Stmt stmt ) {
+            this.container = container;
+            this.stmt = stmt;
+        }
+    }
+
+    /**
+     * Jimplifies a newly reachable method and records the edges, virtual
+     * call sites and reflective calls in its body. May be called on any
+     * thread.
+     */
+    private MethodScan scan( SootMethod m ) {
+        MethodScan scan = new MethodScan();
         if( m.isNative() || m.isPhantom() ) {
-            return;
+            return scan;
         }
         Body b = m.retrieveActiveBody();
-        getImplicitTargets( m );
-        findReceivers(m, b);
+        getImplicitTargets( m, b, scan );
+        findReceivers(m, b, scan);
+        return scan;
     }
-    private void findReceivers(SootMethod m, Body b) {
+
+    /** Adds the changes recorded by {@link #scan(SootMethod)}. */
+    private void apply( MethodScan scan ) {
+        for (Object change : scan.changes) {
+            if( change instanceof Edge ) {
+                cicg.addEdge( (Edge) change );
+            } else if( change instanceof ReceiverSite ) {
+                ReceiverSite rs = (ReceiverSite) change;
+                addVirtualCallSite( rs.receiver, rs.site );
+            } else {
+                ReflectiveCall rc = (ReflectiveCall) change;
+                reflectiveCall( rc.container, rc.stmt );
+            }
+        }
+    }
+
+    private void findReceivers(SootMethod m, Body b, MethodScan scan) {
         for( Iterator sIt = b.getUnits().iterator(); sIt.hasNext(); ) {
             final Stmt s = (Stmt) sIt.next();
             if (s.containsInvokeExpr()) {
@@ -542,22 +713,30 @@ public final class OnFlyCallGraphBuilder
                     Local receiver = (Local) iie.getBase();
                     NumberedString subSig = 
                         iie.getMethodRef().getSubSignature();
-                    addVirtualCallSite( s, m, receiver, iie, subSig,
+                    scan.addVirtualCallSite( s, m, receiver, iie, subSig,
                             Edge.ieToKind(iie) );
                     if( subSig == sigStart ) {
-                        addVirtualCallSite( s, m, receiver, iie, sigRun,
+                        scan.addVirtualCallSite( s, m, receiver, iie, sigRun,
                                 Kind.THREAD );
                     }
+                } else if (ie instanceof DynamicInvokeExpr) {
+                    // RoboVM note: The VM links an invokedynamic call site
+                    // by calling its static bootstrap method. The ref isn't
+                    // marked static so look the method up instead of
+                    // resolving the ref.
+                    SootMethodRef bsm = ((DynamicInvokeExpr) ie).getBootstrapMethodRef();
+                    scan.addEdge(m, s, bsm.declaringClass(), bsm.getSubSignature(), Kind.STATIC);
                 } else {
                 	SootMethod tgt = ie.getMethod();
-                	addEdge(m, s, tgt);
-                	if( tgt.getSignature().equals( "<java.security.AccessController: java.lang.Object doPrivileged(java.security.PrivilegedAction)>" )
-                			||  tgt.getSignature().equals( "<java.security.AccessController: java.lang.Object doPrivileged(java.security.PrivilegedExceptionAction)>" )
-                			||  tgt.getSignature().equals( "<java.security.AccessController: java.lang.Object doPrivileged(java.security.PrivilegedAction,java.security.AccessControlContext)>" )
-                			||  tgt.getSignature().equals( "<java.security.AccessController: java.lang.Object doPrivileged(java.security.PrivilegedExceptionAction,java.security.AccessControlContext)>" ) ) {
+                	scan.addEdge(m, s, tgt);
+                	NumberedString tgtSig = tgt.getNumberedSignature();
+                	if( tgtSig == sigDoPrivileged
+                			||  tgtSig == sigDoPrivilegedException
+                			||  tgtSig == sigDoPrivilegedContext
+                			||  tgtSig == sigDoPrivilegedExceptionContext ) {
                 		
                 		Local receiver = (Local) ie.getArg(0);
-                		addVirtualCallSite( s, m, receiver, null, sigObjRun,
+                		scan.addVirtualCallSite( s, m, receiver, null, sigObjRun,
                 				Kind.PRIVILEGED );
                 	}                    	
                 }
@@ -567,33 +746,22 @@ public final class OnFlyCallGraphBuilder
     
     ReflectionModel reflectionModel;
     
-    private void getImplicitTargets( SootMethod source ) {
+    private void getImplicitTargets( SootMethod source, Body b, MethodScan scan ) {
         final SootClass scl = source.getDeclaringClass();
-        if( source.isNative() || source.isPhantom() ) return;
-        if( source.getSubSignature().indexOf( "<init>" ) >= 0 ) {
-            handleInit(source, scl);
+        if( source.getName().equals( "<init>" ) ) {
+            handleInit(source, scl, scan);
         }
-        Body b = source.retrieveActiveBody();
         for( Iterator sIt = b.getUnits().iterator(); sIt.hasNext(); ) {
             final Stmt s = (Stmt) sIt.next();
             if( s.containsInvokeExpr() ) {
                 InvokeExpr ie = s.getInvokeExpr();
-                if( ie.getMethodRef().getSignature().equals( "<java.lang.reflect.Method: java.lang.Object invoke(java.lang.Object,java.lang.Object[])>" ) ) {
-                	reflectionModel.methodInvoke(source,s);
-                }
-                if( ie.getMethodRef().getSignature().equals( "<java.lang.Class: java.lang.Object newInstance()>" ) ) {
-                	reflectionModel.classNewInstance(source,s);
-                }
-                if( ie.getMethodRef().getSignature().equals( "<java.lang.reflect.Constructor: java.lang.Object newInstance(java.lang.Object[])>" ) ) {
-                	reflectionModel.contructorNewInstance(source, s);
-                }
-                if( ie.getMethodRef().getSubSignature() == sigForName ) {
-                	reflectionModel.classForName(source,s);
+                if( isReflectiveCall( ie ) ) {
+                    scan.changes.add( new ReflectiveCall( source, s ) );
                 }
                 if( ie instanceof StaticInvokeExpr ) {
                 	SootClass cl = ie.getMethodRef().declaringClass();
                 	for (SootMethod clinit : EntryPoints.v().clinitsOf(cl)) {
-                		addEdge( source, s, clinit, Kind.CLINIT );
+                		scan.addEdge( source, s, clinit, Kind.CLINIT );
                 	}
                 }
             }
@@ -602,7 +770,7 @@ public final class OnFlyCallGraphBuilder
                 if( fr instanceof StaticFieldRef ) {
                     SootClass cl = fr.getFieldRef().declaringClass();
                     for (SootMethod clinit : EntryPoints.v().clinitsOf(cl)) {
-                        addEdge( source, s, clinit, Kind.CLINIT );
+                        scan.addEdge( source, s, clinit, Kind.CLINIT );
                     }
                 }
             }
@@ -612,7 +780,7 @@ public final class OnFlyCallGraphBuilder
                     NewExpr r = (NewExpr) rhs;
                     SootClass cl = r.getBaseType().getSootClass();
                     for (SootMethod clinit : EntryPoints.v().clinitsOf(cl)) {
-                        addEdge( source, s, clinit, Kind.CLINIT );
+                        scan.addEdge( source, s, clinit, Kind.CLINIT );
                     }
                 } else if( rhs instanceof NewArrayExpr || rhs instanceof NewMultiArrayExpr ) {
                     Type t = rhs.getType();
@@ -620,7 +788,7 @@ public final class OnFlyCallGraphBuilder
                     if( t instanceof RefType ) {
                         SootClass cl = ((RefType) t).getSootClass();
                         for (SootMethod clinit : EntryPoints.v().clinitsOf(cl)) {
-                            addEdge( source, s, clinit, Kind.CLINIT );
+                            scan.addEdge( source, s, clinit, Kind.CLINIT );
                         }
                     }
                 }
@@ -638,8 +806,33 @@ public final class OnFlyCallGraphBuilder
         }
     }
 
-    private void handleInit(SootMethod source, final SootClass scl) {
-        addEdge( source, null, scl, sigFinalize, Kind.FINALIZE );
+    private boolean isReflectiveCall( InvokeExpr ie ) {
+        NumberedString sig = ie.getMethodRef().getNumberedSignature();
+        return sig == sigMethodInvoke
+            || sig == sigClassNewInstance
+            || sig == sigConstructorNewInstance
+            || ie.getMethodRef().getSubSignature() == sigForName;
+    }
+
+    private void reflectiveCall( SootMethod source, Stmt s ) {
+        InvokeExpr ie = s.getInvokeExpr();
+        NumberedString sig = ie.getMethodRef().getNumberedSignature();
+        if( sig == sigMethodInvoke ) {
+        	reflectionModel.methodInvoke(source,s);
+        }
+        if( sig == sigClassNewInstance ) {
+        	reflectionModel.classNewInstance(source,s);
+        }
+        if( sig == sigConstructorNewInstance ) {
+        	reflectionModel.contructorNewInstance(source, s);
+        }
+        if( ie.getMethodRef().getSubSignature() == sigForName ) {
+        	reflectionModel.classForName(source,s);
+        }
+    }
+
+    private void handleInit(SootMethod source, final SootClass scl, MethodScan scan) {
+        scan.addEdge( source, null, scl, sigFinalize, Kind.FINALIZE );
     }
     private void constantForName( String cls, SootMethod src, Stmt srcUnit ) {
         if( cls.length() > 0 && cls.charAt(0) == '[' ) {
@@ -672,15 +865,6 @@ public final class OnFlyCallGraphBuilder
         cicg.addEdge( new Edge( src, stmt, tgt, kind ) );
     }
 
-    private void addEdge(  SootMethod src, Stmt stmt, SootClass cls, NumberedString methodSubSig, Kind kind ) {
-        if( cls.declaresMethod( methodSubSig ) ) {
-            addEdge( src, stmt, cls.getMethod( methodSubSig ), kind );
-        }
-    }
-    private void addEdge( SootMethod src, Stmt stmt, SootMethod tgt ) {
-        InvokeExpr ie = stmt.getInvokeExpr();
-        addEdge( src, stmt, tgt, Edge.ieToKind(ie) );
-    }
 
     protected final NumberedString sigFinalize = Scene.v().getSubSigNumberer().
         findOrAdd( "void finalize()" );
@@ -694,6 +878,20 @@ public final class OnFlyCallGraphBuilder
         findOrAdd( "java.lang.Object run()" );
     protected final NumberedString sigForName = Scene.v().getSubSigNumberer().
         findOrAdd( "java.lang.Class forName(java.lang.String)" );
+    protected final NumberedString sigDoPrivileged = Scene.v().getSignatureNumberer().
+        findOrAdd( "<java.security.AccessController: java.lang.Object doPrivileged(java.security.PrivilegedAction)>" );
+    protected final NumberedString sigDoPrivilegedException = Scene.v().getSignatureNumberer().
+        findOrAdd( "<java.security.AccessController: java.lang.Object doPrivileged(java.security.PrivilegedExceptionAction)>" );
+    protected final NumberedString sigDoPrivilegedContext = Scene.v().getSignatureNumberer().
+        findOrAdd( "<java.security.AccessController: java.lang.Object doPrivileged(java.security.PrivilegedAction,java.security.AccessControlContext)>" );
+    protected final NumberedString sigDoPrivilegedExceptionContext = Scene.v().getSignatureNumberer().
+        findOrAdd( "<java.security.AccessController: java.lang.Object doPrivileged(java.security.PrivilegedExceptionAction,java.security.AccessControlContext)>" );
+    protected final NumberedString sigMethodInvoke = Scene.v().getSignatureNumberer().
+        findOrAdd( "<java.lang.reflect.Method: java.lang.Object invoke(java.lang.Object,java.lang.Object[])>" );
+    protected final NumberedString sigClassNewInstance = Scene.v().getSignatureNumberer().
+        findOrAdd( "<java.lang.Class: java.lang.Object newInstance()>" );
+    protected final NumberedString sigConstructorNewInstance = Scene.v().getSignatureNumberer().
+        findOrAdd( "<java.lang.reflect.Constructor: java.lang.Object newInstance(java.lang.Object[])>" );
     protected final RefType clRunnable = RefType.v("java.lang.Runnable");
     
 }
@@ -0,0 +1,262 @@
+/*
+ * Copyright (C) 2014 RoboVM AB
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/gpl-2.0.html>.
+ */
+package soot.jimple.toolkits.callgraph;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import soot.ArrayType;
+import soot.Body;
+import soot.FastHierarchy;
+import soot.Kind;
+import soot.Local;
+import soot.MethodOrMethodContext;
+import soot.RefType;
+import soot.Scene;
+import soot.SootClass;
+import soot.SootMethod;
+import soot.Type;
+import soot.Unit;
+import soot.Value;
+import soot.jimple.AssignStmt;
+import soot.jimple.NewArrayExpr;
+import soot.jimple.NewExpr;
+import soot.jimple.NewMultiArrayExpr;
+import soot.util.queue.ChunkedQueue;
+import soot.util.queue.QueueReader;
+
+/**
+ * Builds a context-insensitive call graph using Rapid Type Analysis. Virtual
+ * calls are only resolved for the classes instantiated by a
+ * <code>new</code> expression in a method found reachable so far. Whenever
+ * a class is instantiated for the first time the call sites already seen
+ * are resolved again for it through
+ * {@link OnFlyCallGraphBuilder#addType(Local, soot.Context, Type, soot.Context)}.
+ * <p>
+ * Allocating an array instantiates <code>java.lang.Object</code>, which is
+ * what {@link VirtualCalls} resolves calls on arrays against. The classes of
+ * instance entry points and of constructors called reflectively are
+ * considered instantiated, as are a few classes the VM creates instances of
+ * by itself (see {@link #VM_CLASSES}). Objects created by other native
+ * code aren't seen.
+ */
+public final class RTACallGraphBuilder
+{
+    /**
+     * Classes the VM creates instances of without a <code>new</code>
+     * expression, e.g. for constants or when an instruction fails.
+     */
+    private static final String[] VM_CLASSES = {
+        "java.lang.Object",
+        "java.lang.String",
+        "java.lang.Class",
+        "java.lang.Thread",
+        "java.lang.ThreadGroup",
+        "java.lang.StackTraceElement",
+        "java.lang.invoke.MethodHandle",
+        "java.lang.invoke.MethodType",
+        "java.lang.reflect.Constructor",
+        "java.lang.reflect.Field",
+        "java.lang.reflect.Method",
+        "java.lang.AbstractMethodError",
+        "java.lang.ArithmeticException",
+        "java.lang.ArrayIndexOutOfBoundsException",
+        "java.lang.ArrayStoreException",
+        "java.lang.ClassCastException",
+        "java.lang.ClassNotFoundException",
+        "java.lang.ExceptionInInitializerError",
+        "java.lang.IllegalAccessError",
+        "java.lang.IllegalMonitorStateException",
+        "java.lang.IncompatibleClassChangeError",
+        "java.lang.InstantiationError",
+        "java.lang.NegativeArraySizeException",
+        "java.lang.NoClassDefFoundError",
+        "java.lang.NoSuchFieldError",
+        "java.lang.NoSuchMethodError",
+        "java.lang.NullPointerException",
+        "java.lang.OutOfMemoryError",
+        "java.lang.StackOverflowError",
+        "java.lang.UnsatisfiedLinkError",
+    };
+
+    private final ReachableMethods reachables;
+    private final OnFlyCallGraphBuilder ofcgb;
+    private final CallGraph cg;
+
+    /** All instantiated classes in the order they were found. */
+    private final Set<RefType> instantiated = new LinkedHashSet<RefType>();
+    private final ChunkedQueue<RefType> newTypesQueue = new ChunkedQueue<RefType>();
+    private final QueueReader<RefType> newTypes = newTypesQueue.reader();
+    /** The instantiated classes whose calls have been resolved. */
+    private final List<RefType> processedTypes = new ArrayList<RefType>();
+    /** Declared receiver type -> receivers and instantiated subtypes. */
+    private final Map<RefType, Receivers> declaredTypeToReceivers = new HashMap<RefType, Receivers>();
+
+    public CallGraph getCallGraph() { return cg; }
+    public ReachableMethods reachables() { return reachables; }
+
+    /**
+     * Returns the classes found to be instantiated so far.
+     */
+    public Set<RefType> instantiatedTypes() { return instantiated; }
+
+    public RTACallGraphBuilder() {
+        cg = new CallGraph();
+        Scene.v().setCallGraph( cg );
+        reachables = Scene.v().getReachableMethods();
+        ContextManager cm = CallGraphBuilder.makeContextManager(cg);
+        ofcgb = new OnFlyCallGraphBuilder( cm, reachables );
+    }
+
+    public void build() {
+        for (String name : VM_CLASSES) {
+            if( Scene.v().containsClass( name ) ) {
+                instantiate( RefType.v( name ) );
+            }
+        }
+        for (SootMethod m : Scene.v().getEntryPoints()) {
+            if( !m.isStatic() ) {
+                instantiate( m.getDeclaringClass().getType() );
+            }
+        }
+        QueueReader<MethodOrMethodContext> worklist = reachables.listener();
+        QueueReader<Edge> edges = cg.listener();
+        while(true) {
+            ofcgb.processReachables();
+            reachables.update();
+            while( edges.hasNext() ) {
+                Edge e = edges.next();
+                if( e.kind() == Kind.NEWINSTANCE
+                        || e.kind() == Kind.REFL_CLASS_NEWINSTANCE
+                        || e.kind() == Kind.REFL_CONSTR_NEWINSTANCE ) {
+                    instantiate( e.tgt().getDeclaringClass().getType() );
+                }
+            }
+            if( !worklist.hasNext() && !newTypes.hasNext() ) break;
+            // Handle everything found so far before looking for new
+            // methods, so that processReachables() gets large batches of
+            // methods to jimplify in parallel.
+            while( worklist.hasNext() ) {
+                processNewMethod( worklist.next() );
+            }
+            while( newTypes.hasNext() ) {
+                processNewType( newTypes.next() );
+            }
+        }
+    }
+
+    private void processNewMethod( MethodOrMethodContext momc ) {
+        SootMethod m = momc.method();
+        if( m.isConcrete() && m.hasActiveBody() ) {
+            findAllocations( m.getActiveBody() );
+        }
+        List<Local> receivers = ofcgb.methodToReceivers().get(m);
+        if( receivers != null ) for (Local receiver : receivers) {
+            RefType declaredType = normalize( receiver.getType() );
+            if( declaredType == null ) continue;
+            Receivers r = getReceivers( declaredType );
+            r.locals.add( receiver );
+            for (RefType type : r.types) {
+                ofcgb.addType( receiver, momc.context(), type, null );
+            }
+        }
+        List<Local> stringConstants = ofcgb.methodToStringConstants().get(m);
+        if( stringConstants != null ) for (Local stringConstant : stringConstants) {
+            ofcgb.addStringConstant( stringConstant, momc.context(), null );
+        }
+    }
+
+    private void findAllocations( Body b ) {
+        for (Unit u : b.getUnits()) {
+            if( u instanceof AssignStmt ) {
+                Value rhs = ((AssignStmt) u).getRightOp();
+                if( rhs instanceof NewExpr ) {
+                    instantiate( ((NewExpr) rhs).getBaseType() );
+                } else if( rhs instanceof NewArrayExpr || rhs instanceof NewMultiArrayExpr ) {
+                    instantiate( RefType.v( "java.lang.Object" ) );
+                }
+            }
+        }
+    }
+
+    private void instantiate( RefType type ) {
+        if( instantiated.add( type ) ) {
+            newTypesQueue.add( type );
+        }
+    }
+
+    /**
+     * Resolves the calls on all receivers seen so far whose declared type is
+     * a supertype of a newly instantiated class.
+     */
+    private void processNewType( RefType type ) {
+        processedTypes.add( type );
+        Set<SootClass> supertypes = new HashSet<SootClass>();
+        List<SootClass> worklist = new ArrayList<SootClass>();
+        worklist.add( type.getSootClass() );
+        worklist.add( Scene.v().getObjectType().getSootClass() );
+        while( !worklist.isEmpty() ) {
+            SootClass cl = worklist.remove( worklist.size() - 1 );
+            if( !supertypes.add( cl ) ) continue;
+            if( cl.hasSuperclass() ) worklist.add( cl.getSuperclass() );
+            worklist.addAll( cl.getInterfaces() );
+            Receivers r = declaredTypeToReceivers.get( cl.getType() );
+            if( r != null ) {
+                r.types.add( type );
+                for (Local receiver : r.locals) {
+                    ofcgb.addType( receiver, null, type, null );
+                }
+            }
+        }
+    }
+
+    private Receivers getReceivers( RefType declaredType ) {
+        Receivers r = declaredTypeToReceivers.get( declaredType );
+        if( r == null ) {
+            r = new Receivers();
+            FastHierarchy fh = Scene.v().getOrMakeFastHierarchy();
+            for (RefType type : processedTypes) {
+                if( fh.canStoreType( type, declaredType ) ) {
+                    r.types.add( type );
+                }
+            }
+            declaredTypeToReceivers.put( declaredType, r );
+        }
+        return r;
+    }
+
+    /**
+     * Returns the type calls on a receiver of the specified type are
+     * resolved against, or <code>null</code> if there is none.
+     */
+    private static RefType normalize( Type t ) {
+        if( t instanceof ArrayType ) return Scene.v().getObjectType();
+        if( t instanceof RefType ) return (RefType) t;
+        return null;
+    }
+
+    private static class Receivers {
+        final List<Local> locals = new ArrayList<Local>();
+        /** The instantiated subtypes of the declared type. */
+        final List<RefType> types = new ArrayList<RefType>();
+    }
+}
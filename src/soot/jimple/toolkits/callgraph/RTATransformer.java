@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) 2014 RoboVM AB
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/gpl-2.0.html>.
+ */
+package soot.jimple.toolkits.callgraph;
+
+import java.util.Map;
+
+import soot.G;
+import soot.Scene;
+import soot.SceneTransformer;
+import soot.Singletons;
+import soot.options.RTAOptions;
+
+/** Builds an invoke graph using Rapid Type Analysis. */
+public class RTATransformer extends SceneTransformer
+{
+    public RTATransformer( Singletons.Global g ) {}
+    public static RTATransformer v() { return G.v().soot_jimple_toolkits_callgraph_RTATransformer(); }
+
+    protected void internalTransform(String phaseName, Map opts)
+    {
+        RTAOptions options = new RTAOptions( opts );
+        RTACallGraphBuilder cg = new RTACallGraphBuilder();
+        cg.build();
+        if( options.verbose() ) {
+            G.v().out.println( "Number of reachable methods: "
+                    +Scene.v().getReachableMethods().size() );
+            G.v().out.println( "Number of instantiated classes: "
+                    +cg.instantiatedTypes().size() );
+        }
+    }
+}
@@ -100,43 +100,42 @@ public final class VirtualCalls
         } else if( t instanceof AnySubType ) {
             RefType base = ((AnySubType)t).getBase();
 
-            List subTypes = baseToSubTypes.get(base);
-            if( subTypes != null ) {
-                for( Iterator stIt = subTypes.iterator(); stIt.hasNext(); ) {
-                    final Type st = (Type) stIt.next();
-                    resolve( st, declaredType, sigType, subSig, container, targets );
-                }
-                return;
-            }
-
-            baseToSubTypes.put(base, subTypes = new ArrayList() );
+            List<Type> subTypes = baseToSubTypes.get(base);
+            if( subTypes == null ) {
+                baseToSubTypes.put(base, subTypes = new ArrayList<Type>() );
 
-            subTypes.add(base);
+                subTypes.add(base);
 
-            LinkedList<SootClass> worklist = new LinkedList<SootClass>();
-            HashSet<SootClass> workset = new HashSet<SootClass>();
-            FastHierarchy fh = Scene.v().getOrMakeFastHierarchy();
-            SootClass cl = base.getSootClass();
+                LinkedList<SootClass> worklist = new LinkedList<SootClass>();
+                HashSet<SootClass> workset = new HashSet<SootClass>();
+                FastHierarchy fh = Scene.v().getOrMakeFastHierarchy();
+                SootClass cl = base.getSootClass();
 
-            if( workset.add( cl ) ) worklist.add( cl );
-            while( !worklist.isEmpty() ) {
-                cl = worklist.removeFirst();
-                if( cl.isInterface() ) {
-                    for( Iterator cIt = fh.getAllImplementersOfInterface(cl).iterator(); cIt.hasNext(); ) {
-                        final SootClass c = (SootClass) cIt.next();
-                        if( workset.add( c ) ) worklist.add( c );
-                    }
-                } else {
-                    if( cl.isConcrete() ) {
-                        resolve( cl.getType(), declaredType, sigType, subSig, container, targets );
-                        subTypes.add(cl.getType());
-                    }
-                    for( Iterator cIt = fh.getSubclassesOf( cl ).iterator(); cIt.hasNext(); ) {
-                        final SootClass c = (SootClass) cIt.next();
-                        if( workset.add( c ) ) worklist.add( c );
+                if( workset.add( cl ) ) worklist.add( cl );
+                while( !worklist.isEmpty() ) {
+                    cl = worklist.removeFirst();
+                    if( cl.isInterface() ) {
+                        for( Iterator cIt = fh.getAllImplementersOfInterface(cl).iterator(); cIt.hasNext(); ) {
+                            final SootClass c = (SootClass) cIt.next();
+                            if( workset.add( c ) ) worklist.add( c );
+                        }
+                    } else {
+                        if( cl.isConcrete() ) {
+                            subTypes.add(cl.getType());
+                        }
+                        for( Iterator cIt = fh.getSubclassesOf( cl ).iterator(); cIt.hasNext(); ) {
+                            final SootClass c = (SootClass) cIt.next();
+                            if( workset.add( c ) ) worklist.add( c );
+                        }
                     }
                 }
             }
+            // Resolve against the base as well the first time round, so
+            // that a call site's targets don't depend on whether it is the
+            // first one with this base.
+            for( Type st : subTypes ) {
+                resolve( st, declaredType, sigType, subSig, container, targets );
+            }
         } else if( t instanceof NullType ) {
         } else {
             throw new RuntimeException( "oops "+t );
@@ -98,11 +98,11 @@ public class CopyPropagator extends BodyTransformer
         
 //            ((JimpleBody) stmtBody).printDebugTo(new java.io.PrintWriter(G.v().out, true));
             
-        ExceptionalUnitGraph graph = new ExceptionalUnitGraph(stmtBody);
+        BodyAnalysisManager analyses = stmtBody.getAnalysisManager();
 
-        LocalDefs localDefs;
-        
-        localDefs = new SmartLocalDefs(graph, new SimpleLiveLocals(graph));
+        ExceptionalUnitGraph graph = analyses.getUnitGraph();
+
+        LocalDefs localDefs = analyses.getLocalDefs();
 
         // Perform a local propagation pass.
         {
@@ -210,6 +210,9 @@ public class CopyPropagator extends BodyTransformer
         }
 
 
+        if(fastCopyPropagationCount > 0 || slowCopyPropagationCount > 0)
+            analyses.invalidate();
+
         if(Options.v().verbose())
             G.v().out.println("[" + stmtBody.getMethod().getName() +
                 "]     Propagated: " +
@@ -41,9 +41,13 @@ public class UnconditionalBranchFolder extends BodyTransformer
     public static UnconditionalBranchFolder v() { return G.v().soot_jimple_toolkits_scalar_UnconditionalBranchFolder(); }
 
     static final int JUMPOPT_TYPES = 6;
-    int numFound[], numFixed[];
 
-    HashMap<Stmt, Stmt> stmtMap;
+    /* Per-body state, so the shared instance can fold several bodies at once. */
+    private static class Counters
+    {
+        final int numFound[] = new int[JUMPOPT_TYPES+1];
+        final int numFixed[] = new int[JUMPOPT_TYPES+1];
+    }
     
     protected void internalTransform(Body b, String phaseName, Map options) 
     {
@@ -53,19 +57,10 @@ public class UnconditionalBranchFolder extends BodyTransformer
             G.v().out.println("[" + body.getMethod().getName() + "] Folding unconditional branches...");
 
 
-        // allocate counters once only
-        if (numFound == null) {
-            numFound = new int[JUMPOPT_TYPES+1];
-            numFixed = new int[JUMPOPT_TYPES+1];
-        }
-
-        for (int i = 0; i <= JUMPOPT_TYPES; i++) {
-            numFound[i] = 0;
-            numFixed[i] = 0;
-        }
+        Counters counters = new Counters();
 
         Chain units = body.getUnits();
-        stmtMap = new HashMap<Stmt, Stmt>();
+        HashMap<Stmt, Stmt> stmtMap = new HashMap<Stmt, Stmt>();
 
         // find goto and if-goto statements
         Iterator stmtIt = units.iterator();
@@ -81,57 +76,57 @@ public class UnconditionalBranchFolder extends BodyTransformer
                     if (units.getSuccOf(stmt) == target)
                     {
                         stmtIt.remove();
-                        updateCounters(6, true);
+                        updateCounters(counters, 6, true);
                     }
                 }
 
                 if (target instanceof GotoStmt) {
-                    newTarget = getFinalTarget(target);
+                    newTarget = getFinalTarget(target, stmtMap);
                     if (newTarget == null)
                         newTarget = stmt;
                     ((GotoStmt)stmt).setTarget(newTarget);
-                    updateCounters(1, true);
+                    updateCounters(counters, 1, true);
                 }
                 else if (target instanceof IfStmt) {
-                    updateCounters(3, false);
+                    updateCounters(counters, 3, false);
                 }
             }
             else if (stmt instanceof IfStmt) {
                 target = ((IfStmt)stmt).getTarget();
 
                 if (target instanceof GotoStmt) {
-                    newTarget = getFinalTarget(target);
+                    newTarget = getFinalTarget(target, stmtMap);
                     if (newTarget == null)
                         newTarget = stmt;
                     ((IfStmt)stmt).setTarget(newTarget);
-                    updateCounters(2, true);
+                    updateCounters(counters, 2, true);
                 }
                 else if (target instanceof IfStmt) {
-                    updateCounters(4, false);
+                    updateCounters(counters, 4, false);
                 }
             }
         }
         if (Options.v().verbose()) 
-            G.v().out.println("[" + body.getMethod().getName() + "]     " + numFixed[0] + " of " + 
-                                numFound[0] + " branches folded.");
+            G.v().out.println("[" + body.getMethod().getName() + "]     " + counters.numFixed[0] + " of " + 
+                                counters.numFound[0] + " branches folded.");
              
                                
     } // optimizeJumps
 
-    private void updateCounters(int type, boolean fixed) {
+    private void updateCounters(Counters counters, int type, boolean fixed) {
 
         if ((type < 0) || (type > JUMPOPT_TYPES))
             return;
 
-        numFound[0]++;
-        numFound[type]++;
+        counters.numFound[0]++;
+        counters.numFound[type]++;
         if (fixed) {
-            numFixed[0]++;
-            numFixed[type]++;
+            counters.numFixed[0]++;
+            counters.numFixed[type]++;
         }
     }
         
-    private Stmt getFinalTarget(Stmt stmt) {
+    private Stmt getFinalTarget(Stmt stmt, HashMap<Stmt, Stmt> stmtMap) {
         Stmt finalTarget=null, target;
         
         // if not a goto, this is the final target
@@ -152,7 +147,7 @@ public class UnconditionalBranchFolder extends BodyTransformer
                 finalTarget = null;
         }
         else
-            finalTarget = getFinalTarget(target);
+            finalTarget = getFinalTarget(target, stmtMap);
             
         stmtMap.put(stmt, finalTarget);
         return finalTarget;
@@ -102,6 +102,9 @@ public class TypeAssigner extends BodyTransformer {
 						(JimpleBody) b)).inferTypes();
 		}
 
+		// Type inference inserts casts and replaces values in place.
+		b.getAnalysisManager().invalidate();
+
 		Date finish = new Date();
 		if (Options.v().verbose()) {
 			long runtime = finish.getTime() - start.getTime();
@@ -21,13 +21,80 @@
 package soot.jimple.toolkits.typing.fast;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
 import soot.*;
 
 /**
+ * The least common ancestors of reference types and the least common
+ * superclasses are memoized in {@link Memo}, keyed by the numbers of the
+ * queried types. The memo belongs to the scene's {@link FastHierarchy} and
+ * is discarded along with it when the hierarchy changes. Only queries on
+ * types whose classes have been resolved to the hierarchy level are
+ * memoized.
+ * 
  * @author Ben Bellamy
  */
 public class BytecodeHierarchy implements IHierarchy
 {
+	/**
+	 * Holds the memoized least common ancestors and superclasses for the
+	 * scene's current {@link FastHierarchy}.
+	 */
+	public static class Memo
+	{
+		private volatile Tables tables;
+		
+		public Memo(Singletons.Global g) {}
+		
+		public static Memo v()
+		{
+			return G.v().soot_jimple_toolkits_typing_fast_BytecodeHierarchy_Memo();
+		}
+		
+		private Tables tables()
+		{
+			FastHierarchy h = Scene.v().getOrMakeFastHierarchy();
+			Tables t = tables;
+			if ( t == null || t.hierarchy != h )
+				tables = t = new Tables(h);
+			return t;
+		}
+	}
+	
+	private static class Tables
+	{
+		final FastHierarchy hierarchy;
+		final Map<Long, Collection<Type>> lcas
+			= new ConcurrentHashMap<Long, Collection<Type>>();
+		final Map<Long, RefType> lcsc = new ConcurrentHashMap<Long, RefType>();
+		
+		Tables(FastHierarchy hierarchy)
+		{
+			this.hierarchy = hierarchy;
+		}
+	}
+	
+	private static long key(Type a, Type b)
+	{
+		return ((long)a.getNumber() << 32) | (b.getNumber() & 0xffffffffL);
+	}
+	
+	/* Returns whether the ancestry of t is completely known and won't
+	change unless the hierarchy does. */
+	private static boolean isResolved(Type t)
+	{
+		if ( t instanceof ArrayType )
+			t = ((ArrayType)t).baseType;
+		if ( t instanceof RefType )
+		{
+			RefType rt = (RefType)t;
+			return rt.hasSootClass() && rt.getSootClass().resolvedLevel()
+				>= SootClass.HIERARCHY;
+		}
+		return true;
+	}
+	
 	private static class AncestryTreeNode
 	{
 		public final AncestryTreeNode next;
@@ -108,8 +175,25 @@ public class BytecodeHierarchy implements IHierarchy
 			return new SingletonList<Type>(b);
 		else if ( b instanceof NullType )
 			return new SingletonList<Type>(a);
+		
 		// a and b are both ArrayType or RefType
-		else if ( a instanceof ArrayType && b instanceof ArrayType )
+		if ( !isResolved(a) || !isResolved(b) )
+			return refLikeLcas(a, b);
+		Tables m = Memo.v().tables();
+		Long key = key(a, b);
+		Collection<Type> r = m.lcas.get(key);
+		if ( r == null )
+		{
+			r = Collections.unmodifiableList(
+				new ArrayList<Type>(refLikeLcas(a, b)));
+			m.lcas.put(key, r);
+		}
+		return r;
+	}
+	
+	private static Collection<Type> refLikeLcas(Type a, Type b)
+	{
+		if ( a instanceof ArrayType && b instanceof ArrayType )
 		{
 			Type eta = ((ArrayType)a).getElementType(),
 				etb = ((ArrayType)b).getElementType();
@@ -242,6 +326,23 @@ public class BytecodeHierarchy implements IHierarchy
 	}
 	
 	public static RefType lcsc(RefType a, RefType b)
+	{
+		if ( !isResolved(a) || !isResolved(b) )
+			return lcsc_(a, b);
+		Tables m = Memo.v().tables();
+		Long key = key(a, b);
+		RefType r = m.lcsc.get(key);
+		if ( r == null )
+		{
+			r = lcsc_(a, b);
+			// There is no least common superclass in broken hierarchies.
+			if ( r != null )
+				m.lcsc.put(key, r);
+		}
+		return r;
+	}
+	
+	private static RefType lcsc_(RefType a, RefType b)
 	{
 		LinkedList<RefType> pathA = superclassPath(a),
 			pathB = superclassPath(b);
@@ -23,6 +23,7 @@ import soot.*;
 import soot.options.Options;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * <p>A class for representing the set of exceptions that an
@@ -77,6 +78,13 @@ import java.util.*;
  * <code>RefLikeType</code> objects it contains, though, because we trust
  * {@link Scene} to enforce the existence of only one 
  * <code>RefLikeType</code> instance with a given name.</p>
+ *
+ * <p> The {@link Manager} numbers all exception types occurring in any
+ * <code>ThrowableSet</code>, and the contents of a set are represented
+ * as bit vectors over those numbers. The manager keeps only one set
+ * with given contents, so sets can be compared by identity. The
+ * results of <code>add()</code>, {@link #catchableAs(RefType)} and
+ * {@link #whichCatchableAs(RefType)} are memoized per set.</p>
  */
 
 public final class ThrowableSet {
@@ -92,10 +100,23 @@ public final class ThrowableSet {
     public static class Manager {
 
 	/**
-	 * Map from {@link Integer}s representing set size to all
-	 * <code>ThrowableSet</code>s of that size.
+	 * Map from the {@link RefLikeType}s occurring in any
+	 * <code>ThrowableSet</code> to their index in the bit vectors
+	 * representing the sets' contents. Types are only added while
+	 * holding the <code>Manager</code>'s lock.
+	 */
+	private final Map<RefLikeType, Integer> typeToIndex = new ConcurrentHashMap<RefLikeType, Integer>();
+
+	/**
+	 * The types in <code>typeToIndex</code>, by index.
+	 */
+	private final List<RefLikeType> indexToType = new ArrayList<RefLikeType>();
+
+	/**
+	 * Map from the contents of all <code>ThrowableSet</code>s to the
+	 * sets, ensuring that there is only one set with given contents.
 	 */
-	private final Map<Integer, List> sizeToSets = new HashMap<Integer, List>();
+	private final Map<Contents, ThrowableSet> sets = new HashMap<Contents, ThrowableSet>();
 
 	/**
 	 * <code>ThrowableSet</code> containing no exception classes.
@@ -170,12 +191,13 @@ public final class ThrowableSet {
 	private int addsExclusionWithoutSearch = 0;
 	private int removesOfAnySubType = 0;
 	private final int removesFromMap = 0;
-	private final int removesFromMemo = 0;
+	private int removesFromMemo = 0;
 	private int removesFromSearch = 0;
 	private int registrationCalls = 0;
 	private int catchableAsQueries = 0;
 	private int catchableAsFromMap = 0;
 	private int catchableAsFromSearch = 0;
+	private int catchableAsFromMemo = 0;
 	
 	/**
 	 * Constructs a <code>ThrowableSet.Manager</code> for inclusion in 
@@ -296,36 +318,61 @@ public final class ThrowableSet {
 	 * exceptions corresponding to <code>include</code> -
 	 * <code>exclude</code>.
 	 */
-	private ThrowableSet registerSetIfNew(Set include, Set exclude) {
+	private synchronized ThrowableSet registerSetIfNew(Collection include, Collection exclude) {
 	    if (INSTRUMENTING) {
 		registrationCalls++;
 	    }
-	    if (include == null) {
-		include = Collections.EMPTY_SET;
-	    }
-	    if (exclude == null) {
-		exclude = Collections.EMPTY_SET;
+	    BitSet includedBits = toBits(include);
+	    BitSet excludedBits = toBits(exclude);
+	    Contents contents = new Contents(includedBits, excludedBits);
+	    ThrowableSet result = sets.get(contents);
+	    if (result == null) {
+		if (INSTRUMENTING) {
+		    registeredSets++;
+		}
+		result = new ThrowableSet(includedBits, toTypes(includedBits, new RefLikeType[includedBits.cardinality()]),
+					  excludedBits, toTypes(excludedBits, new AnySubType[excludedBits.cardinality()]));
+		sets.put(contents, result);
 	    }
-	    int size = include.size() + exclude.size();
-	    Integer sizeKey = new Integer(size);
+	    return result;
+	}
 
-	    List<ThrowableSet> sizeList = sizeToSets.get(sizeKey);
-	    if (sizeList == null) {
-		sizeList = new LinkedList<ThrowableSet>();
-		sizeToSets.put(sizeKey, sizeList);
-	    }
-	    for (ThrowableSet set : sizeList) {
-		if (set.exceptionsIncluded.equals(include) 
-		    && set.exceptionsExcluded.equals(exclude)) {
-		    return set;
+
+	/**
+	 * Returns the index of the specified type in the bit vectors
+	 * representing <code>ThrowableSet</code>s, or -1 if the type doesn't
+	 * occur in any set.
+	 */
+	int indexOf(RefLikeType type) {
+	    Integer index = typeToIndex.get(type);
+	    return index == null ? -1 : index.intValue();
+	}
+
+
+	private BitSet toBits(Collection types) {
+	    BitSet bits = new BitSet();
+	    if (types != null) {
+		for (Iterator i = types.iterator(); i.hasNext(); ) {
+		    RefLikeType type = (RefLikeType) i.next();
+		    Integer index = typeToIndex.get(type);
+		    if (index == null) {
+			index = new Integer(indexToType.size());
+			indexToType.add(type);
+			typeToIndex.put(type, index);
+		    }
+		    bits.set(index.intValue());
 		}
 	    }
-	    if (INSTRUMENTING) {
-		registeredSets++;
+	    return bits;
+	}
+
+
+	private <T> T[] toTypes(BitSet bits, T[] types) {
+	    int j = 0;
+	    for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+		types[j++] = (T) indexToType.get(i);
 	    }
-	    ThrowableSet result = new ThrowableSet(include, exclude);
-	    sizeList.add(result);
-	    return result;
+	    return types;
 	}
 
 
@@ -336,11 +383,8 @@ public final class ThrowableSet {
 	 *
 	 * @return a string listing the counts.
 	 */
-	public String reportInstrumentation() {
-	    int setCount = 0;
-	    for (List sizeList : sizeToSets.values()) {
-		setCount += sizeList.size();
-	    }
+	public synchronized String reportInstrumentation() {
+	    int setCount = sets.size();
 	    if (setCount != registeredSets) {
 		throw new IllegalStateException("ThrowableSet.reportInstrumentation() assertion failure: registeredSets != list count");
 	    }
@@ -380,6 +424,8 @@ public final class ThrowableSet {
 		.append(catchableAsFromMap)
 		.append("\ncatchableAsFromSearch: ")
 		.append(catchableAsFromSearch)
+		.append("\ncatchableAsFromMemo: ")
+		.append(catchableAsFromMemo)
 		.append('\n');
 	    return buf.toString();
 	}
@@ -388,8 +434,18 @@ public final class ThrowableSet {
 	 * A package-private method to provide unit tests with access
 	 * to the collection of ThrowableSets.   
 	 */
-	Map<Integer, List> getSizeToSets() {
-	    return Manager.v().sizeToSets;
+	synchronized Map<Integer, List> getSizeToSets() {
+	    Map<Integer, List> sizeToSets = new HashMap<Integer, List>();
+	    for (ThrowableSet set : sets.values()) {
+		Integer size = new Integer(set.includedTypes.length + set.excludedTypes.length);
+		List sizeList = sizeToSets.get(size);
+		if (sizeList == null) {
+		    sizeList = new ArrayList();
+		    sizeToSets.put(size, sizeList);
+		}
+		sizeList.add(set);
+	    }
+	    return sizeToSets;
 	}
     }
 
@@ -402,20 +458,58 @@ public final class ThrowableSet {
 
 
     /**
-     * Set of exception types included within the set.
+     * The contents of a <code>ThrowableSet</code>, used as key when
+     * looking up the single set with those contents.
      */
-    private final Set exceptionsIncluded;
+    private static final class Contents {
+	private final BitSet included;
+	private final BitSet excluded;
+
+	Contents(BitSet included, BitSet excluded) {
+	    this.included = included;
+	    this.excluded = excluded;
+	}
+
+	public boolean equals(Object o) {
+	    if (! (o instanceof Contents)) {
+		return false;
+	    }
+	    Contents c = (Contents) o;
+	    return included.equals(c.included) && excluded.equals(c.excluded);
+	}
+
+	public int hashCode() {
+	    return 31 * included.hashCode() + excluded.hashCode();
+	}
+    }
+
+
+    /**
+     * Bit vector over the types numbered by the {@link Manager} of the
+     * exception types included within the set.
+     */
+    private final BitSet includedBits;
+
+    /**
+     * The exception types included within the set, ordered by index.
+     */
+    private final RefLikeType[] includedTypes;
 
     /**
-     * Set of exception types which, though members of
-     * exceptionsIncluded, are to be excluded from the types
+     * Bit vector of the exception types which, though members of
+     * the included types, are to be excluded from the types
      * represented by this <code>ThrowableSet</code>.  To simplify
      * the implementation, once a <code>ThrowableSet</code> has
      * any excluded types, the various <code>add()</code> methods of
      * this class must bar additions of subtypes of those
      * excluded types.
      */
-    private final Set exceptionsExcluded;
+    private final BitSet excludedBits;
+
+    /**
+     * The exception types excluded from the set, ordered by index.
+     */
+    private final AnySubType[] excludedTypes;
 
     /**
      * A map from 
@@ -428,41 +522,58 @@ public final class ThrowableSet {
      * {@link RefLikeType}, then v is the set that results from adding
      * k to <code>this</code>.
      */
-    private Map<Object,ThrowableSet> memoizedAdds;
+    private final Map<Object,ThrowableSet> memoizedAdds = new ConcurrentHashMap<Object,ThrowableSet>();
 
-    private ThrowableSet getMemoizedAdds(Object key) {
-	if (memoizedAdds == null) {
-	    memoizedAdds = new HashMap();
-	}
-	return memoizedAdds.get(key);
-    }
+    /**
+     * The results of {@link #catchableAs(RefType)} by catcher.
+     */
+    private final Map<RefType,Boolean> memoizedCatchableAs = new ConcurrentHashMap<RefType,Boolean>();
+
+    /**
+     * The results of {@link #whichCatchableAs(RefType)} by catcher.
+     */
+    private final Map<RefType,Pair> memoizedWhichCatchableAs = new ConcurrentHashMap<RefType,Pair>();
 
 
     /**
      * Constructs a <code>ThrowableSet</code> which contains the
-     * exception types represented in <code>include</code>, except for
-     * those which are also in <code>exclude</code>. The constructor
-     * is private to ensure that the only way to get a new
+     * exception types represented by <code>includedBits</code>, except
+     * for those which are also represented by <code>excludedBits</code>.
+     * The constructor is private to ensure that the only way to get a new
      * <code>ThrowableSet</code> is by adding elements to or removing
      * them from an existing set.
      *
-     * @param include The set of {@link RefType} and {@link AnySubType} 
-     *                objects representing the types to be included in the set.
-     * @param exclude The set of {@link AnySubType} 
-     *                objects representing the types to be excluded 
-     *                from the set.  
+     * @param includedBits  The types to be included in the set.
+     * @param includedTypes The {@link RefType} and {@link AnySubType}
+     *                      objects corresponding to <code>includedBits</code>.
+     * @param excludedBits  The types to be excluded from the set.
+     * @param excludedTypes The {@link AnySubType} objects corresponding 
+     *                      to <code>excludedBits</code>.
      */
-    private ThrowableSet(Set include, Set exclude) {
-	exceptionsIncluded = Collections.unmodifiableSet(include);
-	exceptionsExcluded = Collections.unmodifiableSet(exclude);
-	// We don't need to clone include and exclude to guarantee
-	// immutability since ThrowableSet(Set,Set) is private to this
+    private ThrowableSet(BitSet includedBits, RefLikeType[] includedTypes,
+			 BitSet excludedBits, AnySubType[] excludedTypes) {
+	this.includedBits = includedBits;
+	this.includedTypes = includedTypes;
+	this.excludedBits = excludedBits;
+	this.excludedTypes = excludedTypes;
+	// We don't need to clone the arguments to guarantee
+	// immutability since ThrowableSet() is private to this
 	// class, where it is only called (via
 	// Manager.v().registerSetIfNew()) with arguments which the
 	// callers do not subsequently modify.
     }
 
 
+    /**
+     * Returns whether the specified type is among the included types of
+     * this set (without considering subtyping).
+     */
+    private boolean includes(RefLikeType type) {
+	int index = Manager.v().indexOf(type);
+	return index >= 0 && includedBits.get(index);
+    }
+
+
     /**
      * Returns a <code>ThrowableSet</code> which contains
      * <code>e</code> in addition to the exceptions in
@@ -504,14 +615,14 @@ public final class ThrowableSet {
 	if (INSTRUMENTING) {
 	    Manager.v().addsOfRefType++;
 	}
-	if (this.exceptionsIncluded.contains(e)) {
+	if (includes(e)) {
 	    if (INSTRUMENTING) {
 		Manager.v().addsInclusionFromMap++;
 		Manager.v().addsExclusionWithoutSearch++;
 	    }
 	    return this; 
 	} else {
-	    ThrowableSet result = getMemoizedAdds(e);
+	    ThrowableSet result = memoizedAdds.get(e);
 	    if (result != null) {
 		if (INSTRUMENTING) {
 		    Manager.v().addsInclusionFromMemo++;
@@ -521,7 +632,7 @@ public final class ThrowableSet {
 	    } else {
 		if (INSTRUMENTING) {
 		    Manager.v().addsInclusionFromSearch++;
-		    if (exceptionsExcluded.size() != 0) {
+		    if (excludedTypes.length != 0) {
 			Manager.v().addsExclusionWithSearch++;
 		    } else {
 			Manager.v().addsExclusionWithoutSearch++;
@@ -529,8 +640,8 @@ public final class ThrowableSet {
 		}
 		FastHierarchy hierarchy = Scene.v().getOrMakeFastHierarchy();
 
-		for (Iterator i = exceptionsExcluded.iterator(); i.hasNext(); ) {
-		    RefType exclusionBase = ((AnySubType) i.next()).getBase();
+		for (AnySubType exclusion : excludedTypes) {
+		    RefType exclusionBase = exclusion.getBase();
 		    if (hierarchy.canStoreType(e, exclusionBase)) {
 			throw new AlreadyHasExclusionsException(
 			    "ThrowableSet.add(RefType): adding" + e.toString() 
@@ -540,8 +651,7 @@ public final class ThrowableSet {
 		    }
 		}
 
-		for (Iterator i = exceptionsIncluded.iterator(); i.hasNext() ; ) {
-		    RefLikeType incumbent = (RefLikeType) i.next();
+		for (RefLikeType incumbent : includedTypes) {
 		    if (incumbent instanceof AnySubType) {
 			// Need to use incumbent.getBase() because
 			// hierarchy.canStoreType() assumes that parent
@@ -558,10 +668,11 @@ public final class ThrowableSet {
 							" is neither a RefType nor an AnySubType.");
 		    }
 		}
-		Set  resultSet = new HashSet(this.exceptionsIncluded);
+		List<RefLikeType> resultSet = new ArrayList<RefLikeType>(includedTypes.length + 1);
+		Collections.addAll(resultSet, includedTypes);
 		resultSet.add(e);
 		result = Manager.v().registerSetIfNew(resultSet, 
-						      this.exceptionsExcluded);
+						      Arrays.asList(this.excludedTypes));
 		memoizedAdds.put(e, result);
 		return result;
 	    }
@@ -616,7 +727,7 @@ public final class ThrowableSet {
 	    Manager.v().addsOfAnySubType++;
 	}
 
-	ThrowableSet result = getMemoizedAdds(e);
+	ThrowableSet result = memoizedAdds.get(e);
 	if (result != null) {
 	    if (INSTRUMENTING) {
 		Manager.v().addsInclusionFromMemo++;
@@ -628,14 +739,14 @@ public final class ThrowableSet {
 	    RefType newBase = e.getBase(); 
 
 	    if (INSTRUMENTING) {
-		if (exceptionsExcluded.size() != 0) {
+		if (excludedTypes.length != 0) {
 		    Manager.v().addsExclusionWithSearch++;
 		} else {
 		    Manager.v().addsExclusionWithoutSearch++;
 		}
 	    }
-	    for (Iterator i = exceptionsExcluded.iterator(); i.hasNext(); ) {
-		RefType exclusionBase = ((AnySubType) i.next()).getBase();
+	    for (AnySubType exclusion : excludedTypes) {
+		RefType exclusionBase = exclusion.getBase();
 		if (hierarchy.canStoreType(newBase, exclusionBase)
 		    || hierarchy.canStoreType(exclusionBase, newBase)) {
 		    if (INSTRUMENTING) {
@@ -650,7 +761,7 @@ public final class ThrowableSet {
 		}
 	    }
 
-	    if (this.exceptionsIncluded.contains(e)) {
+	    if (includes(e)) {
 		if (INSTRUMENTING) {
 		    Manager.v().addsInclusionFromMap++;
 		}
@@ -663,10 +774,9 @@ public final class ThrowableSet {
 
 		int changes = 0;
 		boolean addNewException = true;
-		Set  resultSet = new HashSet();
+		List<RefLikeType> resultSet = new ArrayList<RefLikeType>(includedTypes.length + 1);
 
-		for (Iterator i = this.exceptionsIncluded.iterator(); i.hasNext() ; ) {
-		    RefLikeType incumbent = (RefLikeType) i.next();
+		for (RefLikeType incumbent : includedTypes) {
 		    if (incumbent instanceof RefType) {
 			if (hierarchy.canStoreType(incumbent, newBase)) {
 			    // Omit incumbent from result.
@@ -701,7 +811,7 @@ public final class ThrowableSet {
 		}
 		if (changes > 0) {
 		    result = Manager.v().registerSetIfNew(resultSet, 
-							  this.exceptionsExcluded);
+							  Arrays.asList(this.excludedTypes));
 		} else {
 		    result = this;
 		}
@@ -732,16 +842,16 @@ public final class ThrowableSet {
 	if (INSTRUMENTING) {
 	    Manager.v().addsOfSet++;
 	}
-	if (exceptionsExcluded.size() > 0 || s.exceptionsExcluded.size() > 0) {
+	if (excludedTypes.length > 0 || s.excludedTypes.length > 0) {
 	    throw new AlreadyHasExclusionsException("ThrowableSet.Add(ThrowableSet): attempt to add to [" + this.toString() + "] after removals recorded.");
 	}
-	ThrowableSet result = getMemoizedAdds(s);
+	ThrowableSet result = memoizedAdds.get(s);
 	if (result == null) {
 	    if (INSTRUMENTING) {
 		Manager.v().addsInclusionFromSearch++;
 		Manager.v().addsExclusionWithoutSearch++;
 	    }
-	    result = this.add(s.exceptionsIncluded);
+	    result = this.add(s.includedTypes);
 	    memoizedAdds.put(s, result);
 	} else if (INSTRUMENTING) {
 	    Manager.v().addsInclusionFromMemo++;
@@ -756,23 +866,22 @@ public final class ThrowableSet {
      * the exceptions in <code>addedExceptions</code> in addition to those
      * in this <code>ThrowableSet</code>. 
      *
-     * @param addedExceptions a set of {@link RefLikeType} and 
+     * @param addedExceptions the {@link RefLikeType} and 
      * {@link AnySubType} objects to be added to the types included in this
      * <code>ThrowableSet</code>.
      *
      * @return a set containing all the <code>addedExceptions</code> as well
      * as the exceptions in this set.
      */
-    private ThrowableSet add(Set addedExceptions) {
-	Set resultSet = new HashSet(this.exceptionsIncluded);
+    private ThrowableSet add(RefLikeType[] addedExceptions) {
+	Set resultSet = new HashSet(Arrays.asList(this.includedTypes));
 	int changes = 0;
 	FastHierarchy hierarchy = Scene.v().getOrMakeFastHierarchy();
 
 	// This algorithm is O(n m), where n and m are the sizes of the
 	// two sets, so hope that the sets are small.
 
-	for (Iterator i = addedExceptions.iterator(); i.hasNext(); ) {
-	    RefLikeType newType = (RefLikeType) i.next();
+	for (RefLikeType newType : addedExceptions) {
 	    if (! resultSet.contains(newType)) {
 		boolean addNewType = true;
 		if (newType instanceof RefType) {
@@ -840,7 +949,7 @@ public final class ThrowableSet {
 	ThrowableSet result = null;
 	if (changes > 0) {
 	    result = Manager.v().registerSetIfNew(resultSet, 
-						  this.exceptionsExcluded);
+						  Arrays.asList(this.excludedTypes));
 	} else {
 	    result = this;
 	}
@@ -864,23 +973,34 @@ public final class ThrowableSet {
 	    Manager.v().catchableAsQueries++;
 	}
 
+	Boolean result = memoizedCatchableAs.get(catcher);
+	if (result == null) {
+	    result = Boolean.valueOf(searchCatchableAs(catcher));
+	    memoizedCatchableAs.put(catcher, result);
+	} else if (INSTRUMENTING) {
+	    Manager.v().catchableAsFromMemo++;
+	}
+	return result.booleanValue();
+    }
+
+
+    private boolean searchCatchableAs(RefType catcher) {
 	FastHierarchy h = Scene.v().getOrMakeFastHierarchy();
 
-	if (exceptionsExcluded.size() > 0) {
+	if (excludedTypes.length > 0) {
 	    if (INSTRUMENTING) {
 		Manager.v().catchableAsFromSearch++;
 	    }
-	    for (Iterator i = exceptionsExcluded.iterator(); i.hasNext(); ) {
-		AnySubType exclusion = (AnySubType) i.next();
+	    for (AnySubType exclusion : excludedTypes) {
 		if (h.canStoreType(catcher, exclusion.getBase())) {
 		    return false;
 		}
 	    }
 	}
 
-	if (exceptionsIncluded.contains(catcher)) {
+	if (includes(catcher)) {
 	    if (INSTRUMENTING) {
-		if (exceptionsExcluded.size() == 0) {
+		if (excludedTypes.length == 0) {
 		    Manager.v().catchableAsFromMap++;
 		} else {
 		    Manager.v().catchableAsFromSearch++;
@@ -889,12 +1009,11 @@ public final class ThrowableSet {
 	    return true;
 	} else {
 	    if (INSTRUMENTING) {
-		if (exceptionsExcluded.size() == 0) {
+		if (excludedTypes.length == 0) {
 		    Manager.v().catchableAsFromSearch++;
 		}
 	    }
-	    for (Iterator i = exceptionsIncluded.iterator(); i.hasNext(); ) {
-		RefLikeType thrownType = (RefLikeType) i.next();
+	    for (RefLikeType thrownType : includedTypes) {
 		if (thrownType instanceof RefType) {
 		    if (thrownType == catcher) {
 			// assertion failure.
@@ -936,6 +1055,18 @@ public final class ThrowableSet {
 	    Manager.v().removesOfAnySubType++;
 	}
 
+	Pair result = memoizedWhichCatchableAs.get(catcher);
+	if (result == null) {
+	    result = searchWhichCatchableAs(catcher);
+	    memoizedWhichCatchableAs.put(catcher, result);
+	} else if (INSTRUMENTING) {
+	    Manager.v().removesFromMemo++;
+	}
+	return result;
+    }
+
+
+    private Pair searchWhichCatchableAs(RefType catcher) {
 	FastHierarchy h = Scene.v().getOrMakeFastHierarchy();
 	Set caughtIncluded = null;
 	Set caughtExcluded = null;
@@ -946,8 +1077,7 @@ public final class ThrowableSet {
 	    Manager.v().removesFromSearch++;
 	}
 
-	for (Iterator i = exceptionsExcluded.iterator(); i.hasNext(); ) {
-	    AnySubType exclusion = (AnySubType) i.next();
+	for (AnySubType exclusion : excludedTypes) {
 	    RefType exclusionBase = exclusion.getBase();
 	    if (h.canStoreType(catcher, exclusionBase)) {
 		// Because the add() operations ban additions to sets
@@ -955,8 +1085,8 @@ public final class ThrowableSet {
 		// caught by catcher.
 		return new Pair(ThrowableSet.Manager.v().EMPTY, this);
 	    } else if (h.canStoreType(exclusionBase, catcher)) {
-		// exclusion wouldn't be in exceptionsExcluded if one
-		// of its supertypes were not in exceptionsIncluded,
+		// exclusion wouldn't be in excludedTypes if one
+		// of its supertypes were not in includedTypes,
 		// so we know the next loop will add either that supertype 
 		// or catcher to caughtIncluded.  Thus:
 		caughtExcluded = addExceptionToSet(exclusion, caughtExcluded);
@@ -965,8 +1095,7 @@ public final class ThrowableSet {
 	    }
 	}
 
-	for (Iterator i = exceptionsIncluded.iterator(); i.hasNext(); ) {
-	    RefLikeType inclusion = (RefLikeType) i.next();
+	for (RefLikeType inclusion : includedTypes) {
 	    if (inclusion instanceof RefType) {
 		if (h.canStoreType(inclusion, catcher)) {
 		    caughtIncluded = addExceptionToSet(inclusion, caughtIncluded);
@@ -984,7 +1113,7 @@ public final class ThrowableSet {
 		} else if (h.canStoreType(catcher, base)) {
 		    // Some subtypes of base will be caught, and
 		    // we know that not all of those catchable subtypes
-		    // are among exceptionsExcluded, since in that case we
+		    // are among excludedTypes, since in that case we
 		    // would already have returned from within the 
 		    // preceding loop.  So, remove AnySubType(catcher)
 		    // from the uncaught types.
@@ -1114,15 +1243,13 @@ public final class ThrowableSet {
     public String toString() {
 	StringBuffer buffer = new StringBuffer(this.toBriefString());
 	buffer.append(":\n  ");
-	for (Iterator i = exceptionsIncluded.iterator(); i.hasNext(); ) {
+	for (RefLikeType o : includedTypes) {
 	    buffer.append('+');
-	    Object o = i.next();
 	    buffer.append(o == null ? "null" : o.toString());
-	    // buffer.append(i.next().toString());
 	}
-	for (Iterator i = exceptionsExcluded.iterator(); i.hasNext(); ) {
+	for (AnySubType o : excludedTypes) {
 	    buffer.append('-');
-	    buffer.append(i.next().toString());
+	    buffer.append(o.toString());
 	}
 	return buffer.toString();
     }
@@ -1228,8 +1355,8 @@ public final class ThrowableSet {
      * @return An abbreviated representation of the contents of this set.
      */
     public String toAbbreviatedString() {
-	return toAbbreviatedString(exceptionsIncluded, '+') 
-	    + toAbbreviatedString(exceptionsExcluded, '-');
+	return toAbbreviatedString(includedTypes, includedBits, '+') 
+	    + toAbbreviatedString(excludedTypes, excludedBits, '-');
     }
 
 
@@ -1239,18 +1366,22 @@ public final class ThrowableSet {
      * 
      * @param s The exceptions to print.
      *
+     * @param bits The bit vector representing <code>s</code>.
+     *
      * @param connector The character to insert between exceptions.
      *
      * @return An abbreviated representation of the exceptions.
      */
-    private String toAbbreviatedString(Set s, char connector) {
+    private String toAbbreviatedString(RefLikeType[] s, BitSet bits, char connector) {
 	final String JAVA_LANG = "java.lang.";
 	final int JAVA_LANG_LENGTH = JAVA_LANG.length();
 	final String EXCEPTION = "Exception";
 	final  int EXCEPTION_LENGTH = EXCEPTION.length();
 
-	Collection vmErrorThrowables = ThrowableSet.Manager.v().VM_ERRORS.exceptionsIncluded;
-	boolean containsAllVmErrors = s.containsAll(vmErrorThrowables);
+	ThrowableSet vmErrorThrowables = ThrowableSet.Manager.v().VM_ERRORS;
+	BitSet missingVmErrors = (BitSet) vmErrorThrowables.includedBits.clone();
+	missingVmErrors.andNot(bits);
+	boolean containsAllVmErrors = missingVmErrors.isEmpty();
 	StringBuffer buf = new StringBuffer();
 
 	if (containsAllVmErrors) {
@@ -1258,12 +1389,12 @@ public final class ThrowableSet {
 	    buf.append("vmErrors");
 	}
 
-	for (Iterator it = sortedThrowableIterator(s); it.hasNext(); ) {
+	for (Iterator it = sortedThrowableIterator(Arrays.asList(s)); it.hasNext(); ) {
 	    RefLikeType reflikeType = (RefLikeType) it.next();
 	    RefType baseType = null;
 	    if (reflikeType instanceof RefType) {
 		baseType = (RefType)reflikeType;
-		if (vmErrorThrowables.contains(baseType) && containsAllVmErrors) {
+		if (vmErrorThrowables.includes(baseType) && containsAllVmErrors) {
 		    continue;		// Already accounted for vmErrors.
 		} else {
 		    buf.append(connector);
@@ -1303,7 +1434,7 @@ public final class ThrowableSet {
 
 	    public Iterator iterator() {
 		return new Iterator() {
-		    private final Iterator i = exceptionsIncluded.iterator();
+		    private final Iterator i = Arrays.asList(includedTypes).iterator();
 
 		    public boolean hasNext() {
 			return i.hasNext();
@@ -1320,7 +1451,7 @@ public final class ThrowableSet {
 	    }
 
 	    public int size() {
-		return exceptionsIncluded.size();
+		return includedTypes.length;
 	    }
 	};
     }
@@ -1339,7 +1470,7 @@ public final class ThrowableSet {
 
 	    public Iterator iterator() {
 		return new Iterator() {
-		    private final Iterator i = exceptionsExcluded.iterator();
+		    private final Iterator i = Arrays.asList(excludedTypes).iterator();
 
 		    public boolean hasNext() {
 			return i.hasNext();
@@ -1356,7 +1487,7 @@ public final class ThrowableSet {
 	    }
 
 	    public int size() {
-		return exceptionsExcluded.size();
+		return excludedTypes.length;
 	    }
 	};
     }
@@ -1367,10 +1498,6 @@ public final class ThrowableSet {
      * ThrowableSet's internals.
      */
     Map getMemoizedAdds() {
-	if (memoizedAdds == null) {
-	    return Collections.EMPTY_MAP;
-	} else {
-	    return Collections.unmodifiableMap(memoizedAdds);
-	}
+	return Collections.unmodifiableMap(memoizedAdds);
     }
 }
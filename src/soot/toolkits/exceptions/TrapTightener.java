@@ -31,6 +31,7 @@ import soot.Unit;
 import soot.options.Options;
 import soot.util.Chain;
 import soot.toolkits.graph.ExceptionalUnitGraph;
+import soot.toolkits.scalar.BodyAnalysisManager;
 
 /**
  * A {@link BodyTransformer} that shrinks the protected area covered
@@ -61,7 +62,8 @@ public final class TrapTightener extends BodyTransformer {
 	Chain trapChain = body.getTraps();
 	Chain unitChain = body.getUnits();
 	if (trapChain.size() > 0) {
-	    ExceptionalUnitGraph graph = new ExceptionalUnitGraph(body);
+	    BodyAnalysisManager analyses = body.getAnalysisManager();
+	    ExceptionalUnitGraph graph = analyses.getUnitGraph();
 
 	    for (Iterator trapIt = trapChain.iterator(); trapIt.hasNext(); ) {
 		Trap trap = (Trap) trapIt.next();
@@ -91,12 +93,14 @@ public final class TrapTightener extends BodyTransformer {
 		if (firstTrappedThrower != null &&
 		    firstTrappedUnit != firstTrappedThrower) {
 		    trap.setBeginUnit(firstTrappedThrower);
+		    analyses.invalidate();
 		}
 		if (lastTrappedThrower == null) {
 		    lastTrappedThrower = firstTrappedUnit;
 		}
 		if (lastTrappedUnit != lastTrappedThrower) {
 		    trap.setEndUnit((Unit) unitChain.getSuccOf(lastTrappedThrower));
+		    analyses.invalidate();
 		}
 	    }
 	}
@@ -20,6 +20,9 @@
 package soot.toolkits.exceptions;
 
 import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import soot.*;
 import soot.jimple.*;
 import soot.grimp.*;
@@ -38,6 +41,16 @@ import soot.grimp.*;
  * examined, a test case can override the mightThrow(SootMethod)
  * with an implementation which returns the empty set instead of
  * all possible exceptions.
+ *
+ * <p>Units are frequently analyzed again, e.g. whenever an
+ * {@link soot.toolkits.graph.ExceptionalUnitGraph} of a body is rebuilt.
+ * Units are modified in place, though, so results can't be cached per
+ * unit. Instead, the results for statements whose exceptions don't depend
+ * on the types or constant values of their operands are cached by the
+ * statement's shape, i.e. the classes of the statement and its immediate
+ * sub-values. The cache is only used by <code>UnitThrowAnalysis</code>
+ * itself, not by subclasses which may override the
+ * <code>mightThrow</code> methods.
  */
 public class UnitThrowAnalysis extends AbstractThrowAnalysis {
 
@@ -47,6 +60,22 @@ public class UnitThrowAnalysis extends AbstractThrowAnalysis {
 	.add(ThrowableSet.Manager.v().NULL_POINTER_EXCEPTION)
 	.add(ThrowableSet.Manager.v().ILLEGAL_MONITOR_STATE_EXCEPTION);
 
+    /**
+     * Results by statement shape, or <code>null</code> for subclasses.
+     */
+    private final Map<Shape, ThrowableSet> shapeToResult 
+	= getClass() == UnitThrowAnalysis.class 
+	? new ConcurrentHashMap<Shape, ThrowableSet>() : null;
+
+    /**
+     * The <code>UnitSwitch</code> of each thread, reused for every unit.
+     */
+    private final ThreadLocal<UnitSwitch> unitSwitches = new ThreadLocal<UnitSwitch>() {
+	protected UnitSwitch initialValue() {
+	    return new UnitSwitch();
+	}
+    };
+
     /**
      * Constructs a <code>UnitThrowAnalysis</code> for inclusion in 
      * Soot's global variable manager, {@link G}.
@@ -70,12 +99,124 @@ public class UnitThrowAnalysis extends AbstractThrowAnalysis {
 
 
     public ThrowableSet mightThrow(Unit u) {
-	UnitSwitch sw = new UnitSwitch();
+	Shape shape = shapeToResult == null ? null : shapeOf(u);
+	if (shape != null) {
+	    ThrowableSet result = shapeToResult.get(shape);
+	    if (result == null) {
+		result = analyze(u);
+		shapeToResult.put(shape, result);
+	    }
+	    return result;
+	}
+	return analyze(u);
+    }
+
+
+    private ThrowableSet analyze(Unit u) {
+	UnitSwitch sw = unitSwitches.get();
+	sw.result = sw.mgr.VM_ERRORS;
 	u.apply(sw);
 	return sw.getResult();
     }
 
 
+    /**
+     * Returns the shape of the specified unit, or <code>null</code> if
+     * the exceptions it might throw depend on more than its shape.
+     */
+    private static Shape shapeOf(Unit u) {
+	if (u instanceof AssignStmt) {
+	    Value lhs = ((AssignStmt) u).getLeftOp();
+	    Value rhs = ((AssignStmt) u).getRightOp();
+	    // The exceptions of aastore, casts, divisions and array
+	    // allocations depend on types or constant values. Invocations
+	    // must resolve their methods each time.
+	    if (lhs instanceof ArrayRef || rhs instanceof CastExpr 
+		|| rhs instanceof InvokeExpr 
+		|| rhs instanceof DivExpr || rhs instanceof RemExpr
+		|| rhs instanceof NewArrayExpr || rhs instanceof NewMultiArrayExpr
+		|| !hasImmediateOperands(lhs) || !hasImmediateOperands(rhs)) {
+		return null;
+	    }
+	    return new Shape(u.getClass(), lhs.getClass(), rhs.getClass());
+	} else if (u instanceof ThrowStmt || u instanceof InvokeStmt) {
+	    return null;
+	}
+	Value op = null;
+	if (u instanceof IfStmt) {
+	    op = ((IfStmt) u).getCondition();
+	} else if (u instanceof ReturnStmt) {
+	    op = ((ReturnStmt) u).getOp();
+	} else if (u instanceof EnterMonitorStmt) {
+	    op = ((EnterMonitorStmt) u).getOp();
+	} else if (u instanceof ExitMonitorStmt) {
+	    op = ((ExitMonitorStmt) u).getOp();
+	} else if (u instanceof LookupSwitchStmt) {
+	    op = ((LookupSwitchStmt) u).getKey();
+	} else if (u instanceof TableSwitchStmt) {
+	    op = ((TableSwitchStmt) u).getKey();
+	} else if (!(u instanceof IdentityStmt || u instanceof GotoStmt 
+		     || u instanceof NopStmt || u instanceof ReturnVoidStmt 
+		     || u instanceof BreakpointStmt || u instanceof RetStmt)) {
+	    return null;
+	}
+	if (op != null && !hasImmediateOperands(op)) {
+	    return null;
+	}
+	return new Shape(u.getClass(), op == null ? null : op.getClass(), null);
+    }
+
+
+    /**
+     * Returns whether all values used by the specified value are
+     * immediates, which never add any exceptions.
+     */
+    private static boolean hasImmediateOperands(Value v) {
+	if (v instanceof Immediate) {
+	    return true;
+	}
+	for (Object box : v.getUseBoxes()) {
+	    if (!(((ValueBox) box).getValue() instanceof Immediate)) {
+		return false;
+	    }
+	}
+	return true;
+    }
+
+
+    /**
+     * The classes of a statement and of up to two of its sub-values.
+     */
+    private static final class Shape {
+	private final Class<?> unit;
+	private final Class<?> op1;
+	private final Class<?> op2;
+	private final int hashCode;
+
+	Shape(Class<?> unit, Class<?> op1, Class<?> op2) {
+	    this.unit = unit;
+	    this.op1 = op1;
+	    this.op2 = op2;
+	    int h = unit.hashCode();
+	    h = 31 * h + (op1 == null ? 0 : op1.hashCode());
+	    h = 31 * h + (op2 == null ? 0 : op2.hashCode());
+	    this.hashCode = h;
+	}
+
+	public boolean equals(Object o) {
+	    if (!(o instanceof Shape)) {
+		return false;
+	    }
+	    Shape s = (Shape) o;
+	    return unit == s.unit && op1 == s.op1 && op2 == s.op2;
+	}
+
+	public int hashCode() {
+	    return hashCode;
+	}
+    }
+
+
 	
     
     public ThrowableSet mightThrowImplicitly(ThrowStmt t) {
@@ -84,6 +225,10 @@ public class UnitThrowAnalysis extends AbstractThrowAnalysis {
 	
     
     ThrowableSet mightThrow(Value v) {
+	if (v instanceof Immediate) {
+	    // Locals and constants can only throw asynchronous errors.
+	    return ThrowableSet.Manager.v().VM_ERRORS;
+	}
 	ValueSwitch sw = new ValueSwitch();
 	v.apply(sw);
 	return sw.getResult();
@@ -113,10 +258,10 @@ public class UnitThrowAnalysis extends AbstractThrowAnalysis {
 
     protected class UnitSwitch implements /*InstSwitch,*/ StmtSwitch {
 
-	private final ThrowableSet.Manager mgr = ThrowableSet.Manager.v();
+	final ThrowableSet.Manager mgr = ThrowableSet.Manager.v();
 
 	// Asynchronous errors are always possible:
-	private ThrowableSet result = mgr.VM_ERRORS;
+	ThrowableSet result = mgr.VM_ERRORS;
 	
 	ThrowableSet getResult() {
 	    return result;
@@ -0,0 +1,326 @@
+/*
+ * Copyright (C) 2014 RoboVM AB
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/gpl-2.0.html>.
+ */
+package soot.toolkits.graph;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+
+import soot.Body;
+import soot.Timers;
+import soot.Unit;
+import soot.UnitBox;
+import soot.options.Options;
+
+/**
+ * {@link UnitGraph} which numbers its {@link Unit}s densely and stores the
+ * edges in compressed int arrays instead of maps of lists.
+ * <p>
+ * The {@link Unit}s are numbered from 0 to <code>size() - 1</code> in the
+ * order of the body's unit chain. Besides the {@link DirectedGraph} methods
+ * the graph provides index based accessors which don't need any hashing or
+ * allocation, e.g. {@link #getSuccCount(int)} and {@link #getSucc(int, int)}.
+ * <p>
+ * A graph can be built directly from a {@link Body}, in which case it
+ * contains the same edges as a {@link BriefUnitGraph}, or copied from any
+ * other {@link UnitGraph}, e.g. an {@link ExceptionalUnitGraph}. The copy
+ * keeps the order of the other graph's nodes, edges, heads and tails.
+ */
+public class DenseUnitGraph extends UnitGraph {
+    private final Unit[] units;
+    private final Map<Unit, Integer> unitToIndex;
+    private final int[] succStarts;
+    private final int[] succs;
+    private final int[] predStarts;
+    private final int[] preds;
+    private final int[] headIndices;
+    private final int[] tailIndices;
+
+    /**
+     * Constructs a graph of the specified body without any edges for
+     * exceptional control flow.
+     */
+    public DenseUnitGraph(Body body) {
+        super(body);
+
+        if (Options.v().time()) {
+            Timers.v().graphTimer.start();
+        }
+
+        int n = unitChain.size();
+        units = unitChain.toArray(new Unit[n]);
+        unitToIndex = index(units);
+
+        succStarts = new int[n + 1];
+        int[] edges = new int[n + 8];
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            succStarts[i] = count;
+            Unit u = units[i];
+            if (u.fallsThrough() && i + 1 < n) {
+                edges = add(edges, count++, i + 1);
+            }
+            if (u.branches()) {
+                for (UnitBox box : u.getUnitBoxes()) {
+                    int target = unitToIndex.get(box.getUnit());
+                    // Arbitrary bytecode can branch to the same
+                    // target it falls through to, so we screen for duplicates:
+                    if (!contains(edges, succStarts[i], count, target)) {
+                        edges = add(edges, count++, target);
+                    }
+                }
+            }
+        }
+        succStarts[n] = count;
+        succs = Arrays.copyOf(edges, count);
+
+        predStarts = new int[n + 1];
+        preds = new int[count];
+        invert(succStarts, succs, predStarts, preds);
+
+        int[] tmp = new int[n + 1];
+        int tailCount = 0;
+        for (int i = 0; i < n; i++) {
+            if (succStarts[i] == succStarts[i + 1]) {
+                tmp[tailCount++] = i;
+            }
+        }
+        tailIndices = Arrays.copyOf(tmp, tailCount);
+        int headCount = 0;
+        for (int i = 0; i < n; i++) {
+            if (predStarts[i] == predStarts[i + 1]) {
+                tmp[headCount++] = i;
+            }
+        }
+        // Add the first Unit, even if it is the target of a branch.
+        if (n > 0 && predStarts[0] != predStarts[1]) {
+            tmp[headCount++] = 0;
+        }
+        headIndices = Arrays.copyOf(tmp, headCount);
+        initHeadsAndTails();
+
+        if (Options.v().time()) {
+            Timers.v().graphTimer.end();
+        }
+    }
+
+    /**
+     * Constructs a copy of the specified graph.
+     */
+    public DenseUnitGraph(UnitGraph graph) {
+        super(graph.getBody());
+
+        int n = graph.size();
+        units = new Unit[n];
+        int i = 0;
+        for (Iterator<Unit> it = graph.iterator(); it.hasNext();) {
+            units[i++] = it.next();
+        }
+        unitToIndex = index(units);
+
+        succStarts = new int[n + 1];
+        predStarts = new int[n + 1];
+        int succCount = 0;
+        int predCount = 0;
+        for (i = 0; i < n; i++) {
+            succStarts[i] = succCount;
+            predStarts[i] = predCount;
+            succCount += graph.getSuccsOf(units[i]).size();
+            predCount += graph.getPredsOf(units[i]).size();
+        }
+        succStarts[n] = succCount;
+        predStarts[n] = predCount;
+        succs = new int[succCount];
+        preds = new int[predCount];
+        for (i = 0; i < n; i++) {
+            toIndices(graph.getSuccsOf(units[i]), succs, succStarts[i]);
+            toIndices(graph.getPredsOf(units[i]), preds, predStarts[i]);
+        }
+        headIndices = toIndices(graph.getHeads(), new int[graph.getHeads().size()], 0);
+        tailIndices = toIndices(graph.getTails(), new int[graph.getTails().size()], 0);
+        initHeadsAndTails();
+    }
+
+    private static Map<Unit, Integer> index(Unit[] units) {
+        Map<Unit, Integer> result = new HashMap<Unit, Integer>(units.length * 2 + 1, 0.7f);
+        for (int i = 0; i < units.length; i++) {
+            result.put(units[i], i);
+        }
+        return result;
+    }
+
+    private static int[] add(int[] a, int index, int value) {
+        if (index == a.length) {
+            a = Arrays.copyOf(a, a.length * 2);
+        }
+        a[index] = value;
+        return a;
+    }
+
+    private static boolean contains(int[] a, int from, int to, int value) {
+        for (int i = from; i < to; i++) {
+            if (a[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Fills in the reverse edges of the specified edges. The sources of each
+     * reverse edge are ordered by index.
+     */
+    private static void invert(int[] starts, int[] edges, int[] reverseStarts, int[] reverseEdges) {
+        int n = starts.length - 1;
+        for (int e : edges) {
+            reverseStarts[e + 1]++;
+        }
+        for (int i = 0; i < n; i++) {
+            reverseStarts[i + 1] += reverseStarts[i];
+        }
+        int[] next = Arrays.copyOf(reverseStarts, n);
+        for (int i = 0; i < n; i++) {
+            for (int j = starts[i]; j < starts[i + 1]; j++) {
+                reverseEdges[next[edges[j]]++] = i;
+            }
+        }
+    }
+
+    private int[] toIndices(List<Unit> l, int[] result, int offset) {
+        for (Unit u : l) {
+            result[offset++] = getIndexOf(u);
+        }
+        return result;
+    }
+
+    private void initHeadsAndTails() {
+        heads = Collections.unmodifiableList(new UnitList(headIndices, 0, headIndices.length));
+        tails = Collections.unmodifiableList(new UnitList(tailIndices, 0, tailIndices.length));
+    }
+
+    /**
+     * Returns the index of the specified {@link Unit} or <code>-1</code> if
+     * it isn't part of this graph.
+     */
+    public int getIndexOf(Unit u) {
+        Integer index = unitToIndex.get(u);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * Returns the {@link Unit} with the specified index.
+     */
+    public Unit getUnit(int index) {
+        return units[index];
+    }
+
+    public int getSuccCount(int index) {
+        return succStarts[index + 1] - succStarts[index];
+    }
+
+    /**
+     * Returns the index of the <code>n</code>th successor of the
+     * {@link Unit} with the specified index.
+     */
+    public int getSucc(int index, int n) {
+        return succs[succStarts[index] + n];
+    }
+
+    public int getPredCount(int index) {
+        return predStarts[index + 1] - predStarts[index];
+    }
+
+    /**
+     * Returns the index of the <code>n</code>th predecessor of the
+     * {@link Unit} with the specified index.
+     */
+    public int getPred(int index, int n) {
+        return preds[predStarts[index] + n];
+    }
+
+    /**
+     * Returns the indices of the heads of this graph. The returned array
+     * must not be modified.
+     */
+    public int[] getHeadIndices() {
+        return headIndices;
+    }
+
+    /**
+     * Returns the indices of the tails of this graph. The returned array
+     * must not be modified.
+     */
+    public int[] getTailIndices() {
+        return tailIndices;
+    }
+
+    public List<Unit> getPredsOf(Unit u) {
+        int index = getIndexOf(u);
+        if (index == -1) {
+            throw new NoSuchElementException("Invalid unit " + u);
+        }
+        return new UnitList(preds, predStarts[index], predStarts[index + 1]);
+    }
+
+    public List<Unit> getSuccsOf(Unit u) {
+        int index = getIndexOf(u);
+        if (index == -1) {
+            throw new RuntimeException("Invalid unit " + u);
+        }
+        return new UnitList(succs, succStarts[index], succStarts[index + 1]);
+    }
+
+    public int size() {
+        return units.length;
+    }
+
+    public Iterator<Unit> iterator() {
+        return Collections.unmodifiableList(Arrays.asList(units)).iterator();
+    }
+
+    /**
+     * Unmodifiable view of a range of one of the edge arrays.
+     */
+    private class UnitList extends AbstractList<Unit> implements RandomAccess {
+        private final int[] indices;
+        private final int from;
+        private final int to;
+
+        UnitList(int[] indices, int from, int to) {
+            this.indices = indices;
+            this.from = from;
+            this.to = to;
+        }
+
+        public Unit get(int i) {
+            if (i < 0 || i >= to - from) {
+                throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + (to - from));
+            }
+            return units[indices[from + i]];
+        }
+
+        public int size() {
+            return to - from;
+        }
+    }
+}
@@ -72,6 +72,11 @@ public class MHGDominatorsFinder<N> implements DominatorsFinder<N>
         //build full set
         fullSet = new BitSet(graph.size());
         fullSet.flip(0, graph.size());//set all to true
+
+        if(graph instanceof DenseUnitGraph){
+            doAnalysis((DenseUnitGraph) graph);
+            return;
+        }
         
         //set up domain for intersection: head nodes are only dominated by themselves,
         //other nodes are dominated by everything else
@@ -115,6 +120,55 @@ public class MHGDominatorsFinder<N> implements DominatorsFinder<N>
         } while(changed);
     }
     
+    /**
+     * Variant of {@link #doAnalysis()} iterating over the indices of a
+     * {@link DenseUnitGraph}. Nodes get the same bits as in the generic
+     * variant: heads first, then all other nodes in graph order.
+     */
+    @SuppressWarnings("unchecked")
+    private void doAnalysis(DenseUnitGraph g)
+    {
+        int n = g.size();
+        boolean[] isHead = new boolean[n];
+        for(int h : g.getHeadIndices())
+            isHead[h] = true;
+        int[] bits = new int[n];
+        for(int i = 0; i < n; i++)
+            if(isHead[i]) bits[i] = indexOf((N) g.getUnit(i));
+        for(int i = 0; i < n; i++)
+            if(!isHead[i]) bits[i] = indexOf((N) g.getUnit(i));
+
+        BitSet[] flowSets = new BitSet[n];
+        for(int i = 0; i < n; i++){
+            if(isHead[i]){
+                flowSets[i] = new BitSet();
+                flowSets[i].set(bits[i]);
+            }
+            else{
+                flowSets[i] = fullSet;
+            }
+        }
+
+        boolean changed;
+        do{
+            changed = false;
+            for(int i = 0; i < n; i++){
+                if(isHead[i]) continue;
+                BitSet predsIntersect = (BitSet) fullSet.clone();
+                for(int j = 0, count = g.getPredCount(i); j < count; j++)
+                    predsIntersect.and(flowSets[g.getPred(i, j)]);
+                predsIntersect.set(bits[i]);
+                if(!predsIntersect.equals(flowSets[i])){
+                    flowSets[i] = predsIntersect;
+                    changed = true;
+                }
+            }
+        } while(changed);
+
+        for(int i = 0; i < n; i++)
+            nodeToFlowSet.put((N) g.getUnit(i), flowSets[i]);
+    }
+
     protected int indexOf(N o) {
         Integer index = nodeToIndex.get(o);
         if(index==null) {
@@ -75,6 +75,9 @@ public class PseudoTopologicalOrderer<N> implements Orderer<N> {
 	 */
 	@SuppressWarnings("unchecked")
 	protected List<N> computeOrder(DirectedGraph<N> g) {
+		if (g instanceof DenseUnitGraph) {
+			return computeOrder((DenseUnitGraph) g);
+		}
 		stmtToColor = new IdentityHashMap<Object, Object>((3 * g.size()) / 2);//new HashMap((3 * g.size()) / 2, 0.7f);
 		indexStack = new int[g.size()];
 		stmtStack = (N[]) new Object[g.size()];
@@ -96,6 +99,48 @@ public class PseudoTopologicalOrderer<N> implements Orderer<N> {
 		return order;
 	}
 
+	/**
+	 * Variant of {@link #computeOrder(DirectedGraph)} using the indices of a
+	 * {@link DenseUnitGraph} instead of a color map.
+	 */
+	@SuppressWarnings("unchecked")
+	private List<N> computeOrder(DenseUnitGraph g) {
+		int n = g.size();
+		boolean[] visited = new boolean[n];
+		int[] nodeStack = new int[n];
+		int[] succStack = new int[n];
+		order = new LinkedList<N>();
+
+		for (int start = 0; start < n; start++) {
+			if (visited[start])
+				continue;
+			visited[start] = true;
+			int top = 0;
+			nodeStack[top] = start;
+			succStack[top++] = -1;
+			while (top > 0) {
+				int toVisitIndex = ++succStack[top - 1];
+				int toVisitNode = nodeStack[top - 1];
+				if (toVisitIndex >= g.getSuccCount(toVisitNode)) {
+					// Visit this node now that we ran out of children
+					if (mIsReversed)
+						order.addLast((N) g.getUnit(toVisitNode));
+					else
+						order.addFirst((N) g.getUnit(toVisitNode));
+					top--;
+				} else {
+					int childNode = g.getSucc(toVisitNode, toVisitIndex);
+					if (!visited[childNode]) {
+						visited[childNode] = true;
+						nodeStack[top] = childNode;
+						succStack[top++] = -1;
+					}
+				}
+			}
+		}
+		return order;
+	}
+
 	// Unfortunately, the nice recursive solution fails
 	// because of stack overflows
 
@@ -26,10 +26,10 @@
 
 package soot.toolkits.scalar;
 
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Comparator;
-import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeSet;
@@ -60,139 +60,140 @@ public abstract class BackwardFlowAnalysis<N,A> extends FlowAnalysis<N,A>
         return false;
     }
 
+    @SuppressWarnings("unchecked")
     protected void doAnalysis()
     {
-        final Map<N, Integer> numbers = new HashMap<N, Integer>();
         List<N> orderedUnits = constructOrderer().newList(graph,true);
-        int i = 1;
-        for( Iterator<N> uIt = orderedUnits.iterator(); uIt.hasNext(); ) {
-            final N u = uIt.next();
-            numbers.put(u, new Integer(i));
-            i++;
-        }
-
-        Collection<N> changedUnits = constructWorklist(numbers);
-
-
-        // Set initial Flows and nodes to visit.
-        {
-            Iterator<N> it = graph.iterator();
-
-            while(it.hasNext())
-            {
-                N s = it.next();
-
-                changedUnits.add(s);
 
-                unitToBeforeFlow.put(s, newInitialFlow());
-                unitToAfterFlow.put(s, newInitialFlow());
-            }
+        // Number the nodes densely in iteration order once so that the
+        // fixed point iteration doesn't have to hash them.
+        List<N> nodes = new ArrayList<N>(graph.size());
+        Map<N, Integer> numbers = numberNodes(orderedUnits, nodes);
+        int numNodes = nodes.size();
+        int[][] preds = edgesToNumbers(nodes, numbers, true);
+        int[][] succs = edgesToNumbers(nodes, numbers, false);
+        boolean[] isTail = toMembership(graph.getTails(), numbers, numNodes);
+        A[] beforeFlows = (A[]) new Object[numNodes];
+        A[] afterFlows = (A[]) new Object[numNodes];
+
+        // Set initial Flows and nodes to visit. The worklist always yields
+        // the lowest numbered node first.
+        BitSet changedUnits = new BitSet(numNodes);
+        changedUnits.set(0, numNodes);
+        for (int i = 0; i < numNodes; i++) {
+            beforeFlows[i] = newInitialFlow();
+            afterFlows[i] = newInitialFlow();
         }
 
-        List<N> tails = graph.getTails();
-        
         // Feng Qian: March 07, 2002
         // init entry points
-        {
-            Iterator<N> it = tails.iterator();
-            
-            while (it.hasNext()) {
-                N s = it.next();
+        for (int i = 0; i < numNodes; i++) {
+            if (isTail[i]) {
                 // this is a backward flow analysis
-                unitToAfterFlow.put(s, entryInitialFlow());
+                afterFlows[i] = entryInitialFlow();
             }
         }
 
+        for (int i = 0; i < numNodes; i++) {
+            unitToBeforeFlow.put(nodes.get(i), beforeFlows[i]);
+            unitToAfterFlow.put(nodes.get(i), afterFlows[i]);
+        }
+
+        boolean interactive = Options.v().interactive_mode();
+
         // Perform fixed point flow analysis
         {
             A previousBeforeFlow = newInitialFlow();
 
-            while(!changedUnits.isEmpty())
+            int i = changedUnits.nextSetBit(0);
+            while (i >= 0)
             {
-                A beforeFlow;
-                A afterFlow;
-
-                //get the first object
-                N s = changedUnits.iterator().next();
-                changedUnits.remove(s);
-                boolean isTail = tails.contains(s);
+                changedUnits.clear(i);
+                N s = nodes.get(i);
+                A beforeFlow = beforeFlows[i];
+                A afterFlow = afterFlows[i];
 
-                copy(unitToBeforeFlow.get(s), previousBeforeFlow);
+                copy(beforeFlow, previousBeforeFlow);
 
                 // Compute and store afterFlow
                 {
-                    List<N> succs = graph.getSuccsOf(s);
+                    int[] p = succs[i];
 
-                    afterFlow =  unitToAfterFlow.get(s);
-
-                    if(succs.size() == 1)
-                        copy(unitToBeforeFlow.get(succs.get(0)), afterFlow);
-                    else if(succs.size() != 0)
+                    if(p.length == 1)
+                        copy(beforeFlows[p[0]], afterFlow);
+                    else if(p.length != 0)
                     {
-                        Iterator<N> succIt = succs.iterator();
-
-                        copy(unitToBeforeFlow.get(succIt.next()), afterFlow);
+                        copy(beforeFlows[p[0]], afterFlow);
 
-                        while(succIt.hasNext())
-                        {
-                            A otherBranchFlow = unitToBeforeFlow.get(succIt.next());
-                            mergeInto(s, afterFlow, otherBranchFlow);
-                        }
+                        for(int j = 1; j < p.length; j++)
+                            mergeInto(s, afterFlow, beforeFlows[p[j]]);
 
-                        if(isTail && succs.size() != 0)
+                        if(isTail[i])
                             mergeInto(s, afterFlow, entryInitialFlow());
                     }
                 }
 
                 // Compute beforeFlow and store it.
+                if (interactive)
+                    beforeFlowThrough(s, afterFlow);
+                flowThrough(afterFlow, s, beforeFlow);
+                if (interactive)
+                    afterFlowThrough(s, beforeFlow);
+
+                // Update queue appropriately. All nodes numbered lower than
+                // the current one are known not to be queued.
+                int lowest = i + 1;
+                if(!beforeFlow.equals(previousBeforeFlow))
                 {
-                    beforeFlow = unitToBeforeFlow.get(s);
-                    if (Options.v().interactive_mode()){
-                        A savedFlow = newInitialFlow();
-                        if (filterUnitToAfterFlow != null){
-                            savedFlow = filterUnitToAfterFlow.get(s);
-                            copy(filterUnitToAfterFlow.get(s), savedFlow);
-                        }
-                        else {
-                            copy(afterFlow, savedFlow);
-                        }
-                        FlowInfo fi = new FlowInfo(savedFlow, s, false);
-                        if (InteractionHandler.v().getStopUnitList() != null && InteractionHandler.v().getStopUnitList().contains(s)){
-                            InteractionHandler.v().handleStopAtNodeEvent(s);
-                        }
-                        InteractionHandler.v().handleAfterAnalysisEvent(fi);
-                    }
-                    flowThrough(afterFlow, s, beforeFlow);
-                    if (Options.v().interactive_mode()){
-                        A bSavedFlow = newInitialFlow();
-                        if (filterUnitToBeforeFlow != null){
-                            bSavedFlow = filterUnitToBeforeFlow.get(s);
-                            copy(filterUnitToBeforeFlow.get(s), bSavedFlow);
-                        }
-                        else {
-                            copy(beforeFlow, bSavedFlow);
-                        }
-                        FlowInfo fi = new FlowInfo(bSavedFlow, s, true);
-                        InteractionHandler.v().handleBeforeAnalysisEvent(fi);
+                    for (int pred : preds[i]) {
+                        changedUnits.set(pred);
+                        if (pred < lowest)
+                            lowest = pred;
                     }
                 }
-
-                // Update queue appropriately
-                    if(!beforeFlow.equals(previousBeforeFlow))
-                    {
-                        Iterator<N> predIt = graph.getPredsOf(s).iterator();
-
-                        while(predIt.hasNext())
-                        {
-                            N pred = predIt.next();
-                            
-                            changedUnits.add(pred);
-                        }
-                    }
+                i = changedUnits.nextSetBit(lowest);
             }
         }
     }
-    
+
+    private void beforeFlowThrough(N s, A afterFlow)
+    {
+        A savedFlow = newInitialFlow();
+        if (filterUnitToAfterFlow != null){
+            savedFlow = filterUnitToAfterFlow.get(s);
+            copy(filterUnitToAfterFlow.get(s), savedFlow);
+        }
+        else {
+            copy(afterFlow, savedFlow);
+        }
+        FlowInfo fi = new FlowInfo(savedFlow, s, false);
+        if (InteractionHandler.v().getStopUnitList() != null && InteractionHandler.v().getStopUnitList().contains(s)){
+            InteractionHandler.v().handleStopAtNodeEvent(s);
+        }
+        InteractionHandler.v().handleAfterAnalysisEvent(fi);
+    }
+
+    private void afterFlowThrough(N s, A beforeFlow)
+    {
+        A bSavedFlow = newInitialFlow();
+        if (filterUnitToBeforeFlow != null){
+            bSavedFlow = filterUnitToBeforeFlow.get(s);
+            copy(filterUnitToBeforeFlow.get(s), bSavedFlow);
+        }
+        else {
+            copy(beforeFlow, bSavedFlow);
+        }
+        FlowInfo fi = new FlowInfo(bSavedFlow, s, true);
+        InteractionHandler.v().handleBeforeAnalysisEvent(fi);
+    }
+
+    /**
+     * @deprecated The worklist is no longer a {@link Collection}; the
+     *             fixed point iteration always visits the changed node
+     *             which comes first in the order returned by
+     *             {@link #constructOrderer()}. This method isn't called.
+     */
+    @Deprecated
 	protected Collection<N> constructWorklist(final Map<N, Integer> numbers) {
 		return new TreeSet<N>( new Comparator<N>() {
             public int compare(N o1, N o2) {
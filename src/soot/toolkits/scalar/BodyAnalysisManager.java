@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2014 RoboVM AB
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/gpl-2.0.html>.
+ */
+package soot.toolkits.scalar;
+
+import soot.Body;
+import soot.toolkits.graph.DenseUnitGraph;
+import soot.toolkits.graph.ExceptionalUnitGraph;
+
+/**
+ * Per-{@link Body} cache of the {@link ExceptionalUnitGraph},
+ * {@link SimpleLiveLocals}, {@link SmartLocalDefs} and
+ * {@link SimpleLocalUses} used by the <code>jb</code> phases.
+ * <p>
+ * Cached results are dropped automatically when the unit or trap chain of
+ * the body is modified, and on every access if one of them doesn't count
+ * its modifications (see {@link soot.util.Chain#getModificationCount()}).
+ * Changes which don't go through these chains, e.g.
+ * replacing the value of a {@link soot.ValueBox} or moving the bounds of a
+ * {@link soot.Trap}, can't be detected. Transformers making such changes
+ * must call {@link #invalidate()} afterwards.
+ * <p>
+ * The {@link soot.JimpleBodyPack} installs a manager on the body while it
+ * runs (see {@link Body#setAnalysisManager(BodyAnalysisManager)}) so that
+ * consecutive phases share results. Otherwise
+ * {@link Body#getAnalysisManager()} returns a new manager on every call.
+ * A manager must only be used by the thread currently transforming its
+ * body.
+ */
+public class BodyAnalysisManager {
+    private final Body body;
+    private long unitsModificationCount = -1;
+    private long trapsModificationCount = -1;
+    private ExceptionalUnitGraph unitGraph;
+    private DenseUnitGraph denseUnitGraph;
+    private LiveLocals liveLocals;
+    private LocalDefs localDefs;
+    private LocalUses localUses;
+
+    public BodyAnalysisManager(Body body) {
+        this.body = body;
+    }
+
+    /**
+     * Drops all cached results.
+     */
+    public void invalidate() {
+        unitGraph = null;
+        denseUnitGraph = null;
+        liveLocals = null;
+        localDefs = null;
+        localUses = null;
+    }
+
+    private void validate() {
+        long units = body.getUnits().getModificationCount();
+        long traps = body.getTraps().getModificationCount();
+        if (units < 0 || traps < 0
+                || units != unitsModificationCount || traps != trapsModificationCount) {
+            invalidate();
+            unitsModificationCount = units;
+            trapsModificationCount = traps;
+        }
+    }
+
+    /**
+     * Returns an {@link ExceptionalUnitGraph} of the body using the default
+     * throw analysis.
+     */
+    public ExceptionalUnitGraph getUnitGraph() {
+        validate();
+        if (unitGraph == null) {
+            unitGraph = new ExceptionalUnitGraph(body);
+        }
+        return unitGraph;
+    }
+
+    /**
+     * Returns a {@link DenseUnitGraph} copy of the graph returned by
+     * {@link #getUnitGraph()}.
+     */
+    public DenseUnitGraph getDenseUnitGraph() {
+        ExceptionalUnitGraph graph = getUnitGraph();
+        if (denseUnitGraph == null) {
+            denseUnitGraph = new DenseUnitGraph(graph);
+        }
+        return denseUnitGraph;
+    }
+
+    /**
+     * Returns the {@link SimpleLiveLocals} of the graph returned by
+     * {@link #getDenseUnitGraph()}.
+     */
+    public LiveLocals getLiveLocals() {
+        DenseUnitGraph graph = getDenseUnitGraph();
+        if (liveLocals == null) {
+            liveLocals = new SimpleLiveLocals(graph);
+        }
+        return liveLocals;
+    }
+
+    /**
+     * Returns the {@link SmartLocalDefs} of the graph returned by
+     * {@link #getDenseUnitGraph()}.
+     */
+    public LocalDefs getLocalDefs() {
+        LiveLocals live = getLiveLocals();
+        if (localDefs == null) {
+            localDefs = new SmartLocalDefs(denseUnitGraph, live);
+        }
+        return localDefs;
+    }
+
+    /**
+     * Returns the {@link SimpleLocalUses} of the graph and definitions
+     * returned by {@link #getDenseUnitGraph()} and {@link #getLocalDefs()}.
+     */
+    public LocalUses getLocalUses() {
+        LocalDefs defs = getLocalDefs();
+        if (localUses == null) {
+            localUses = new SimpleLocalUses(denseUnitGraph, defs);
+        }
+        return localUses;
+    }
+}
@@ -44,10 +44,7 @@ public class FastColorer
                                                    Map<Local, Integer> localToColor, 
                                                    Map<Object, Integer> groupToColorCount)
     {
-        ExceptionalUnitGraph unitGraph = new ExceptionalUnitGraph(unitBody);
-
-        LiveLocals liveLocals;        
-        liveLocals = new SimpleLiveLocals(unitGraph);
+        LiveLocals liveLocals = unitBody.getAnalysisManager().getLiveLocals();
         
         
         UnitInterferenceGraph intGraph = 
@@ -181,10 +178,7 @@ public class FastColorer
     public static void assignColorsToLocals(Body unitBody, Map<Local, Object> localToGroup, 
         Map<Local, Integer> localToColor, Map<Object, Integer> groupToColorCount)
     {
-        ExceptionalUnitGraph unitGraph = new ExceptionalUnitGraph(unitBody);
-        LiveLocals liveLocals;
-       
-        liveLocals = new SimpleLiveLocals(unitGraph);
+        LiveLocals liveLocals = unitBody.getAnalysisManager().getLiveLocals();
 
         UnitInterferenceGraph intGraph = 
             new UnitInterferenceGraph(unitBody, localToGroup, liveLocals);
@@ -27,8 +27,12 @@
 package soot.toolkits.scalar;
 
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 
+import soot.Unit;
+import soot.toolkits.graph.DenseUnitGraph;
 import soot.toolkits.graph.DirectedGraph;
 import soot.toolkits.graph.Orderer;
 import soot.toolkits.graph.PseudoTopologicalOrderer;
@@ -70,6 +74,93 @@ public abstract class FlowAnalysis<N,A> extends AbstractFlowAnalysis<N,A>
         return unitToAfterFlow.get(s);
     }
     
+    /**
+     * Numbers the nodes of the graph densely in the specified order and
+     * adds them to <code>nodes</code> in that order. Nodes missing from the
+     * order are numbered after all others.
+     */
+    Map<N, Integer> numberNodes(List<N> order, List<N> nodes)
+    {
+        Map<N, Integer> numbers = new HashMap<N, Integer>(graph.size() * 2 + 1, 0.7f);
+        for (N n : order) {
+            if (!numbers.containsKey(n)) {
+                numbers.put(n, nodes.size());
+                nodes.add(n);
+            }
+        }
+        if (nodes.size() < graph.size()) {
+            for (Iterator<N> it = graph.iterator(); it.hasNext();) {
+                N n = it.next();
+                if (!numbers.containsKey(n)) {
+                    numbers.put(n, nodes.size());
+                    nodes.add(n);
+                }
+            }
+        }
+        return numbers;
+    }
+
+    /**
+     * Returns the numbers of the predecessors (or successors) of each node,
+     * in the order returned by the graph.
+     */
+    int[][] edgesToNumbers(List<N> nodes, Map<N, Integer> numbers, boolean preds)
+    {
+        if (graph instanceof DenseUnitGraph) {
+            return edgesToNumbers((DenseUnitGraph) graph, nodes, preds);
+        }
+        int[][] result = new int[nodes.size()][];
+        for (int i = 0; i < result.length; i++) {
+            List<N> l = preds ? graph.getPredsOf(nodes.get(i)) : graph.getSuccsOf(nodes.get(i));
+            int[] edges = new int[l.size()];
+            int j = 0;
+            for (N n : l) {
+                edges[j++] = numbers.get(n);
+            }
+            result[i] = edges;
+        }
+        return result;
+    }
+
+    /**
+     * Variant of {@link #edgesToNumbers(List, Map, boolean)} reading the
+     * edges from the index arrays of a {@link DenseUnitGraph}.
+     */
+    private int[][] edgesToNumbers(DenseUnitGraph g, List<N> nodes, boolean preds)
+    {
+        int[] indexToNumber = new int[g.size()];
+        int[] numberToIndex = new int[nodes.size()];
+        for (int i = 0; i < numberToIndex.length; i++) {
+            int index = g.getIndexOf((Unit) nodes.get(i));
+            indexToNumber[index] = i;
+            numberToIndex[i] = index;
+        }
+        int[][] result = new int[nodes.size()][];
+        for (int i = 0; i < result.length; i++) {
+            int index = numberToIndex[i];
+            int count = preds ? g.getPredCount(index) : g.getSuccCount(index);
+            int[] edges = new int[count];
+            for (int j = 0; j < count; j++) {
+                edges[j] = indexToNumber[preds ? g.getPred(index, j) : g.getSucc(index, j)];
+            }
+            result[i] = edges;
+        }
+        return result;
+    }
+
+    /**
+     * Returns an array indexed by node number which is <code>true</code>
+     * for the specified nodes.
+     */
+    static <N> boolean[] toMembership(List<N> members, Map<N, Integer> numbers, int size)
+    {
+        boolean[] result = new boolean[size];
+        for (N n : members) {
+            result[numbers.get(n)] = true;
+        }
+        return result;
+    }
+
 	/**
 	 * Default implementation constructing a PseudoTopologicalOrderer. 
 	 * @return an Orderer to order the nodes for the fixed-point iteration 
@@ -317,8 +317,11 @@ public abstract class ForwardBranchedFlowAnalysis<A> extends BranchedFlowAnalysi
         // G.v().out.println(graph.getBody().getMethod().getSignature() + " numNodes: " + numNodes + 
         //    " numComputations: " + numComputations + " avg: " + Main.truncatedOf((double) numComputations / numNodes, 2));
         
-        Timers.v().totalFlowNodes += numNodes;
-        Timers.v().totalFlowComputations += numComputations;
+        // only counted with -time, which keeps everything on one thread
+        if(Options.v().time()) {
+            Timers.v().totalFlowNodes += numNodes;
+            Timers.v().totalFlowComputations += numComputations;
+        }
 
     } // end doAnalysis
 
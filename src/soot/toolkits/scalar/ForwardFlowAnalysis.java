@@ -52,151 +52,146 @@ public abstract class ForwardFlowAnalysis<N,A> extends FlowAnalysis<N,A>
         return true;
     }
 
+    @SuppressWarnings("unchecked")
     protected void doAnalysis()
     {
-        final Map<N, Integer> numbers = new HashMap<N, Integer>();
-//        Timers.v().orderComputation = new soot.Timer();
-//        Timers.v().orderComputation.start();
         List<N> orderedUnits = constructOrderer().newList(graph,false);
-//        Timers.v().orderComputation.end();
-        int i = 1;
-        for( Iterator<N> uIt = orderedUnits.iterator(); uIt.hasNext(); ) {
-            final N u = uIt.next();
-            numbers.put(u, new Integer(i));
-            i++;
-        }
-
-        Collection<N> changedUnits = constructWorklist(numbers);
 
-        List<N> heads = graph.getHeads();
-        int numNodes = graph.size();
+        // Number the nodes densely in iteration order once so that the
+        // fixed point iteration doesn't have to hash them.
+        List<N> nodes = new ArrayList<N>(graph.size());
+        Map<N, Integer> numbers = numberNodes(orderedUnits, nodes);
+        int numNodes = nodes.size();
+        int[][] preds = edgesToNumbers(nodes, numbers, true);
+        int[][] succs = edgesToNumbers(nodes, numbers, false);
+        boolean[] isHead = toMembership(graph.getHeads(), numbers, numNodes);
+        A[] beforeFlows = (A[]) new Object[numNodes];
+        A[] afterFlows = (A[]) new Object[numNodes];
         int numComputations = 0;
-        
-        // Set initial values and nodes to visit.
-        {
-            Iterator<N> it = graph.iterator();
-
-            while(it.hasNext())
-            {
-                N s = it.next();
-
-                changedUnits.add(s);
 
-                unitToBeforeFlow.put(s, newInitialFlow());
-                unitToAfterFlow.put(s, newInitialFlow());
-            }
+        // Set initial values and nodes to visit. The worklist always yields
+        // the lowest numbered node first.
+        BitSet changedUnits = new BitSet(numNodes);
+        changedUnits.set(0, numNodes);
+        for (int i = 0; i < numNodes; i++) {
+            beforeFlows[i] = newInitialFlow();
+            afterFlows[i] = newInitialFlow();
         }
 
         // Feng Qian: March 07, 2002
         // Set initial values for entry points
-        {
-            Iterator<N> it = heads.iterator();
-            
-            while (it.hasNext()) {
-                N s = it.next();
+        for (int i = 0; i < numNodes; i++) {
+            if (isHead[i]) {
                 // this is a forward flow analysis
-                unitToBeforeFlow.put(s, entryInitialFlow());
+                beforeFlows[i] = entryInitialFlow();
             }
         }
-        
+
+        for (int i = 0; i < numNodes; i++) {
+            unitToBeforeFlow.put(nodes.get(i), beforeFlows[i]);
+            unitToAfterFlow.put(nodes.get(i), afterFlows[i]);
+        }
+
+        boolean interactive = Options.v().interactive_mode();
+
         // Perform fixed point flow analysis
         {
             A previousAfterFlow = newInitialFlow();
 
-            while(!changedUnits.isEmpty())
+            int i = changedUnits.nextSetBit(0);
+            while (i >= 0)
             {
-                A beforeFlow;
-                A afterFlow;
-
-                //get the first object
-                N s = changedUnits.iterator().next();
-                changedUnits.remove(s);
-                boolean isHead = heads.contains(s);
+                changedUnits.clear(i);
+                N s = nodes.get(i);
+                A beforeFlow = beforeFlows[i];
+                A afterFlow = afterFlows[i];
 
-                copy(unitToAfterFlow.get(s), previousAfterFlow);
+                copy(afterFlow, previousAfterFlow);
 
                 // Compute and store beforeFlow
                 {
-                    List<N> preds = graph.getPredsOf(s);
+                    int[] p = preds[i];
 
-                    beforeFlow = unitToBeforeFlow.get(s);
-                    
-                    if(preds.size() == 1)
-                        copy(unitToAfterFlow.get(preds.get(0)), beforeFlow);
-                    else if(preds.size() != 0)
+                    if(p.length != 0)
                     {
-                        Iterator<N> predIt = preds.iterator();
+                        copy(afterFlows[p[0]], beforeFlow);
 
-                        copy(unitToAfterFlow.get(predIt.next()), beforeFlow);
+                        for(int j = 1; j < p.length; j++)
+                            mergeInto(s, beforeFlow, afterFlows[p[j]]);
 
-                        while(predIt.hasNext())
-                        {
-                            A otherBranchFlow = unitToAfterFlow.get(predIt.next());
-                            mergeInto(s, beforeFlow, otherBranchFlow);
-                        }
-                    }
-
-                    if(isHead && preds.size() != 0)
-                    		mergeInto(s, beforeFlow, entryInitialFlow());
-                    	}
-                
-                {
-                    // Compute afterFlow and store it.
-                    afterFlow = unitToAfterFlow.get(s);
-                    if (Options.v().interactive_mode()){
-                        
-                        A savedInfo = newInitialFlow();
-                        if (filterUnitToBeforeFlow != null){
-                            savedInfo = filterUnitToBeforeFlow.get(s);
-                            copy(filterUnitToBeforeFlow.get(s), savedInfo);
-                        }
-                        else {
-                            copy(beforeFlow, savedInfo);
-                        }
-                        FlowInfo fi = new FlowInfo(savedInfo, s, true);
-                        if (InteractionHandler.v().getStopUnitList() != null && InteractionHandler.v().getStopUnitList().contains(s)){
-                            InteractionHandler.v().handleStopAtNodeEvent(s);
-                        }
-                        InteractionHandler.v().handleBeforeAnalysisEvent(fi);
-                    }
-                    flowThrough(beforeFlow, s, afterFlow);
-                    if (Options.v().interactive_mode()){
-                        A aSavedInfo = newInitialFlow();
-                        if (filterUnitToAfterFlow != null){
-                            aSavedInfo = filterUnitToAfterFlow.get(s);
-                            copy(filterUnitToAfterFlow.get(s), aSavedInfo);
-                        }
-                        else {
-                            copy(afterFlow, aSavedInfo);
-                        }
-                        FlowInfo fi = new FlowInfo(aSavedInfo, s, false);
-                        InteractionHandler.v().handleAfterAnalysisEvent(fi);
+                        if(isHead[i])
+                            mergeInto(s, beforeFlow, entryInitialFlow());
                     }
-                    numComputations++;
                 }
 
-                // Update queue appropriately
-                    if(!afterFlow.equals(previousAfterFlow))
-                    {
-                        Iterator<N> succIt = graph.getSuccsOf(s).iterator();
-
-                        while(succIt.hasNext())
-                        {
-                            N succ = succIt.next();
-                            
-                            changedUnits.add(succ);
-                        }
+                // Compute afterFlow and store it.
+                if (interactive)
+                    beforeFlowThrough(s, beforeFlow);
+                flowThrough(beforeFlow, s, afterFlow);
+                if (interactive)
+                    afterFlowThrough(s, afterFlow);
+                numComputations++;
+
+                // Update queue appropriately. All nodes numbered lower than
+                // the current one are known not to be queued.
+                int lowest = i + 1;
+                if(!afterFlow.equals(previousAfterFlow))
+                {
+                    for (int succ : succs[i]) {
+                        changedUnits.set(succ);
+                        if (succ < lowest)
+                            lowest = succ;
                     }
                 }
+                i = changedUnits.nextSetBit(lowest);
             }
+        }
         
-        // G.v().out.println(graph.getBody().getMethod().getSignature() + " numNodes: " + numNodes + 
-        //    " numComputations: " + numComputations + " avg: " + Main.truncatedOf((double) numComputations / numNodes, 2));
-        
-        Timers.v().totalFlowNodes += numNodes;
-        Timers.v().totalFlowComputations += numComputations;
+        // only counted with -time, which keeps everything on one thread
+        if(Options.v().time()) {
+            Timers.v().totalFlowNodes += numNodes;
+            Timers.v().totalFlowComputations += numComputations;
+        }
+    }
+
+    private void beforeFlowThrough(N s, A beforeFlow)
+    {
+        A savedInfo = newInitialFlow();
+        if (filterUnitToBeforeFlow != null){
+            savedInfo = filterUnitToBeforeFlow.get(s);
+            copy(filterUnitToBeforeFlow.get(s), savedInfo);
+        }
+        else {
+            copy(beforeFlow, savedInfo);
+        }
+        FlowInfo fi = new FlowInfo(savedInfo, s, true);
+        if (InteractionHandler.v().getStopUnitList() != null && InteractionHandler.v().getStopUnitList().contains(s)){
+            InteractionHandler.v().handleStopAtNodeEvent(s);
+        }
+        InteractionHandler.v().handleBeforeAnalysisEvent(fi);
     }
-    
+
+    private void afterFlowThrough(N s, A afterFlow)
+    {
+        A aSavedInfo = newInitialFlow();
+        if (filterUnitToAfterFlow != null){
+            aSavedInfo = filterUnitToAfterFlow.get(s);
+            copy(filterUnitToAfterFlow.get(s), aSavedInfo);
+        }
+        else {
+            copy(afterFlow, aSavedInfo);
+        }
+        FlowInfo fi = new FlowInfo(aSavedInfo, s, false);
+        InteractionHandler.v().handleAfterAnalysisEvent(fi);
+    }
+
+    /**
+     * @deprecated The worklist is no longer a {@link Collection}; the
+     *             fixed point iteration always visits the changed node
+     *             which comes first in the order returned by
+     *             {@link #constructOrderer()}. This method isn't called.
+     */
+    @Deprecated
 	protected Collection<N> constructWorklist(final Map<N, Integer> numbers) {
 		return new TreeSet<N>( new Comparator<N>() {
             public int compare(N o1, N o2) {
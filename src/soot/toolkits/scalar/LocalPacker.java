@@ -211,6 +211,8 @@ public class LocalPacker extends BodyTransformer
                     }
                 }
             }
+
+            body.getAnalysisManager().invalidate();
         }
     }
 }
@@ -71,19 +71,17 @@ public class LocalSplitter extends BodyTransformer
 
         Map boxToSet = new HashMap(units.size() * 2 + 1, 0.7f);
 
+        BodyAnalysisManager analyses = body.getAnalysisManager();
+
         if(Options.v().time())
                 Timers.v().splitPhase1Timer.start();
 
 
             // Go through the definitions, building the webs
         {
-            ExceptionalUnitGraph graph = new ExceptionalUnitGraph(body);
-
-            LocalDefs localDefs;
-            
-            localDefs = new SmartLocalDefs(graph, new SimpleLiveLocals(graph));
+            LocalDefs localDefs = analyses.getLocalDefs();
 
-            LocalUses localUses = new SimpleLocalUses(graph, localDefs);
+            LocalUses localUses = analyses.getLocalUses();
             
             if(Options.v().time())
                 Timers.v().splitPhase1Timer.end();
@@ -214,6 +212,7 @@ public class LocalSplitter extends BodyTransformer
                     Local local = (Local) desiredLocal.clone();
                     local.setName(desiredLocal.getName() + "#" + useCount);
                     body.getLocals().add(local);
+                    analyses.invalidate();
 
                     // Change all boxes to point to this new local
                     {
@@ -22,7 +22,6 @@ import soot.jimple.toolkits.typing.fast.Integer127Type;
 import soot.jimple.toolkits.typing.fast.Integer1Type;
 import soot.jimple.toolkits.typing.fast.Integer32767Type;
 import soot.options.Options;
-import soot.toolkits.graph.ExceptionalUnitGraph;
 import soot.util.Chain;
 
 import java.util.ArrayList;
@@ -84,6 +83,8 @@ public class RoboVmLocalPacker extends BodyTransformer
                 }
             }
 
+            body.getAnalysisManager().invalidate();
+
             // update body locals (remove one that were replaced)
             List<Local> oldLocals = new ArrayList<>(body.getLocals());
             body.getLocals().clear();
@@ -104,7 +105,7 @@ public class RoboVmLocalPacker extends BodyTransformer
 
         // follow the chain flow and and build variable trace map. e.g. what variable stays in slot after previous
         // assignment
-        RoboVmLiveSlotLocals liveSlotLocals = new RoboVmLiveSlotLocals(new ExceptionalUnitGraph(body));
+        RoboVmLiveSlotLocals liveSlotLocals = new RoboVmLiveSlotLocals(body.getAnalysisManager().getUnitGraph());
 
         // find all parameters
         Map<Integer, Unit> paramDefinitions = new HashMap<>();
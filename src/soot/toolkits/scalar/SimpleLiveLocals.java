@@ -162,15 +162,10 @@ class SimpleLiveLocalsAnalysis extends BackwardFlowAnalysis
 
                 FlowSet genSet = emptySet.clone();
 
-                Iterator boxIt = s.getUseBoxes().iterator();
-
-                while(boxIt.hasNext())
-                {
-                    ValueBox box = (ValueBox) boxIt.next();
-
+                s.forEachUseBox(box -> {
                     if(box.getValue() instanceof Local)
                         genSet.add(box.getValue(), genSet);
-                }
+                });
 
                 unitToGenerateSet.put(s, genSet);
             }
@@ -81,12 +81,7 @@ public class SimpleLocalDefs implements LocalDefs
                 {
                     Unit s = (Unit) unitIt.next();
 
-                    Iterator boxIt = s.getUseBoxes().iterator();
-
-                    while(boxIt.hasNext())
-                        {
-                            ValueBox box = (ValueBox) boxIt.next();
-
+                    s.forEachUseBox(box -> {
                             if(box.getValue() instanceof Local)
                                 {
                                     Local l = (Local) box.getValue();
@@ -103,7 +98,7 @@ public class SimpleLocalDefs implements LocalDefs
                                             localUnitPairToDefs.put(pair, Collections.unmodifiableList(unitLocalDefs));
                                         }
                                 }
-                        }
+                        });
                 }
         }
 
@@ -87,17 +87,16 @@ public class SmartLocalDefs implements LocalDefs
         answer = new HashMap<Cons, ArrayList<Unit>>();
         for( Iterator uIt = graph.iterator(); uIt.hasNext(); ) {
             final Unit u = (Unit) uIt.next();
-            for( Iterator vbIt = u.getUseBoxes().iterator(); vbIt.hasNext(); ) {
-                final ValueBox vb = (ValueBox) vbIt.next();
+            u.forEachUseBox(vb -> {
                 Value v = vb.getValue();
-                if( !(v instanceof Local) ) continue;
+                if( !(v instanceof Local) ) return;
                 HashSet analysisResult = (HashSet) analysis.getFlowBefore(u);
                 ArrayList<Unit> al = new ArrayList<Unit>();
                 for (Unit unit : defsOf((Local)v)) {
                     if(analysisResult.contains(unit)) al.add(unit);
                 }
                 answer.put(new Cons(u, v), al);
-            }
+            });
         }
         if(Options.v().time())
             Timers.v().defsTimer.end();
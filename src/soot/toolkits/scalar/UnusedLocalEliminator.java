@@ -32,6 +32,7 @@ import soot.options.*;
 import soot.*;
 
 import java.util.*;
+import java.util.function.Consumer;
 
 
 
@@ -57,31 +58,21 @@ public class UnusedLocalEliminator extends BodyTransformer
 
         // Traverse statements noting all the uses and defs
         {
+            Consumer<ValueBox> noteLocal = box -> {
+                Value value = box.getValue();
+
+                if(value instanceof Local)
+                    usedLocals.add(value);
+            };
+
             Iterator unitIt = body.getUnits().iterator();
 
             while(unitIt.hasNext())
             {
                 Unit s = (Unit) unitIt.next();
 
-                {
-                    Iterator boxIt;
-                    boxIt = s.getUseBoxes().iterator();
-                    while(boxIt.hasNext())
-                    {
-                        Value value = ((ValueBox) boxIt.next()).getValue();
-
-                        if(value instanceof Local && !usedLocals.contains(value))
-                            usedLocals.add(value);
-                    }
-                    boxIt = s.getDefBoxes().iterator();
-                    while(boxIt.hasNext())
-                    {
-                        Value value = ((ValueBox) boxIt.next()).getValue();
-
-                        if(value instanceof Local && !usedLocals.contains(value))
-                            usedLocals.add(value);
-                    }
-                }
+                s.forEachUseBox(noteLocal);
+                s.forEachDefBox(noteLocal);
             }
 
         }
@@ -104,5 +104,14 @@ public interface Chain<E> extends Collection<E>, Serializable
 
     /** Returns the size of this Chain. */
     public int size();   
+
+    /** Returns a counter which is incremented on every structural
+     * modification of this Chain. Can be used to detect whether
+     * information derived from the Chain is still up to date. Returns
+     * <code>-1</code> for Chains which don't count their modifications,
+     * in which case callers must assume the Chain has been modified. */
+    public default long getModificationCount() {
+        return -1;
+    }
 }
 
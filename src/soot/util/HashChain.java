@@ -62,6 +62,11 @@ public class HashChain<E> extends AbstractCollection<E>
         return objectIndexes;
     }
 
+    public long getModificationCount()
+    {
+        return stateCount;
+    }
+
     /** Erases the contents of the current HashChain. */
     public void clear() 
     {
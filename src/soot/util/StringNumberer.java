@@ -19,6 +19,7 @@
 
 package soot.util;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /** A class that numbers strings, so they can be placed in bitsets.
  *
@@ -26,9 +27,9 @@ import java.util.*;
  */
 
 public class StringNumberer extends ArrayNumberer {
-    HashMap<String, NumberedString> stringToNumbered = new HashMap<String, NumberedString>(1024);
+    ConcurrentHashMap<String, NumberedString> stringToNumbered = new ConcurrentHashMap<String, NumberedString>(1024);
 
-    public NumberedString find( String s ) {
+    public synchronized NumberedString find( String s ) {
         NumberedString ret = stringToNumbered.get( s );
         if( ret == null ) {
             stringToNumbered.put( s, ret = new NumberedString(s) );
@@ -36,7 +37,11 @@ public class StringNumberer extends ArrayNumberer {
         }
         return ret;
     }
-    public NumberedString findOrAdd( String s ) {
+    /** Returns the numbered string for s, or null if it hasn't been added. */
+    public NumberedString lookup( String s ) {
+        return stringToNumbered.get( s );
+    }
+    public synchronized NumberedString findOrAdd( String s ) {
         NumberedString ret = stringToNumbered.get( s );
         if( ret == null ) {
             stringToNumbered.put( s, ret = new NumberedString(s) );
@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2014 RoboVM AB
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/gpl-2.0.html>.
+ */
+package soot.util;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.Function;
+
+/**
+ * Thread-safe table which maps keys to canonical immutable instances
+ * created by a factory. Neither keys nor instances are kept alive by the
+ * table.
+ * <p>
+ * The factory is expected to return an instance which keeps its key
+ * reachable, e.g. a constant holding on to its value, so that the entry
+ * remains as long as the instance is in use.
+ */
+public class WeakInterner<K, V> {
+    private final Map<K, WeakReference<V>> table = new WeakHashMap<K, WeakReference<V>>();
+    private final Function<K, V> factory;
+
+    public WeakInterner(Function<K, V> factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * Returns the canonical instance for the specified key, creating it if
+     * there is none.
+     */
+    public synchronized V intern(K key) {
+        WeakReference<V> ref = table.get(key);
+        V value = ref != null ? ref.get() : null;
+        if (value == null) {
+            // Replace a stale entry completely so that its key is the one
+            // kept reachable by the new instance.
+            table.remove(key);
+            value = factory.apply(key);
+            table.put(key, new WeakReference<V>(value));
+        }
+        return value;
+    }
+
+    public synchronized int size() {
+        return table.size();
+    }
+}
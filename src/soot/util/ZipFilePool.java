@@ -0,0 +1,154 @@
+/*
+ * Copyright (C) 2014 RoboVM AB
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/gpl-2.0.html>.
+ */
+package soot.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * A bounded pool of open {@link ZipFile}s keyed by path. When more than
+ * the maximum number of files are open the least recently used one is
+ * closed. The {@link ZipFile} instances never leave the pool, all reads go
+ * through it, so a file can't be closed while it's being read from.
+ */
+public class ZipFilePool {
+    private final int maxOpen;
+    private final LinkedHashMap<String, ZipFile> open;
+    private long hits;
+    private long misses;
+
+    public ZipFilePool(int maxOpen) {
+        if (maxOpen < 1) {
+            throw new IllegalArgumentException("maxOpen < 1");
+        }
+        this.maxOpen = maxOpen;
+        this.open = new LinkedHashMap<String, ZipFile>(16, 0.75f, true);
+    }
+
+    private ZipFile get(String path) throws IOException {
+        ZipFile zipFile = open.get(path);
+        if (zipFile != null) {
+            hits++;
+            return zipFile;
+        }
+        misses++;
+        zipFile = new ZipFile(path);
+        open.put(path, zipFile);
+        if (open.size() > maxOpen) {
+            Iterator<Map.Entry<String, ZipFile>> it = open.entrySet().iterator();
+            ZipFile eldest = it.next().getValue();
+            it.remove();
+            close(eldest);
+        }
+        return zipFile;
+    }
+
+    /**
+     * Returns the entry with the specified name in the zip file at the
+     * specified path or <code>null</code> if there is no such entry.
+     */
+    public synchronized ZipEntry getEntry(String path, String name) throws IOException {
+        return get(path).getEntry(name);
+    }
+
+    /**
+     * Returns the names of all entries in the zip file at the specified path.
+     */
+    public synchronized List<String> getEntryNames(String path) throws IOException {
+        ZipFile zipFile = get(path);
+        List<String> names = new ArrayList<String>(zipFile.size());
+        for (Enumeration<? extends ZipEntry> entries = zipFile.entries(); entries.hasMoreElements();) {
+            names.add(entries.nextElement().getName());
+        }
+        return names;
+    }
+
+    /**
+     * Reads the contents of the specified entry in the zip file at the
+     * specified path.
+     */
+    public synchronized byte[] readEntry(String path, ZipEntry entry) throws IOException {
+        InputStream is = get(path).getInputStream(entry);
+        try {
+            // Read in chunks rather than trusting a single read() to fill the
+            // buffer (JDK bug workaround).
+            int sz = (int) entry.getSize();
+            byte[] buf = new byte[sz];
+            int count = 0;
+            int ln = 0;
+            while (sz > 0 && (ln = is.read(buf, count, Math.min(1024, sz))) != -1) {
+                count += ln;
+                sz -= ln;
+            }
+            return buf;
+        } finally {
+            is.close();
+        }
+    }
+
+    /**
+     * Closes all open zip files. The pool can still be used afterwards.
+     */
+    public synchronized void closeAll() {
+        for (ZipFile zipFile : open.values()) {
+            close(zipFile);
+        }
+        open.clear();
+    }
+
+    private static void close(ZipFile zipFile) {
+        try {
+            zipFile.close();
+        } catch (IOException e) {
+        }
+    }
+
+    /**
+     * Returns the number of requests served by an already open zip file.
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of requests which had to open a zip file.
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Returns the number of currently open zip files.
+     */
+    public synchronized int getOpenCount() {
+        return open.size();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "ZipFilePool[hits=" + hits + ", misses=" + misses
+                + ", open=" + open.size() + ", maxOpen=" + maxOpen + "]";
+    }
+}
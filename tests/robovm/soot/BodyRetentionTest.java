@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2014 RoboVM AB
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/gpl-2.0.html>.
+ */
+package soot;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import soot.jimple.toolkits.callgraph.CallGraph;
+import soot.options.Options;
+import soot.testfixtures.Fixtures;
+import soot.testfixtures.Sample;
+
+/**
+ * Tests {@link BodyRetention}.
+ */
+public class BodyRetentionTest {
+
+    @Before
+    public void setUp() {
+        Fixtures.reset();
+    }
+
+    private static List<SootMethod> concreteMethods() {
+        List<SootMethod> result = new ArrayList<SootMethod>();
+        for (SootMethod m : Fixtures.get(Sample.class).getMethods()) {
+            if (m.isConcrete()) {
+                result.add(m);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Clears the references to the retained bodies as the collector would
+     * and returns the bodies re-created by {@link SootMethod#getActiveBody()}
+     * printed.
+     */
+    private static String collectAndPrint() {
+        StringBuilder sb = new StringBuilder();
+        for (SootMethod m : concreteMethods()) {
+            assertNull(m.activeBody);
+            m.retainedBody.clear();
+            assertTrue(m.hasActiveBody());
+            sb.append(Fixtures.print(m.getActiveBody()));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Returns the bodies printed with the default policy.
+     */
+    private static String printStrong(boolean optimize) {
+        Fixtures.reset();
+        if (optimize) {
+            PhaseOptions.v().setPhaseOption("jop", "enabled:true");
+        }
+        Fixtures.load(Sample.class);
+        if (optimize) {
+            PackManager.v().runBodyPacks();
+        }
+        return Fixtures.printBodies(Sample.class);
+    }
+
+    @Test
+    public void testSoft() {
+        String expected = printStrong(false);
+        Fixtures.reset();
+        Options.v().set_body_retention(Options.body_retention_soft);
+        Fixtures.load(Sample.class);
+        assertEquals(expected, Fixtures.printBodies(Sample.class));
+        assertEquals(expected, collectAndPrint());
+    }
+
+    @Test
+    public void testLru() {
+        String expected = printStrong(false);
+        Fixtures.reset();
+        Options.v().set_body_retention(Options.body_retention_lru);
+        Options.v().set_body_retention_units(1);
+        Fixtures.load(Sample.class);
+        assertEquals(expected, Fixtures.printBodies(Sample.class));
+        List<SootMethod> methods = concreteMethods();
+        Body last = methods.get(methods.size() - 1).getActiveBody();
+        assertEquals(last.getUnits().size(), BodyRetention.v().getRecentlyUsedUnits());
+        assertEquals(expected, collectAndPrint());
+    }
+
+    @Test
+    public void testReleaseAfterPack() {
+        String expected = printStrong(true);
+        assertFalse(expected.equals(printStrong(false)));
+        Fixtures.reset();
+        PhaseOptions.v().setPhaseOption("jop", "enabled:true");
+        Options.v().set_body_retention(Options.body_retention_release_after_pack);
+        Fixtures.load(Sample.class);
+        PackManager.v().runBodyPacks();
+        assertEquals(expected, collectAndPrint());
+    }
+
+    @Test
+    public void testCallGraphPinsBodies() {
+        Options.v().set_body_retention(Options.body_retention_soft);
+        Fixtures.load(Sample.class);
+        String expected = Fixtures.printBodies(Sample.class);
+        List<Body> bodies = new ArrayList<Body>();
+        for (SootMethod m : concreteMethods()) {
+            assertNull(m.activeBody);
+            bodies.add(m.getActiveBody());
+        }
+        Scene.v().setCallGraph(new CallGraph());
+        List<SootMethod> methods = concreteMethods();
+        for (int i = 0; i < methods.size(); i++) {
+            SootMethod m = methods.get(i);
+            assertSame(bodies.get(i), m.activeBody);
+            m.retainedBody.clear();
+            assertSame(bodies.get(i), m.getActiveBody());
+        }
+        assertEquals(expected, Fixtures.printBodies(Sample.class));
+    }
+
+    @Test
+    public void testWholeProgramKeepsBodies() {
+        Options.v().set_whole_program(true);
+        Options.v().set_body_retention(Options.body_retention_lru);
+        Options.v().set_body_retention_units(1);
+        Fixtures.load(Sample.class);
+        Fixtures.printBodies(Sample.class);
+        for (SootMethod m : concreteMethods()) {
+            assertNotNull(m.activeBody);
+        }
+        assertEquals(0, BodyRetention.v().getRecentlyUsedUnits());
+    }
+}
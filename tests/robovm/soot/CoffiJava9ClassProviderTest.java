@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2014 RoboVM AB
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/gpl-2.0.html>.
+ */
+package soot;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.net.URI;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.FileSystems;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import soot.testfixtures.Fixtures;
+
+/**
+ * Tests looking up JDK classes with {@link CoffiJava9ClassProvider}. The
+ * tests do nothing when run on a Java runtime without a jrt filesystem.
+ */
+public class CoffiJava9ClassProviderTest {
+
+    private static final String[] CLASSES = {
+        "java.lang.Object", "java.lang.String", "java.util.HashMap",
+        "java.util.concurrent.ConcurrentHashMap", "java.util.regex.Pattern",
+        "java.io.File", "java.net.URI", "java.sql.Connection"
+    };
+
+    @Before
+    public void setUp() {
+        Fixtures.reset();
+    }
+
+    private static boolean hasJrt() {
+        try {
+            FileSystems.getFileSystem(URI.create("jrt:/"));
+            return true;
+        } catch (FileSystemNotFoundException e) {
+            return false;
+        }
+    }
+
+    @Test
+    public void testFindJdkClass() {
+        if (!hasJrt()) {
+            return;
+        }
+        CoffiJava9ClassProvider provider = new CoffiJava9ClassProvider();
+        for (String cls : CLASSES) {
+            ClassSource source = provider.find(cls);
+            assertNotNull(cls, source);
+            assertTrue(source instanceof CoffiClassSource);
+        }
+        assertNull(provider.find("java.lang.NoSuchClass"));
+        assertNull(provider.find("no.such.pkg.NoSuchClass"));
+    }
+
+    @Test
+    public void testIndexCache() throws Exception {
+        if (!hasJrt()) {
+            return;
+        }
+        File f = File.createTempFile("jrt", ".index");
+        try {
+            assertTrue(f.delete());
+            assertNotNull(new CoffiJava9ClassProvider(f).find("java.lang.Object"));
+            assertTrue(f.length() > 0);
+            // Read back by a new provider.
+            assertNotNull(new CoffiJava9ClassProvider(f).find("java.util.HashMap"));
+        } finally {
+            f.delete();
+        }
+    }
+
+    @Test
+    public void testConcurrentFirstLookup() throws Exception {
+        if (!hasJrt()) {
+            return;
+        }
+        final CoffiJava9ClassProvider provider = new CoffiJava9ClassProvider();
+        final CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(CLASSES.length);
+        try {
+            List<Future<ClassSource>> futures = new ArrayList<>();
+            for (final String cls : CLASSES) {
+                futures.add(executor.submit(new Callable<ClassSource>() {
+                    public ClassSource call() throws Exception {
+                        start.await();
+                        return provider.find(cls);
+                    }
+                }));
+            }
+            start.countDown();
+            for (int i = 0; i < CLASSES.length; i++) {
+                assertNotNull(CLASSES[i], futures.get(i).get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
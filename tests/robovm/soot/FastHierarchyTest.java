@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2014 RoboVM AB
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/gpl-2.0.html>.
+ */
+package soot;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import soot.testfixtures.Fixtures;
+import soot.testfixtures.Shapes;
+
+/**
+ * Tests {@link FastHierarchy}.
+ */
+public class FastHierarchyTest {
+
+    @Before
+    public void setUp() {
+        Fixtures.reset();
+    }
+
+    private static Set<SootClass> classes(Class<?>... classes) {
+        Set<SootClass> result = new HashSet<SootClass>();
+        for (Class<?> c : classes) {
+            result.add(Fixtures.get(c));
+        }
+        return result;
+    }
+
+    private static RefType type(Class<?> c) {
+        return Fixtures.get(c).getType();
+    }
+
+    private static SootMethod area(Class<?> c) {
+        return Fixtures.get(c).getMethod("double area()");
+    }
+
+    @Test
+    public void testInterfaceSubtyping() {
+        Fixtures.load(Shapes.Square.class, Shapes.Circle.class);
+        FastHierarchy fh = Scene.v().getOrMakeFastHierarchy();
+
+        assertTrue(fh.canStoreType(type(Shapes.Square.class), type(Shapes.Shape.class)));
+        assertTrue(fh.canStoreType(type(Shapes.Square.class), type(Shapes.Polygon.class)));
+        assertTrue(fh.canStoreType(type(Shapes.Quad.class), type(Shapes.Shape.class)));
+        assertTrue(fh.canStoreType(type(Shapes.Quad.class), RefType.v("java.lang.Object")));
+        assertFalse(fh.canStoreType(type(Shapes.Shape.class), type(Shapes.Quad.class)));
+        assertFalse(fh.canStoreType(type(Shapes.Circle.class), type(Shapes.Polygon.class)));
+        assertFalse(fh.canStoreType(type(Shapes.Rect.class), type(Shapes.Square.class)));
+        assertTrue(fh.isSubclass(Fixtures.get(Shapes.Square.class), Fixtures.get(Shapes.Rect.class)));
+        assertFalse(fh.isSubclass(Fixtures.get(Shapes.Rect.class), Fixtures.get(Shapes.Square.class)));
+
+        assertEquals(classes(Shapes.Rect.class, Shapes.Circle.class),
+                fh.getAllImplementersOfInterface(Fixtures.get(Shapes.Shape.class)));
+        assertEquals(classes(Shapes.Rect.class),
+                fh.getAllImplementersOfInterface(Fixtures.get(Shapes.Polygon.class)));
+
+        SootMethod m = area(Shapes.Shape.class);
+        assertEquals(new HashSet<SootMethod>(Arrays.asList(area(Shapes.Rect.class),
+                area(Shapes.Square.class), area(Shapes.Circle.class))),
+                fh.resolveAbstractDispatch(Fixtures.get(Shapes.Shape.class), m));
+        assertEquals(new HashSet<SootMethod>(Arrays.asList(area(Shapes.Rect.class),
+                area(Shapes.Square.class))),
+                fh.resolveConcreteDispatch(Collections.singleton(
+                        AnySubType.v(type(Shapes.Polygon.class))), m,
+                        type(Shapes.Polygon.class)));
+    }
+
+    @Test
+    public void testIncrementalAdds() {
+        Fixtures.load(Shapes.Rect.class, Shapes.Circle.class);
+        FastHierarchy fh = Scene.v().getOrMakeFastHierarchy();
+        assertFalse(Scene.v().containsClass(Shapes.Triangle.class.getName()));
+        assertFalse(Scene.v().containsClass(Shapes.Curved.class.getName()));
+        assertEquals(classes(Shapes.Rect.class, Shapes.Circle.class),
+                fh.getAllImplementersOfInterface(Fixtures.get(Shapes.Shape.class)));
+        assertEquals(classes(Shapes.Rect.class),
+                fh.getAllImplementersOfInterface(Fixtures.get(Shapes.Polygon.class)));
+
+        Scene.v().loadClassAndSupport(Shapes.Triangle.class.getName());
+        Scene.v().loadClassAndSupport(Shapes.Ellipse.class.getName());
+        Scene.v().loadClassAndSupport(Shapes.Square.class.getName());
+        assertSame(fh, Scene.v().getFastHierarchy());
+
+        assertEquals(classes(Shapes.Rect.class, Shapes.Circle.class,
+                Shapes.Triangle.class, Shapes.Ellipse.class),
+                fh.getAllImplementersOfInterface(Fixtures.get(Shapes.Shape.class)));
+        assertEquals(classes(Shapes.Rect.class, Shapes.Triangle.class),
+                fh.getAllImplementersOfInterface(Fixtures.get(Shapes.Polygon.class)));
+        assertTrue(fh.canStoreType(type(Shapes.Ellipse.class), type(Shapes.Shape.class)));
+        assertTrue(fh.canStoreType(type(Shapes.Square.class), type(Shapes.Polygon.class)));
+        assertTrue(fh.isSubclass(Fixtures.get(Shapes.Square.class), Fixtures.get(Shapes.Rect.class)));
+
+        // The incrementally maintained hierarchy answers like a new one.
+        FastHierarchy fresh = new FastHierarchy();
+        for (SootClass c : Scene.v().getClasses()) {
+            if (c.resolvingLevel() < SootClass.HIERARCHY) {
+                continue;
+            }
+            if (c.isInterface()) {
+                assertEquals(c.getName(), fresh.getAllImplementersOfInterface(c),
+                        fh.getAllImplementersOfInterface(c));
+                assertEquals(c.getName(), fresh.getAllSubinterfaces(c),
+                        fh.getAllSubinterfaces(c));
+            }
+            for (SootClass p : Scene.v().getClasses()) {
+                if (p.resolvingLevel() >= SootClass.HIERARCHY) {
+                    assertEquals(c + " " + p, fresh.canStoreType(c.getType(), p.getType()),
+                            fh.canStoreType(c.getType(), p.getType()));
+                }
+            }
+        }
+    }
+}
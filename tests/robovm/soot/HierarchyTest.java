@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2014 RoboVM AB
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/gpl-2.0.html>.
+ */
+package soot;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import soot.testfixtures.Fixtures;
+import soot.testfixtures.Shapes;
+
+/**
+ * Tests {@link Hierarchy}.
+ */
+public class HierarchyTest {
+
+    @Before
+    public void setUp() {
+        Fixtures.reset();
+    }
+
+    private static SootClass get(Class<?> c) {
+        return Fixtures.get(c);
+    }
+
+    @Test
+    public void testIncrementalUpdatesMatchRebuild() {
+        Fixtures.load(Shapes.Rect.class, Shapes.Circle.class);
+        Hierarchy h = Scene.v().getActiveHierarchy();
+        h.getImplementersOf(get(Shapes.Shape.class));
+        h.getSubclassesOf(get(Shapes.Rect.class));
+
+        // Add the classes to the Scene in one order but resolve them in
+        // another.
+        SootResolver.v().makeClassRef(Shapes.Triangle.class.getName());
+        SootResolver.v().makeClassRef(Shapes.Hexagon.class.getName());
+        SootResolver.v().makeClassRef(Shapes.Square.class.getName());
+        Scene.v().loadClassAndSupport(Shapes.Square.class.getName());
+        Scene.v().loadClassAndSupport(Shapes.Hexagon.class.getName());
+        Scene.v().loadClassAndSupport(Shapes.Ellipse.class.getName());
+        Scene.v().loadClassAndSupport(Shapes.Triangle.class.getName());
+        Scene.v().removeClass(get(Shapes.Circle.class));
+        assertSame(h, Scene.v().getActiveHierarchy());
+
+        assertEquals(Arrays.asList(get(Shapes.Square.class), get(Shapes.Rect.class),
+                get(Shapes.Triangle.class), get(Shapes.Hexagon.class),
+                get(Shapes.Ellipse.class)),
+                h.getImplementersOf(get(Shapes.Shape.class)));
+
+        Hierarchy rebuilt = new Hierarchy();
+        for (SootClass c : Scene.v().getClasses()) {
+            if (c.resolvingLevel() < SootClass.HIERARCHY) {
+                continue;
+            }
+            if (c.isInterface()) {
+                assertEquals(c.getName(), rebuilt.getDirectSubinterfacesOf(c),
+                        h.getDirectSubinterfacesOf(c));
+                assertEquals(c.getName(), rebuilt.getSubinterfacesOf(c),
+                        h.getSubinterfacesOf(c));
+                assertEquals(c.getName(), rebuilt.getDirectImplementersOf(c),
+                        h.getDirectImplementersOf(c));
+                assertEquals(c.getName(), rebuilt.getImplementersOf(c),
+                        h.getImplementersOf(c));
+            } else {
+                assertEquals(c.getName(), rebuilt.getDirectSubclassesOf(c),
+                        h.getDirectSubclassesOf(c));
+                assertEquals(c.getName(), rebuilt.getSubclassesOf(c),
+                        h.getSubclassesOf(c));
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2014 RoboVM AB
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/gpl-2.0.html>.
+ */
+package soot;
+
+import static org.junit.Assert.*;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import soot.options.Options;
+import soot.testfixtures.Fixtures;
+import soot.testfixtures.Sample;
+
+/**
+ * Tests running the body packs on several threads.
+ */
+public class PackManagerTest {
+
+    @Before
+    public void setUp() {
+        Fixtures.reset();
+    }
+
+    private String runBodyPacks(int numThreads) {
+        Fixtures.reset();
+        Options.v().set_num_threads(numThreads);
+        PhaseOptions.v().setPhaseOption("jop", "enabled:true");
+        PhaseOptions.v().setPhaseOption("jap.rdtagger", "enabled:true");
+        Fixtures.load(Sample.class);
+        PackManager.v().runBodyPacks();
+        return Fixtures.printBodies(Sample.class);
+    }
+
+    @Test
+    public void testParallelBodyPacksMatchSequential() {
+        String sequential = runBodyPacks(1);
+        assertEquals(sequential, runBodyPacks(4));
+        assertEquals(sequential, runBodyPacks(4));
+    }
+
+    @Test
+    public void testUncheckedTransformerRunsOnCallingThread() {
+        final Set<Thread> threads = Collections.synchronizedSet(new HashSet<Thread>());
+        Options.v().set_num_threads(4);
+        PackManager.v().getPack("jtp").add(new Transform("jtp.threads", new BodyTransformer() {
+            protected void internalTransform(Body b, String phaseName, Map options) {
+                threads.add(Thread.currentThread());
+            }
+        }));
+        Fixtures.load(Sample.class);
+        PackManager.v().runBodyPacks();
+        assertEquals(Collections.singleton(Thread.currentThread()), threads);
+    }
+}
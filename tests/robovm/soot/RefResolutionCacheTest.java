@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2014 RoboVM AB
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/gpl-2.0.html>.
+ */
+package soot;
+
+import static org.junit.Assert.*;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import soot.testfixtures.Fixtures;
+import soot.testfixtures.Sample;
+
+/**
+ * Tests {@link RefResolutionCache}.
+ */
+public class RefResolutionCacheTest {
+
+    private SootClass sample;
+    private SootMethod run;
+
+    @Before
+    public void setUp() {
+        Fixtures.reset();
+        Fixtures.load(Sample.class);
+        sample = Fixtures.get(Sample.class);
+        run = sample.getMethod("void run()");
+    }
+
+    @Test
+    public void testResultsStoredAfterChangeAreDiscarded() {
+        RefResolutionCache cache = Scene.v().getRefResolutionCache();
+        Map<SootClass, SootMethod> results = cache.methodResults(run.getNumberedSubSignature());
+        cache.methodsChanged(run.getNumberedSubSignature());
+        results.put(sample, run);
+        assertNull(cache.methodResults(run.getNumberedSubSignature()).get(sample));
+
+        results = cache.methodResults(run.getNumberedSubSignature());
+        cache.clear();
+        results.put(sample, run);
+        assertNull(cache.methodResults(run.getNumberedSubSignature()).get(sample));
+    }
+
+    @Test
+    public void testFieldResultsStoredAfterChangeAreDiscarded() {
+        RefResolutionCache cache = Scene.v().getRefResolutionCache();
+        SootField count = sample.getFieldByName("count");
+        RefResolutionCache.FieldKey key = new RefResolutionCache.FieldKey(sample, count.getType());
+        Map<RefResolutionCache.FieldKey, SootField> results = cache.fieldResults("count");
+        cache.fieldsChanged("count");
+        results.put(key, count);
+        assertNull(cache.fieldResults("count").get(key));
+    }
+
+    @Test
+    public void testResolveAfterAddingMethod() {
+        SootMethodRef ref = Scene.v().makeMethodRef(sample, "toString",
+                Collections.<Type>emptyList(), RefType.v("java.lang.String"), false);
+        SootMethod inherited = ref.resolve();
+        assertNotSame(sample, inherited.getDeclaringClass());
+        assertSame(inherited, ref.resolve());
+
+        SootMethod declared = new SootMethod("toString",
+                Collections.<Type>emptyList(), RefType.v("java.lang.String"));
+        sample.addMethod(declared);
+        assertSame(declared, ref.resolve());
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2014 RoboVM AB
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/gpl-2.0.html>.
+ */
+package soot;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests creating {@link RefType}s from several threads.
+ */
+public class RefTypeTest {
+
+    @Before
+    public void setUp() {
+        G.reset();
+    }
+
+    @Test
+    public void testConcurrentCreationNumbersOneType() throws Exception {
+        final int numThreads = 8;
+        final int numNames = 200;
+        final CountDownLatch start = new CountDownLatch(1);
+        int typesBefore = Scene.v().getTypeNumberer().size();
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        try {
+            List<Future<List<RefType>>> futures = new ArrayList<>();
+            for (int t = 0; t < numThreads; t++) {
+                futures.add(executor.submit(new Callable<List<RefType>>() {
+                    public List<RefType> call() throws Exception {
+                        start.await();
+                        List<RefType> types = new ArrayList<>();
+                        for (int i = 0; i < numNames; i++) {
+                            types.add(RefType.v("a.b.C" + i));
+                        }
+                        return types;
+                    }
+                }));
+            }
+            start.countDown();
+            List<RefType> first = futures.get(0).get();
+            for (Future<List<RefType>> f : futures) {
+                List<RefType> types = f.get();
+                for (int i = 0; i < numNames; i++) {
+                    assertSame(first.get(i), types.get(i));
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(typesBefore + numNames, Scene.v().getTypeNumberer().size());
+    }
+}
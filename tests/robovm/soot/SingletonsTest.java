@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2014 RoboVM AB
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/gpl-2.0.html>.
+ */
+package soot;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+/**
+ * Tests creating the instances held by {@link Singletons} from several
+ * threads.
+ */
+public class SingletonsTest {
+
+    private static List<Type> touchTypes() {
+        List<Type> types = new ArrayList<>();
+        types.add(BooleanType.v());
+        types.add(ByteType.v());
+        types.add(CharType.v());
+        types.add(ShortType.v());
+        types.add(IntType.v());
+        types.add(LongType.v());
+        types.add(FloatType.v());
+        types.add(DoubleType.v());
+        types.add(VoidType.v());
+        types.add(NullType.v());
+        types.add(UnknownType.v());
+        types.add(ErroneousType.v());
+        types.add(StmtAddressType.v());
+        return types;
+    }
+
+    @Test
+    public void testConcurrentCreationNumbersOneType() throws Exception {
+        final int numThreads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        try {
+            for (int round = 0; round < 50; round++) {
+                G.reset();
+                int typesBefore = Scene.v().getTypeNumberer().size();
+                final CountDownLatch start = new CountDownLatch(1);
+                List<Future<List<Type>>> futures = new ArrayList<>();
+                for (int t = 0; t < numThreads; t++) {
+                    futures.add(executor.submit(new Callable<List<Type>>() {
+                        public List<Type> call() throws Exception {
+                            start.await();
+                            return touchTypes();
+                        }
+                    }));
+                }
+                start.countDown();
+                List<Type> first = futures.get(0).get();
+                for (Future<List<Type>> f : futures) {
+                    List<Type> types = f.get();
+                    for (int i = 0; i < types.size(); i++) {
+                        assertSame(first.get(i), types.get(i));
+                    }
+                }
+                // Every type numbered meanwhile must be one that is returned.
+                int typesAfter = Scene.v().getTypeNumberer().size();
+                for (int n = typesBefore + 1; n <= typesAfter; n++) {
+                    assertTrue(first.contains(Scene.v().getTypeNumberer().get(n)));
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
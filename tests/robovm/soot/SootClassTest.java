@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2014 RoboVM AB
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/gpl-2.0.html>.
+ */
+package soot;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import soot.util.NumberedString;
+
+/**
+ * Tests the field lookups and signatures of {@link SootClass}.
+ */
+public class SootClassTest {
+
+    private SootClass c;
+    private SootField i;
+    private SootField l;
+    private SootField z;
+
+    @Before
+    public void setUp() {
+        G.reset();
+        c = new SootClass("Fields");
+        Scene.v().addClass(c);
+        i = new SootField("x", IntType.v());
+        l = new SootField("x", LongType.v());
+        z = new SootField("y", BooleanType.v());
+        c.addField(i);
+        c.addField(l);
+        c.addField(z);
+    }
+
+    @Test
+    public void testSameName() {
+        assertSame(i, c.getField("x", IntType.v()));
+        assertSame(l, c.getField("x", LongType.v()));
+        assertSame(l, c.getField("long x"));
+        assertFalse(c.declaresField("x", BooleanType.v()));
+        assertSame(z, c.getFieldByName("y"));
+        try {
+            c.getFieldByName("x");
+            fail();
+        } catch (RuntimeException e) {
+            assertEquals("ambiguous field: x", e.getMessage());
+        }
+
+        c.removeField(i);
+        assertSame(l, c.getFieldByName("x"));
+        c.removeField(l);
+        assertFalse(c.declaresFieldByName("x"));
+    }
+
+    @Test
+    public void testRename() {
+        z.setName("x");
+        assertSame(z, c.getField("x", BooleanType.v()));
+        assertFalse(c.declaresFieldByName("y"));
+        i.setName("y");
+        l.setName("y");
+        assertSame(z, c.getFieldByName("x"));
+        assertSame(i, c.getField("y", IntType.v()));
+        assertSame(l, c.getField("y", LongType.v()));
+    }
+
+    @Test
+    public void testNumberedSignatureOnlyIfAdded() {
+        int before = Scene.v().getSignatureNumberer().size();
+        assertEquals("<Fields: int x>", i.getSignature());
+        assertNull(i.getNumberedSignature());
+        assertEquals(before, Scene.v().getSignatureNumberer().size());
+
+        NumberedString sig = Scene.v().getSignatureNumberer().findOrAdd("<Fields: int x>");
+        assertSame(sig, i.getNumberedSignature());
+        assertSame(sig, Scene.v().makeFieldRef(c, "x", IntType.v(), false).getNumberedSignature());
+        i.setName("z");
+        assertNull(i.getNumberedSignature());
+    }
+}
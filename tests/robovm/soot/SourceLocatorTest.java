@@ -0,0 +1,248 @@
+/*
+ * Copyright (C) 2014 RoboVM AB
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/gpl-2.0.html>.
+ */
+package soot;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import soot.SourceLocator.FoundFile;
+import soot.testfixtures.Fixtures;
+
+/**
+ * Tests looking up files in the class path with
+ * {@link SourceLocator#lookupInClassPath(String)}.
+ */
+public class SourceLocatorTest {
+
+    private File tmp;
+
+    @Before
+    public void setUp() throws IOException {
+        Fixtures.reset();
+        tmp = File.createTempFile("sourcelocator", "");
+        tmp.delete();
+        tmp.mkdirs();
+    }
+
+    @After
+    public void tearDown() {
+        SourceLocator.v().invalidateClassPath();
+        delete(tmp);
+    }
+
+    private static void delete(File f) {
+        File[] children = f.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        f.delete();
+    }
+
+    private String dir(String name, String... files) throws IOException {
+        File d = new File(tmp, name);
+        for (String file : files) {
+            File f = new File(d, file);
+            f.getParentFile().mkdirs();
+            FileOutputStream out = new FileOutputStream(f);
+            try {
+                out.write((name + ":" + file).getBytes("UTF-8"));
+            } finally {
+                out.close();
+            }
+        }
+        d.mkdirs();
+        return d.getAbsolutePath();
+    }
+
+    private String jar(String name, String... files) throws IOException {
+        File f = new File(tmp, name);
+        ZipOutputStream out = new ZipOutputStream(new FileOutputStream(f));
+        try {
+            for (String file : files) {
+                out.putNextEntry(new ZipEntry(file));
+                out.write((name + ":" + file).getBytes("UTF-8"));
+                out.closeEntry();
+            }
+        } finally {
+            out.close();
+        }
+        return f.getAbsolutePath();
+    }
+
+    private static void setClassPath(String... entries) {
+        StringBuilder sb = new StringBuilder();
+        for (String entry : entries) {
+            if (sb.length() > 0) {
+                sb.append(File.pathSeparatorChar);
+            }
+            sb.append(entry);
+        }
+        Scene.v().setSootClassPath(sb.toString());
+    }
+
+    private static String lookup(String fileName) throws IOException {
+        FoundFile file = SourceLocator.v().lookupInClassPath(fileName);
+        if (file == null) {
+            return null;
+        }
+        InputStream in = file.inputStream();
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buf = new byte[1024];
+            int n;
+            while ((n = in.read(buf)) != -1) {
+                out.write(buf, 0, n);
+            }
+            return new String(out.toByteArray(), "UTF-8");
+        } finally {
+            in.close();
+        }
+    }
+
+    @Test
+    public void testLookupInDirectory() throws IOException {
+        setClassPath(dir("classes", "x/A.class"));
+        FoundFile file = SourceLocator.v().lookupInClassPath("x/A.class");
+        assertNotNull(file.path);
+        assertNull(file.entry);
+        assertEquals("classes:x/A.class", lookup("x/A.class"));
+        assertNull(lookup("x/B.class"));
+    }
+
+    @Test
+    public void testLookupInJar() throws IOException {
+        setClassPath(jar("classes.jar", "x/A.class"));
+        FoundFile file = SourceLocator.v().lookupInClassPath("x/A.class");
+        assertNull(file.path);
+        assertNotNull(file.entry);
+        assertEquals("classes.jar:x/A.class", lookup("x/A.class"));
+        assertNull(lookup("x/B.class"));
+    }
+
+    @Test
+    public void testEarlierEntryTakesPrecedence() throws IOException {
+        String dir = dir("classes", "x/A.class", "x/B.class");
+        String jar = jar("classes.jar", "x/A.class", "x/C.class");
+
+        setClassPath(dir, jar);
+        assertEquals("classes:x/A.class", lookup("x/A.class"));
+        assertEquals("classes:x/B.class", lookup("x/B.class"));
+        assertEquals("classes.jar:x/C.class", lookup("x/C.class"));
+
+        setClassPath(jar, dir);
+        assertEquals("classes.jar:x/A.class", lookup("x/A.class"));
+        assertEquals("classes:x/B.class", lookup("x/B.class"));
+        assertEquals("classes.jar:x/C.class", lookup("x/C.class"));
+    }
+
+    @Test
+    public void testFirstJarContainingFileTakesPrecedence() throws IOException {
+        String a = jar("a.jar", "x/A.class");
+        String b = jar("b.jar", "x/A.class", "x/B.class");
+        setClassPath(a, dir("classes", "x/B.class"), b);
+        assertEquals("a.jar:x/A.class", lookup("x/A.class"));
+        assertEquals("classes:x/B.class", lookup("x/B.class"));
+    }
+
+    @Test
+    public void testClassPathChange() throws IOException {
+        String dir = dir("classes", "x/A.class");
+        String jar = jar("classes.jar", "x/A.class", "x/B.class");
+        setClassPath(dir);
+        assertEquals("classes:x/A.class", lookup("x/A.class"));
+        assertNull(lookup("x/B.class"));
+
+        setClassPath(jar);
+        assertEquals("classes.jar:x/A.class", lookup("x/A.class"));
+        assertEquals("classes.jar:x/B.class", lookup("x/B.class"));
+    }
+
+    @Test
+    public void testInvalidateClassPath() throws IOException {
+        String jar = jar("classes.jar", "x/A.class");
+        setClassPath(jar);
+        assertNull(lookup("x/B.class"));
+        List<String> classPath = SourceLocator.v().classPath();
+
+        // The index isn't rebuilt until the class path is invalidated
+        jar("classes.jar", "x/A.class", "x/B.class");
+        SourceLocator.v().invalidateClassPath();
+        assertNull(SourceLocator.v().classPath());
+        assertEquals("classes.jar:x/B.class", lookup("x/B.class"));
+        assertNotSame(classPath, SourceLocator.v().classPath());
+        assertEquals(classPath, SourceLocator.v().classPath());
+    }
+
+    @Test
+    public void testConcurrentFirstLookups() throws Exception {
+        final List<String> files = new ArrayList<String>();
+        for (int i = 0; i < 50; i++) {
+            files.add("x/A" + i + ".class");
+        }
+        String[] names = files.toArray(new String[files.size()]);
+        setClassPath(dir("classes", names[0]), jar("a.jar", names), jar("b.jar", names));
+
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final CountDownLatch start = new CountDownLatch(1);
+            List<Future<List<String>>> futures = new ArrayList<Future<List<String>>>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(new Callable<List<String>>() {
+                    public List<String> call() throws Exception {
+                        start.await();
+                        List<String> contents = new ArrayList<String>();
+                        for (String file : files) {
+                            contents.add(lookup(file));
+                        }
+                        return contents;
+                    }
+                }));
+            }
+            start.countDown();
+            for (Future<List<String>> f : futures) {
+                List<String> contents = f.get();
+                assertEquals("classes:" + files.get(0), contents.get(0));
+                for (int i = 1; i < files.size(); i++) {
+                    assertEquals("a.jar:" + files.get(i), contents.get(i));
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (C) 2014 RoboVM AB
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/gpl-2.0.html>.
+ */
+package soot.coffi;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import soot.options.Options;
+import soot.testfixtures.Fixtures;
+import soot.testfixtures.Sample;
+
+/**
+ * Tests {@link BodyCache}.
+ */
+public class BodyCacheTest {
+
+    private File dir;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("bodycache").toFile();
+    }
+
+    @After
+    public void tearDown() {
+        delete(dir);
+    }
+
+    private static void delete(File f) {
+        File[] children = f.listFiles();
+        if (children != null) {
+            for (File c : children) {
+                delete(c);
+            }
+        }
+        f.delete();
+    }
+
+    private List<File> cachedFiles(File d, List<File> result) {
+        File[] children = d.listFiles();
+        if (children != null) {
+            for (File c : children) {
+                if (c.isDirectory()) {
+                    cachedFiles(c, result);
+                } else {
+                    result.add(c);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Retrieves the bodies of {@link Sample} with a fresh {@link soot.Scene}
+     * using the cache and returns them printed.
+     */
+    private String retrieveBodies(boolean keepLineNumbers) {
+        Fixtures.reset();
+        Options.v().set_body_cache_dir(dir.getPath());
+        Options.v().set_keep_line_number(keepLineNumbers);
+        Fixtures.load(Sample.class);
+        return Fixtures.printBodies(Sample.class);
+    }
+
+    private static int concreteMethods() {
+        int n = 0;
+        for (soot.SootMethod m : Fixtures.get(Sample.class).getMethods()) {
+            if (m.isConcrete()) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    @Test
+    public void testMissThenHit() {
+        String expected = retrieveBodies(false);
+        int n = concreteMethods();
+        assertEquals(0, BodyCache.v().getHits());
+        assertEquals(n, BodyCache.v().getMisses());
+        assertEquals(n, BodyCache.v().getWrites());
+        assertEquals(n, cachedFiles(dir, new ArrayList<File>()).size());
+
+        assertEquals(expected, retrieveBodies(false));
+        assertEquals(n, BodyCache.v().getHits());
+        assertEquals(0, BodyCache.v().getMisses());
+        assertEquals(0, BodyCache.v().getWrites());
+    }
+
+    @Test
+    public void testCorruptEntriesAreDiscarded() throws IOException {
+        String expected = retrieveBodies(false);
+        int n = concreteMethods();
+        for (File f : cachedFiles(dir, new ArrayList<File>())) {
+            try (FileOutputStream out = new FileOutputStream(f)) {
+                out.write(new byte[] {1, 2, 3});
+            }
+        }
+
+        assertEquals(expected, retrieveBodies(false));
+        assertEquals(0, BodyCache.v().getHits());
+        assertEquals(n, BodyCache.v().getMisses());
+        assertEquals(n, BodyCache.v().getWrites());
+
+        assertEquals(expected, retrieveBodies(false));
+        assertEquals(n, BodyCache.v().getHits());
+    }
+
+    @Test
+    public void testOptionsChangeMisses() {
+        String withoutLines = retrieveBodies(false);
+        int n = concreteMethods();
+
+        String withLines = retrieveBodies(true);
+        assertEquals(0, BodyCache.v().getHits());
+        assertEquals(n, BodyCache.v().getMisses());
+        assertEquals(2 * n, cachedFiles(dir, new ArrayList<File>()).size());
+
+        assertEquals(withoutLines, retrieveBodies(false));
+        assertEquals(n, BodyCache.v().getHits());
+        assertEquals(withLines, retrieveBodies(true));
+        assertEquals(n, BodyCache.v().getHits());
+    }
+}
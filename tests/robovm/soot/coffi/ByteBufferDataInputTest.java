@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2014 RoboVM AB
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/gpl-2.0.html>.
+ */
+package soot.coffi;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link ByteBufferDataInput}.
+ */
+public class ByteBufferDataInputTest {
+
+    private static ByteBufferDataInput input(byte[] b) {
+        return new ByteBufferDataInput(ByteBuffer.wrap(b));
+    }
+
+    @SuppressWarnings("deprecation")
+    private static void assertReadLineLikeDataInputStream(byte[] b) throws IOException {
+        DataInputStream expected = new DataInputStream(new ByteArrayInputStream(b));
+        ByteBufferDataInput actual = input(b);
+        String line;
+        do {
+            line = expected.readLine();
+            assertEquals(line, actual.readLine());
+        } while (line != null);
+    }
+
+    @Test
+    public void testReadLine() throws IOException {
+        assertReadLineLikeDataInputStream(new byte[0]);
+        assertReadLineLikeDataInputStream("a\nb\rc\r\nd".getBytes("ISO-8859-1"));
+        assertReadLineLikeDataInputStream("\n\r\r\n\n".getBytes("ISO-8859-1"));
+        assertReadLineLikeDataInputStream("trailing\r".getBytes("ISO-8859-1"));
+        assertReadLineLikeDataInputStream(new byte[] {'x', (byte) 0xe9, (byte) 0xff, '\n', 'y'});
+    }
+
+    @Test
+    public void testReadLineContinuesWithBinaryData() throws IOException {
+        ByteBufferDataInput in = input(new byte[] {'h', 'i', '\r', '\n', 0, 42});
+        assertEquals("hi", in.readLine());
+        assertEquals(42, in.readUnsignedShort());
+        assertNull(in.readLine());
+    }
+}
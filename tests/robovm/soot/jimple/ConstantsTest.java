@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2014 RoboVM AB
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/gpl-2.0.html>.
+ */
+package soot.jimple;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * Tests the shared and interned instances of {@link IntConstant},
+ * {@link LongConstant}, {@link StringConstant} and {@link ClassConstant}.
+ */
+public class ConstantsTest {
+
+    @Test
+    public void testSmallIntConstantsAreShared() {
+        for (int i = -128; i <= 1023; i++) {
+            assertSame(IntConstant.v(i), IntConstant.v(i));
+            assertEquals(i, IntConstant.v(i).value);
+        }
+        for (int i : new int[] {-129, 1024, Integer.MIN_VALUE, Integer.MAX_VALUE}) {
+            assertEquals(IntConstant.v(i), IntConstant.v(i));
+            assertEquals(IntConstant.v(i).hashCode(), IntConstant.v(i).hashCode());
+            assertEquals(i, IntConstant.v(i).value);
+        }
+        assertFalse(IntConstant.v(1).equals(IntConstant.v(2)));
+        assertFalse(IntConstant.v(1).equals(LongConstant.v(1)));
+    }
+
+    @Test
+    public void testSmallLongConstantsAreShared() {
+        for (long l = -128; l <= 127; l++) {
+            assertSame(LongConstant.v(l), LongConstant.v(l));
+            assertEquals(l, LongConstant.v(l).value);
+        }
+        for (long l : new long[] {-129, 128, 1L << 40, Long.MIN_VALUE, Long.MAX_VALUE}) {
+            assertEquals(LongConstant.v(l), LongConstant.v(l));
+            assertEquals(LongConstant.v(l).hashCode(), LongConstant.v(l).hashCode());
+            assertEquals(l, LongConstant.v(l).value);
+        }
+        assertFalse(LongConstant.v(1).equals(LongConstant.v(2)));
+    }
+
+    @Test
+    public void testStringConstantsAreInterned() {
+        StringConstant c = StringConstant.v(new String("hello"));
+        assertSame(c, StringConstant.v(new String("hello")));
+        assertEquals("hello", c.value);
+        assertFalse(c.equals(StringConstant.v("world")));
+        assertFalse(c.equals(ClassConstant.v("hello")));
+    }
+
+    @Test
+    public void testClassConstantsAreInterned() {
+        ClassConstant c = ClassConstant.v(new String("java/lang/Object"));
+        assertSame(c, ClassConstant.v(new String("java/lang/Object")));
+        assertEquals("java/lang/Object", c.value);
+        assertFalse(c.equals(ClassConstant.v("java/lang/String")));
+    }
+}
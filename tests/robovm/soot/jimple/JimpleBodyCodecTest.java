@@ -0,0 +1,182 @@
+/*
+ * Copyright (C) 2014 RoboVM AB
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/gpl-2.0.html>.
+ */
+package soot.jimple;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import soot.Body;
+import soot.SootMethod;
+import soot.SootMethodHandle;
+import soot.SootMethodType;
+import soot.Unit;
+import soot.ValueBox;
+import soot.options.Options;
+import soot.tagkit.SourceFileTag;
+import soot.tagkit.StringTag;
+import soot.tagkit.Tag;
+import soot.testfixtures.Fixtures;
+import soot.testfixtures.Sample;
+
+/**
+ * Tests that {@link JimpleBodyCodec} reproduces the bodies it has written.
+ */
+public class JimpleBodyCodecTest {
+
+    @Before
+    public void setUp() {
+        Fixtures.reset();
+        Options.v().set_keep_line_number(true);
+        Options.v().set_keep_offset(true);
+        Fixtures.load(Sample.class);
+    }
+
+    private static byte[] write(Body body) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        new JimpleBodyCodec().write(body, out);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static Body read(SootMethod m, byte[] bytes) throws IOException {
+        return new JimpleBodyCodec().read(m, new DataInputStream(new ByteArrayInputStream(bytes)));
+    }
+
+    private static String tags(List<Tag> tags) {
+        StringBuilder sb = new StringBuilder("[");
+        for (Tag t : tags) {
+            sb.append(t.getClass().getSimpleName()).append(':').append(t).append(' ');
+        }
+        return sb.append(']').toString();
+    }
+
+    /**
+     * Returns the tags of the body and of each of its units.
+     */
+    private static String tags(Body b) {
+        StringBuilder sb = new StringBuilder(tags(b.getTags()));
+        for (Unit u : b.getUnits()) {
+            sb.append('\n').append(tags(u.getTags()));
+        }
+        return sb.toString();
+    }
+
+    private static void assertRoundTrips(Body body) throws IOException {
+        Body decoded = read(body.getMethod(), write(body));
+        assertNotSame(body, decoded);
+        assertEquals(Fixtures.print(body), Fixtures.print(decoded));
+        assertEquals(tags(body), tags(decoded));
+        assertEquals(body.getTraps().size(), decoded.getTraps().size());
+    }
+
+    private static void assertContainsInstances(List<?> objects, Class<?>... classes) {
+        for (Class<?> c : classes) {
+            boolean found = false;
+            for (Object o : objects) {
+                found |= c.isInstance(o);
+            }
+            assertTrue("No " + c.getName(), found);
+        }
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        List<Object> constants = new ArrayList<Object>();
+        List<Unit> units = new ArrayList<Unit>();
+        int traps = 0;
+        for (SootMethod m : Fixtures.get(Sample.class).getMethods()) {
+            if (!m.isConcrete()) {
+                continue;
+            }
+            Body body = m.retrieveActiveBody();
+            body.getUnits().getFirst().addTag(new StringTag("first", "test"));
+            body.addTag(new StringTag(m.getName(), "test"));
+            for (Unit u : body.getUnits()) {
+                units.add(u);
+                for (ValueBox vb : u.getUseBoxes()) {
+                    if (vb.getValue() instanceof Constant) {
+                        constants.add(vb.getValue());
+                    }
+                    if (vb.getValue() instanceof DynamicInvokeExpr) {
+                        for (Object arg : ((DynamicInvokeExpr) vb.getValue()).getBootstrapArgs()) {
+                            constants.add(arg);
+                        }
+                    }
+                }
+            }
+            traps += body.getTraps().size();
+            assertRoundTrips(body);
+        }
+
+        // Make sure the fixture covers what it should
+        assertTrue(traps > 0);
+        assertContainsInstances(units, LookupSwitchStmt.class,
+                TableSwitchStmt.class, EnterMonitorStmt.class,
+                ExitMonitorStmt.class, ThrowStmt.class, IfStmt.class,
+                GotoStmt.class, IdentityStmt.class, AssignStmt.class,
+                InvokeStmt.class, ReturnStmt.class, ReturnVoidStmt.class);
+        assertContainsInstances(constants, IntConstant.class,
+                LongConstant.class, FloatConstant.class, DoubleConstant.class,
+                StringConstant.class, NullConstant.class, ClassConstant.class,
+                SootMethodHandle.class, SootMethodType.class);
+    }
+
+    @Test
+    public void testLineNumberAndOffsetTags() throws IOException {
+        Body body = Fixtures.get(Sample.class).getMethodByName("sum").retrieveActiveBody();
+        boolean lineNumber = false;
+        boolean offset = false;
+        for (Unit u : body.getUnits()) {
+            lineNumber |= u.hasTag("LineNumberTag");
+            offset |= u.hasTag("BytecodeOffsetTag");
+        }
+        assertTrue(lineNumber);
+        assertTrue(offset);
+        assertRoundTrips(body);
+    }
+
+    @Test(expected = IOException.class)
+    public void testUnsupportedTag() throws IOException {
+        Body body = Fixtures.get(Sample.class).getMethodByName("run").retrieveActiveBody();
+        body.getUnits().getFirst().addTag(new SourceFileTag("Sample.java"));
+        write(body);
+    }
+
+    @Test(expected = IOException.class)
+    public void testNotABody() throws IOException {
+        read(Fixtures.get(Sample.class).getMethodByName("run"), new byte[] {1, 2, 3, 4, 5});
+    }
+
+    @Test(expected = IOException.class)
+    public void testTruncated() throws IOException {
+        Body body = Fixtures.get(Sample.class).getMethodByName("describe").retrieveActiveBody();
+        byte[] bytes = write(body);
+        read(body.getMethod(), Arrays.copyOf(bytes, bytes.length / 2));
+    }
+}
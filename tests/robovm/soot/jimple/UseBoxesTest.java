@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2014 RoboVM AB
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/gpl-2.0.html>.
+ */
+package soot.jimple;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import soot.Body;
+import soot.SootMethod;
+import soot.Unit;
+import soot.Value;
+import soot.ValueBox;
+import soot.options.Options;
+import soot.testfixtures.Fixtures;
+import soot.testfixtures.Sample;
+
+/**
+ * Tests that {@link Unit#forEachUseBox} and {@link Value#forEachUseBox}
+ * visit the same boxes in the same order as <code>getUseBoxes()</code>.
+ */
+public class UseBoxesTest {
+
+    @Before
+    public void setUp() {
+        Fixtures.reset();
+        Options.v().set_keep_line_number(true);
+        Fixtures.load(Sample.class);
+    }
+
+    @Test
+    public void testUnitsAndValues() {
+        int values = 0;
+        for (SootMethod m : Fixtures.get(Sample.class).getMethods()) {
+            if (!m.isConcrete()) {
+                continue;
+            }
+            Body b = m.retrieveActiveBody();
+            for (Unit u : b.getUnits()) {
+                assertSameBoxes(u.toString(), u.getUseBoxes(), collect(u));
+                for (ValueBox box : u.getUseBoxes()) {
+                    Value v = box.getValue();
+                    assertSameBoxes(v.toString(), v.getUseBoxes(), collect(v));
+                    // The second call returns the cached list.
+                    assertSameBoxes(v.toString(), v.getUseBoxes(), collect(v));
+                    values++;
+                }
+            }
+        }
+        assertTrue(values > 0);
+    }
+
+    private static List<ValueBox> collect(Unit u) {
+        List<ValueBox> list = new ArrayList<ValueBox>();
+        u.forEachUseBox(list::add);
+        return list;
+    }
+
+    private static List<ValueBox> collect(Value v) {
+        List<ValueBox> list = new ArrayList<ValueBox>();
+        v.forEachUseBox(list::add);
+        return list;
+    }
+
+    private static void assertSameBoxes(String message, List<?> expected,
+            List<ValueBox> actual) {
+
+        assertEquals(message, expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertSame(message, expected.get(i), actual.get(i));
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2014 RoboVM AB
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/gpl-2.0.html>.
+ */
+package soot.jimple.toolkits.callgraph;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import soot.G;
+import soot.PackManager;
+import soot.PhaseOptions;
+import soot.Scene;
+import soot.options.Options;
+
+/**
+ * Builds the call graph of a whole program with each of the CHA and RTA
+ * builders and reports the reachable methods, edges and build time of each.
+ * Run it as
+ * <pre>
+ * java soot.jimple.toolkits.callgraph.CallGraphComparison &lt;soot-classpath&gt; &lt;main-class&gt; [threads]
+ * </pre>
+ * where the class path includes the JDK's classes, e.g. its
+ * <code>rt.jar</code>, and the application.
+ */
+public class CallGraphComparison {
+
+    /**
+     * The size of the call graph built by one phase of the
+     * <code>cg</code> pack.
+     */
+    public static final class Result {
+        public final String phase;
+        public final int reachables;
+        public final int edges;
+        public final long millis;
+
+        Result(String phase, int reachables, int edges, long millis) {
+            this.phase = phase;
+            this.reachables = reachables;
+            this.edges = edges;
+            this.millis = millis;
+        }
+
+        @Override
+        public String toString() {
+            return phase + ": " + reachables + " reachable methods, " + edges
+                    + " edges, " + millis + " ms";
+        }
+    }
+
+    /**
+     * Resets Soot and builds the call graph of <code>mainClass</code> with
+     * the specified phase, <code>cg.cha</code> or <code>cg.rta</code>.
+     * Classes missing from the class path are phantom.
+     */
+    public static Result build(String phase, String classPath, String mainClass, int threads) {
+        G.reset();
+        Options.v().set_allow_phantom_refs(true);
+        Options.v().set_soot_classpath(classPath);
+        Options.v().set_output_format(Options.output_format_none);
+        Options.v().set_whole_program(true);
+        Options.v().set_main_class(mainClass);
+        Options.v().set_num_threads(threads);
+        Scene.v().loadClassAndSupport(mainClass).setApplicationClass();
+        Scene.v().loadNecessaryClasses();
+        for (String p : new String[] {"cg.cha", "cg.rta"}) {
+            PhaseOptions.v().setPhaseOption(p, "enabled:" + p.equals(phase));
+        }
+        long start = System.currentTimeMillis();
+        PackManager.v().getPack("cg").apply();
+        long millis = System.currentTimeMillis() - start;
+        return new Result(phase, Scene.v().getReachableMethods().size(),
+                Scene.v().getCallGraph().size(), millis);
+    }
+
+    /**
+     * Builds the call graph with CHA and with RTA.
+     */
+    public static List<Result> compare(String classPath, String mainClass, int threads) {
+        List<Result> results = new ArrayList<Result>();
+        results.add(build("cg.cha", classPath, mainClass, threads));
+        results.add(build("cg.rta", classPath, mainClass, threads));
+        return results;
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: CallGraphComparison <soot-classpath> <main-class> [threads]");
+            System.exit(1);
+        }
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+        for (Result r : compare(args[0], args[1], threads)) {
+            System.out.println(r);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2014 RoboVM AB
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/gpl-2.0.html>.
+ */
+package soot.jimple.toolkits.callgraph;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Test;
+
+import soot.MethodOrMethodContext;
+import soot.Scene;
+import soot.SootMethod;
+import soot.options.Options;
+import soot.testfixtures.Drawing;
+import soot.testfixtures.Fixtures;
+import soot.testfixtures.Shapes;
+
+/**
+ * Tests that {@link OnFlyCallGraphBuilder} builds the same call graph on
+ * one thread and on several.
+ */
+public class OnFlyCallGraphBuilderTest {
+
+    private static final Class<?>[] SHAPES = {
+        Shapes.Shape.class, Shapes.Polygon.class, Shapes.Quad.class,
+        Shapes.Curved.class, Shapes.Rect.class, Shapes.Square.class,
+        Shapes.Triangle.class, Shapes.Hexagon.class, Shapes.Circle.class,
+        Shapes.Ellipse.class, Shapes.Labelled.class, Shapes.Tag.class
+    };
+
+    /**
+     * Builds the call graph and returns its edges followed by the reachable
+     * methods, each sorted.
+     */
+    private static List<String> build(String phase, int threads) {
+        Fixtures.reset();
+        Options.v().set_num_threads(threads);
+        CallGraph cg = Fixtures.buildCallGraph(phase, Drawing.class, SHAPES);
+        List<String> edges = new ArrayList<String>();
+        for (Iterator<Edge> it = cg.listener(); it.hasNext();) {
+            Edge e = it.next();
+            edges.add(e.src() + " " + e.srcUnit() + " " + e.tgt() + " " + e.kind());
+        }
+        Collections.sort(edges);
+        List<String> reachables = new ArrayList<String>();
+        for (Iterator<MethodOrMethodContext> it = Scene.v().getReachableMethods().listener(); it.hasNext();) {
+            reachables.add(it.next().method().getSignature());
+        }
+        Collections.sort(reachables);
+        assertFalse(edges.isEmpty());
+        edges.addAll(reachables);
+        return edges;
+    }
+
+    @Test
+    public void testChaSameOnSeveralThreads() {
+        assertEquals(build("cg.cha", 1), build("cg.cha", 4));
+    }
+
+    @Test
+    public void testRtaSameOnSeveralThreads() {
+        assertEquals(build("cg.rta", 1), build("cg.rta", 4));
+    }
+
+    @Test
+    public void testDefaultMethodTargetOfFirstCallSite() {
+        Fixtures.reset();
+        CallGraph cg = Fixtures.buildCallGraph("cg.cha", Drawing.class, SHAPES);
+        SootMethod label = Fixtures.get(Drawing.class).getMethodByName("label");
+        SootMethod target = Fixtures.get(Shapes.Labelled.class).getMethodByName("label");
+        boolean found = false;
+        for (Iterator<Edge> it = cg.edgesOutOf(label); it.hasNext();) {
+            found |= it.next().tgt() == target;
+        }
+        assertTrue(found);
+    }
+
+    @Test
+    public void testTargetsOfAbstractMethodUnchanged() {
+        Fixtures.reset();
+        CallGraph cg = Fixtures.buildCallGraph("cg.cha", Drawing.class, SHAPES);
+        SootMethod main = Fixtures.get(Drawing.class).getMethodByName("main");
+        List<String> area = new ArrayList<String>();
+        List<String> corners = new ArrayList<String>();
+        for (Iterator<Edge> it = cg.edgesOutOf(main); it.hasNext();) {
+            Edge e = it.next();
+            if (e.tgt().getName().equals("area")) {
+                area.add(e.tgt().getDeclaringClass().getShortJavaStyleName());
+            } else if (e.tgt().getName().equals("corners")) {
+                corners.add(e.tgt().getDeclaringClass().getShortJavaStyleName());
+            }
+        }
+        Collections.sort(area);
+        Collections.sort(corners);
+        assertEquals(Arrays.asList("Shapes$Circle", "Shapes$Ellipse",
+                "Shapes$Hexagon", "Shapes$Rect", "Shapes$Square",
+                "Shapes$Triangle"), area);
+        assertEquals(Arrays.asList("Shapes$Hexagon", "Shapes$Rect",
+                "Shapes$Triangle"), corners);
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2014 RoboVM AB
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/gpl-2.0.html>.
+ */
+package soot.jimple.toolkits.callgraph;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+import soot.MethodOrMethodContext;
+import soot.Scene;
+import soot.SootMethod;
+import soot.testfixtures.Drawing;
+import soot.testfixtures.Fixtures;
+import soot.testfixtures.Shapes;
+
+/**
+ * Tests {@link RTACallGraphBuilder}.
+ */
+public class RTACallGraphBuilderTest {
+
+    private static final Class<?>[] SHAPES = {
+        Shapes.Shape.class, Shapes.Polygon.class, Shapes.Quad.class,
+        Shapes.Curved.class, Shapes.Rect.class, Shapes.Square.class,
+        Shapes.Triangle.class, Shapes.Hexagon.class, Shapes.Circle.class,
+        Shapes.Ellipse.class
+    };
+
+    private static Set<String> reachables(String phase) {
+        Fixtures.reset();
+        Fixtures.buildCallGraph(phase, Drawing.class, SHAPES);
+        Set<String> result = new HashSet<String>();
+        for (Iterator<MethodOrMethodContext> it = Scene.v().getReachableMethods().listener(); it.hasNext();) {
+            SootMethod m = it.next().method();
+            result.add(m.getSignature());
+        }
+        return result;
+    }
+
+    /**
+     * Returns the classes declaring the targets of the edges out of
+     * <code>Drawing.main</code> to methods of the specified name.
+     */
+    private static Set<String> targets(CallGraph cg, String name) {
+        SootMethod main = Fixtures.get(Drawing.class).getMethodByName("main");
+        Set<String> result = new TreeSet<String>();
+        for (Iterator<Edge> it = cg.edgesOutOf(main); it.hasNext();) {
+            SootMethod tgt = it.next().tgt();
+            if (tgt.getName().equals(name)) {
+                result.add(tgt.getDeclaringClass().getShortJavaStyleName());
+            }
+        }
+        return result;
+    }
+
+    @Test
+    public void testReachablesSubsetOfCha() {
+        Set<String> cha = reachables("cg.cha");
+        Set<String> rta = reachables("cg.rta");
+        assertTrue(cha.containsAll(rta));
+
+        assertTrue(rta.contains("<soot.testfixtures.Shapes$Square: double area()>"));
+        assertTrue(rta.contains("<soot.testfixtures.Shapes$Triangle: double area()>"));
+        assertTrue(rta.contains("<soot.testfixtures.Shapes$Rect: int corners()>"));
+        assertTrue(rta.contains("<soot.testfixtures.Shapes$Triangle: int corners()>"));
+        for (String m : new String[] {
+                "<soot.testfixtures.Shapes$Rect: double area()>",
+                "<soot.testfixtures.Shapes$Hexagon: double area()>",
+                "<soot.testfixtures.Shapes$Hexagon: int corners()>",
+                "<soot.testfixtures.Shapes$Circle: double area()>",
+                "<soot.testfixtures.Shapes$Ellipse: double area()>"}) {
+            assertTrue(m, cha.contains(m));
+            assertFalse(m, rta.contains(m));
+        }
+    }
+
+    @Test
+    public void testNoEdgesToTypesNeverAllocated() {
+        Fixtures.reset();
+        CallGraph cha = Fixtures.buildCallGraph("cg.cha", Drawing.class, SHAPES);
+        assertEquals(new TreeSet<String>(Arrays.asList("Shapes$Circle",
+                "Shapes$Ellipse", "Shapes$Hexagon", "Shapes$Rect",
+                "Shapes$Square", "Shapes$Triangle")), targets(cha, "area"));
+        assertEquals(new TreeSet<String>(Arrays.asList("Shapes$Hexagon",
+                "Shapes$Rect", "Shapes$Triangle")), targets(cha, "corners"));
+
+        // Only Square and Triangle are allocated. Square inherits corners()
+        // from Rect but overrides area().
+        Fixtures.reset();
+        CallGraph rta = Fixtures.buildCallGraph("cg.rta", Drawing.class, SHAPES);
+        assertEquals(new TreeSet<String>(Arrays.asList("Shapes$Square",
+                "Shapes$Triangle")), targets(rta, "area"));
+        assertEquals(new TreeSet<String>(Arrays.asList("Shapes$Rect",
+                "Shapes$Triangle")), targets(rta, "corners"));
+    }
+
+    @Test
+    public void testComparisonWithCha() {
+        List<CallGraphComparison.Result> results = CallGraphComparison.compare(
+                Fixtures.classPath(), Drawing.class.getName(), 1);
+        CallGraphComparison.Result cha = results.get(0);
+        CallGraphComparison.Result rta = results.get(1);
+        assertEquals("cg.cha", cha.phase);
+        assertEquals("cg.rta", rta.phase);
+        assertTrue(rta.reachables > 0);
+        assertTrue(cha + " / " + rta, rta.reachables < cha.reachables);
+        assertTrue(cha + " / " + rta, rta.edges < cha.edges);
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright (C) 2014 RoboVM AB
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/gpl-2.0.html>.
+ */
+package soot.testfixtures;
+
+/**
+ * A program which only instantiates some of the {@link Shapes}, to build
+ * call graphs for.
+ */
+public class Drawing {
+
+    public static void main(String[] args) {
+        Shapes.Shape[] shapes = { new Shapes.Square(), new Shapes.Triangle() };
+        double total = 0;
+        for (Shapes.Shape s : shapes) {
+            total += s.area();
+            if (s instanceof Shapes.Polygon) {
+                total += ((Shapes.Polygon) s).corners();
+            }
+        }
+        System.out.println(total);
+        System.out.println(label(new Shapes.Tag()));
+    }
+
+    static String label(Shapes.Labelled l) {
+        return l.label();
+    }
+}
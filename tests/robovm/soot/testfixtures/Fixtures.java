@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2014 RoboVM AB
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/gpl-2.0.html>.
+ */
+package soot.testfixtures;
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.net.URISyntaxException;
+import java.util.Collections;
+
+import soot.Body;
+import soot.G;
+import soot.PackManager;
+import soot.PhaseOptions;
+import soot.Printer;
+import soot.Scene;
+import soot.SootClass;
+import soot.SootMethod;
+import soot.jimple.toolkits.callgraph.CallGraph;
+import soot.options.Options;
+
+/**
+ * Sets up a fresh {@link Scene} which loads the classes in this package
+ * from the directory the tests have been compiled to. All other classes,
+ * including those in <code>java.lang</code>, are phantom.
+ */
+public final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    /**
+     * Returns the directory or archive this class has been loaded from.
+     */
+    public static String classPath() {
+        try {
+            return new File(Fixtures.class.getProtectionDomain()
+                    .getCodeSource().getLocation().toURI()).getPath();
+        } catch (URISyntaxException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Resets all of Soot's global state and sets the options needed to
+     * load the fixtures. Further options may be set before the first class
+     * is loaded.
+     */
+    public static void reset() {
+        G.reset();
+        Options.v().set_allow_phantom_refs(true);
+        Options.v().set_soot_classpath(classPath());
+        Options.v().set_output_format(Options.output_format_none);
+    }
+
+    /**
+     * Loads the specified fixture classes as application classes.
+     */
+    public static void load(Class<?>... classes) {
+        Scene.v().loadBasicClasses();
+        for (Class<?> c : classes) {
+            Scene.v().loadClassAndSupport(c.getName()).setApplicationClass();
+        }
+    }
+
+    /**
+     * Builds a call graph in whole-program mode with the specified phase of
+     * the <code>cg</code> pack, e.g. <code>cg.cha</code>, starting at the
+     * <code>main</code> method of <code>mainClass</code>. The other classes
+     * are loaded first, so they are part of the hierarchy even if nothing
+     * refers to them.
+     */
+    public static CallGraph buildCallGraph(String phase, Class<?> mainClass, Class<?>... classes) {
+        Options.v().set_whole_program(true);
+        Options.v().set_main_class(mainClass.getName());
+        load(classes);
+        load(mainClass);
+        SootMethod main = get(mainClass).getMethodByName("main");
+        Scene.v().setEntryPoints(Collections.singletonList(main));
+        for (String p : new String[] {"cg.cha", "cg.rta"}) {
+            PhaseOptions.v().setPhaseOption(p, "enabled:" + p.equals(phase));
+        }
+        PackManager.v().getPack("cg").apply();
+        return Scene.v().getCallGraph();
+    }
+
+    /**
+     * Returns the specified fixture class as loaded into the {@link Scene}.
+     */
+    public static SootClass get(Class<?> c) {
+        return Scene.v().getSootClass(c.getName());
+    }
+
+    /**
+     * Prints the body using {@link Printer}.
+     */
+    public static String print(Body b) {
+        StringWriter sw = new StringWriter();
+        PrintWriter out = new PrintWriter(sw);
+        Printer.v().printTo(b, out);
+        out.flush();
+        return sw.toString();
+    }
+
+    /**
+     * Prints the active bodies of all concrete methods of the specified
+     * classes, in class and method order.
+     */
+    public static String printBodies(Class<?>... classes) {
+        StringBuilder sb = new StringBuilder();
+        for (Class<?> c : classes) {
+            for (SootMethod m : get(c).getMethods()) {
+                if (m.isConcrete()) {
+                    sb.append(print(m.retrieveActiveBody()));
+                }
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2014 RoboVM AB
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/gpl-2.0.html>.
+ */
+package soot.testfixtures;
+
+/**
+ * Nested loops with labelled <code>break</code> and <code>continue</code>
+ * and a trap inside a loop, for testing flow analyses.
+ */
+public class Loops {
+
+    public static int nested(int[] a, int n) {
+        int sum = 0;
+        int last = -1;
+        outer:
+        for (int i = 0; i < n; i++) {
+            int j = i;
+            while (j < a.length) {
+                if (a[j] < 0) {
+                    continue outer;
+                }
+                if (a[j] == 0) {
+                    break outer;
+                }
+                sum += a[j];
+                last = j;
+                j += 2;
+            }
+            do {
+                sum--;
+            } while (sum > 100);
+        }
+        return sum + last;
+    }
+
+    public static int retry(String[] s) {
+        int parsed = 0;
+        int failures = 0;
+        for (int i = 0; i < s.length; i++) {
+            int v = -1;
+            try {
+                v = Integer.parseInt(s[i]);
+            } catch (NumberFormatException e) {
+                failures++;
+                if (failures > 3) {
+                    return -failures;
+                }
+            }
+            parsed += v;
+        }
+        return parsed;
+    }
+}
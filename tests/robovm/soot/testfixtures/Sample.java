@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2014 RoboVM AB
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/gpl-2.0.html>.
+ */
+package soot.testfixtures;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Exercises traps, both kinds of switches, all kinds of constants,
+ * invokedynamic and code which the <code>jop</code> pack simplifies.
+ */
+public class Sample implements Runnable {
+    private int count;
+    private final List<String> names = new ArrayList<String>();
+
+    public void run() {
+        count++;
+    }
+
+    public int sum(int[] a) {
+        int s = 0;
+        for (int i = 0; i < a.length; i++) {
+            s += a[i];
+        }
+        return s;
+    }
+
+    public String describe(Object o) {
+        try {
+            if (o instanceof String) {
+                return ((String) o).trim();
+            }
+            switch (o.hashCode() & 3) {
+            case 0: return "zero";
+            case 1: return "one";
+            case 2: return "two";
+            default: break;
+            }
+            switch (o.hashCode()) {
+            case 10: return "ten";
+            case 1000: return "thousand";
+            }
+            return String.valueOf(o);
+        } catch (RuntimeException e) {
+            names.add(e.getMessage());
+            return null;
+        } finally {
+            count--;
+        }
+    }
+
+    public static double constants() {
+        long l = 1L << 40;
+        float f = 1.5f;
+        double d = 2.25;
+        return l + f + d + 'c';
+    }
+
+    public int redundant(int a, int b) {
+        int x = a * b + 3;
+        int y = a * b + 3;
+        int unused = x - y;
+        int c = 4;
+        if (c > 2) {
+            return x + y + c;
+        }
+        return unused;
+    }
+
+    public synchronized long operators(int i, long l, float f, double d, Object o) {
+        int[][] grid = new int[i][2];
+        String[] strings = new String[i];
+        grid[0][1] = -i ^ (i >>> 3) | (i << 2) & (i >> 1) % 7;
+        strings[0] = (String) o;
+        if (l > 5L && f < 1.0f && d >= 2.0 && o != null && !(o instanceof Number)) {
+            throw new IllegalStateException(strings[0] + grid.length);
+        }
+        Object none = null;
+        synchronized (this) {
+            l = l / 3 - l * 2 + (long) f + (long) -d;
+        }
+        return none == o ? l : (short) l + (byte) i + (char) i;
+    }
+
+    public Runnable lambda() {
+        return () -> count++;
+    }
+
+    public Class<?> cls() {
+        return Sample[].class;
+    }
+}
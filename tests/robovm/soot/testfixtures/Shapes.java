@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2014 RoboVM AB
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/gpl-2.0.html>.
+ */
+package soot.testfixtures;
+
+/**
+ * A small type hierarchy with interfaces extending interfaces. The nested
+ * types are only loaded when asked for, so tests can add them one by one.
+ */
+public class Shapes {
+
+    public interface Shape {
+        double area();
+    }
+
+    public interface Polygon extends Shape {
+        int corners();
+    }
+
+    public interface Quad extends Polygon {
+    }
+
+    public interface Curved extends Shape {
+    }
+
+    public interface Labelled {
+        default String label() {
+            return "label";
+        }
+    }
+
+    public static class Tag implements Labelled {
+    }
+
+    public static class Rect implements Quad {
+        double w, h;
+
+        public double area() {
+            return w * h;
+        }
+
+        public int corners() {
+            return 4;
+        }
+    }
+
+    public static class Square extends Rect {
+        public double area() {
+            return w * w;
+        }
+    }
+
+    public static class Triangle implements Polygon {
+        double b, h;
+
+        public double area() {
+            return b * h / 2;
+        }
+
+        public int corners() {
+            return 3;
+        }
+    }
+
+    public static class Hexagon implements Polygon {
+        double a;
+
+        public double area() {
+            return 3 * Math.sqrt(3) * a * a / 2;
+        }
+
+        public int corners() {
+            return 6;
+        }
+    }
+
+    public static class Circle implements Shape {
+        double r;
+
+        public double area() {
+            return Math.PI * r * r;
+        }
+    }
+
+    public static class Ellipse implements Curved {
+        double a, b;
+
+        public double area() {
+            return Math.PI * a * b;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (C) 2014 RoboVM AB
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/gpl-2.0.html>.
+ */
+package soot.toolkits.exceptions;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import soot.AnySubType;
+import soot.RefType;
+import soot.testfixtures.Exceptions;
+import soot.testfixtures.Fixtures;
+
+/**
+ * Tests interning, membership and the memoized queries of
+ * {@link ThrowableSet}.
+ */
+public class ThrowableSetInterningTest {
+
+    private ThrowableSet.Manager mgr;
+    private RefType base;
+    private RefType sub;
+    private RefType other;
+
+    @Before
+    public void setUp() {
+        Fixtures.reset();
+        Fixtures.load(Exceptions.Base.class, Exceptions.Sub.class, Exceptions.Other.class);
+        mgr = ThrowableSet.Manager.v();
+        base = Fixtures.get(Exceptions.Base.class).getType();
+        sub = Fixtures.get(Exceptions.Sub.class).getType();
+        other = Fixtures.get(Exceptions.Other.class).getType();
+    }
+
+    private static HashSet<Object> set(Object... types) {
+        return new HashSet<Object>(Arrays.asList(types));
+    }
+
+    @Test
+    public void testEqualContentsAreInterned() {
+        ThrowableSet s1 = mgr.EMPTY.add(base).add(other);
+        ThrowableSet s2 = mgr.EMPTY.add(other).add(base);
+        assertSame(s1, s2);
+        assertSame(s1, mgr.EMPTY.add(s2));
+        assertSame(s1, s1.add(base));
+        assertSame(mgr.EMPTY, mgr.EMPTY.add(mgr.EMPTY));
+        assertEquals(set(base, other), new HashSet<Object>(s1.typesIncluded()));
+        assertTrue(s1.typesExcluded().isEmpty());
+
+        // Sub is already included in AnySubType(Base).
+        ThrowableSet any = mgr.EMPTY.add(AnySubType.v(base));
+        assertSame(any, any.add(sub));
+        assertSame(any, mgr.EMPTY.add(sub).add(AnySubType.v(base)));
+        assertNotSame(s1, any);
+    }
+
+    @Test
+    public void testCatchableAs() {
+        ThrowableSet s = mgr.EMPTY.add(sub).add(other);
+        for (int i = 0; i < 2; i++) {
+            assertTrue(s.catchableAs(base));
+            assertTrue(s.catchableAs(sub));
+            assertTrue(s.catchableAs(other));
+        }
+        ThrowableSet o = mgr.EMPTY.add(other);
+        for (int i = 0; i < 2; i++) {
+            assertFalse(o.catchableAs(base));
+            assertFalse(o.catchableAs(sub));
+        }
+        // A Base might be a Sub.
+        assertTrue(mgr.EMPTY.add(AnySubType.v(base)).catchableAs(sub));
+        assertFalse(mgr.EMPTY.add(base).catchableAs(sub));
+    }
+
+    @Test
+    public void testWhichCatchableAs() {
+        ThrowableSet s = mgr.EMPTY.add(AnySubType.v(base)).add(other);
+        ThrowableSet.Pair p = s.whichCatchableAs(sub);
+        assertEquals(set(AnySubType.v(sub)), new HashSet<Object>(p.getCaught().typesIncluded()));
+        assertTrue(p.getCaught().typesExcluded().isEmpty());
+        assertEquals(set(AnySubType.v(base), other), new HashSet<Object>(p.getUncaught().typesIncluded()));
+        assertEquals(set(AnySubType.v(sub)), new HashSet<Object>(p.getUncaught().typesExcluded()));
+        assertEquals(p, s.whichCatchableAs(sub));
+
+        // Whatever isn't caught can't be caught as Sub any longer.
+        assertFalse(p.getUncaught().catchableAs(sub));
+        assertTrue(p.getUncaught().catchableAs(base));
+        assertSame(p.getUncaught(), p.getUncaught().add(other));
+
+        ThrowableSet.Pair q = s.whichCatchableAs(other);
+        assertSame(mgr.EMPTY.add(other), q.getCaught());
+        assertSame(mgr.EMPTY.add(AnySubType.v(base)), q.getUncaught());
+    }
+
+    @Test
+    public void testAddsAreMemoized() {
+        ThrowableSet s = mgr.EMPTY.add(base);
+        ThrowableSet t = mgr.EMPTY.add(other);
+        ThrowableSet u = s.add(t);
+        assertSame(u, s.getMemoizedAdds().get(t));
+        assertSame(u, s.add(t));
+    }
+
+    @Test
+    public void testConcurrentAddsAreInterned() throws Exception {
+        final RefType[] types = {base, sub, other};
+        final int numThreads = 8;
+        final CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        try {
+            List<Future<List<ThrowableSet>>> futures = new ArrayList<>();
+            for (int t = 0; t < numThreads; t++) {
+                final int offset = t;
+                futures.add(executor.submit(new Callable<List<ThrowableSet>>() {
+                    public List<ThrowableSet> call() throws Exception {
+                        start.await();
+                        // Every subset of the types, added in an order
+                        // depending on the thread.
+                        List<ThrowableSet> sets = new ArrayList<>();
+                        for (int mask = 0; mask < 8; mask++) {
+                            ThrowableSet s = mgr.EMPTY;
+                            for (int i = 0; i < 3; i++) {
+                                int k = (i + offset) % 3;
+                                if ((mask & (1 << k)) != 0) {
+                                    s = s.add(types[k]);
+                                }
+                            }
+                            sets.add(s.add(AnySubType.v(types[mask % 3])));
+                            sets.add(s);
+                        }
+                        return sets;
+                    }
+                }));
+            }
+            start.countDown();
+            List<ThrowableSet> first = futures.get(0).get();
+            for (Future<List<ThrowableSet>> f : futures) {
+                List<ThrowableSet> sets = f.get();
+                for (int i = 0; i < sets.size(); i++) {
+                    assertSame(first.get(i), sets.get(i));
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2014 RoboVM AB
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/gpl-2.0.html>.
+ */
+package soot.toolkits.exceptions;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import soot.ArrayType;
+import soot.IntType;
+import soot.Local;
+import soot.SootMethod;
+import soot.Unit;
+import soot.jimple.AssignStmt;
+import soot.jimple.DivExpr;
+import soot.jimple.IntConstant;
+import soot.jimple.Jimple;
+import soot.testfixtures.Fixtures;
+import soot.testfixtures.Loops;
+import soot.testfixtures.Sample;
+
+/**
+ * Tests that the results {@link UnitThrowAnalysis} caches by statement
+ * shape are the same as those of an analysis which doesn't cache.
+ */
+public class UnitThrowAnalysisTest {
+
+    private ThrowableSet.Manager mgr;
+    private UnitThrowAnalysis uncached;
+
+    @Before
+    public void setUp() {
+        Fixtures.reset();
+        Fixtures.load(Sample.class, Loops.class);
+        mgr = ThrowableSet.Manager.v();
+        // Subclasses don't use the cache.
+        uncached = new UnitThrowAnalysis() {};
+    }
+
+    private static List<Unit> units() {
+        List<Unit> result = new ArrayList<Unit>();
+        for (Class<?> c : new Class<?>[] {Sample.class, Loops.class}) {
+            for (SootMethod m : Fixtures.get(c).getMethods()) {
+                if (m.isConcrete()) {
+                    result.addAll(m.retrieveActiveBody().getUnits());
+                }
+            }
+        }
+        return result;
+    }
+
+    @Test
+    public void testSameAsUncachedAnalysis() {
+        List<Unit> units = units();
+        for (int i = 0; i < 2; i++) {
+            for (Unit u : units) {
+                assertSame(u.toString(), uncached.mightThrow(u), UnitThrowAnalysis.v().mightThrow(u));
+            }
+        }
+    }
+
+    @Test
+    public void testOperandsReplacedInPlace() {
+        Local a = Jimple.v().newLocal("a", ArrayType.v(IntType.v(), 1));
+        Local x = Jimple.v().newLocal("x", IntType.v());
+        Local y = Jimple.v().newLocal("y", IntType.v());
+        Local z = Jimple.v().newLocal("z", IntType.v());
+        AssignStmt s = Jimple.v().newAssignStmt(x, y);
+        UnitThrowAnalysis analysis = UnitThrowAnalysis.v();
+        assertSame(mgr.VM_ERRORS, analysis.mightThrow(s));
+
+        s.setRightOp(Jimple.v().newArrayRef(a, z));
+        assertSame(uncached.mightThrow(s), analysis.mightThrow(s));
+        assertTrue(analysis.mightThrow(s).catchableAs(mgr.NULL_POINTER_EXCEPTION));
+        assertTrue(analysis.mightThrow(s).catchableAs(mgr.ARRAY_INDEX_OUT_OF_BOUNDS_EXCEPTION));
+
+        s.setRightOp(Jimple.v().newDivExpr(y, z));
+        assertTrue(analysis.mightThrow(s).catchableAs(mgr.ARITHMETIC_EXCEPTION));
+        ((DivExpr) s.getRightOp()).setOp2(IntConstant.v(2));
+        assertFalse(analysis.mightThrow(s).catchableAs(mgr.ARITHMETIC_EXCEPTION));
+        ((DivExpr) s.getRightOp()).setOp2(IntConstant.v(0));
+        assertTrue(analysis.mightThrow(s).catchableAs(mgr.ARITHMETIC_EXCEPTION));
+
+        s.setRightOp(z);
+        assertSame(mgr.VM_ERRORS, analysis.mightThrow(s));
+    }
+
+    @Test
+    public void testConcurrentAnalysis() throws Exception {
+        final List<Unit> units = units();
+        final List<ThrowableSet> expected = new ArrayList<ThrowableSet>();
+        for (Unit u : units) {
+            expected.add(uncached.mightThrow(u));
+        }
+        final int numThreads = 8;
+        final CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        try {
+            List<Future<List<ThrowableSet>>> futures = new ArrayList<>();
+            for (int t = 0; t < numThreads; t++) {
+                futures.add(executor.submit(new Callable<List<ThrowableSet>>() {
+                    public List<ThrowableSet> call() throws Exception {
+                        start.await();
+                        List<ThrowableSet> results = new ArrayList<>();
+                        for (Unit u : units) {
+                            results.add(UnitThrowAnalysis.v().mightThrow(u));
+                        }
+                        return results;
+                    }
+                }));
+            }
+            start.countDown();
+            for (Future<List<ThrowableSet>> f : futures) {
+                List<ThrowableSet> results = f.get();
+                for (int i = 0; i < results.size(); i++) {
+                    assertSame(units.get(i).toString(), expected.get(i), results.get(i));
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2014 RoboVM AB
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/gpl-2.0.html>.
+ */
+package soot.toolkits.graph;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import soot.Body;
+import soot.SootMethod;
+import soot.Unit;
+import soot.jimple.Jimple;
+import soot.jimple.ReturnStmt;
+import soot.jimple.Stmt;
+import soot.testfixtures.Fixtures;
+import soot.testfixtures.Sample;
+
+/**
+ * Tests {@link DenseUnitGraph} against {@link BriefUnitGraph} and
+ * {@link ExceptionalUnitGraph} using {@link GraphComparer}.
+ */
+public class DenseUnitGraphTest {
+
+    @Before
+    public void setUp() {
+        Fixtures.reset();
+        Fixtures.load(Sample.class);
+    }
+
+    private static List<Body> bodies() {
+        List<Body> result = new ArrayList<Body>();
+        for (SootMethod m : Fixtures.get(Sample.class).getMethods()) {
+            if (m.isConcrete()) {
+                result.add(m.retrieveActiveBody());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks that the index based accessors agree with the
+     * {@link DirectedGraph} methods.
+     */
+    private static void assertIndicesConsistent(DenseUnitGraph g) {
+        int i = 0;
+        for (Unit u : g) {
+            assertEquals(i, g.getIndexOf(u));
+            assertSame(u, g.getUnit(i));
+            List<Unit> succs = g.getSuccsOf(u);
+            assertEquals(succs.size(), g.getSuccCount(i));
+            for (int k = 0; k < succs.size(); k++) {
+                assertSame(succs.get(k), g.getUnit(g.getSucc(i, k)));
+            }
+            List<Unit> preds = g.getPredsOf(u);
+            assertEquals(preds.size(), g.getPredCount(i));
+            for (int k = 0; k < preds.size(); k++) {
+                assertSame(preds.get(k), g.getUnit(g.getPred(i, k)));
+            }
+            i++;
+        }
+        assertEquals(g.size(), i);
+    }
+
+    private static void assertSameGraph(UnitGraph expected, DenseUnitGraph actual) {
+        GraphComparer comparer = new GraphComparer(expected, actual);
+        assertTrue(comparer.diff("expected", "dense"), comparer.equal());
+        assertIndicesConsistent(actual);
+    }
+
+    private static void assertSameOrder(UnitGraph expected, DenseUnitGraph actual) {
+        assertEquals(new ArrayList<Unit>(expected.getHeads()), new ArrayList<Unit>(actual.getHeads()));
+        assertEquals(new ArrayList<Unit>(expected.getTails()), new ArrayList<Unit>(actual.getTails()));
+        for (Unit u : expected) {
+            assertEquals(new ArrayList<Unit>(expected.getSuccsOf(u)), new ArrayList<Unit>(actual.getSuccsOf(u)));
+            assertEquals(new ArrayList<Unit>(expected.getPredsOf(u)), new ArrayList<Unit>(actual.getPredsOf(u)));
+        }
+    }
+
+    @Test
+    public void testSameAsBriefUnitGraph() {
+        for (Body b : bodies()) {
+            BriefUnitGraph brief = new BriefUnitGraph(b);
+            DenseUnitGraph dense = new DenseUnitGraph(b);
+            assertSameGraph(brief, dense);
+            assertSameOrder(brief, dense);
+        }
+    }
+
+    @Test
+    public void testCopyOfExceptionalUnitGraph() {
+        for (Body b : bodies()) {
+            ExceptionalUnitGraph exceptional = new ExceptionalUnitGraph(b);
+            DenseUnitGraph dense = new DenseUnitGraph(exceptional);
+            assertSameGraph(exceptional, dense);
+            assertSameOrder(exceptional, dense);
+        }
+    }
+
+    @Test
+    public void testCopyOfBriefUnitGraph() {
+        for (Body b : bodies()) {
+            BriefUnitGraph brief = new BriefUnitGraph(b);
+            DenseUnitGraph dense = new DenseUnitGraph(brief);
+            assertSameGraph(brief, dense);
+            assertSameOrder(brief, dense);
+        }
+    }
+
+    @Test
+    public void testUnreachableCode() {
+        Body b = Fixtures.get(Sample.class).getMethodByName("describe").retrieveActiveBody();
+        Stmt ret = null;
+        for (Unit u : b.getUnits()) {
+            if (u instanceof ReturnStmt) {
+                ret = (Stmt) u;
+                break;
+            }
+        }
+        // A loop nothing jumps into and a nop nothing falls through to.
+        Stmt nop = Jimple.v().newNopStmt();
+        Stmt loop = Jimple.v().newGotoStmt(nop);
+        b.getUnits().insertAfter(nop, ret);
+        b.getUnits().insertAfter(loop, nop);
+        Stmt dead = Jimple.v().newNopStmt();
+        b.getUnits().insertAfter(dead, loop);
+
+        BriefUnitGraph brief = new BriefUnitGraph(b);
+        DenseUnitGraph dense = new DenseUnitGraph(b);
+        assertSameGraph(brief, dense);
+        assertSameOrder(brief, dense);
+        assertTrue(dense.getHeads().contains(dead));
+        assertTrue(dense.getPredsOf(nop).contains(loop));
+
+        ExceptionalUnitGraph exceptional = new ExceptionalUnitGraph(b);
+        DenseUnitGraph copy = new DenseUnitGraph(exceptional);
+        assertSameGraph(exceptional, copy);
+        assertSameOrder(exceptional, copy);
+    }
+}
@@ -257,6 +257,7 @@ public class GraphComparer {
 		    trapUnitGraph = (TrapUnitGraph) g;
 		} else if (g.getClass().getName().endsWith(".TrapUnitGraph")) {
 		} else if (g instanceof BriefUnitGraph) {
+		} else if (g instanceof DenseUnitGraph) {
 		} else if (g.getClass().getName().endsWith(".BriefUnitGraph")) {
 		} else if (g instanceof ExceptionalBlockGraph) {
 		} else if (g instanceof ClassicCompleteBlockGraph) {
@@ -726,10 +727,7 @@ public class GraphComparer {
 	protected boolean trappedReturnOrThrow(Unit node) {
 	    if (! ((node instanceof soot.jimple.ReturnStmt) ||
 		   (node instanceof soot.jimple.ReturnVoidStmt) ||
-		   (node instanceof soot.baf.ReturnInst) ||
-		   (node instanceof soot.baf.ReturnVoidInst) ||
-		   (node instanceof soot.jimple.ThrowStmt) ||
-		   (node instanceof soot.baf.ThrowInst))) {
+		   (node instanceof soot.jimple.ThrowStmt))) {
 		return false;
 	    }
 	    List succsUnaccountedFor = new ArrayList(cOrT.getSuccsOf(node));
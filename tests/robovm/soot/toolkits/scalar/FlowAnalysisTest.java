@@ -0,0 +1,182 @@
+/*
+ * Copyright (C) 2014 RoboVM AB
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/gpl-2.0.html>.
+ */
+package soot.toolkits.scalar;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import soot.Body;
+import soot.Local;
+import soot.Unit;
+import soot.ValueBox;
+import soot.testfixtures.Fixtures;
+import soot.testfixtures.Loops;
+import soot.toolkits.graph.BriefUnitGraph;
+import soot.toolkits.graph.ExceptionalUnitGraph;
+import soot.toolkits.graph.UnitGraph;
+
+/**
+ * Tests the fixpoints {@link ForwardFlowAnalysis} and
+ * {@link BackwardFlowAnalysis} compute for {@link SmartLocalDefs} and
+ * {@link SimpleLiveLocals} on looped bodies. The expected results were
+ * recorded with the solvers from before they numbered the graph's nodes.
+ */
+public class FlowAnalysisTest {
+
+    private static final String NESTED =
+            "0 []\n" +
+            "1 [r0]\n" +
+            "2 [i0, r0]\n" +
+            "3 [i0, i1, r0]\n" +
+            "4 [i0, i1, i2, r0]\n" +
+            "5 [i0, i1, i2, i3, r0] i3=[4, 22] i0=[1]\n" +
+            "6 [i0, i1, i2, i3, r0] i3=[4, 22]\n" +
+            "7 [i0, i1, i2, i3, i4, r0] r0=[0]\n" +
+            "8 [$i5, i0, i1, i2, i3, i4, r0] i4=[6, 18] $i5=[7]\n" +
+            "9 [i0, i1, i2, i3, i4, r0] r0=[0] i4=[6, 18]\n" +
+            "10 [$i5, i0, i1, i2, i3, i4, r0] $i5=[9]\n" +
+            "11 [i0, i1, i2, i3, r0]\n" +
+            "12 [i0, i1, i2, i3, i4, r0] r0=[0] i4=[6, 18]\n" +
+            "13 [$i5, i0, i1, i2, i3, i4, r0] $i5=[12]\n" +
+            "14 [i1, i2]\n" +
+            "15 [i0, i1, i3, i4, r0] r0=[0] i4=[6, 18]\n" +
+            "16 [$i5, i0, i1, i3, i4, r0] i1=[2, 16, 20] $i5=[15]\n" +
+            "17 [i0, i1, i3, i4, r0] i4=[6, 18]\n" +
+            "18 [i0, i1, i2, i3, i4, r0] i4=[6, 18]\n" +
+            "19 [i0, i1, i2, i3, i4, r0]\n" +
+            "20 [i0, i1, i2, i3, r0] i1=[2, 16, 20]\n" +
+            "21 [i0, i1, i2, i3, r0] i1=[20]\n" +
+            "22 [i0, i1, i2, i3, r0] i3=[4, 22]\n" +
+            "23 [i0, i1, i2, i3, r0]\n" +
+            "24 [i1, i2] i1=[2, 16, 20] i2=[3, 17]\n" +
+            "25 [$i5] $i5=[24]\n";
+
+    private static final String RETRY_BRIEF =
+            "0 []\n" +
+            "1 [r0]\n" +
+            "2 [i0, r0]\n" +
+            "3 [i0, r0]\n" +
+            "4 [i0, i2, r0] r0=[0]\n" +
+            "5 [$i4, i0, i2, r0] i2=[3, 17] $i4=[4]\n" +
+            "6 [i0, i2, r0]\n" +
+            "7 [i0, i2, r0] r0=[0] i2=[3, 17]\n" +
+            "8 [$r2, i0, i2, r0] $r2=[7]\n" +
+            "9 [i0, i2, i3, r0]\n" +
+            "10 [i0, i1, i2, i3, r0]\n" +
+            "11 [$r3, i0, i1, i2, i3, r0] $r3=[10]\n" +
+            "12 [i0, i1, i2, i3, r0] i1=[]\n" +
+            "13 [i0, i1, i2, i3, r0] i1=[12]\n" +
+            "14 [i1] i1=[12]\n" +
+            "15 [$i4] $i4=[14]\n" +
+            "16 [i0, i2, i3, r0] i0=[1, 16] i3=[8]\n" +
+            "17 [i0, i2, r0] i2=[3, 17]\n" +
+            "18 [i0, i2, r0]\n" +
+            "19 [i0] i0=[1, 16]\n";
+
+    private static final String RETRY_EXCEPTIONAL =
+            "0 []\n" +
+            "1 [r0]\n" +
+            "2 [i0, r0]\n" +
+            "3 [i0, i1, r0]\n" +
+            "4 [i0, i1, i2, r0] r0=[0]\n" +
+            "5 [$i4, i0, i1, i2, r0] i2=[3, 17] $i4=[4]\n" +
+            "6 [i0, i1, i2, r0]\n" +
+            "7 [i0, i1, i2, i3, r0] r0=[0] i2=[3, 17]\n" +
+            "8 [$r2, i0, i1, i2, r0] $r2=[7]\n" +
+            "9 [i0, i1, i2, i3, r0]\n" +
+            "10 [i0, i1, i2, i3, r0]\n" +
+            "11 [$r3, i0, i1, i2, i3, r0] $r3=[10]\n" +
+            "12 [i0, i1, i2, i3, r0] i1=[2, 12]\n" +
+            "13 [i0, i1, i2, i3, r0] i1=[12]\n" +
+            "14 [i1] i1=[12]\n" +
+            "15 [$i4] $i4=[14]\n" +
+            "16 [i0, i1, i2, i3, r0] i0=[1, 16] i3=[6, 8]\n" +
+            "17 [i0, i1, i2, r0] i2=[3, 17]\n" +
+            "18 [i0, i1, i2, r0]\n" +
+            "19 [i0] i0=[1, 16]\n";
+
+    @Before
+    public void setUp() {
+        Fixtures.reset();
+        Fixtures.load(Loops.class);
+    }
+
+    private static String names(List<?> locals) {
+        List<String> names = new ArrayList<String>();
+        for (Object l : locals) {
+            names.add(((Local) l).getName());
+        }
+        Collections.sort(names);
+        return names.toString();
+    }
+
+    /**
+     * Prints, for every unit of the graph, its index, the locals live before
+     * it and, for every local it uses, the indices of the definitions
+     * reaching it.
+     */
+    private static String fixpoints(UnitGraph g) {
+        LiveLocals live = new SimpleLiveLocals(g);
+        LocalDefs defs = new SmartLocalDefs(g, live);
+        Map<Unit, Integer> index = new HashMap<Unit, Integer>();
+        for (Unit u : g.getBody().getUnits()) {
+            index.put(u, index.size());
+        }
+        StringBuilder sb = new StringBuilder();
+        for (Unit u : g.getBody().getUnits()) {
+            sb.append(index.get(u)).append(' ').append(names(live.getLiveLocalsBefore(u)));
+            for (ValueBox vb : u.getUseBoxes()) {
+                if (vb.getValue() instanceof Local) {
+                    List<Integer> reaching = new ArrayList<Integer>();
+                    for (Unit d : defs.getDefsOfAt((Local) vb.getValue(), u)) {
+                        reaching.add(index.get(d));
+                    }
+                    Collections.sort(reaching);
+                    sb.append(' ').append(((Local) vb.getValue()).getName()).append('=').append(reaching);
+                }
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static Body body(String name) {
+        return Fixtures.get(Loops.class).getMethodByName(name).retrieveActiveBody();
+    }
+
+    @Test
+    public void testNestedLoops() {
+        assertEquals(NESTED, fixpoints(new BriefUnitGraph(body("nested"))));
+        assertEquals(NESTED, fixpoints(new ExceptionalUnitGraph(body("nested"))));
+    }
+
+    @Test
+    public void testTrapInLoop() {
+        // The handler can't be reached without exceptional edges, so i1
+        // reaches it undefined.
+        assertEquals(RETRY_BRIEF, fixpoints(new BriefUnitGraph(body("retry"))));
+        assertEquals(RETRY_EXCEPTIONAL, fixpoints(new ExceptionalUnitGraph(body("retry"))));
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2014 RoboVM AB
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/gpl-2.0.html>.
+ */
+package soot.util;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link WeakInterner}.
+ */
+public class WeakInternerTest {
+
+    private static final class Holder {
+        final String key;
+
+        Holder(String key) {
+            this.key = key;
+        }
+    }
+
+    @Test
+    public void testInternReturnsCanonicalInstance() {
+        WeakInterner<String, Holder> interner = new WeakInterner<String, Holder>(Holder::new);
+        Holder a = interner.intern(new String("a"));
+        assertSame(a, interner.intern(new String("a")));
+        assertSame(a, interner.intern("a"));
+        assertNotSame(a, interner.intern("b"));
+        assertEquals("a", a.key);
+        assertEquals(2, interner.size());
+    }
+
+    @Test
+    public void testUnusedInstancesAreCollected() throws Exception {
+        WeakInterner<String, Holder> interner = new WeakInterner<String, Holder>(Holder::new);
+        Holder kept = interner.intern(new String("kept"));
+        for (int i = 0; i < 1000; i++) {
+            interner.intern("dropped" + i);
+        }
+        for (int i = 0; i < 100 && interner.size() > 1; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertEquals(1, interner.size());
+        assertSame(kept, interner.intern("kept"));
+
+        // A collected instance is simply created again.
+        Holder again = interner.intern("dropped0");
+        assertEquals("dropped0", again.key);
+        assertSame(again, interner.intern("dropped0"));
+    }
+
+    @Test
+    public void testConcurrentIntern() throws Exception {
+        final WeakInterner<String, Holder> interner = new WeakInterner<String, Holder>(Holder::new);
+        final int numThreads = 8;
+        final int numKeys = 500;
+        final CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        try {
+            List<Future<List<Holder>>> futures = new ArrayList<>();
+            for (int t = 0; t < numThreads; t++) {
+                futures.add(executor.submit(new Callable<List<Holder>>() {
+                    public List<Holder> call() throws Exception {
+                        start.await();
+                        List<Holder> holders = new ArrayList<>();
+                        for (int i = 0; i < numKeys; i++) {
+                            holders.add(interner.intern("key" + i));
+                        }
+                        return holders;
+                    }
+                }));
+            }
+            start.countDown();
+            List<Holder> first = futures.get(0).get();
+            for (Future<List<Holder>> f : futures) {
+                List<Holder> holders = f.get();
+                for (int i = 0; i < numKeys; i++) {
+                    assertSame(first.get(i), holders.get(i));
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
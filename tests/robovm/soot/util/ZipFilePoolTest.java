@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2014 RoboVM AB
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/gpl-2.0.html>.
+ */
+package soot.util;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests {@link ZipFilePool}.
+ */
+public class ZipFilePoolTest {
+
+    private File dir;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = File.createTempFile("zipfilepool", "");
+        dir.delete();
+        dir.mkdirs();
+    }
+
+    @After
+    public void tearDown() {
+        for (File f : dir.listFiles()) {
+            f.delete();
+        }
+        dir.delete();
+    }
+
+    private String zip(String name, String... entries) throws IOException {
+        File f = new File(dir, name);
+        ZipOutputStream out = new ZipOutputStream(new FileOutputStream(f));
+        try {
+            for (String entry : entries) {
+                out.putNextEntry(new ZipEntry(entry));
+                out.write((name + ":" + entry).getBytes("UTF-8"));
+                out.closeEntry();
+            }
+        } finally {
+            out.close();
+        }
+        return f.getAbsolutePath();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMaxOpenMustBePositive() {
+        new ZipFilePool(0);
+    }
+
+    @Test
+    public void testReadEntries() throws IOException {
+        String a = zip("a.jar", "x/A.class", "x/B.class");
+        ZipFilePool pool = new ZipFilePool(4);
+        assertEquals(Arrays.asList("x/A.class", "x/B.class"), pool.getEntryNames(a));
+        assertNull(pool.getEntry(a, "x/C.class"));
+        ZipEntry entry = pool.getEntry(a, "x/B.class");
+        assertNotNull(entry);
+        assertEquals("a.jar:x/B.class", new String(pool.readEntry(a, entry), "UTF-8"));
+    }
+
+    @Test
+    public void testOpenFilesAreReused() throws IOException {
+        String a = zip("a.jar", "x/A.class");
+        ZipFilePool pool = new ZipFilePool(4);
+        pool.getEntry(a, "x/A.class");
+        pool.getEntry(a, "x/A.class");
+        pool.getEntryNames(a);
+        assertEquals(1, pool.getMisses());
+        assertEquals(2, pool.getHits());
+        assertEquals(1, pool.getOpenCount());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedFileIsClosed() throws IOException {
+        String a = zip("a.jar", "x/A.class");
+        String b = zip("b.jar", "x/A.class");
+        String c = zip("c.jar", "x/A.class");
+        ZipFilePool pool = new ZipFilePool(2);
+        pool.getEntry(a, "x/A.class");
+        pool.getEntry(b, "x/A.class");
+        pool.getEntry(a, "x/A.class");
+        ZipEntry entry = pool.getEntry(c, "x/A.class");
+        assertEquals(2, pool.getOpenCount());
+        assertEquals(3, pool.getMisses());
+        assertEquals(1, pool.getHits());
+
+        // b was closed, a and c are still open
+        pool.getEntry(a, "x/A.class");
+        assertEquals(3, pool.getMisses());
+        assertEquals("c.jar:x/A.class", new String(pool.readEntry(c, entry), "UTF-8"));
+        assertEquals(3, pool.getMisses());
+        pool.getEntry(b, "x/A.class");
+        assertEquals(4, pool.getMisses());
+        assertEquals(2, pool.getOpenCount());
+    }
+
+    @Test
+    public void testCloseAll() throws IOException {
+        String a = zip("a.jar", "x/A.class");
+        String b = zip("b.jar", "x/A.class");
+        ZipFilePool pool = new ZipFilePool(4);
+        pool.getEntry(a, "x/A.class");
+        pool.getEntry(b, "x/A.class");
+        assertEquals(2, pool.getOpenCount());
+        pool.closeAll();
+        assertEquals(0, pool.getOpenCount());
+
+        // The pool can still be used and reopens the file
+        ZipEntry entry = pool.getEntry(a, "x/A.class");
+        assertEquals("a.jar:x/A.class", new String(pool.readEntry(a, entry), "UTF-8"));
+        assertEquals(3, pool.getMisses());
+        assertEquals(1, pool.getOpenCount());
+    }
+}